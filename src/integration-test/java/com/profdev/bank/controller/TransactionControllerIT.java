@@ -1,15 +1,22 @@
 package com.profdev.bank.controller;
 
 import com.profdev.bank.model.Transaction;
+import com.profdev.bank.service.query.BatchQuery;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.VendorTotal;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
 @ActiveProfiles("integration-test")
+@AutoConfigureObservability(tracing = false)
 @Slf4j
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class TransactionControllerIT {
@@ -26,6 +34,23 @@ public class TransactionControllerIT {
 
     private static final String BASE_URL = "http://localhost:%s/banking-app/transaction";
 
+    private static final String READINESS_URL = "http://localhost:%s/banking-app/actuator/health/readiness";
+
+    private static final Duration READINESS_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The transaction data is loaded in the background after start-up, so wait for readiness before querying.
+     */
+    @BeforeEach
+    void awaitReadiness() throws InterruptedException {
+        RestClient restClient = RestClient.create(String.format(READINESS_URL, port));
+        long deadline = System.nanoTime() + READINESS_TIMEOUT.toNanos();
+        while (!restClient.get().exchange((request, response) -> response.getStatusCode().is2xxSuccessful())) {
+            assertThat(System.nanoTime()).as("application ready within %s", READINESS_TIMEOUT).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
     @Nested
     class AllTransactions {
 
@@ -59,7 +84,158 @@ public class TransactionControllerIT {
         }
     }
 
-    // TODO add nested test classes for controller endpoints GetForCategory, AverageSpendPerMonthForCategory,
+    @Nested
+    class ForCategory {
+
+        private static final String PATH = "/category/{category}";
+
+        @Test
+        void getForCategory_acceptingNdjson_shouldStreamCategoryTransactionsNewestFirst() {
+            // Given
+            RestClient restClient = RestClient.builder()
+                    .baseUrl(getBaseUrl())
+                    .build();
+
+            // When
+            String body = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(PATH)
+                            .queryParam("sort", "DESC")
+                            .build("Groceries"))
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .retrieve()
+                    .body(String.class);
+
+            // Then
+            assertThat(body).isEqualTo("""
+                    {"date":"02/Nov/2020","vendor":"Tesco","type":"card","category":"Groceries","amount":"£25.31"}
+                    {"date":"01/Nov/2020","vendor":"Morrisons","type":"card","category":"Groceries","amount":"£10.40"}
+                    """);
+        }
+    }
+
+    @Nested
+    class DateRange {
+
+        private static final String PATH = "/range";
+
+        @Test
+        void getForDateRange_shouldReturnTransactionsInRangeInDateOrder() {
+            // Given
+            RestClient restClient = RestClient.builder()
+                    .baseUrl(getBaseUrl())
+                    .build();
+
+            // When
+            List<Transaction> transactions = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(PATH)
+                            .queryParam("from", "2020-11-02")
+                            .queryParam("to", "2020-11-05")
+                            .build())
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {
+                    });
+
+            // Then
+            assertThat(transactions)
+                    .extracting("date", "vendor")
+                    .containsExactly(
+                            tuple(LocalDate.of(2020, 11, 2), "Tesco"),
+                            tuple(LocalDate.of(2020, 11, 5), "Shell Garage"));
+        }
+    }
+
+    @Nested
+    class TopVendors {
+
+        private static final String PATH = "/top-vendors/category/Groceries";
+
+        @Test
+        void getTopVendorsForCategory_shouldReturnVendorsRankedBySpend() {
+            // Given
+            RestClient restClient = RestClient.builder()
+                    .baseUrl(getBaseUrl())
+                    .build();
+
+            // When
+            List<VendorTotal> vendors = restClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(PATH)
+                            .queryParam("year", 2020)
+                            .build())
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {
+                    });
+
+            // Then
+            assertThat(vendors)
+                    .extracting("vendor", "total", "count")
+                    .containsExactly(
+                            tuple("Tesco", "£25.31", 1L),
+                            tuple("Morrisons", "£10.40", 1L));
+        }
+    }
+
+    @Nested
+    class Batch {
+
+        private static final String PATH = "/batch";
+
+        @Test
+        void getBatch_shouldReturnResultsInRequestOrder() {
+            // Given
+            RestClient restClient = RestClient.builder()
+                    .baseUrl(getBaseUrl())
+                    .build();
+            List<BatchQuery> queries = List.of(
+                    BatchQuery.builder().type(BatchQuery.Type.HIGHEST_SPEND).category("Groceries").year(2020).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.LOWEST_SPEND).category("Groceries").year(2020).build());
+
+            // When
+            List<BatchResult> results = restClient.post()
+                    .uri(PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(queries)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {
+                    });
+
+            // Then
+            assertThat(results)
+                    .extracting(BatchResult::query, BatchResult::result)
+                    .containsExactly(
+                            tuple(queries.get(0), "£25.31"),
+                            tuple(queries.get(1), "£10.40"));
+        }
+    }
+
+    @Nested
+    class Metrics {
+
+        private static final String PROMETHEUS_URL = "http://localhost:%s/banking-app/actuator/prometheus";
+
+        @Test
+        void prometheus_afterQuery_shouldExposeQueryAndIngestMetrics() {
+            // Given
+            RestClient.create(getBaseUrl()).get().uri("/total/category").retrieve().toBodilessEntity();
+
+            // When
+            String metrics = RestClient.create(String.format(PROMETHEUS_URL, port)).get()
+                    .retrieve()
+                    .body(String.class);
+
+            // Then
+            assertThat(metrics)
+                    .contains("banking_query_seconds_bucket{query=\"getTotalPerCategory\"")
+                    .contains("http_server_requests_seconds_bucket{")
+                    .contains("banking_ingest_phase_seconds_count{phase=\"bind\"}")
+                    .contains("banking_ingest_rows_total 4.0")
+                    .contains("banking_ingest_rows_rejected_total 0.0");
+        }
+    }
+
+    // TODO add nested test classes for controller endpoints AverageSpendPerMonthForCategory,
     //  LowestSpendForCategoryAndYearTests and LowestSpendForCategoryAndYearTests
 
     private String getBaseUrl() {
@@ -0,0 +1,114 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.AmountKernel;
+import com.profdev.bank.model.store.AmountSummary;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.model.store.DateIndex;
+import com.profdev.bank.model.store.ScalarAmountKernel;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.VectorAmountKernel;
+import com.profdev.bank.service.TransactionDatasetHolder;
+import com.profdev.bank.utils.EpochDays;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar against SIMD summaries of the amounts over 2021-2023, the span of the yearly exports, and over one month, of
+ * every category and of one category, each both by a pass over the whole columns and by reading only the rows in the
+ * range through the dataset's date and category indexes. Needs {@code --add-modules jdk.incubator.vector}, which the
+ * benchmark profile passes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AmountKernelBenchmark {
+
+    private static final int FROM_DAY = EpochDays.of(2021, 1, 1);
+    private static final int TO_DAY = EpochDays.of(2023, 12, 31);
+    private static final int MONTH_FROM_DAY = EpochDays.of(2022, 6, 1);
+    private static final int MONTH_TO_DAY = EpochDays.of(2022, 6, 30);
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"scalar", "vector"})
+    private String kernel;
+
+    private AmountKernel amountKernel;
+
+    private ColumnarTransactionStore store;
+
+    private DateIndex dateIndex;
+
+    private int categoryId;
+
+    private int[] categoryRows;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties =
+                BenchmarkData.appProperties(CsvDataLoader.FILE_PREFIX + BenchmarkData.csvFile(rows));
+        TransactionMapper mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        TransactionDataset dataset =
+                new TransactionDatasetHolder(new CsvDataLoader(appProperties), mapper, BenchmarkData.NO_WATCH).dataset();
+        store = dataset.store();
+        dateIndex = dataset.dateIndex();
+        categoryId = store.categories().idOf(BenchmarkData.CATEGORIES.getFirst());
+        categoryRows = dataset.categoryIndex().rows(categoryId);
+        amountKernel = kernel.equals("vector") ? new VectorAmountKernel() : new ScalarAmountKernel();
+    }
+
+    @Benchmark
+    public AmountSummary summarize() {
+        return amountKernel.summarize(store, FROM_DAY, TO_DAY);
+    }
+
+    @Benchmark
+    public AmountSummary summarizeCategory() {
+        return amountKernel.summarize(store, categoryId, FROM_DAY, TO_DAY);
+    }
+
+    @Benchmark
+    public AmountSummary summarizeIndexed() {
+        return summarizeIndexed(FROM_DAY, TO_DAY);
+    }
+
+    @Benchmark
+    public AmountSummary summarizeCategoryIndexed() {
+        return amountKernel.summarize(store, categoryRows, DateIndex.firstOnOrAfter(store, categoryRows, FROM_DAY),
+                DateIndex.firstOnOrAfter(store, categoryRows, TO_DAY + 1));
+    }
+
+    @Benchmark
+    public AmountSummary summarizeMonth() {
+        return amountKernel.summarize(store, MONTH_FROM_DAY, MONTH_TO_DAY);
+    }
+
+    @Benchmark
+    public AmountSummary summarizeMonthIndexed() {
+        return summarizeIndexed(MONTH_FROM_DAY, MONTH_TO_DAY);
+    }
+
+    private AmountSummary summarizeIndexed(int fromDay, int toDay) {
+        return amountKernel.summarize(store, dateIndex.rows(), dateIndex.firstOnOrAfter(fromDay),
+                dateIndex.firstOnOrAfter(toDay + 1));
+    }
+}
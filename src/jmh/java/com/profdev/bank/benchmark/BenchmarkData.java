@@ -0,0 +1,123 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.WatchProperties;
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.load.CsvDataLoader;
+import lombok.experimental.UtilityClass;
+import org.instancio.Instancio;
+import org.instancio.Random;
+import org.instancio.generator.Generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.instancio.Select.all;
+import static org.instancio.Select.field;
+
+/**
+ * Synthetic transaction data shaped like the bundled CSV export, generated with Instancio from a fixed seed.
+ */
+@UtilityClass
+public class BenchmarkData {
+
+    public static final List<String> CATEGORIES = List.of("Jewelry", "Industrial", "Tools", "Home", "Health", "Toys",
+            "Games", "Shoes", "Kids", "Movies", "Sports", "Grocery", "Automotive", "Computers", "Beauty", "Baby",
+            "Music", "Clothing", "Outdoors", "Garden", "Books", "Electronics");
+
+    public static final List<String> TYPES = List.of("card", "direct debit", "internet");
+
+    public static final WatchProperties NO_WATCH = new WatchProperties(false, Duration.ofSeconds(1));
+
+    public static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+    public static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+    private static final long SEED = 20201101L;
+    private static final int VENDOR_COUNT = 5_000;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy", Locale.UK);
+    private static final Path DATA_DIR = Path.of(System.getProperty("java.io.tmpdir"), "banking-app-benchmark");
+
+    private static final List<String> VENDORS = Instancio.ofList(String.class)
+            .size(VENDOR_COUNT)
+            .supply(all(String.class), (Generator<String>) BenchmarkData::vendor)
+            .withSeed(SEED)
+            .create();
+
+    public static AppProperties appProperties(String dataFile) {
+        return new AppProperties(CsvDataLoader.BEAN_QUALIFIER, dataFile, "en_GB", null);
+    }
+
+    public static Stream<DataRecord> records(long rows) {
+        return Instancio.of(DataRecord.class)
+                .generate(field(DataRecord::getTransactionDate), gen -> gen.temporal().localDate().range(FIRST_DATE, LAST_DATE))
+                .generate(field(DataRecord::getVendor), gen -> gen.oneOf(VENDORS))
+                .generate(field(DataRecord::getType), gen -> gen.oneOf(TYPES))
+                .generate(field(DataRecord::getCategory), gen -> gen.oneOf(CATEGORIES))
+                .supply(field(DataRecord::getAmount), (Generator<String>) random -> amount(random.longRange(1, 250_000)))
+                .withSeed(SEED)
+                .stream()
+                .limit(rows);
+    }
+
+    /**
+     * A CSV export with the given number of rows, written on first use and reused by later forks and runs.
+     */
+    public static Path csvFile(long rows) {
+        Path file = DATA_DIR.resolve("transactions-%d.csv".formatted(rows));
+        if (Files.exists(file)) {
+            return file;
+        }
+        try {
+            Files.createDirectories(DATA_DIR);
+            Path partial = Files.createTempFile(DATA_DIR, "transactions-", ".csv.partial");
+            try (BufferedWriter writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                writer.write("Transaction Date,Vendor,Type,Amount,Category\n");
+                for (DataRecord record : (Iterable<DataRecord>) records(rows)::iterator) {
+                    writer.write(csvLine(record));
+                }
+            }
+            return Files.move(partial, file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public static String csvLine(DataRecord record) {
+        return String.join(",",
+                DATE_FORMAT.format(record.getTransactionDate()),
+                quote(record.getVendor()),
+                record.getType(),
+                quote(record.getAmount()),
+                record.getCategory()) + "\n";
+    }
+
+    private static String quote(String value) {
+        return value.indexOf(',') >= 0 || value.indexOf('"') >= 0 ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static String amount(long pence) {
+        return pence % 100 == 0
+                ? String.format(Locale.UK, "£%,d", pence / 100)
+                : String.format(Locale.UK, "£%,d.%02d", pence / 100, pence % 100);
+    }
+
+    private static String vendor(Random random) {
+        String name = Character.toUpperCase(random.lowerCaseCharacter()) + random.lowerCaseAlphabetic(random.intRange(4, 10));
+        return switch (random.intRange(0, 2)) {
+            case 0 -> name;
+            case 1 -> name + "-" + Character.toUpperCase(random.lowerCaseCharacter()) + random.lowerCaseAlphabetic(6);
+            default -> name + ", " + Character.toUpperCase(random.lowerCaseCharacter()) + random.lowerCaseAlphabetic(5)
+                    + " and " + Character.toUpperCase(random.lowerCaseCharacter()) + random.lowerCaseAlphabetic(7);
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.profdev.bank.benchmark;
+
+import com.opencsv.CSVReader;
+import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import com.opencsv.exceptions.CsvException;
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.config.SnapshotProperties;
+import com.profdev.bank.data.load.MappedCsvDataLoader;
+import com.profdev.bank.data.load.SnapshotCsvDataLoader;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarStoreSnapshot;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.service.AmountFormatter;
+import com.profdev.bank.service.TransactionDatasetHolder;
+import com.profdev.bank.service.TransactionPartitions;
+import com.profdev.bank.service.TransactionServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class CsvDataLoaderBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    private AppProperties appProperties;
+
+    private TransactionMapper mapper;
+
+    private AmountFormatter af;
+
+    private SnapshotCsvDataLoader snapshotLoader;
+
+    private long sourceChecksum;
+
+    @Setup
+    public void setUp() throws IOException {
+        appProperties = BenchmarkData.appProperties(CsvDataLoader.FILE_PREFIX + BenchmarkData.csvFile(rows));
+        mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        af = new AmountFormatter(appProperties);
+        snapshotLoader = new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null));
+        sourceChecksum = snapshotLoader.sourceChecksum();
+        if (ColumnarStoreSnapshot.read(snapshotLoader.snapshotFile(), sourceChecksum, mapper.currency())
+                .isEmpty()) {
+            new TransactionDatasetHolder(snapshotLoader, mapper, BenchmarkData.NO_WATCH).dataset();
+        }
+    }
+
+    @Benchmark
+    public void streamData(Blackhole blackhole) {
+        new CsvDataLoader(appProperties).streamData(blackhole::consume);
+    }
+
+    /**
+     * The header-name bean binding {@link CsvDataLoader} used before its tokenizer, kept as a baseline.
+     */
+    @Benchmark
+    public void openCsvStreamData(Blackhole blackhole) throws IOException, CsvException {
+        try (CSVReader csvReader = new CSVReader(Files.newBufferedReader(BenchmarkData.csvFile(rows)))) {
+            HeaderColumnNameMappingStrategy<OpenCsvDataRecord> mappingStrategy =
+                    new HeaderColumnNameMappingStrategy<>();
+            mappingStrategy.setType(OpenCsvDataRecord.class);
+            mappingStrategy.captureHeader(csvReader);
+            String[] fields;
+            while ((fields = csvReader.readNext()) != null) {
+                blackhole.consume(mappingStrategy.populateNewBean(fields));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mappedStreamData(Blackhole blackhole) {
+        new MappedCsvDataLoader(appProperties).streamData(blackhole::consume);
+    }
+
+    /**
+     * Rows tokenized straight into the store's columns, against {@link #streamData} and {@link #mappedStreamData}
+     * which still leave the records to be mapped.
+     */
+    @Benchmark
+    public Object readInto() {
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(mapper.currency());
+        new CsvDataLoader(appProperties).readInto(builder, mapper.amountParser());
+        return builder.build();
+    }
+
+    @Benchmark
+    public Object mappedReadInto() {
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(mapper.currency());
+        new MappedCsvDataLoader(appProperties).readInto(builder, mapper.amountParser());
+        return builder.build();
+    }
+
+    @Benchmark
+    public Object readSnapshot() throws IOException {
+        return ColumnarStoreSnapshot.read(snapshotLoader.snapshotFile(), sourceChecksum, mapper.currency())
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public long sourceChecksum() {
+        return snapshotLoader.sourceChecksum();
+    }
+
+    @Benchmark
+    public Object loadService() {
+        TransactionDatasetHolder holder =
+                new TransactionDatasetHolder(new CsvDataLoader(appProperties), mapper, BenchmarkData.NO_WATCH);
+        return new TransactionServiceImpl(new TransactionPartitions(Map.of("account", holder)), af)
+                .getTotalPerCategory();
+    }
+}
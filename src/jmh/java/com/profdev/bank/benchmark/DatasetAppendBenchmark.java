@@ -0,0 +1,84 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.service.TransactionDatasetHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing group commits of 16 transactions each onto a dataset loaded with {@code rows} rows, as the holder does
+ * once the commit is durable: the rows are added to the store's builder and the indexes extended by them. Without
+ * the fsync, so the throughput is that of the publish alone, and it should stay flat as the loaded dataset grows, the
+ * periodic compaction of the index deltas included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DatasetAppendBenchmark {
+
+    private static final int COMMIT_ROWS = 16;
+
+    private static final int DISTINCT_TRANSACTIONS = 4_096;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private TransactionDataset loaded;
+
+    private List<Transaction> transactions;
+
+    private ColumnarTransactionStore.Builder builder;
+
+    private TransactionDataset dataset;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties =
+                BenchmarkData.appProperties(CsvDataLoader.FILE_PREFIX + BenchmarkData.csvFile(rows));
+        TransactionMapper mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        loaded = new TransactionDatasetHolder(new CsvDataLoader(appProperties), mapper, BenchmarkData.NO_WATCH)
+                .dataset();
+        transactions = BenchmarkData.records(DISTINCT_TRANSACTIONS).map(mapper::mapModelFromData).toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void reload() {
+        builder = loaded.store().toBuilder();
+        dataset = loaded;
+    }
+
+    @Benchmark
+    public TransactionDataset publish() {
+        int fromRow = builder.size();
+        for (int i = 0; i < COMMIT_ROWS; i++) {
+            builder.add(transactions.get(next));
+            next = (next + 1) % DISTINCT_TRANSACTIONS;
+        }
+        dataset = dataset.append(builder.snapshot(), fromRow);
+        return dataset;
+    }
+}
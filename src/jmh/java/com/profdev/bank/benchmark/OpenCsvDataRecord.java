@@ -0,0 +1,30 @@
+package com.profdev.bank.benchmark;
+
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvCustomBindByName;
+import com.profdev.bank.data.DataRecord;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a {@link DataRecord} as annotated for opencsv's header-name bean binding.
+ */
+@Data
+public class OpenCsvDataRecord {
+
+    @CsvCustomBindByName(column = DataRecord.TRANSACTION_DATE_COLUMN, converter = TransactionDateConverter.class)
+    private LocalDate transactionDate;
+
+    @CsvBindByName(column = DataRecord.VENDOR_COLUMN)
+    private String vendor;
+
+    @CsvBindByName(column = DataRecord.TYPE_COLUMN)
+    private String type;
+
+    @CsvBindByName(column = DataRecord.AMOUNT_COLUMN)
+    private String amount;
+
+    @CsvBindByName(column = DataRecord.CATEGORY_COLUMN)
+    private String category;
+}
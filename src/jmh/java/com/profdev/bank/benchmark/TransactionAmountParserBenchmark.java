@@ -0,0 +1,55 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionAmountParserBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private TransactionAmountParser parser;
+
+    private String[] amounts;
+
+    @Setup
+    public void setUp() {
+        parser = new TransactionAmountParser(BenchmarkData.appProperties(null));
+        amounts = BenchmarkData.records(BATCH).map(DataRecord::getAmount).toArray(String[]::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parse(Blackhole blackhole) {
+        for (String amount : amounts) {
+            blackhole.consume(parser.parse(amount));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseMinorUnits(Blackhole blackhole) {
+        for (String amount : amounts) {
+            blackhole.consume(parser.parseMinorUnits(amount));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.profdev.bank.benchmark;
+
+import com.opencsv.bean.AbstractBeanField;
+import com.opencsv.exceptions.CsvDataTypeMismatchException;
+import com.profdev.bank.data.TransactionDateDecoder;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Binds the transaction date column through {@link TransactionDateDecoder} in place of {@code @CsvDate}, which parses
+ * each value with a {@link java.time.format.DateTimeFormatter}. Empty values bind as {@code null} and malformed ones
+ * fail the row with a {@link CsvDataTypeMismatchException}, as they did with {@code @CsvDate}.
+ */
+public class TransactionDateConverter extends AbstractBeanField<OpenCsvDataRecord, String> {
+
+    private final TransactionDateDecoder decoder = TransactionDateDecoder.forLocale(Locale.getDefault());
+
+    @Override
+    protected LocalDate convert(String value) throws CsvDataTypeMismatchException {
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+        try {
+            return decoder.decode(value);
+        } catch (DateTimeParseException ex) {
+            CsvDataTypeMismatchException mismatch = new CsvDataTypeMismatchException(value, LocalDate.class,
+                    ex.getMessage());
+            mismatch.initCause(ex);
+            throw mismatch;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.TransactionDateDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionDateDecoderBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private DateTimeFormatter formatter;
+
+    private TransactionDateDecoder decoder;
+
+    private String[] dates;
+
+    @Setup
+    public void setUp() {
+        formatter = DateTimeFormatter.ofPattern(DataRecord.DATE_PATTERN, Locale.UK);
+        decoder = TransactionDateDecoder.forLocale(Locale.UK);
+        dates = BenchmarkData.records(BATCH)
+                .map(dataRecord -> formatter.format(dataRecord.getTransactionDate()))
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void formatter(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(LocalDate.parse(date, formatter));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void decode(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(decoder.decode(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void epochDay(Blackhole blackhole) {
+        for (String date : dates) {
+            blackhole.consume(decoder.epochDay(date));
+        }
+    }
+}
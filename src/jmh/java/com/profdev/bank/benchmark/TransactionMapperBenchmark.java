@@ -0,0 +1,70 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.model.mapper.MappedBatch;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private TransactionMapper mapper;
+
+    private DataRecord[] records;
+
+    private List<DataRecord> recordList;
+
+    @Setup
+    public void setUp() {
+        mapper = new TransactionMapper(new TransactionAmountParser(BenchmarkData.appProperties(null)));
+        records = BenchmarkData.records(BATCH).toArray(DataRecord[]::new);
+        recordList = List.of(records);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void mapModelFromData(Blackhole blackhole) {
+        for (DataRecord record : records) {
+            blackhole.consume(mapper.mapModelFromData(record));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ColumnarTransactionStore.Builder mapIntoStore() {
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(mapper.currency());
+        for (DataRecord record : records) {
+            mapper.mapIntoStore(record, builder);
+        }
+        return builder;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public MappedBatch mapBatch() {
+        return mapper.mapBatch(recordList);
+    }
+}
@@ -0,0 +1,164 @@
+package com.profdev.bank.benchmark;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.service.AmountFormatter;
+import com.profdev.bank.service.TransactionDatasetHolder;
+import com.profdev.bank.service.TransactionPartitions;
+import com.profdev.bank.service.TransactionService;
+import com.profdev.bank.service.TransactionServiceImpl;
+import com.profdev.bank.service.query.BatchQuery;
+import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TransactionServiceBenchmark {
+
+    private static final String CATEGORY = "Books";
+    private static final int YEAR = 2022;
+    private static final LocalDate RANGE_FROM = LocalDate.of(YEAR, 3, 1);
+    private static final LocalDate RANGE_TO = LocalDate.of(YEAR, 3, 31);
+    private static final int TOP_VENDORS = 10;
+
+    // the reporting batch: highest and lowest spend of every category in a year
+    private static final List<BatchQuery> SPEND_BATCH = BenchmarkData.CATEGORIES.stream()
+            .flatMap(category -> Stream.of(BatchQuery.Type.HIGHEST_SPEND, BatchQuery.Type.LOWEST_SPEND)
+                    .map(type -> BatchQuery.builder().type(type).category(category).year(YEAR).build()))
+            .toList();
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    // rows are split evenly across the accounts, so cross-account queries scatter to this many partitions
+    @Param({"1", "8"})
+    private int accounts;
+
+    private TransactionService service;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties =
+                BenchmarkData.appProperties(CsvDataLoader.FILE_PREFIX + BenchmarkData.csvFile(rows / accounts));
+        TransactionMapper mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        Map<String, TransactionDatasetHolder> partitions = new LinkedHashMap<>();
+        for (int account = 0; account < accounts; account++) {
+            partitions.put("account-" + account,
+                    new TransactionDatasetHolder(new CsvDataLoader(appProperties), mapper, BenchmarkData.NO_WATCH));
+        }
+        service = new TransactionServiceImpl(new TransactionPartitions(partitions), new AmountFormatter(appProperties));
+        service.getAll();
+    }
+
+    @Benchmark
+    public void getAll(Blackhole blackhole) {
+        consume(service.getAll(), blackhole);
+    }
+
+    @Benchmark
+    public void getForCategoryAsc(Blackhole blackhole) {
+        consume(service.getForCategory(CATEGORY, TransactionBeanSortOrder.ASC), blackhole);
+    }
+
+    @Benchmark
+    public void getForCategoryDesc(Blackhole blackhole) {
+        consume(service.getForCategory(CATEGORY, TransactionBeanSortOrder.DESC), blackhole);
+    }
+
+    @Benchmark
+    public void getForDateRange(Blackhole blackhole) {
+        consume(service.getForDateRange(RANGE_FROM, RANGE_TO, null, TransactionBeanSortOrder.ASC), blackhole);
+    }
+
+    @Benchmark
+    public void getForDateRangeAndCategory(Blackhole blackhole) {
+        consume(service.getForDateRange(RANGE_FROM, RANGE_TO, CATEGORY, TransactionBeanSortOrder.ASC), blackhole);
+    }
+
+    @Benchmark
+    public List<TotalPerCategory> getTotalPerCategory() {
+        return service.getTotalPerCategory();
+    }
+
+    @Benchmark
+    public List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory() {
+        return service.getAverageSpendPerMonthForCategory(CATEGORY);
+    }
+
+    @Benchmark
+    public Money getHighestSpendForCategoryAndYear() {
+        return service.getHighestSpendForCategoryAndYear(CATEGORY, YEAR);
+    }
+
+    @Benchmark
+    public Money getLowestSpendForCategoryAndYear() {
+        return service.getLowestSpendForCategoryAndYear(CATEGORY, YEAR);
+    }
+
+    @Benchmark
+    public List<BatchResult> getBatch() {
+        return service.getBatch(SPEND_BATCH);
+    }
+
+    @Benchmark
+    public void getSpendBatchOneQueryAtATime(Blackhole blackhole) {
+        for (BatchQuery query : SPEND_BATCH) {
+            blackhole.consume(query.type() == BatchQuery.Type.HIGHEST_SPEND
+                    ? service.getHighestSpendForCategoryAndYear(query.category(), YEAR)
+                    : service.getLowestSpendForCategoryAndYear(query.category(), YEAR));
+        }
+    }
+
+    @Benchmark
+    public SpendPercentiles getSpendPercentilesForCategoryAndYear() {
+        return service.getSpendPercentilesForCategoryAndYear(CATEGORY, YEAR);
+    }
+
+    @Benchmark
+    public List<VendorTotal> getTopVendorsForCategory() {
+        return service.getTopVendorsForCategory(CATEGORY, null, VendorRanking.SPEND, TOP_VENDORS);
+    }
+
+    @Benchmark
+    public List<VendorTotal> getTopVendorsForCategoryAndYear() {
+        return service.getTopVendorsForCategory(CATEGORY, YEAR, VendorRanking.SPEND, TOP_VENDORS);
+    }
+
+    private static void consume(List<Transaction> transactions, Blackhole blackhole) {
+        for (Transaction transaction : transactions) {
+            blackhole.consume(transaction);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.profdev.bank;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.IngestProperties;
+import com.profdev.bank.config.ResponseCacheProperties;
+import com.profdev.bank.config.SnapshotProperties;
+import com.profdev.bank.config.WatchProperties;
 import org.apache.commons.lang3.LocaleUtils;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,7 +14,11 @@ import java.util.Locale;
 
 @SpringBootApplication
 @EnableConfigurationProperties({
-		AppProperties.class
+		AppProperties.class,
+		WatchProperties.class,
+		ResponseCacheProperties.class,
+		SnapshotProperties.class,
+		IngestProperties.class
 })
 public class BankingApplication {
 
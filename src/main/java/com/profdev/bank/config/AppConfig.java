@@ -1,10 +1,20 @@
 package com.profdev.bank.config;
 
-import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.data.load.DataLoaderFactory;
+import com.profdev.bank.data.load.MappedCsvDataLoader;
+import com.profdev.bank.data.load.SnapshotCsvDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
+/**
+ * Registers a {@link DataLoaderFactory} per {@code app.data-type}, named after it, and makes the configured one the
+ * factory every account's data file is loaded with.
+ */
 @Configuration
 public class AppConfig {
 
@@ -17,7 +27,36 @@ public class AppConfig {
     }
 
     @Bean
-    public DataLoader dataLoader() {
-        return (DataLoader) applicationContext.getBean(appProperties.dataType());
+    @Primary
+    public DataLoaderFactory dataLoaderFactory() {
+        return applicationContext.getBean(appProperties.dataType(), DataLoaderFactory.class);
+    }
+
+    @Bean(CsvDataLoader.BEAN_QUALIFIER)
+    public DataLoaderFactory csvDataLoaderFactory(IngestMetrics ingestMetrics, IngestProperties ingestProperties) {
+        return dataFile -> new CsvDataLoader(appProperties.withDataFile(dataFile), ingestMetrics,
+                quarantine(ingestProperties));
+    }
+
+    @Bean(MappedCsvDataLoader.BEAN_QUALIFIER)
+    public DataLoaderFactory mappedCsvDataLoaderFactory(IngestMetrics ingestMetrics,
+                                                        IngestProperties ingestProperties) {
+        return dataFile -> new MappedCsvDataLoader(appProperties.withDataFile(dataFile), ingestMetrics,
+                quarantine(ingestProperties));
+    }
+
+    @Bean(SnapshotCsvDataLoader.BEAN_QUALIFIER)
+    public DataLoaderFactory snapshotCsvDataLoaderFactory(SnapshotProperties snapshotProperties,
+                                                          IngestMetrics ingestMetrics,
+                                                          IngestProperties ingestProperties) {
+        return dataFile -> new SnapshotCsvDataLoader(appProperties.withDataFile(dataFile), snapshotProperties,
+                ingestMetrics, quarantine(ingestProperties));
+    }
+
+    /**
+     * A quarantine of its own for each data file in lenient mode.
+     */
+    private static Quarantine quarantine(IngestProperties ingestProperties) {
+        return ingestProperties.lenient() ? new Quarantine(ingestProperties.quarantineLimit()) : Quarantine.NONE;
     }
 }
@@ -24,4 +24,15 @@ public record AppProperties(
                 Locale.setDefault(LocaleUtils.toLocale(locale));
                 return Currency.getInstance(Locale.getDefault()).getSymbol();
         }
+
+        public Currency currency() {
+                return Currency.getInstance(LocaleUtils.toLocale(locale));
+        }
+
+        /**
+         * These properties for a single account's data file.
+         */
+        public AppProperties withDataFile(String dataFile) {
+                return new AppProperties(dataType, dataFile, locale, currencySymbol);
+        }
 }
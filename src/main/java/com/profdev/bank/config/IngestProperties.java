@@ -0,0 +1,33 @@
+package com.profdev.bank.config;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * How rows that cannot be read are handled. By default the first one fails the load; with {@code lenient} they are
+ * skipped and kept in a quarantine with their line number and reason, of which at most {@code quarantineLimit} rows
+ * are retained per data file (all of them are counted).
+ * <p>
+ * With a {@code logDirectory}, transactions can be added through the API: each account gets a transaction log
+ * {@code <account>.wal} there, which is replayed over the account's data file whenever it is loaded.
+ */
+@ConfigurationProperties(prefix = "app.ingest")
+public record IngestProperties(
+        boolean lenient,
+        @DefaultValue("100")
+        int quarantineLimit,
+        String logDirectory
+) {
+
+    public static final String LOG_FILE_EXTENSION = ".wal";
+
+    /**
+     * The account's transaction log, or {@code null} if no log directory is configured.
+     */
+    public Path logFile(String account) {
+        return StringUtils.isBlank(logDirectory) ? null : Path.of(logDirectory).resolve(account + LOG_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,14 @@
+package com.profdev.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bounds the number of serialized query responses kept per dataset version; the least recently used are evicted.
+ */
+@ConfigurationProperties(prefix = "app.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("256")
+        int maxEntries
+) {
+}
@@ -0,0 +1,13 @@
+package com.profdev.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where {@code app.data-type=snapshot-csv} keeps its binary snapshot of the loaded data. Without a directory the
+ * snapshot is written next to a filesystem data file, or to {@code java.io.tmpdir} for a classpath one.
+ */
+@ConfigurationProperties(prefix = "app.snapshot")
+public record SnapshotProperties(
+        String directory
+) {
+}
@@ -0,0 +1,18 @@
+package com.profdev.bank.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Watch mode: when enabled, rows appended to the data file are picked up every {@code interval} without a restart.
+ * Requires a {@link com.profdev.bank.data.load.TailingDataLoader}, i.e. {@code app.data-type=mmap-csv}.
+ */
+@ConfigurationProperties(prefix = "app.watch")
+public record WatchProperties(
+        boolean enabled,
+        @DefaultValue("1s")
+        Duration interval
+) {
+}
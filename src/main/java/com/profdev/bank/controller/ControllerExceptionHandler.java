@@ -0,0 +1,43 @@
+package com.profdev.bank.controller;
+
+import com.profdev.bank.controller.response.StringResponse;
+import com.profdev.bank.service.DatasetNotReadyException;
+import com.profdev.bank.service.IngestUnavailableException;
+import com.profdev.bank.service.InvalidQueryException;
+import com.profdev.bank.service.UnknownAccountException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ControllerExceptionHandler {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(DatasetNotReadyException.class)
+    public ResponseEntity<StringResponse> handleDatasetNotReady(DatasetNotReadyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(new StringResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IngestUnavailableException.class)
+    public ResponseEntity<StringResponse> handleIngestUnavailable(IngestUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new StringResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(UnknownAccountException.class)
+    public ResponseEntity<StringResponse> handleUnknownAccount(UnknownAccountException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new StringResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<StringResponse> handleInvalidQuery(InvalidQueryException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new StringResponse(ex.getMessage()));
+    }
+}
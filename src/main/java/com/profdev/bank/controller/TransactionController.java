@@ -1,56 +1,197 @@
 package com.profdev.bank.controller;
 
+import com.profdev.bank.controller.response.ResponseCache;
+import com.profdev.bank.controller.response.ResponseCache.CachedResponse;
 import com.profdev.bank.controller.response.StringResponse;
+import com.profdev.bank.controller.response.TransactionStreamWriter;
 import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
 import com.profdev.bank.service.AmountFormatter;
+import com.profdev.bank.service.TransactionIngestService;
 import com.profdev.bank.service.TransactionService;
-import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
-import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.query.BatchQuery;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.IngestResult;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
 @RequestMapping("/transaction")
 public class TransactionController {
 
+    static final int TOP_VENDORS_MAX_LIMIT = BatchQuery.MAX_TOP_VENDORS;
+
+    static final int BATCH_MAX_QUERIES = 500;
+
+    static final int INGEST_MAX_TRANSACTIONS = 1000;
+
     private final TransactionService service;
 
+    private final TransactionIngestService ingestService;
+
     private final AmountFormatter af;
 
-    public TransactionController(TransactionService service, AmountFormatter af) {
+    private final TransactionStreamWriter streamWriter;
+
+    private final ResponseCache responseCache;
+
+    public TransactionController(TransactionService service, TransactionIngestService ingestService,
+                                 AmountFormatter af, TransactionStreamWriter streamWriter,
+                                 ResponseCache responseCache) {
         this.service = service;
+        this.ingestService = ingestService;
         this.af = af;
+        this.streamWriter = streamWriter;
+        this.responseCache = responseCache;
+    }
+
+    @GetMapping(path = "/accounts", produces = "application/json")
+    public Set<String> getAccounts() {
+        return service.getAccounts();
+    }
+
+    @GetMapping(path = "/all", produces = {"application/json", "application/x-ndjson"})
+    public void getAll(@RequestParam(required = false) String account,
+                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                       HttpServletResponse response) throws IOException {
+        streamWriter.write(service.getAll(account), accept, response);
+    }
+
+    @GetMapping(path = "/category/{category}", produces = {"application/json", "application/x-ndjson"})
+    public void getForCategory(@PathVariable String category,
+                               @RequestParam(defaultValue = "ASC") TransactionBeanSortOrder sort,
+                               @RequestParam(required = false) String account,
+                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                               HttpServletResponse response) throws IOException {
+        streamWriter.write(service.getForCategory(category, sort, account), accept, response);
     }
 
-    @GetMapping(path = "/all", produces = "application/json")
-    public ResponseEntity<List<Transaction>> getAll() {
-        return ResponseEntity.ok(service.getAll());
+    @GetMapping(path = "/range", produces = {"application/json", "application/x-ndjson"})
+    public void getForDateRange(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                @RequestParam(required = false) String category,
+                                @RequestParam(defaultValue = "ASC") TransactionBeanSortOrder sort,
+                                @RequestParam(required = false) String account,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                HttpServletResponse response) throws IOException {
+        streamWriter.write(service.getForDateRange(from, to, category, sort, account), accept, response);
+    }
+
+    @GetMapping(path = "/range/summary", produces = "application/json")
+    public ResponseEntity<byte[]> getSpendSummaryForDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String account) {
+        return cached(() -> service.getSpendSummaryForDateRange(from, to, category, account),
+                "range-summary", from, to, category, account);
     }
 
     @GetMapping(path = "/total/category", produces = "application/json")
-    public ResponseEntity<List<TotalPerCategory>> getTotalPerCategory() {
-        return ResponseEntity.ok(service.getTotalPerCategory());
+    public ResponseEntity<byte[]> getTotalPerCategory(@RequestParam(required = false) String account) {
+        return cached(() -> service.getTotalPerCategory(account), "total/category", account);
     }
 
     @GetMapping(path = "/average/month-category/{category}", produces = "application/json")
-    public ResponseEntity<List<AverageSpendPerMonthForCategory>> getAverageSpendPerMonthForCategory(@PathVariable String category) {
-        return ResponseEntity.ok(service.getAverageSpendPerMonthForCategory(category));
+    public ResponseEntity<byte[]> getAverageSpendPerMonthForCategory(@PathVariable String category,
+                                                                     @RequestParam(required = false) String account) {
+        return cached(() -> service.getAverageSpendPerMonthForCategory(category, account),
+                "average/month-category", category, account);
     }
 
     @GetMapping(path = "/highest-spend/category/{category}/year/{year}", produces = "application/json")
-    public ResponseEntity<StringResponse> getHighestSpendForCategoryAndYear(@PathVariable String category, @PathVariable int year) {
-        return ResponseEntity.ok(new StringResponse(af.format(service.getHighestSpendForCategoryAndYear(category, year))));
+    public ResponseEntity<byte[]> getHighestSpendForCategoryAndYear(@PathVariable String category,
+                                                                    @PathVariable int year,
+                                                                    @RequestParam(required = false) String account) {
+        return cached(() -> new StringResponse(
+                        af.formatSpend(service.findHighestSpendForCategoryAndYear(category, year, account))),
+                "highest-spend", category, year, account);
     }
 
     @GetMapping(path = "/lowest-spend/category/{category}/year/{year}", produces = "application/json")
-    public ResponseEntity<StringResponse> getLowestSpendForCategoryAndYear(@PathVariable String category, @PathVariable int year) {
-        return ResponseEntity.ok(new StringResponse(af.format(service.getLowestSpendForCategoryAndYear(category, year))));
+    public ResponseEntity<byte[]> getLowestSpendForCategoryAndYear(@PathVariable String category,
+                                                                   @PathVariable int year,
+                                                                   @RequestParam(required = false) String account) {
+        return cached(() -> new StringResponse(
+                        af.formatSpend(service.findLowestSpendForCategoryAndYear(category, year, account))),
+                "lowest-spend", category, year, account);
+    }
+
+    @GetMapping(path = "/percentiles/category/{category}/year/{year}", produces = "application/json")
+    public ResponseEntity<byte[]> getSpendPercentilesForCategoryAndYear(
+            @PathVariable String category, @PathVariable int year, @RequestParam(required = false) String account) {
+        return cached(() -> service.getSpendPercentilesForCategoryAndYear(category, year, account),
+                "percentiles", category, year, account);
+    }
+
+    @GetMapping(path = "/top-vendors/category/{category}", produces = "application/json")
+    public ResponseEntity<byte[]> getTopVendorsForCategory(@PathVariable String category,
+                                                           @RequestParam(required = false) Integer year,
+                                                           @RequestParam(defaultValue = "SPEND") VendorRanking by,
+                                                           @RequestParam(defaultValue = "10")
+                                                           @Min(1) @Max(TOP_VENDORS_MAX_LIMIT) int limit,
+                                                           @RequestParam(required = false) String account) {
+        return cached(() -> service.getTopVendorsForCategory(category, year, by, limit, account),
+                "top-vendors", category, year, by, limit, account);
+    }
+
+    /**
+     * Answers a batch of aggregate queries in request order, all from the same snapshot of the data.
+     */
+    @PostMapping(path = "/batch", consumes = "application/json", produces = "application/json")
+    public List<BatchResult> getBatch(
+            @RequestBody @Size(min = 1, max = BATCH_MAX_QUERIES) List<@Valid BatchQuery> queries,
+            @RequestParam(required = false) String account) {
+        return service.getBatch(queries, account);
+    }
+
+    /**
+     * Adds transactions to the account, all or none of them. Responds once they are in the transaction log on disk
+     * and visible to queries.
+     */
+    @PostMapping(consumes = "application/json", produces = "application/json")
+    @ResponseStatus(HttpStatus.CREATED)
+    public IngestResult addTransactions(
+            @RequestBody @Size(min = 1, max = INGEST_MAX_TRANSACTIONS) List<Transaction> transactions,
+            @RequestParam(required = false) String account) {
+        return ingestService.add(transactions, account);
+    }
+
+    /**
+     * Answers from the serialized response cached for the current dataset version. The version is read before the
+     * result is computed, so a cached body is never older than its key. A matching If-None-Match gets a 304.
+     */
+    private ResponseEntity<byte[]> cached(Supplier<?> result, Object... key) {
+        CachedResponse response = responseCache.get(service.getDataVersion(), result, key);
+        return ResponseEntity.ok()
+                .eTag(response.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
     }
 }
@@ -0,0 +1,90 @@
+package com.profdev.bank.controller.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profdev.bank.config.ResponseCacheProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON responses keyed by endpoint and parameters, valid for a single dataset version. The first request
+ * for a newer version drops every entry; requests still answering from an older snapshot are served but not cached.
+ * Entries are computed outside the lock, so concurrent misses for the same key may each compute it once.
+ */
+@Component
+public class ResponseCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<List<Object>, CachedResponse> entries;
+
+    // guarded by entries
+    private long version;
+
+    public ResponseCache(ObjectMapper objectMapper, ResponseCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        int maxEntries = properties.maxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The cached response for {@code key} at {@code version}, serializing the result of {@code body} on a miss.
+     */
+    public CachedResponse get(long version, Supplier<?> body, Object... key) {
+        // optional parameters are part of the key as null
+        List<Object> cacheKey = Arrays.asList(key);
+        synchronized (entries) {
+            if (version > this.version) {
+                entries.clear();
+                this.version = version;
+            }
+            CachedResponse cached = version == this.version ? entries.get(cacheKey) : null;
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CachedResponse response = CachedResponse.of(serialize(body.get()));
+        synchronized (entries) {
+            if (version == this.version) {
+                entries.put(cacheKey, response);
+            }
+        }
+        return response;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    /**
+     * Response bytes with a strong ETag derived from their content, so it stays valid across restarts.
+     */
+    public record CachedResponse(byte[] body, String eTag) {
+
+        static CachedResponse of(byte[] body) {
+            return new CachedResponse(body, '"' + DigestUtils.md5DigestAsHex(body) + '"');
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.profdev.bank.controller.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.profdev.bank.model.Transaction;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes transactions straight to the response body one at a time, as a JSON array or as newline delimited JSON, so
+ * a listing of any length is served without building the whole document in memory. The list is expected to be a
+ * view that materialises each element on access, such as the store's row views.
+ */
+@Component
+public class TransactionStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter transactionWriter;
+
+    public TransactionStreamWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // the servlet container decides when to send a chunk, not every row
+        this.transactionWriter = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes NDJSON if the {@code Accept} header asks for {@code application/x-ndjson}, a JSON array otherwise.
+     */
+    public void write(List<Transaction> transactions, String accept, HttpServletResponse response) throws IOException {
+        boolean ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            // a failure part way through must not be hidden behind a neatly closed array
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            if (ndjson) {
+                writeLines(transactions, generator);
+            } else {
+                writeArray(transactions, generator);
+            }
+        }
+    }
+
+    private void writeArray(List<Transaction> transactions, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (Transaction transaction : transactions) {
+            transactionWriter.writeValue(generator, transaction);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeLines(List<Transaction> transactions, JsonGenerator generator) throws IOException {
+        generator.setRootValueSeparator(null);
+        for (Transaction transaction : transactions) {
+            transactionWriter.writeValue(generator, transaction);
+            generator.writeRaw('\n');
+        }
+    }
+}
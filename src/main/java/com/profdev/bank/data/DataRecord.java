@@ -1,7 +1,5 @@
 package com.profdev.bank.data;
 
-import com.opencsv.bean.CsvBindByName;
-import com.opencsv.bean.CsvDate;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -9,22 +7,27 @@ import java.time.LocalDate;
 @Data
 public class DataRecord {
 
-    @CsvDate("dd/MMM/yyyy")
-    @CsvBindByName(column = "Transaction Date")
+    public static final String DATE_PATTERN = "dd/MMM/yyyy";
+
+    public static final String TRANSACTION_DATE_COLUMN = "Transaction Date";
+    public static final String VENDOR_COLUMN = "Vendor";
+    public static final String TYPE_COLUMN = "Type";
+    public static final String AMOUNT_COLUMN = "Amount";
+    public static final String CATEGORY_COLUMN = "Category";
+
     private LocalDate transactionDate;
 
-    @CsvBindByName(column = "Vendor")
     private String vendor;
 
-    @CsvBindByName(column = "Type")
     private String type;
 
-    @CsvBindByName(column = "Amount")
     private String amount;
 
-    @CsvBindByName(column = "Category")
     private String category;
 
+    // line of the data file the record ends on, for reporting rows that cannot be loaded
+    private long lineNumber;
+
     public String getMonth() {
         return transactionDate != null ? transactionDate.getMonth().name() : null;
     }
@@ -0,0 +1,68 @@
+package com.profdev.bank.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rows of one data file that could not be read and were skipped rather than failing the load. Every row is counted,
+ * but only the first {@code limit} are kept, so a badly broken export cannot fill the heap. Rows may be added from
+ * several threads at once and in any order; {@link #rows()} lists them by line.
+ */
+public class Quarantine {
+
+    /**
+     * Quarantines nothing: loaders and mappers given this fail on the first row they cannot read.
+     */
+    public static final Quarantine NONE = new Quarantine(0);
+
+    private final int limit;
+
+    private final List<QuarantinedRow> rows = new ArrayList<>();
+
+    private long count;
+
+    public Quarantine(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean enabled() {
+        return this != NONE;
+    }
+
+    public synchronized void add(long line, String reason) {
+        count++;
+        if (rows.size() < limit) {
+            rows.add(new QuarantinedRow(line, reason));
+        }
+    }
+
+    /**
+     * Adds the rows an earlier read quarantined, e.g. as recorded in a snapshot: {@code count} rows in all, of which
+     * {@code rows} were kept.
+     */
+    public synchronized void addAll(long count, List<QuarantinedRow> rows) {
+        this.count += count;
+        for (QuarantinedRow row : rows) {
+            if (this.rows.size() < limit) {
+                this.rows.add(row);
+            }
+        }
+    }
+
+    /**
+     * Forgets every row added so far, so that reading the file again does not report the rows of the earlier read.
+     */
+    public synchronized void clear() {
+        count = 0;
+        rows.clear();
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public synchronized List<QuarantinedRow> rows() {
+        return rows.stream().sorted(Comparator.comparingLong(QuarantinedRow::line)).toList();
+    }
+}
@@ -0,0 +1,7 @@
+package com.profdev.bank.data;
+
+/**
+ * A row left out of the loaded data, with the line of the data file it ends on and why it was left out.
+ */
+public record QuarantinedRow(long line, String reason) {
+}
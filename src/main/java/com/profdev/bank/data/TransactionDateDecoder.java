@@ -0,0 +1,157 @@
+package com.profdev.bank.data;
+
+import com.profdev.bank.utils.EpochDays;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes {@link DataRecord#DATE_PATTERN} dates such as {@code 01/Nov/2020} straight to an epoch day. Two day digits,
+ * the locale's short month name (found by its first three characters in a twelve entry table, so en_GB's
+ * {@code Sept} works as well as {@code Nov}) and four year digits are read in place without allocating. Any text not
+ * of that exact shape, or whose day is past the end of its month, is handed to the {@link DateTimeFormatter} for the
+ * pattern, so unusual dates resolve and malformed ones are rejected exactly as before, with a
+ * {@link DateTimeParseException}. {@link #tryEpochDay} reports a malformed date as {@link #INVALID} instead.
+ */
+public class TransactionDateDecoder {
+
+    /**
+     * Returned by {@link #tryEpochDay} for text that is not a date in the pattern; no four digit year reaches it.
+     */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final Map<Locale, TransactionDateDecoder> DECODERS = new ConcurrentHashMap<>();
+
+    private final DateTimeFormatter formatter;
+
+    private final String[] monthNames = new String[Month.values().length];
+
+    // first three characters of each month name packed 16 bits apiece, the month lookup key
+    private final long[] monthKeys = new long[Month.values().length];
+
+    private TransactionDateDecoder(Locale locale) {
+        this.formatter = DateTimeFormatter.ofPattern(DataRecord.DATE_PATTERN, locale);
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM", locale);
+        for (Month month : Month.values()) {
+            String name = monthFormat.format(month);
+            monthNames[month.ordinal()] = name;
+            monthKeys[month.ordinal()] = name.length() < 3 ? -1 : key(name, 0);
+        }
+    }
+
+    public static TransactionDateDecoder forLocale(Locale locale) {
+        return DECODERS.computeIfAbsent(locale, TransactionDateDecoder::new);
+    }
+
+    public LocalDate decode(CharSequence text) {
+        return LocalDate.ofEpochDay(epochDay(text));
+    }
+
+    /**
+     * @throws DateTimeParseException if the text is not a date in the pattern
+     */
+    public int epochDay(CharSequence text) {
+        int epochDay = decodeFixedFormat(text);
+        return epochDay != INVALID
+                ? epochDay
+                : Math.toIntExact(LocalDate.parse(text, formatter).toEpochDay());
+    }
+
+    /**
+     * The epoch day of the date, or {@link #INVALID} if the text is not a date in the pattern. Text the formatter
+     * cannot parse at all is turned down without an exception; only text it parses but cannot resolve, such as day 00,
+     * costs one.
+     */
+    public int tryEpochDay(CharSequence text) {
+        int epochDay = decodeFixedFormat(text);
+        if (epochDay != INVALID) {
+            return epochDay;
+        }
+        ParsePosition position = new ParsePosition(0);
+        if (formatter.parseUnresolved(text, position) == null || position.getIndex() != text.length()) {
+            return INVALID;
+        }
+        try {
+            return Math.toIntExact(LocalDate.parse(text, formatter).toEpochDay());
+        } catch (DateTimeParseException | ArithmeticException ex) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * Epoch day of text in exactly the {@code dd/MMM/yyyy} shape with a valid day, or {@link #INVALID} when
+     * the formatter has to decide.
+     */
+    private int decodeFixedFormat(CharSequence text) {
+        int length = text.length();
+        if (length < 11 || text.charAt(2) != '/') {
+            return INVALID;
+        }
+        int day = digits(text, 0, 2);
+        int monthIndex = month(text, length);
+        if (day < 1 || monthIndex < 0) {
+            return INVALID;
+        }
+        int yearStart = 4 + monthNames[monthIndex].length();
+        if (length != yearStart + 4) {
+            return INVALID;
+        }
+        int year = digits(text, yearStart, 4);
+        if (year < 1 || (day > 28 && day > Month.of(monthIndex + 1).length(Year.isLeap(year)))) {
+            return INVALID;
+        }
+        return EpochDays.of(year, monthIndex + 1, day);
+    }
+
+    /**
+     * Index of the month whose name starts at position 3 and is followed by a {@code /}, or -1.
+     */
+    private int month(CharSequence text, int length) {
+        long key = key(text, 3);
+        for (int month = 0; month < monthKeys.length; month++) {
+            if (monthKeys[month] == key) {
+                String name = monthNames[month];
+                int end = 3 + name.length();
+                if (end < length && text.charAt(end) == '/' && matches(text, name)) {
+                    return month;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(CharSequence text, String name) {
+        for (int i = 3; i < name.length(); i++) {
+            if (text.charAt(3 + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long key(CharSequence text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * Value of {@code count} ASCII digits from {@code from}, or -1 if any of them is not a digit.
+     */
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,68 @@
+package com.profdev.bank.data.load;
+
+import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Splits {@code app.data-file} into one data file per account. The setting is a comma separated list of data files
+ * and filesystem directories; a directory stands for every {@code .csv} file directly inside it, in name order. Each
+ * account is named after its data file without the extension, e.g. {@code 12345678.csv} holds account
+ * {@code 12345678}.
+ */
+@UtilityClass
+public class AccountDataFiles {
+
+    private static final String SEPARATOR = ",";
+    private static final String CSV_EXTENSION = ".csv";
+
+    public static Map<String, String> resolve(String dataFiles) {
+        Map<String, String> accounts = new LinkedHashMap<>();
+        for (String entry : StringUtils.split(dataFiles, SEPARATOR)) {
+            String dataFile = entry.strip();
+            if (dataFile.isEmpty()) {
+                continue;
+            }
+            Path path = CsvDataLoader.filesystemPath(dataFile);
+            List<String> files = path != null && Files.isDirectory(path) ? listCsvFiles(path) : List.of(dataFile);
+            for (String file : files) {
+                String account = accountOf(file);
+                if (accounts.putIfAbsent(account, file) != null) {
+                    throw new IllegalStateException("More than one data file for account %s: %s and %s"
+                            .formatted(account, accounts.get(account), file));
+                }
+            }
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalStateException("No data files found in app.data-file: " + dataFiles);
+        }
+        return Collections.unmodifiableMap(accounts);
+    }
+
+    static String accountOf(String dataFile) {
+        String name = Path.of(StringUtils.removeStart(dataFile, CsvDataLoader.FILE_PREFIX)).getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return extension > 0 ? name.substring(0, extension) : name;
+    }
+
+    private static List<String> listCsvFiles(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(CSV_EXTENSION))
+                    .sorted()
+                    .map(file -> CsvDataLoader.FILE_PREFIX + file.toAbsolutePath())
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not list data files in " + directory, ex);
+        }
+    }
+}
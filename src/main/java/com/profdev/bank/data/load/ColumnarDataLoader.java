@@ -0,0 +1,17 @@
+package com.profdev.bank.data.load;
+
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+
+/**
+ * A data loader that can read rows straight into the columns of a store: dates as epoch days, amounts as minor units
+ * and the string fields as dictionary ids, without a {@link com.profdev.bank.data.DataRecord} or any strings per row.
+ */
+public interface ColumnarDataLoader extends DataLoader {
+
+    /**
+     * Adds every row to the builder in source order. A row that cannot be read, including one with a malformed amount,
+     * fails the load, or is left out and added to the {@link #quarantine()} if there is one.
+     */
+    void readInto(ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser);
+}
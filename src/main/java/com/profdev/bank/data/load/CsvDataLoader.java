@@ -1,31 +1,64 @@
 package com.profdev.bank.data.load;
 
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.profdev.bank.data.DataRecord;
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.TransactionDateDecoder;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
-@Service(CsvDataLoader.BEAN_QUALIFIER)
 @Slf4j
-public class CsvDataLoader implements DataLoader {
+public class CsvDataLoader implements ColumnarDataLoader {
 
     public static final String BEAN_QUALIFIER = "csv";
 
+    public static final String FILE_PREFIX = "file:";
+
+    static final int READ_BUFFER_SIZE = 1 << 20;
+
     private final AppProperties appProperties;
 
-    private List<DataRecord> dataRecords;
+    private final IngestMetrics metrics;
+
+    private final Quarantine quarantine;
+
+    private volatile List<DataRecord> dataRecords;
 
     public CsvDataLoader(AppProperties appProperties) {
+        this(appProperties, IngestMetrics.NONE);
+    }
+
+    public CsvDataLoader(AppProperties appProperties, IngestMetrics metrics) {
+        this(appProperties, metrics, Quarantine.NONE);
+    }
+
+    public CsvDataLoader(AppProperties appProperties, IngestMetrics metrics, Quarantine quarantine) {
         this.appProperties = appProperties;
+        this.metrics = metrics;
+        this.quarantine = quarantine;
+    }
+
+    @Override
+    public Quarantine quarantine() {
+        return quarantine;
     }
 
     @Override
@@ -34,25 +67,154 @@ public class CsvDataLoader implements DataLoader {
         return dataRecords;
     }
 
-    private void load() {
+    /**
+     * Streams the records in file order, binding each row to a {@link DataRecord} by header name. A row that cannot be
+     * bound fails the load, or is skipped and quarantined if this loader has a quarantine. Time spent reading the
+     * file, tokenizing rows and binding them is recorded once the file has been read.
+     */
+    @Override
+    public void streamData(Consumer<DataRecord> consumer) {
+        read((columns, dateDecoder) -> (tokenizer, line) -> {
+            DataRecord dataRecord = columns.bind(tokenizer, dateDecoder, line);
+            if (dataRecord == null) {
+                return columns.rejection(tokenizer);
+            }
+            consumer.accept(dataRecord);
+            return null;
+        });
+    }
+
+    /**
+     * Reads the rows in file order straight into the builder, as {@link #streamData} would bind them but with no
+     * {@link DataRecord} in between. A malformed amount or a missing date is rejected here too, rather than when the
+     * rows are mapped.
+     */
+    @Override
+    public void readInto(ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser) {
+        read((columns, dateDecoder) -> (tokenizer, line) ->
+                columns.bindInto(tokenizer, dateDecoder, amountParser, builder));
+    }
+
+    private void read(BiFunction<TransactionColumns, TransactionDateDecoder, RowBinder> binders) {
+        try (TimedChannel channel = new TimedChannel(openChannel(appProperties.dataFile()));
+             Reader reader = newReader(channel)) {
+            TransactionCsvTokenizer tokenizer = new TransactionCsvTokenizer(reader);
+            long headerStart = System.nanoTime();
+            TransactionColumns columns = TransactionColumns.read(tokenizer);
+            if (columns == null) {
+                return;
+            }
+            RowBinder binder = binders.apply(columns, TransactionDateDecoder.forLocale(Locale.getDefault()));
+
+            // the header is read and tokenized like any other row
+            long tokenizeNanos = System.nanoTime() - headerStart;
+            long bindNanos = 0;
+            try {
+                while (true) {
+                    long start = System.nanoTime();
+                    boolean read = tokenizer.next();
+                    long tokenized = System.nanoTime();
+                    tokenizeNanos += tokenized - start;
+                    if (!read) {
+                        break;
+                    }
+                    String rejection = binder.bind(tokenizer, tokenizer.lineNumber());
+                    bindNanos += System.nanoTime() - tokenized;
+                    if (rejection != null) {
+                        reject(tokenizer.lineNumber(), rejection);
+                    }
+                }
+            } finally {
+                // reads happen inside next, so they are taken out of the tokenize time
+                metrics.record(IngestMetrics.Phase.READ, channel.readNanos);
+                metrics.record(IngestMetrics.Phase.TOKENIZE, tokenizeNanos - channel.readNanos);
+                metrics.record(IngestMetrics.Phase.BIND, bindNanos);
+            }
+        } catch (IOException ex) {
+            log.error("Could not parse CSV data file: {}", appProperties.dataFile());
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Counts a row that could not be bound and quarantines it, or fails the load when there is no quarantine.
+     */
+    private void reject(long line, String reason) {
+        metrics.rejected();
+        if (quarantine.enabled()) {
+            quarantine.add(line, reason);
+            return;
+        }
+        log.error("Could not parse CSV data file: {}", appProperties.dataFile());
+        throw new IllegalStateException("%s at line %d".formatted(reason, line));
+    }
+
+    private synchronized void load() {
         if (dataRecords == null) {
-            CsvToBeanBuilder<DataRecord> beanBuilder;
-            File dataFile = null;
+            List<DataRecord> records = new ArrayList<>();
+            streamData(records::add);
+            dataRecords = records;
+        }
+    }
+
+    /**
+     * A reader over the channel with a single large read buffer.
+     */
+    private static Reader newReader(ReadableByteChannel channel) {
+        return Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the data file. {@code file:} prefixed and absolute paths are read from the filesystem, anything else is
+     * resolved against the classpath.
+     */
+    static ReadableByteChannel openChannel(String dataFile) throws IOException {
+        Path path = filesystemPath(dataFile);
+        if (path != null) {
+            return FileChannel.open(path, StandardOpenOption.READ);
+        }
+        return Channels.newChannel(new ClassPathResource(dataFile).getInputStream());
+    }
+
+    static Path filesystemPath(String dataFile) {
+        if (dataFile.startsWith(FILE_PREFIX)) {
+            return Path.of(dataFile.substring(FILE_PREFIX.length()));
+        }
+        Path path = Path.of(dataFile);
+        return path.isAbsolute() ? path : null;
+    }
+
+    /**
+     * Adds up the time spent in reads from the underlying channel.
+     */
+    private static final class TimedChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel channel;
+
+        private long readNanos;
+
+        private TimedChannel(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            long start = System.nanoTime();
             try {
-                InputStream in = new ClassPathResource(appProperties.dataFile()).getInputStream();
-                // TODO not ideal to write temporary file - investigate and change
-                //  needed to allow access to the file when running inside a jar
-                dataFile = File.createTempFile("transactions-csv-","");
-                FileUtils.copyInputStreamToFile(in, dataFile);
-                beanBuilder = new CsvToBeanBuilder<>(new FileReader(dataFile));
-                beanBuilder.withType(DataRecord.class);
-                dataRecords = beanBuilder.build().parse();
-            } catch (IOException ex) {
-                log.error("Could not parse CSV data file: {}", appProperties.dataFile());
-                throw new RuntimeException(ex);
+                return channel.read(dst);
             } finally {
-                FileUtils.deleteQuietly(dataFile);
+                readNanos += System.nanoTime() - start;
             }
         }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
     }
 }
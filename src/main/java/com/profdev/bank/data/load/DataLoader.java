@@ -1,10 +1,26 @@
 package com.profdev.bank.data.load;
 
 import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DataLoader {
 
     List<DataRecord> retrieveData();
+
+    /**
+     * Hands each record to the consumer as soon as it is read, without holding the whole data set in memory.
+     */
+    default void streamData(Consumer<DataRecord> consumer) {
+        retrieveData().forEach(consumer);
+    }
+
+    /**
+     * Where rows that cannot be read are kept instead of failing the load; {@link Quarantine#NONE} if they fail it.
+     */
+    default Quarantine quarantine() {
+        return Quarantine.NONE;
+    }
 }
@@ -0,0 +1,10 @@
+package com.profdev.bank.data.load;
+
+/**
+ * Creates the {@link DataLoader} selected by {@code app.data-type} for a single data file.
+ */
+@FunctionalInterface
+public interface DataLoaderFactory {
+
+    DataLoader create(String dataFile);
+}
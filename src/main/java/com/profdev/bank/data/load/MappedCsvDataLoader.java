@@ -0,0 +1,577 @@
+package com.profdev.bank.data.load;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.QuarantinedRow;
+import com.profdev.bank.data.TransactionDateDecoder;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Memory-maps the CSV data file, splits it into chunks that end on record boundaries and parses the chunks in
+ * parallel on the common fork-join pool. Boundaries are found without a serial pass over the file: each raw region is
+ * run in parallel through the tokenizer's quoting states from every state at once, which composes into the state at
+ * every region start, and each boundary is then the first newline after the region start that ends a record. A quote
+ * only opens a quoted field at the start of a field, as in {@link TransactionCsvTokenizer}, so a bare quote inside a
+ * vendor name does not flip the state for the rest of the file.
+ * <p>
+ * As a {@link TailingDataLoader} the same chunked parse runs over only the bytes appended since a previous read. Each
+ * chunk is parsed into records, or, for {@link #readInto} and {@link #readFrom}, into a store builder of its own that
+ * is appended to the caller's builder in file order.
+ */
+@Slf4j
+public class MappedCsvDataLoader implements TailingDataLoader {
+
+    public static final String BEAN_QUALIFIER = "mmap-csv";
+
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_CHUNK_BYTES = 32 << 20;
+    private static final int HEADER_WINDOW_BYTES = 64 << 10;
+    private static final byte QUOTE = '"';
+    private static final byte SEPARATOR = ',';
+    private static final byte NEWLINE = '\n';
+
+    // the tokenizer's quoting states: at the start of a field, in an unquoted field (or the rest of a quoted one after
+    // its closing quote), in a quoted field, and just after a quote in a quoted field, which either closes it or
+    // escapes a quote
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int STATES = 4;
+
+    // a mapping from each state to a state, packed two bits per state, and the next mapping after each byte
+    private static final int IDENTITY = 0b11_10_01_00;
+    private static final byte[] TRANSITIONS = transitions();
+
+    private final AppProperties appProperties;
+
+    private final IngestMetrics metrics;
+
+    private final Quarantine quarantine;
+
+    private volatile List<DataRecord> dataRecords;
+
+    // where the last read ended and how many lines it had read by then, so that a read continuing from there can
+    // number its lines
+    private volatile long lastEnd = -1;
+    private volatile long lastEndLines;
+
+    public MappedCsvDataLoader(AppProperties appProperties) {
+        this(appProperties, IngestMetrics.NONE);
+    }
+
+    public MappedCsvDataLoader(AppProperties appProperties, IngestMetrics metrics) {
+        this(appProperties, metrics, Quarantine.NONE);
+    }
+
+    public MappedCsvDataLoader(AppProperties appProperties, IngestMetrics metrics, Quarantine quarantine) {
+        this.appProperties = appProperties;
+        this.metrics = metrics;
+        this.quarantine = quarantine;
+    }
+
+    @Override
+    public Quarantine quarantine() {
+        return quarantine;
+    }
+
+    @Override
+    public List<DataRecord> retrieveData() {
+        load();
+        return dataRecords;
+    }
+
+    @Override
+    public void streamData(Consumer<DataRecord> consumer) {
+        parse(0, false, RECORDS).chunks().forEach(chunk -> chunk.forEach(consumer));
+    }
+
+    @Override
+    public long streamFrom(long offset, Consumer<DataRecord> consumer) {
+        Parsed<List<DataRecord>> parsed = parse(offset, true, RECORDS);
+        parsed.chunks().forEach(chunk -> chunk.forEach(consumer));
+        return parsed.end();
+    }
+
+    @Override
+    public void readInto(ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser) {
+        parse(0, false, into(builder, amountParser)).chunks().forEach(chunk -> builder.addAll(chunk.snapshot()));
+    }
+
+    @Override
+    public long readFrom(long offset, ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser) {
+        Parsed<ColumnarTransactionStore.Builder> parsed = parse(offset, true, into(builder, amountParser));
+        parsed.chunks().forEach(chunk -> builder.addAll(chunk.snapshot()));
+        return parsed.end();
+    }
+
+    private synchronized void load() {
+        if (dataRecords == null) {
+            List<List<DataRecord>> chunks = parse(0, false, RECORDS).chunks();
+            List<DataRecord> records = new ArrayList<>(chunks.stream().mapToInt(List::size).sum());
+            chunks.forEach(records::addAll);
+            dataRecords = records;
+        }
+    }
+
+    /**
+     * Parses the records from {@code offset} (or the first record, if that is later) to the end of the file, or to the
+     * end of the last line break outside a quoted field when only {@code completeRecords} are wanted, into the rows
+     * the reader makes for each chunk.
+     */
+    private <T> Parsed<T> parse(long offset, boolean completeRecords, ChunkReader<T> reader) {
+        long start = System.nanoTime();
+        try (DataSource source = DataSource.open(appProperties.dataFile())) {
+            Header header = readHeader(source);
+            if (header == null) {
+                return new Parsed<>(Collections.emptyList(), 0);
+            }
+            if (completeRecords && !header.terminated()) {
+                return new Parsed<>(Collections.emptyList(), offset);
+            }
+            if (offset > source.size()) {
+                log.warn("Data file {} is shorter than the {} bytes already read, it is expected to be append-only",
+                        appProperties.dataFile(), offset);
+            }
+            long from = Math.max(offset, header.dataStart());
+            if (from >= source.size()) {
+                return new Parsed<>(Collections.emptyList(), from);
+            }
+            Regions regions = regions(source, from, from == header.dataStart() ? header.lines() : lineAt(offset));
+            long[] boundaries = chunkBoundaries(regions, completeRecords);
+            long[] startLines = Arrays.stream(boundaries).parallel().map(regions::linesBefore).toArray();
+            TransactionDateDecoder dateDecoder = TransactionDateDecoder.forLocale(Locale.getDefault());
+            List<Chunk<T>> chunks = IntStream.range(0, boundaries.length - 1)
+                    .parallel()
+                    .mapToObj(chunk -> parseChunk(source, header, dateDecoder, reader, boundaries[chunk],
+                            boundaries[chunk + 1], startLines[chunk]))
+                    .toList();
+            long end = boundaries[boundaries.length - 1];
+            long lines = regions.lines()[0];
+            for (Chunk<T> chunk : chunks) {
+                lines += chunk.lines();
+                chunk.quarantined().forEach(row -> quarantine.add(row.line(), row.reason()));
+            }
+            lastEnd = end;
+            lastEndLines = lines;
+            log.info("Parsed {} bytes of {} in {} chunks in {} ms", end - from, appProperties.dataFile(),
+                    chunks.size(), (System.nanoTime() - start) / 1_000_000);
+            return new Parsed<>(chunks.stream().map(Chunk::rows).toList(), end);
+        } catch (IOException | UncheckedIOException ex) {
+            log.error("Could not parse CSV data file: {}", appProperties.dataFile());
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Lines before {@code offset}, if it is where the last read ended, otherwise 0 so lines are numbered from there.
+     */
+    private long lineAt(long offset) {
+        return offset == lastEnd ? lastEndLines : 0;
+    }
+
+    private static Header readHeader(DataSource source) throws IOException {
+        if (source.size() == 0) {
+            return null;
+        }
+        // the header is normally within the first window, which is mapped again twice as long until it is not
+        int length = (int) Math.min(HEADER_WINDOW_BYTES, source.size());
+        while (true) {
+            ByteBuffer bytes = source.slice(0, length);
+            int end = recordEnd(bytes, FIELD_START);
+            if (end < 0 && length < source.size()) {
+                length = (int) Math.min((long) length * 2, source.size());
+                continue;
+            }
+            end = end < 0 ? length : end;
+            boolean terminated = bytes.get(end - 1) == NEWLINE;
+            CharBuffer line = StandardCharsets.UTF_8.decode(bytes.slice(0, end));
+            TransactionCsvTokenizer tokenizer =
+                    new TransactionCsvTokenizer(line.array(), line.arrayOffset(), line.limit());
+            TransactionColumns columns = TransactionColumns.read(tokenizer);
+            return columns == null ? null : new Header(columns, end, tokenizer.lineNumber(), terminated);
+        }
+    }
+
+    /**
+     * Splits the data from {@code dataStart} into raw regions, maps each once and scans them in parallel for the
+     * quoting state and the lines read at the start of each, given the {@code firstLine} before the first.
+     */
+    private static Regions regions(DataSource source, long dataStart, long firstLine) {
+        long dataBytes = source.size() - dataStart;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism() + 1;
+        long chunkCount = Math.max(1, Math.min(dataBytes / MIN_CHUNK_BYTES, parallelism * 4L));
+        chunkCount = Math.max(chunkCount, (dataBytes + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long rawChunkBytes = Math.max(1, (dataBytes + chunkCount - 1) / chunkCount);
+        int count = Math.toIntExact(Math.max(1, (dataBytes + rawChunkBytes - 1) / rawChunkBytes));
+
+        ByteBuffer[] bytes = new ByteBuffer[count];
+        long[] scans = IntStream.range(0, count)
+                .parallel()
+                .mapToLong(region -> {
+                    long from = dataStart + region * rawChunkBytes;
+                    long to = Math.min(source.size(), from + rawChunkBytes);
+                    try {
+                        bytes[region] = source.slice(from, Math.toIntExact(to - from));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    return scan(bytes[region]);
+                })
+                .toArray();
+
+        int[] states = new int[count + 1];
+        long[] lines = new long[count + 1];
+        lines[0] = firstLine;
+        for (int region = 0; region < count; region++) {
+            int mapping = (int) (scans[region] & 0xFF);
+            states[region + 1] = mapping >>> (states[region] * 2) & 3;
+            lines[region + 1] = lines[region] + (scans[region] >>> 8);
+        }
+        return new Regions(dataStart, rawChunkBytes, bytes, states, lines);
+    }
+
+    private static long[] chunkBoundaries(Regions regions, boolean completeRecords) {
+        int chunks = regions.bytes().length;
+        long[] boundaries = new long[chunks + 1];
+        boundaries[0] = regions.start();
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            boundaries[chunk] = Math.max(boundaries[chunk - 1], regions.nextRecordStart(chunk));
+        }
+        long end = completeRecords ? regions.lastRecordEnd() : regions.end();
+        for (int chunk = 1; chunk <= chunks; chunk++) {
+            boundaries[chunk] = Math.min(boundaries[chunk], end);
+        }
+        boundaries[chunks] = end;
+        return boundaries;
+    }
+
+    /**
+     * Runs the bytes through the quoting states from every state at once, returning the mapping from the state at
+     * their start to the state at their end in the low byte and the number of newlines above it.
+     */
+    private static long scan(ByteBuffer bytes) {
+        int mapping = IDENTITY;
+        long newlines = 0;
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            byte b = bytes.get(i);
+            mapping = TRANSITIONS[mapping << 8 | b & 0xFF] & 0xFF;
+            if (b == NEWLINE) {
+                newlines++;
+            }
+        }
+        return newlines << 8 | mapping;
+    }
+
+    /**
+     * Offset just past the first newline in the bytes that ends a record, starting in {@code state}, or -1 if there
+     * is none.
+     */
+    private static int recordEnd(ByteBuffer bytes, int state) {
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            byte b = bytes.get(i);
+            state = next(state, b);
+            if (b == NEWLINE && state != QUOTED) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int next(int state, byte b) {
+        return switch (b) {
+            case QUOTE -> switch (state) {
+                case FIELD_START, QUOTE_IN_QUOTED -> QUOTED;
+                case QUOTED -> QUOTE_IN_QUOTED;
+                default -> UNQUOTED;
+            };
+            case SEPARATOR, NEWLINE -> state == QUOTED ? QUOTED : FIELD_START;
+            default -> state == QUOTED ? QUOTED : UNQUOTED;
+        };
+    }
+
+    private static byte[] transitions() {
+        byte[] transitions = new byte[256 << 8];
+        for (int mapping = 0; mapping < 256; mapping++) {
+            for (int b = 0; b < 256; b++) {
+                int next = 0;
+                for (int state = 0; state < STATES; state++) {
+                    next |= next(mapping >>> (state * 2) & 3, (byte) b) << (state * 2);
+                }
+                transitions[mapping << 8 | b] = (byte) next;
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Parses the records of one chunk, numbering lines on from the {@code startLine} before it. A row that cannot be
+     * bound fails the load, or is set aside for the quarantine if there is one. Reading (mapping and decoding the
+     * chunk), tokenizing and binding are timed separately and recorded once per chunk.
+     */
+    private <T> Chunk<T> parseChunk(DataSource source, Header header, TransactionDateDecoder dateDecoder,
+                                    ChunkReader<T> reader, long from, long to, long startLine) {
+        T rows = reader.newRows();
+        if (to <= from) {
+            return new Chunk<>(rows, 0, Collections.emptyList());
+        }
+        RowBinder binder = reader.binder(rows, header.columns(), dateDecoder);
+        List<QuarantinedRow> quarantined = new ArrayList<>(0);
+        long tokenizeNanos = 0;
+        long bindNanos = 0;
+        try {
+            long start = System.nanoTime();
+            CharBuffer chars = StandardCharsets.UTF_8.newDecoder()
+                    .decode(source.slice(from, Math.toIntExact(to - from)));
+            TransactionCsvTokenizer tokenizer =
+                    new TransactionCsvTokenizer(chars.array(), chars.arrayOffset(), chars.limit());
+            metrics.record(IngestMetrics.Phase.READ, System.nanoTime() - start);
+            while (true) {
+                long rowStart = System.nanoTime();
+                boolean read = tokenizer.next();
+                long tokenized = System.nanoTime();
+                tokenizeNanos += tokenized - rowStart;
+                if (!read) {
+                    break;
+                }
+                long line = startLine + tokenizer.lineNumber();
+                String reason = binder.bind(tokenizer, line);
+                bindNanos += System.nanoTime() - tokenized;
+                if (reason == null) {
+                    continue;
+                }
+                metrics.rejected();
+                if (!quarantine.enabled()) {
+                    throw new IllegalStateException("%s at line %d, in the chunk starting at line %d (byte %d)"
+                            .formatted(reason, line, startLine + 1, from));
+                }
+                quarantined.add(new QuarantinedRow(line, reason));
+            }
+            return new Chunk<>(rows, tokenizer.lineNumber(), quarantined);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            metrics.record(IngestMetrics.Phase.TOKENIZE, tokenizeNanos);
+            metrics.record(IngestMetrics.Phase.BIND, bindNanos);
+        }
+    }
+
+    private static ChunkReader<ColumnarTransactionStore.Builder> into(ColumnarTransactionStore.Builder builder,
+                                                                      TransactionAmountParser amountParser) {
+        return new ChunkReader<>() {
+            @Override
+            public ColumnarTransactionStore.Builder newRows() {
+                return builder.newBuilder();
+            }
+
+            @Override
+            public RowBinder binder(ColumnarTransactionStore.Builder rows, TransactionColumns columns,
+                                    TransactionDateDecoder dateDecoder) {
+                return (tokenizer, line) -> columns.bindInto(tokenizer, dateDecoder, amountParser, rows);
+            }
+        };
+    }
+
+    /**
+     * What the records of each chunk are parsed into: a fresh target per chunk, as chunks are parsed in parallel, and
+     * a binder that adds the current record of a tokenizer to it.
+     */
+    private interface ChunkReader<T> {
+
+        T newRows();
+
+        RowBinder binder(T rows, TransactionColumns columns, TransactionDateDecoder dateDecoder);
+    }
+
+    private static final ChunkReader<List<DataRecord>> RECORDS = new ChunkReader<>() {
+        @Override
+        public List<DataRecord> newRows() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public RowBinder binder(List<DataRecord> rows, TransactionColumns columns,
+                                TransactionDateDecoder dateDecoder) {
+            return (tokenizer, line) -> {
+                DataRecord dataRecord = columns.bind(tokenizer, dateDecoder, line);
+                if (dataRecord == null) {
+                    return columns.rejection(tokenizer);
+                }
+                rows.add(dataRecord);
+                return null;
+            };
+        }
+    };
+
+    private record Parsed<T>(List<T> chunks, long end) {
+    }
+
+    /**
+     * The rows of one chunk, the lines it spans and the rows set aside for the quarantine, numbered by line of the
+     * data file.
+     */
+    private record Chunk<T>(T rows, long lines, List<QuarantinedRow> quarantined) {
+    }
+
+    private record Header(TransactionColumns columns, long dataStart, long lines, boolean terminated) {
+    }
+
+    /**
+     * The data from {@code start} as raw regions of {@code regionBytes} each, with the quoting state and the lines read
+     * at the start of each region and at the end of the data.
+     */
+    private record Regions(long start, long regionBytes, ByteBuffer[] bytes, int[] states, long[] lines) {
+
+        long end() {
+            return start + (bytes.length - 1) * regionBytes + bytes[bytes.length - 1].limit();
+        }
+
+        /**
+         * Offset just past the first newline at or after the start of {@code region} that ends a record, or the end of
+         * the data when there is none.
+         */
+        long nextRecordStart(int region) {
+            for (int next = region; next < bytes.length; next++) {
+                int recordEnd = recordEnd(bytes[next], states[next]);
+                if (recordEnd >= 0) {
+                    return start + next * regionBytes + recordEnd;
+                }
+            }
+            return end();
+        }
+
+        /**
+         * Offset just past the last newline in the data that ends a record, or the start of the data when there is
+         * none.
+         */
+        long lastRecordEnd() {
+            for (int region = bytes.length - 1; region >= 0; region--) {
+                int state = states[region];
+                int recordEnd = -1;
+                for (int i = 0; i < bytes[region].limit(); i++) {
+                    byte b = bytes[region].get(i);
+                    state = next(state, b);
+                    if (b == NEWLINE && state != QUOTED) {
+                        recordEnd = i + 1;
+                    }
+                }
+                if (recordEnd >= 0) {
+                    return start + region * regionBytes + recordEnd;
+                }
+            }
+            return start;
+        }
+
+        /**
+         * Lines read before {@code offset}, which is at a record boundary.
+         */
+        long linesBefore(long offset) {
+            int region = (int) Math.min((offset - start) / regionBytes, bytes.length);
+            if (region == bytes.length) {
+                return lines[region];
+            }
+            long newlines = lines[region];
+            for (int i = 0; i < offset - start - region * regionBytes; i++) {
+                if (bytes[region].get(i) == NEWLINE) {
+                    newlines++;
+                }
+            }
+            return newlines;
+        }
+    }
+
+    /**
+     * The data file as randomly addressable byte regions: mapped from the filesystem where possible, or held in
+     * memory for classpath resources that are not plain files (e.g. when running from the jar).
+     */
+    abstract static class DataSource implements Closeable {
+
+        abstract long size();
+
+        abstract ByteBuffer slice(long offset, int length) throws IOException;
+
+        static DataSource open(String dataFile) throws IOException {
+            Path path = CsvDataLoader.filesystemPath(dataFile);
+            if (path == null) {
+                ClassPathResource resource = new ClassPathResource(dataFile);
+                if (!resource.isFile()) {
+                    return new InMemory(resource.getInputStream().readAllBytes());
+                }
+                path = resource.getFile().toPath();
+            }
+            return new Mapped(FileChannel.open(path, StandardOpenOption.READ));
+        }
+
+        private static class Mapped extends DataSource {
+
+            private final FileChannel channel;
+            private final long size;
+
+            private Mapped(FileChannel channel) throws IOException {
+                this.channel = channel;
+                this.size = channel.size();
+            }
+
+            @Override
+            long size() {
+                return size;
+            }
+
+            @Override
+            ByteBuffer slice(long offset, int length) throws IOException {
+                return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        }
+
+        private static class InMemory extends DataSource {
+
+            private final byte[] bytes;
+
+            private InMemory(byte[] bytes) {
+                this.bytes = bytes;
+            }
+
+            @Override
+            long size() {
+                return bytes.length;
+            }
+
+            @Override
+            ByteBuffer slice(long offset, int length) {
+                return ByteBuffer.wrap(bytes, Math.toIntExact(offset), length).slice();
+            }
+
+            @Override
+            public void close() {
+            }
+        }
+    }
+}
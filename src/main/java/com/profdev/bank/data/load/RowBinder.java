@@ -0,0 +1,14 @@
+package com.profdev.bank.data.load;
+
+/**
+ * Binds the current record of a tokenizer to wherever a read puts its rows.
+ */
+@FunctionalInterface
+interface RowBinder {
+
+    /**
+     * @param line the line of the data file the record ends on
+     * @return {@code null} once bound, or why the record was turned down
+     */
+    String bind(TransactionCsvTokenizer tokenizer, long line);
+}
@@ -0,0 +1,112 @@
+package com.profdev.bank.data.load;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.SnapshotProperties;
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the CSV data file like {@link MappedCsvDataLoader} and has the loaded data kept as a binary snapshot, named
+ * after the data file with a {@code .snapshot} suffix, which is used instead of the CSV on later starts for as long as
+ * the data file's CRC-32C checksum is unchanged.
+ */
+@Slf4j
+public class SnapshotCsvDataLoader implements SnapshotDataLoader, ColumnarDataLoader {
+
+    public static final String BEAN_QUALIFIER = "snapshot-csv";
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final int CHECKSUM_BUFFER_BYTES = 1 << 20;
+
+    private final AppProperties appProperties;
+
+    private final SnapshotProperties snapshotProperties;
+
+    private final MappedCsvDataLoader csvDataLoader;
+
+    public SnapshotCsvDataLoader(AppProperties appProperties, SnapshotProperties snapshotProperties) {
+        this(appProperties, snapshotProperties, IngestMetrics.NONE);
+    }
+
+    public SnapshotCsvDataLoader(AppProperties appProperties, SnapshotProperties snapshotProperties,
+                                 IngestMetrics metrics) {
+        this(appProperties, snapshotProperties, metrics, Quarantine.NONE);
+    }
+
+    /**
+     * Rows quarantined while parsing are recorded in the snapshot, along with whether the parse was lenient, so a load
+     * from the snapshot reports the same quarantine and a snapshot built in the other mode is parsed again.
+     */
+    public SnapshotCsvDataLoader(AppProperties appProperties, SnapshotProperties snapshotProperties,
+                                 IngestMetrics metrics, Quarantine quarantine) {
+        this.appProperties = appProperties;
+        this.snapshotProperties = snapshotProperties;
+        this.csvDataLoader = new MappedCsvDataLoader(appProperties, metrics, quarantine);
+    }
+
+    @Override
+    public Quarantine quarantine() {
+        return csvDataLoader.quarantine();
+    }
+
+    @Override
+    public List<DataRecord> retrieveData() {
+        return csvDataLoader.retrieveData();
+    }
+
+    @Override
+    public void streamData(Consumer<DataRecord> consumer) {
+        csvDataLoader.streamData(consumer);
+    }
+
+    @Override
+    public void readInto(ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser) {
+        csvDataLoader.readInto(builder, amountParser);
+    }
+
+    @Override
+    public Path snapshotFile() {
+        String dataFile = appProperties.dataFile();
+        Path source = CsvDataLoader.filesystemPath(dataFile);
+        Path directory;
+        if (snapshotProperties.directory() != null) {
+            directory = Path.of(snapshotProperties.directory());
+        } else if (source != null) {
+            directory = source.toAbsolutePath().getParent();
+        } else {
+            directory = Path.of(System.getProperty("java.io.tmpdir"));
+        }
+        Path name = (source != null ? source : Path.of(dataFile)).getFileName();
+        return directory.resolve(name + SNAPSHOT_SUFFIX);
+    }
+
+    @Override
+    public long sourceChecksum() {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_BYTES);
+        try (ReadableByteChannel channel = CsvDataLoader.openChannel(appProperties.dataFile())) {
+            while (channel.read(buffer) >= 0) {
+                checksum.update(buffer.flip());
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            log.error("Could not read CSV data file: {}", appProperties.dataFile());
+            throw new UncheckedIOException(ex);
+        }
+        return checksum.getValue();
+    }
+}
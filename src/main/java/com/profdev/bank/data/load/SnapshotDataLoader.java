@@ -0,0 +1,17 @@
+package com.profdev.bank.data.load;
+
+import java.nio.file.Path;
+
+/**
+ * A data loader whose loaded data may be kept as a binary snapshot, so later starts can skip parsing the source while
+ * it is unchanged.
+ */
+public interface SnapshotDataLoader extends DataLoader {
+
+    Path snapshotFile();
+
+    /**
+     * Checksum of the source's current contents. A snapshot is only valid for the checksum it was written with.
+     */
+    long sourceChecksum();
+}
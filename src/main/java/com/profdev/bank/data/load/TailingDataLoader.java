@@ -0,0 +1,26 @@
+package com.profdev.bank.data.load;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+
+import java.util.function.Consumer;
+
+/**
+ * A data loader over an append-only source that can read just the records added since an earlier read.
+ */
+public interface TailingDataLoader extends ColumnarDataLoader {
+
+    /**
+     * Hands each complete record starting at or after byte {@code offset} to the consumer, in source order, and
+     * returns the offset just past the last record handed over. An offset of 0 reads the whole source; passing the
+     * returned offset back reads only what has been appended since. A trailing record that is not yet terminated by
+     * a line break is left for a later call.
+     */
+    long streamFrom(long offset, Consumer<DataRecord> consumer);
+
+    /**
+     * Like {@link #streamFrom}, but adds the records straight to the builder as {@link #readInto} does.
+     */
+    long readFrom(long offset, ColumnarTransactionStore.Builder builder, TransactionAmountParser amountParser);
+}
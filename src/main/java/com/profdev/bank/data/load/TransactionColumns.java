@@ -0,0 +1,111 @@
+package com.profdev.bank.data.load;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.TransactionDateDecoder;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Positions of the {@link DataRecord} columns in a header row, matched by name ignoring case and surrounding spaces. A
+ * column missing from the header binds as {@code null}; columns that are not {@link DataRecord} fields are skipped.
+ */
+record TransactionColumns(int count, int transactionDate, int vendor, int type, int amount, int category) {
+
+    static final String FIELD_COUNT_MISMATCH = "Number of data fields does not match number of headers";
+
+    /**
+     * Reads the header row, or returns null if the text has no records.
+     */
+    static TransactionColumns read(TransactionCsvTokenizer tokenizer) throws IOException {
+        if (!tokenizer.next()) {
+            return null;
+        }
+        return new TransactionColumns(tokenizer.fieldCount(),
+                indexOf(tokenizer, DataRecord.TRANSACTION_DATE_COLUMN),
+                indexOf(tokenizer, DataRecord.VENDOR_COLUMN),
+                indexOf(tokenizer, DataRecord.TYPE_COLUMN),
+                indexOf(tokenizer, DataRecord.AMOUNT_COLUMN),
+                indexOf(tokenizer, DataRecord.CATEGORY_COLUMN));
+    }
+
+    /**
+     * Binds the current record of the tokenizer, decoding the date from the field in place, or returns {@code null}
+     * if it has the wrong number of fields or a malformed date; {@link #rejection} then says which. Empty fields bind
+     * as empty strings and an empty date as {@code null}.
+     */
+    DataRecord bind(TransactionCsvTokenizer tokenizer, TransactionDateDecoder dateDecoder, long lineNumber) {
+        if (tokenizer.fieldCount() != count) {
+            return null;
+        }
+        DataRecord dataRecord = new DataRecord();
+        if (transactionDate >= 0 && !tokenizer.isEmpty(transactionDate)) {
+            int epochDay = dateDecoder.tryEpochDay(tokenizer.fieldChars(transactionDate));
+            if (epochDay == TransactionDateDecoder.INVALID) {
+                return null;
+            }
+            dataRecord.setTransactionDate(LocalDate.ofEpochDay(epochDay));
+        }
+        dataRecord.setLineNumber(lineNumber);
+        dataRecord.setVendor(field(tokenizer, vendor));
+        dataRecord.setType(field(tokenizer, type));
+        dataRecord.setAmount(field(tokenizer, amount));
+        dataRecord.setCategory(field(tokenizer, category));
+        return dataRecord;
+    }
+
+    /**
+     * Why {@link #bind} turned down the current record of the tokenizer.
+     */
+    String rejection(TransactionCsvTokenizer tokenizer) {
+        return tokenizer.fieldCount() != count
+                ? FIELD_COUNT_MISMATCH
+                : "Invalid transaction date: " + tokenizer.field(transactionDate);
+    }
+
+    /**
+     * Adds the current record of the tokenizer to the builder, decoding the date and parsing the amount from their
+     * fields in place and interning the string fields without making strings of values already seen. Returns
+     * {@code null}, or why the record was turned down, in which case nothing is added.
+     */
+    String bindInto(TransactionCsvTokenizer tokenizer, TransactionDateDecoder dateDecoder,
+                    TransactionAmountParser amountParser, ColumnarTransactionStore.Builder builder) {
+        if (tokenizer.fieldCount() != count) {
+            return FIELD_COUNT_MISMATCH;
+        }
+        if (transactionDate < 0 || tokenizer.isEmpty(transactionDate)) {
+            return "Missing transaction date";
+        }
+        int epochDay = dateDecoder.tryEpochDay(tokenizer.fieldChars(transactionDate));
+        if (epochDay == TransactionDateDecoder.INVALID) {
+            return rejection(tokenizer);
+        }
+        CharSequence amountText = fieldChars(tokenizer, amount);
+        long minorUnits = amountParser.tryParseMinorUnits(amountText);
+        if (minorUnits == TransactionAmountParser.INVALID) {
+            return TransactionAmountParser.invalidReason(amountText);
+        }
+        builder.add(epochDay, fieldChars(tokenizer, vendor), fieldChars(tokenizer, type), amountText, minorUnits,
+                fieldChars(tokenizer, category));
+        return null;
+    }
+
+    private static String field(TransactionCsvTokenizer tokenizer, int index) {
+        return index < 0 ? null : tokenizer.field(index);
+    }
+
+    private static CharSequence fieldChars(TransactionCsvTokenizer tokenizer, int index) {
+        return index < 0 ? null : tokenizer.fieldChars(index);
+    }
+
+    private static int indexOf(TransactionCsvTokenizer header, String column) {
+        for (int i = 0; i < header.fieldCount(); i++) {
+            if (column.equalsIgnoreCase(header.field(i).trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,261 @@
+package com.profdev.bank.data.load;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Splits RFC 4180 CSV text into records and fields. Fields may be quoted to hold commas, line breaks and quotes, which
+ * are escaped by doubling them; records end with {@code \n} or {@code \r\n}. Runs of plain characters are copied from
+ * the read buffer in bulk and every field of a record lands in one reused character array, so reading a record
+ * allocates nothing: {@link #field} makes a {@link String} of only the fields asked for and {@link #fieldChars} reads
+ * them in place. Blank lines are skipped.
+ * <p>
+ * Characters between a closing quote and the next separator are kept as they are, and a quote inside an unquoted field
+ * is an ordinary character, rather than failing the record.
+ */
+public class TransactionCsvTokenizer {
+
+    private static final int BUFFER_SIZE = 64 << 10;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char CR = '\r';
+    private static final char LF = '\n';
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private char[] chars = new char[256];
+    private int length;
+    private int[] fieldEnds = new int[8];
+    private int fieldCount;
+    private long lineNumber;
+
+    private FieldChars[] fieldChars = new FieldChars[8];
+
+    public TransactionCsvTokenizer(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Tokenizes {@code length} characters of {@code text} from {@code offset} without copying them.
+     */
+    public TransactionCsvTokenizer(char[] text, int offset, int length) {
+        this.reader = null;
+        this.buffer = text;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Reads the next record, replacing the fields of the previous one.
+     *
+     * @return false at the end of the text
+     * @throws EOFException if the text ends inside a quoted field
+     */
+    public boolean next() throws IOException {
+        while (readRecord()) {
+            if (fieldCount > 1 || length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public String field(int index) {
+        int start = fieldStart(index);
+        return new String(chars, start, fieldEnds[index] - start);
+    }
+
+    public boolean isEmpty(int index) {
+        return fieldEnds[index] == fieldStart(index);
+    }
+
+    /**
+     * The characters of field {@code index} in place, valid until the next call to {@link #next}. Each field has its
+     * own view, so the fields of a record can be held at the same time.
+     */
+    public CharSequence fieldChars(int index) {
+        int start = fieldStart(index);
+        if (index >= fieldChars.length) {
+            fieldChars = Arrays.copyOf(fieldChars, Math.max(fieldChars.length * 2, index + 1));
+        }
+        FieldChars chars = fieldChars[index];
+        if (chars == null) {
+            chars = fieldChars[index] = new FieldChars();
+        }
+        chars.start = start;
+        chars.end = fieldEnds[index];
+        return chars;
+    }
+
+    /**
+     * Lines read so far, counting line breaks inside quoted fields.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    private int fieldStart(int index) {
+        Objects.checkIndex(index, fieldCount);
+        return index == 0 ? 0 : fieldEnds[index - 1];
+    }
+
+    private boolean readRecord() throws IOException {
+        if (position == limit && !fill()) {
+            return false;
+        }
+        length = 0;
+        fieldCount = 0;
+        while (true) {
+            int terminator = readField();
+            if (fieldCount == fieldEnds.length) {
+                fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            }
+            fieldEnds[fieldCount++] = length;
+            if (terminator != SEPARATOR) {
+                lineNumber++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Appends one field to {@link #chars} and returns what ended it: a separator, {@code \n} or -1 at the end of the
+     * text.
+     */
+    private int readField() throws IOException {
+        if (peek() == QUOTE) {
+            position++;
+            readQuoted();
+        }
+        while (true) {
+            int start = position;
+            while (position < limit && !isDelimiter(buffer[position])) {
+                position++;
+            }
+            append(start, position - start);
+            if (position == limit) {
+                if (!fill()) {
+                    return -1;
+                }
+                continue;
+            }
+            char c = buffer[position++];
+            if (c != CR) {
+                return c;
+            }
+            int next = peek();
+            if (next == LF || next < 0) {
+                position += next == LF ? 1 : 0;
+                return LF;
+            }
+            append(CR);
+        }
+    }
+
+    /**
+     * Appends the rest of a quoted field, up to and including its closing quote.
+     */
+    private void readQuoted() throws IOException {
+        while (true) {
+            int start = position;
+            while (position < limit && buffer[position] != QUOTE) {
+                if (buffer[position] == LF) {
+                    lineNumber++;
+                }
+                position++;
+            }
+            append(start, position - start);
+            if (position == limit) {
+                if (!fill()) {
+                    throw new EOFException("Unterminated quoted field at line " + (lineNumber + 1));
+                }
+                continue;
+            }
+            position++;
+            if (peek() != QUOTE) {
+                return;
+            }
+            position++;
+            append(QUOTE);
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == SEPARATOR || c == LF || c == CR;
+    }
+
+    private int peek() throws IOException {
+        return position < limit || fill() ? buffer[position] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void append(int start, int count) {
+        ensureCapacity(count);
+        System.arraycopy(buffer, start, chars, length, count);
+        length += count;
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        chars[length++] = c;
+    }
+
+    private void ensureCapacity(int count) {
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+        }
+    }
+
+    private final class FieldChars implements CharSequence {
+
+        private int start;
+        private int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[start + Objects.checkIndex(index, end - start)];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            Objects.checkFromToIndex(from, to, end - start);
+            return new String(chars, start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, start, end - start);
+        }
+    }
+}
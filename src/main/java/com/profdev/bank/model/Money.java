@@ -0,0 +1,92 @@
+package com.profdev.bank.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * A monetary amount as a whole number of minor units (pence, cents) of its currency, always at a scale of 2, so that
+ * sums and comparisons are plain {@code long} arithmetic. Halves are rounded away from zero (HALF_UP) wherever an
+ * amount has to be rounded to a minor unit.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private static final int MINOR_UNITS_PER_UNIT = 100;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code "123.455"}, rounding HALF_UP to a minor unit.
+     *
+     * @throws NumberFormatException if {@code decimal} is not a decimal number
+     */
+    public static Money parse(String decimal, Currency currency) {
+        return new Money(new BigDecimal(decimal).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                currency);
+    }
+
+    /**
+     * The mean of {@code count} amounts summing to {@code totalMinorUnits}, rounded HALF_UP to a minor unit.
+     */
+    public static Money average(long totalMinorUnits, long count, Currency currency) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Cannot average %d amounts".formatted(count));
+        }
+        long quotient = totalMinorUnits / count;
+        long remainder = Math.abs(totalMinorUnits % count);
+        if (remainder >= count - remainder) {
+            quotient += Long.signum(totalMinorUnits);
+        }
+        return new Money(quotient, currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * The amount as a plain decimal with two decimal places, e.g. {@code 1234.50} or {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        return appendDecimal(new StringBuilder(), minorUnits).toString();
+    }
+
+    /**
+     * Appends {@code minorUnits} as {@link #toString()} formats an amount, without creating the amount.
+     */
+    public static StringBuilder appendDecimal(StringBuilder text, long minorUnits) {
+        long units = minorUnits / MINOR_UNITS_PER_UNIT;
+        int fraction = (int) Math.abs(minorUnits % MINOR_UNITS_PER_UNIT);
+        if (minorUnits < 0 && units == 0) {
+            text.append('-');
+        }
+        return text.append(units).append(fraction < 10 ? ".0" : ".").append(fraction);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine %s and %s amounts".formatted(currency, other.currency));
+        }
+    }
+}
@@ -6,7 +6,6 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -24,7 +23,7 @@ public class Transaction {
 
     @JsonIgnore
     @NotNull
-    private BigDecimal monetaryAmount;
+    private Money monetaryAmount;
 
     @NotBlank
     private String category;
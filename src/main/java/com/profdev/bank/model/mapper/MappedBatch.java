@@ -0,0 +1,25 @@
+package com.profdev.bank.model.mapper;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+
+import java.util.List;
+
+/**
+ * A batch of data records whose dates and amounts have already been parsed, ready to be appended to a store in
+ * source order.
+ */
+public record MappedBatch(List<DataRecord> records, int[] epochDays, long[] amounts) {
+
+    public int size() {
+        return records.size();
+    }
+
+    public void appendTo(ColumnarTransactionStore.Builder builder) {
+        for (int i = 0; i < records.size(); i++) {
+            DataRecord data = records.get(i);
+            builder.add(epochDays[i], data.getVendor(), data.getType(), data.getAmount(), amounts[i],
+                    data.getCategory());
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.profdev.bank.model.mapper;
 
 import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
 import com.profdev.bank.model.Transaction;
 import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
 @Service
 public class TransactionMapper {
 
@@ -14,6 +21,18 @@ public class TransactionMapper {
         this.transactionAmountParser = transactionAmountParser;
     }
 
+    public Currency currency() {
+        return transactionAmountParser.currency();
+    }
+
+    public String currencySymbol() {
+        return transactionAmountParser.currencySymbol();
+    }
+
+    public TransactionAmountParser amountParser() {
+        return transactionAmountParser;
+    }
+
     public Transaction mapModelFromData(DataRecord data) {
         Transaction transaction = new Transaction();
         transaction.setDate(data.getTransactionDate());
@@ -24,4 +43,59 @@ public class TransactionMapper {
         transaction.setMonetaryAmount(transactionAmountParser.parse(data.getAmount()));
         return transaction;
     }
+
+    public void mapIntoStore(DataRecord data, ColumnarTransactionStore.Builder builder) {
+        builder.add(Math.toIntExact(data.getTransactionDate().toEpochDay()),
+                data.getVendor(),
+                data.getType(),
+                data.getAmount(),
+                transactionAmountParser.parseMinorUnits(data.getAmount()),
+                data.getCategory());
+    }
+
+    /**
+     * Parses the dates and amounts of a batch of data records. Safe to call concurrently for different batches.
+     *
+     * @throws IllegalArgumentException if a record has no date or a malformed amount
+     */
+    public MappedBatch mapBatch(List<DataRecord> batch) {
+        return mapBatch(batch, Quarantine.NONE);
+    }
+
+    /**
+     * Parses the dates and amounts of a batch of data records, leaving out any record with no date or a malformed
+     * amount and adding it to the quarantine; without one, such a record fails the batch. A batch with no bad records
+     * is mapped as it is, and parse failures are returned as status codes, so skipping a record costs no exception.
+     */
+    public MappedBatch mapBatch(List<DataRecord> batch, Quarantine quarantine) {
+        int[] epochDays = new int[batch.size()];
+        long[] amounts = new long[batch.size()];
+        List<DataRecord> records = batch;
+        int mapped = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            DataRecord data = batch.get(i);
+            long amount = transactionAmountParser.tryParseMinorUnits(data.getAmount());
+            if (amount == TransactionAmountParser.INVALID || data.getTransactionDate() == null) {
+                String reason = data.getTransactionDate() == null
+                        ? "Missing transaction date"
+                        : TransactionAmountParser.invalidReason(data.getAmount());
+                if (!quarantine.enabled()) {
+                    throw new IllegalArgumentException(reason);
+                }
+                quarantine.add(data.getLineNumber(), reason);
+                if (records == batch) {
+                    records = new ArrayList<>(batch.subList(0, i));
+                }
+                continue;
+            }
+            if (records != batch) {
+                records.add(data);
+            }
+            epochDays[mapped] = Math.toIntExact(data.getTransactionDate().toEpochDay());
+            amounts[mapped++] = amount;
+        }
+        return records == batch
+                ? new MappedBatch(batch, epochDays, amounts)
+                : new MappedBatch(records, Arrays.copyOf(epochDays, mapped), Arrays.copyOf(amounts, mapped));
+    }
 }
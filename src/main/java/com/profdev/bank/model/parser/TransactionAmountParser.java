@@ -1,33 +1,127 @@
 package com.profdev.bank.model.parser;
 
 import com.profdev.bank.config.AppProperties;
-import com.profdev.bank.utils.MoneyUtils;
+import com.profdev.bank.model.Money;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Currency;
 
+/**
+ * Parses amounts of the form {@code <currency symbol><1-9 digits>[.<1-2 digits>]} into minor units in a single pass
+ * over the characters. Thousands separators are skipped wherever they appear, as the previous regex based parser did.
+ * <p>
+ * {@link #tryParseMinorUnits} reports a malformed amount as {@link #INVALID} rather than throwing, so skipping bad rows
+ * when loading leniently costs no exceptions.
+ */
 @Service
 public class TransactionAmountParser {
 
-    private final Pattern amountPattern;
+    /**
+     * Returned by {@link #tryParseMinorUnits} for an amount it cannot parse; no valid amount is this far negative.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int MAX_INTEGER_DIGITS = 9;
+    private static final int MAX_DECIMAL_DIGITS = 2;
+    private static final char THOUSANDS_SEPARATOR = ',';
+    private static final char DECIMAL_SEPARATOR = '.';
+
+    private final String currencySymbol;
+
+    private final Currency currency;
 
     public TransactionAmountParser(AppProperties appProperties) {
-        amountPattern = Pattern.compile("^" + appProperties.currencySymbol() + "[0-9]{1,9}+(\\.[0-9][0-9]?)?");
+        currencySymbol = appProperties.currencySymbol();
+        currency = appProperties.currency();
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public String currencySymbol() {
+        return currencySymbol;
     }
 
-    public BigDecimal parse(String amount) {
+    public Money parse(String amount) {
+        return Money.of(parseMinorUnits(amount), currency);
+    }
+
+    public long parseMinorUnits(String amount) {
+        long units = tryParseMinorUnits(amount);
+        if (units == INVALID) {
+            throw new IllegalArgumentException(invalidReason(amount));
+        }
+        return units;
+    }
+
+    /**
+     * The amount in minor units, or {@link #INVALID} if it is not in the expected format. Reads the characters in
+     * place, so a field of a CSV record can be parsed without making a string of it.
+     */
+    public long tryParseMinorUnits(CharSequence amount) {
         if (StringUtils.isBlank(amount)) {
-            throw new IllegalArgumentException("Amount cannot be null or empty");
+            return INVALID;
+        }
+        int length = amount.length();
+        int index = skipSeparators(amount, 0);
+
+        for (int i = 0; i < currencySymbol.length(); i++) {
+            if (index == length || amount.charAt(index) != currencySymbol.charAt(i)) {
+                return INVALID;
+            }
+            index = skipSeparators(amount, index + 1);
         }
-        String noCommas = amount.replaceAll(",", "");
-        Matcher matcher = amountPattern.matcher(noCommas);
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException("Invalid amount format: %s".formatted(amount));
+
+        long units = 0;
+        int integerDigits = 0;
+        while (index < length && isDigit(amount.charAt(index))) {
+            units = units * 10 + (amount.charAt(index) - '0');
+            integerDigits++;
+            index = skipSeparators(amount, index + 1);
+        }
+        if (integerDigits == 0 || integerDigits > MAX_INTEGER_DIGITS) {
+            return INVALID;
+        }
+        if (index == length) {
+            return units * 100;
+        }
+
+        if (amount.charAt(index) != DECIMAL_SEPARATOR) {
+            return INVALID;
+        }
+        index = skipSeparators(amount, index + 1);
+        long fraction = 0;
+        int decimalDigits = 0;
+        while (index < length && isDigit(amount.charAt(index))) {
+            fraction = fraction * 10 + (amount.charAt(index) - '0');
+            decimalDigits++;
+            index = skipSeparators(amount, index + 1);
+        }
+        if (decimalDigits == 0 || decimalDigits > MAX_DECIMAL_DIGITS || index != length) {
+            return INVALID;
         }
-        String monetaryAmount = noCommas.replaceAll("£", "");
-        return MoneyUtils.fromString(monetaryAmount);
+        return units * 100 + (decimalDigits == 1 ? fraction * 10 : fraction);
+    }
+
+    private static int skipSeparators(CharSequence amount, int index) {
+        while (index < amount.length() && amount.charAt(index) == THOUSANDS_SEPARATOR) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Why {@link #tryParseMinorUnits} rejected the amount.
+     */
+    public static String invalidReason(CharSequence amount) {
+        return StringUtils.isBlank(amount)
+                ? "Amount cannot be null or empty"
+                : "Invalid amount format: %s".formatted(amount);
     }
 }
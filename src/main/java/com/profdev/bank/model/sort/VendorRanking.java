@@ -0,0 +1,9 @@
+package com.profdev.bank.model.sort;
+
+/**
+ * What vendors are ranked by: the total they were paid or the number of transactions with them.
+ */
+public enum VendorRanking {
+    SPEND,
+    COUNT
+}
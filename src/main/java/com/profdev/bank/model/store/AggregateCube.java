@@ -0,0 +1,313 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.utils.EpochDays;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+
+import java.util.Arrays;
+
+/**
+ * Sum, count, minimum and maximum of the amounts in each (category, year, month) cell, plus a {@link QuantileSketch} of
+ * the amounts per (category, year), built in one pass at load time and extended with each batch of appended rows, so
+ * that the aggregate queries are answered by reading cells rather than by scanning rows.
+ * <p>
+ * Only years that have rows get cells, so an outlier date (year 1 or 9999) adds one year of cells rather than every
+ * year in between.
+ * <p>
+ * Appended rows go to a delta cube, usually a year or two of cells, rather than into a copy of every cell; it is merged
+ * into the main cells once it outgrows {@link TransactionDataset#compacts}. The accessors answer for both.
+ */
+public class AggregateCube {
+
+    public static final int MONTHS = 12;
+
+    private final int categoryCount;
+    private final int[] years;
+    private final long[] sums;
+    private final long[] counts;
+    private final long[] minimums;
+    private final long[] maximums;
+    private final QuantileSketch[] sketches;
+
+    // cube of the rows from deltaFrom on; null on a delta
+    private final AggregateCube delta;
+    private final int deltaFrom;
+
+    /**
+     * @param years the years that have rows, ascending; a year's position in it is its index in the cube
+     */
+    private AggregateCube(int categoryCount, int[] years) {
+        this.categoryCount = categoryCount;
+        this.years = years;
+        int cells = Math.multiplyExact(Math.multiplyExact(categoryCount, years.length), MONTHS);
+        this.sums = new long[cells];
+        this.counts = new long[cells];
+        this.minimums = new long[cells];
+        this.maximums = new long[cells];
+        Arrays.fill(minimums, Long.MAX_VALUE);
+        Arrays.fill(maximums, Long.MIN_VALUE);
+        this.sketches = new QuantileSketch[categoryCount * years.length];
+        this.delta = null;
+        this.deltaFrom = 0;
+    }
+
+    /**
+     * Cube sharing the cells of {@code main}, with {@code delta} over the rows from {@code deltaFrom} on.
+     */
+    private AggregateCube(AggregateCube main, AggregateCube delta, int deltaFrom) {
+        this.categoryCount = main.categoryCount;
+        this.years = main.years;
+        this.sums = main.sums;
+        this.counts = main.counts;
+        this.minimums = main.minimums;
+        this.maximums = main.maximums;
+        this.sketches = main.sketches;
+        this.delta = delta;
+        this.deltaFrom = deltaFrom;
+    }
+
+    public static AggregateCube of(ColumnarTransactionStore store) {
+        AggregateCube empty = new AggregateCube(0, new int[0]);
+        return new AggregateCube(empty, empty, 0).append(store, 0);
+    }
+
+    /**
+     * Cube over {@code store}, whose rows before {@code fromRow} are the rows this cube already covers. The new rows
+     * are added to the delta, or the delta and the new rows to the main cells when it is time to compact; this cube is
+     * left unchanged.
+     */
+    public AggregateCube append(ColumnarTransactionStore store, int fromRow) {
+        if (fromRow == store.size()) {
+            return this;
+        }
+        if (TransactionDataset.compacts(deltaFrom, store.size())) {
+            return new AggregateCube(merge(store, deltaFrom), new AggregateCube(0, new int[0]), store.size());
+        }
+        return new AggregateCube(this, delta.merge(store, fromRow), deltaFrom);
+    }
+
+    /**
+     * Cells of this cube with the rows of {@code store} from {@code fromRow} on added. The existing cells are copied
+     * into a cube sized for any new categories and years and only the new rows are added to it. Sketches are shared
+     * with this cube until a new row lands in them, then copied.
+     */
+    private AggregateCube merge(ColumnarTransactionStore store, int fromRow) {
+        IntHashSet newYears = new IntHashSet();
+        for (int row = fromRow; row < store.size(); row++) {
+            int year = EpochDays.year(store.epochDay(row));
+            if (Arrays.binarySearch(years, year) < 0) {
+                newYears.add(year);
+            }
+        }
+        int[] cubeYears = years;
+        if (!newYears.isEmpty()) {
+            cubeYears = Arrays.copyOf(years, years.length + newYears.size());
+            System.arraycopy(newYears.toArray(), 0, cubeYears, years.length, newYears.size());
+            Arrays.sort(cubeYears);
+        }
+
+        AggregateCube cube = new AggregateCube(store.categories().size(), cubeYears);
+        for (int categoryId = 0; categoryId < categoryCount; categoryId++) {
+            for (int year : years) {
+                int from = cell(categoryId, year, 1);
+                int to = cube.cell(categoryId, year, 1);
+                System.arraycopy(sums, from, cube.sums, to, MONTHS);
+                System.arraycopy(counts, from, cube.counts, to, MONTHS);
+                System.arraycopy(minimums, from, cube.minimums, to, MONTHS);
+                System.arraycopy(maximums, from, cube.maximums, to, MONTHS);
+                cube.sketches[cube.sketch(categoryId, year)] = sketches[sketch(categoryId, year)];
+            }
+        }
+        boolean[] copied = new boolean[cube.sketches.length];
+        for (int row = fromRow; row < store.size(); row++) {
+            int epochDay = store.epochDay(row);
+            int cell = cube.cell(store.categoryId(row), EpochDays.year(epochDay), EpochDays.month(epochDay));
+            long amount = store.amount(row);
+            cube.sums[cell] += amount;
+            cube.counts[cell]++;
+            cube.minimums[cell] = Math.min(cube.minimums[cell], amount);
+            cube.maximums[cell] = Math.max(cube.maximums[cell], amount);
+            int sketch = cell / MONTHS;
+            if (!copied[sketch]) {
+                QuantileSketch shared = cube.sketches[sketch];
+                cube.sketches[sketch] = shared == null ? new QuantileSketch() : shared.copy();
+                copied[sketch] = true;
+            }
+            cube.sketches[sketch].add(amount);
+        }
+        return cube;
+    }
+
+    public int categoryCount() {
+        // the delta is built over the later store, so it knows at least as many categories
+        return Math.max(categoryCount, delta.categoryCount);
+    }
+
+    /**
+     * Whether the category is known and the year has rows, in any category.
+     */
+    public boolean contains(int categoryId, int year) {
+        return holds(categoryId, year) || delta.holds(categoryId, year);
+    }
+
+    /**
+     * Cell of a category, year and month (1-12) among the main cells, which must hold the category and year. Rows still
+     * in the delta are not in any cell; the category, month and year accessors below answer for every row.
+     */
+    public int cell(int categoryId, int year, int month) {
+        return sketch(categoryId, year) * MONTHS + month - 1;
+    }
+
+    public long sum(int cell) {
+        return sums[cell];
+    }
+
+    public long count(int cell) {
+        return counts[cell];
+    }
+
+    /**
+     * Smallest amount in the cell, or {@link Long#MAX_VALUE} when the cell is empty.
+     */
+    public long minimum(int cell) {
+        return minimums[cell];
+    }
+
+    /**
+     * Largest amount in the cell, or {@link Long#MIN_VALUE} when the cell is empty.
+     */
+    public long maximum(int cell) {
+        return maximums[cell];
+    }
+
+    /**
+     * Sketch of a category's amounts in a year, or {@code null} when it has none. The sketch may be shared and must
+     * not be modified.
+     */
+    public QuantileSketch yearSketch(int categoryId, int year) {
+        QuantileSketch main = holds(categoryId, year) ? sketches[sketch(categoryId, year)] : null;
+        QuantileSketch recent = delta.holds(categoryId, year) ? delta.sketches[delta.sketch(categoryId, year)] : null;
+        if (main == null || recent == null) {
+            return main != null ? main : recent;
+        }
+        QuantileSketch combined = main.copy();
+        combined.merge(recent);
+        return combined;
+    }
+
+    public long total(int categoryId) {
+        return levelTotal(categoryId) + delta.levelTotal(categoryId);
+    }
+
+    /**
+     * Sum of a category's amounts in the given month (1-12) across all years.
+     */
+    public long monthSum(int categoryId, int month) {
+        return levelMonthSum(categoryId, month) + delta.levelMonthSum(categoryId, month);
+    }
+
+    /**
+     * Count of a category's transactions in the given month (1-12) across all years.
+     */
+    public long monthCount(int categoryId, int month) {
+        return levelMonthCount(categoryId, month) + delta.levelMonthCount(categoryId, month);
+    }
+
+    /**
+     * Count of a category's transactions in a year; zero for a year without rows.
+     */
+    public long yearCount(int categoryId, int year) {
+        return levelYearCount(categoryId, year) + delta.levelYearCount(categoryId, year);
+    }
+
+    /**
+     * Smallest of a category's amounts in a year, or {@link Long#MAX_VALUE} when it has none.
+     */
+    public long yearMinimum(int categoryId, int year) {
+        return Math.min(levelYearMinimum(categoryId, year), delta.levelYearMinimum(categoryId, year));
+    }
+
+    /**
+     * Largest of a category's amounts in a year, or {@link Long#MIN_VALUE} when it has none.
+     */
+    public long yearMaximum(int categoryId, int year) {
+        return Math.max(levelYearMaximum(categoryId, year), delta.levelYearMaximum(categoryId, year));
+    }
+
+    /**
+     * Whether this level has cells for the category and year.
+     */
+    private boolean holds(int categoryId, int year) {
+        return categoryId >= 0 && categoryId < categoryCount && Arrays.binarySearch(years, year) >= 0;
+    }
+
+    private long levelTotal(int categoryId) {
+        long total = 0;
+        if (categoryId < 0 || categoryId >= categoryCount) {
+            return total;
+        }
+        int from = categoryId * years.length * MONTHS;
+        for (int cell = from; cell < from + years.length * MONTHS; cell++) {
+            total += sums[cell];
+        }
+        return total;
+    }
+
+    private long levelMonthSum(int categoryId, int month) {
+        long sum = 0;
+        if (categoryId < 0 || categoryId >= categoryCount) {
+            return sum;
+        }
+        for (int year : years) {
+            sum += sums[cell(categoryId, year, month)];
+        }
+        return sum;
+    }
+
+    private long levelMonthCount(int categoryId, int month) {
+        long count = 0;
+        if (categoryId < 0 || categoryId >= categoryCount) {
+            return count;
+        }
+        for (int year : years) {
+            count += counts[cell(categoryId, year, month)];
+        }
+        return count;
+    }
+
+    private long levelYearCount(int categoryId, int year) {
+        long count = 0;
+        if (!holds(categoryId, year)) {
+            return count;
+        }
+        for (int month = 1; month <= MONTHS; month++) {
+            count += counts[cell(categoryId, year, month)];
+        }
+        return count;
+    }
+
+    private long levelYearMinimum(int categoryId, int year) {
+        long minimum = Long.MAX_VALUE;
+        if (!holds(categoryId, year)) {
+            return minimum;
+        }
+        for (int month = 1; month <= MONTHS; month++) {
+            minimum = Math.min(minimum, minimums[cell(categoryId, year, month)]);
+        }
+        return minimum;
+    }
+
+    private long levelYearMaximum(int categoryId, int year) {
+        long maximum = Long.MIN_VALUE;
+        if (!holds(categoryId, year)) {
+            return maximum;
+        }
+        for (int month = 1; month <= MONTHS; month++) {
+            maximum = Math.max(maximum, maximums[cell(categoryId, year, month)]);
+        }
+        return maximum;
+    }
+
+    private int sketch(int categoryId, int year) {
+        return categoryId * years.length + Arrays.binarySearch(years, year);
+    }
+}
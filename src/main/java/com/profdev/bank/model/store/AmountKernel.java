@@ -0,0 +1,36 @@
+package com.profdev.bank.model.store;
+
+/**
+ * Summarises the amounts of a store over the rows dated within a range of epoch days, optionally only the rows of one
+ * category: either in a single sequential pass over the primitive columns, or by reading only the rows of the range
+ * through the row numbers of an index such as a {@link DateIndex} or a category's {@link CategoryIndex} rows. The
+ * pass reads every row but in order; reading through the index costs only the rows in the range, but at random.
+ */
+public interface AmountKernel {
+
+    /**
+     * Summary of the amounts of every row dated from {@code fromDay} to {@code toDay} inclusive.
+     */
+    AmountSummary summarize(ColumnarTransactionStore store, int fromDay, int toDay);
+
+    /**
+     * Summary of the amounts of the rows of {@code categoryId} dated from {@code fromDay} to {@code toDay} inclusive.
+     */
+    AmountSummary summarize(ColumnarTransactionStore store, int categoryId, int fromDay, int toDay);
+
+    /**
+     * Summary of the amounts of rows {@code rows[from]} to {@code rows[to - 1]}.
+     */
+    AmountSummary summarize(ColumnarTransactionStore store, int[] rows, int from, int to);
+
+    /**
+     * The SIMD kernel when the {@code jdk.incubator.vector} module is present (the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}) and the CPU has vectors of more than one long, otherwise the scalar
+     * kernel.
+     */
+    static AmountKernel preferred() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && VectorAmountKernel.isSupported()
+                ? new VectorAmountKernel()
+                : new ScalarAmountKernel();
+    }
+}
@@ -0,0 +1,15 @@
+package com.profdev.bank.model.store;
+
+/**
+ * Sum, count, minimum and maximum of a set of amounts in minor units. The minimum is {@link Long#MAX_VALUE} and the
+ * maximum {@link Long#MIN_VALUE} when the set is empty.
+ */
+public record AmountSummary(long sum, long count, long minimum, long maximum) {
+
+    public static final AmountSummary EMPTY = new AmountSummary(0, 0, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    public AmountSummary plus(AmountSummary other) {
+        return new AmountSummary(Math.addExact(sum, other.sum), count + other.count, Math.min(minimum, other.minimum),
+                Math.max(maximum, other.maximum));
+    }
+}
@@ -0,0 +1,123 @@
+package com.profdev.bank.model.store;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row numbers of each category, ordered by transaction date and then by position in the source data.
+ * <p>
+ * Like a {@link DateIndex}, appended rows go to a small delta level that is merged into the main level once it outgrows
+ * {@link TransactionDataset#compacts}, and a query reads every one of the {@link #levels()}.
+ */
+public class CategoryIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private static final CategoryIndex EMPTY = new CategoryIndex(new int[0][], null, 0);
+
+    private final int[][] rowsByCategory;
+
+    // rows from deltaFrom on, in a level of their own; null on a level
+    private final CategoryIndex delta;
+
+    private final int deltaFrom;
+
+    private CategoryIndex(int[][] rowsByCategory, CategoryIndex delta, int deltaFrom) {
+        this.rowsByCategory = rowsByCategory;
+        this.delta = delta;
+        this.deltaFrom = deltaFrom;
+    }
+
+    public static CategoryIndex of(ColumnarTransactionStore store) {
+        return EMPTY.append(store, 0);
+    }
+
+    /**
+     * Index over {@code store}, whose rows before {@code fromRow} are the rows this index already covers. The new rows
+     * are merged into the delta, or the delta and the new rows into the main level when it is time to compact; this
+     * index is left unchanged.
+     */
+    public CategoryIndex append(ColumnarTransactionStore store, int fromRow) {
+        if (fromRow == store.size()) {
+            return this;
+        }
+        if (TransactionDataset.compacts(deltaFrom, store.size())) {
+            return new CategoryIndex(merge(store, deltaFrom).rowsByCategory, EMPTY, store.size());
+        }
+        return new CategoryIndex(rowsByCategory, level(delta).merge(store, fromRow), deltaFrom);
+    }
+
+    /**
+     * The main level and, if it has rows, the delta, each with its own {@link #rows(int)}. Rows of the delta all come
+     * after the main level's in the source.
+     */
+    public List<CategoryIndex> levels() {
+        CategoryIndex recent = level(delta);
+        return recent.rowsByCategory.length == 0 ? List.of(this) : List.of(this, recent);
+    }
+
+    private static CategoryIndex level(CategoryIndex delta) {
+        return delta != null ? delta : EMPTY;
+    }
+
+    /**
+     * Level holding this level's rows and the rows of {@code store} from {@code fromRow} on. Only the categories with
+     * new rows are rebuilt, by merging their sorted new rows into the existing ones; the others keep sharing their row
+     * arrays with this level.
+     */
+    private CategoryIndex merge(ColumnarTransactionStore store, int fromRow) {
+        int categoryCount = store.categories().size();
+        int[] counts = new int[categoryCount];
+        for (int row = fromRow; row < store.size(); row++) {
+            counts[store.categoryId(row)]++;
+        }
+
+        // sort key packs the epoch day above the row number, so equal dates keep their source order
+        long[][] keys = new long[categoryCount][];
+        for (int categoryId = 0; categoryId < categoryCount; categoryId++) {
+            keys[categoryId] = new long[counts[categoryId]];
+        }
+        int[] positions = new int[categoryCount];
+        for (int row = fromRow; row < store.size(); row++) {
+            int categoryId = store.categoryId(row);
+            keys[categoryId][positions[categoryId]++] = key(store, row);
+        }
+
+        int[][] rowsByCategory = Arrays.copyOf(this.rowsByCategory, categoryCount);
+        for (int categoryId = 0; categoryId < categoryCount; categoryId++) {
+            long[] categoryKeys = keys[categoryId];
+            Arrays.sort(categoryKeys);
+            rowsByCategory[categoryId] = merge(store, rows(categoryId), categoryKeys);
+        }
+        return new CategoryIndex(rowsByCategory, null, 0);
+    }
+
+    /**
+     * Rows of the category in this level, in ascending date order. The returned array is shared and must not be
+     * modified.
+     */
+    public int[] rows(int categoryId) {
+        return categoryId >= 0 && categoryId < rowsByCategory.length ? rowsByCategory[categoryId] : NO_ROWS;
+    }
+
+    private static long key(ColumnarTransactionStore store, int row) {
+        return ((long) store.epochDay(row) << Integer.SIZE) | row;
+    }
+
+    private static int[] merge(ColumnarTransactionStore store, int[] rows, long[] newKeys) {
+        if (newKeys.length == 0) {
+            return rows;
+        }
+        int[] merged = new int[rows.length + newKeys.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == newKeys.length || (i < rows.length && key(store, rows[i]) < newKeys[j])) {
+                merged[k] = rows[i++];
+            } else {
+                merged[k] = (int) newKeys[j++];
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,381 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.QuarantinedRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary file format for a {@link ColumnarTransactionStore}, so a restart can memory-map the columns instead of
+ * parsing the source data again. A snapshot records a checksum of the source it was built from and is only read back
+ * for a source with the same checksum, parsed in the same currency and ingest mode. It also records the rows the
+ * parse quarantined, which a read adds back to the quarantine, so a restart reports them as the parse did.
+ * <p>
+ * Layout, little-endian: a fixed header (magic, format version, source checksum, currency, row count, string section
+ * length, payload checksum, whether the parse was lenient, quarantined row count), the string section, holding the
+ * currency symbol, the quarantined rows that were kept as a count and their lines and reasons, the category, vendor
+ * and type dictionaries in id order and the amount texts that differ from the rebuilt ones as a count, their rows and
+ * their texts, with every string length-prefixed UTF-8, then the epoch day, amount, category, vendor and type columns
+ * as raw arrays. The payload, everything after the header, is covered by a CRC-32C checksum in the header, which is
+ * written last.
+ * <p>
+ * A snapshot is verified against its payload checksum before anything in it is used, and its dictionary ids and
+ * amount text rows are range checked once read, so that a corrupt snapshot fails the read instead of answering
+ * queries with the wrong rows.
+ */
+public final class ColumnarStoreSnapshot {
+
+    private static final int MAGIC = 0x56425353;
+    private static final int FORMAT_VERSION = 5;
+    private static final int CURRENCY_CODE_BYTES = 3;
+    private static final int HEADER_BYTES = Integer.BYTES * 4 + Long.BYTES * 4 + CURRENCY_CODE_BYTES;
+    private static final int ROW_BYTES = Integer.BYTES * 4 + Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int CHECKSUM_WINDOW_BYTES = 1 << 30;
+
+    private ColumnarStoreSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of a store parsed in strict mode, see {@link #write(ColumnarTransactionStore, Path, long,
+     * Quarantine)}.
+     */
+    public static void write(ColumnarTransactionStore store, Path file, long sourceChecksum) throws IOException {
+        write(store, file, sourceChecksum, Quarantine.NONE);
+    }
+
+    /**
+     * Writes the store, and the rows the parse put in {@code quarantine}, to a temporary file next to {@code file} and
+     * then moves it into place, so a reader never sees a partly written snapshot.
+     */
+    public static void write(ColumnarTransactionStore store, Path file, long sourceChecksum, Quarantine quarantine)
+            throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Output output = new Output(FileChannel.open(temporary, StandardOpenOption.WRITE))) {
+                output.channel.position(HEADER_BYTES);
+                output.putString(store.currencySymbol());
+                List<QuarantinedRow> quarantined = quarantine.rows();
+                output.putInt(quarantined.size());
+                for (QuarantinedRow row : quarantined) {
+                    output.putLong(row.line());
+                    output.putString(row.reason());
+                }
+                for (StringDictionary dictionary : dictionaries(store)) {
+                    output.putDictionary(dictionary);
+                }
+                ColumnarTransactionStore.AmountTexts amountTexts = store.amountTexts();
+                output.putInt(amountTexts.count);
+                for (int i = 0; i < amountTexts.count; i++) {
+                    output.putInt(amountTexts.rows[i]);
+                }
+                for (int i = 0; i < amountTexts.count; i++) {
+                    output.putString(amountTexts.values[i]);
+                }
+                long stringBytes = output.position();
+                int rows = store.size();
+                for (int row = 0; row < rows; row++) {
+                    output.putInt(store.epochDay(row));
+                }
+                for (int row = 0; row < rows; row++) {
+                    output.putLong(store.amount(row));
+                }
+                for (int row = 0; row < rows; row++) {
+                    output.putInt(store.categoryId(row));
+                }
+                for (int row = 0; row < rows; row++) {
+                    output.putInt(store.vendorId(row));
+                }
+                for (int row = 0; row < rows; row++) {
+                    output.putInt(store.typeId(row));
+                }
+                output.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(MAGIC)
+                        .putInt(FORMAT_VERSION)
+                        .putLong(sourceChecksum)
+                        .put(store.currency().getCurrencyCode().getBytes(StandardCharsets.US_ASCII))
+                        .putInt(rows)
+                        .putLong(stringBytes)
+                        .putLong(output.checksum.getValue())
+                        .putInt(quarantine.enabled() ? 1 : 0)
+                        .putLong(quarantine.count())
+                        .flip();
+                output.channel.write(header, 0);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * The store held in {@code file} for a read in strict mode, see {@link #read(Path, long, Currency, Quarantine)}.
+     */
+    public static Optional<ColumnarTransactionStore> read(Path file, long sourceChecksum, Currency currency)
+            throws IOException {
+        return read(file, sourceChecksum, currency, Quarantine.NONE);
+    }
+
+    /**
+     * The store held in {@code file}, or empty if there is no snapshot, it was written by another format version or
+     * it was built from a source with a different checksum, in a different currency or in the other ingest mode than
+     * {@code quarantine} stands for. The rows the parse quarantined are added to {@code quarantine} once the store has
+     * been read.
+     *
+     * @throws IOException if the file cannot be read, is not a complete snapshot or is corrupt
+     */
+    public static Optional<ColumnarTransactionStore> read(Path file, long sourceChecksum, Currency currency,
+                                                          Quarantine quarantine) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the magic and version come first, so that a snapshot of another version is told apart from a truncated
+            // one whatever the length of its header
+            if (channel.size() < Integer.BYTES * 2) {
+                throw new IOException("Truncated transaction snapshot: " + file);
+            }
+            ByteBuffer version = map(channel, 0, Integer.BYTES * 2);
+            if (version.getInt() != MAGIC) {
+                throw new IOException("Not a transaction snapshot: " + file);
+            }
+            if (version.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Truncated transaction snapshot: " + file);
+            }
+            ByteBuffer header = map(channel, Integer.BYTES * 2, HEADER_BYTES - Integer.BYTES * 2);
+            if (header.getLong() != sourceChecksum) {
+                return Optional.empty();
+            }
+            byte[] currencyCode = new byte[CURRENCY_CODE_BYTES];
+            header.get(currencyCode);
+            if (!currency.getCurrencyCode().equals(new String(currencyCode, StandardCharsets.US_ASCII))) {
+                return Optional.empty();
+            }
+            int rows = header.getInt();
+            long stringBytes = header.getLong();
+            long payloadChecksum = header.getLong();
+            boolean lenient = header.getInt() != 0;
+            long quarantinedCount = header.getLong();
+            if (lenient != quarantine.enabled()) {
+                return Optional.empty();
+            }
+            long offset = HEADER_BYTES + stringBytes;
+            if (rows < 0 || stringBytes < 0 || channel.size() != offset + (long) rows * ROW_BYTES) {
+                throw new IOException("Truncated transaction snapshot: " + file);
+            }
+            if (payloadChecksum(channel) != payloadChecksum) {
+                throw new IOException("Corrupt transaction snapshot, its checksum does not match: " + file);
+            }
+
+            String currencySymbol;
+            List<QuarantinedRow> quarantined;
+            StringDictionary categories;
+            StringDictionary vendors;
+            StringDictionary types;
+            int[] amountTextRows;
+            String[] amountTextValues;
+            try {
+                ByteBuffer stringBuffer = map(channel, HEADER_BYTES, stringBytes);
+                currencySymbol = readString(stringBuffer);
+                int quarantinedRows = stringBuffer.getInt();
+                quarantined = new ArrayList<>(Math.min(quarantinedRows, stringBuffer.remaining()));
+                for (int i = 0; i < quarantinedRows; i++) {
+                    quarantined.add(new QuarantinedRow(stringBuffer.getLong(), readString(stringBuffer)));
+                }
+                categories = readDictionary(stringBuffer);
+                vendors = readDictionary(stringBuffer);
+                types = readDictionary(stringBuffer);
+                int amountTextCount = stringBuffer.getInt();
+                amountTextRows = new int[amountTextCount];
+                stringBuffer.asIntBuffer().get(amountTextRows);
+                stringBuffer.position(stringBuffer.position() + amountTextCount * Integer.BYTES);
+                amountTextValues = new String[amountTextCount];
+                for (int i = 0; i < amountTextCount; i++) {
+                    amountTextValues[i] = readString(stringBuffer);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException ex) {
+                throw new IOException("Corrupt transaction snapshot, its strings cannot be read: " + file, ex);
+            }
+            checkAmountTextRows(amountTextRows, rows, file);
+
+            int[] epochDays = new int[rows];
+            map(channel, offset, (long) rows * Integer.BYTES).asIntBuffer().get(epochDays);
+            offset += (long) rows * Integer.BYTES;
+            long[] amounts = new long[rows];
+            map(channel, offset, (long) rows * Long.BYTES).asLongBuffer().get(amounts);
+            offset += (long) rows * Long.BYTES;
+            int[][] idColumns = new int[3][rows];
+            StringDictionary[] dictionaries = {categories, vendors, types};
+            for (int column = 0; column < idColumns.length; column++) {
+                map(channel, offset, (long) rows * Integer.BYTES).asIntBuffer().get(idColumns[column]);
+                offset += (long) rows * Integer.BYTES;
+                checkIds(idColumns[column], dictionaries[column].size(), file);
+            }
+
+            ColumnarTransactionStore store = new ColumnarTransactionStore(currency, currencySymbol, rows, epochDays,
+                    amounts, idColumns[0], idColumns[1], idColumns[2], categories, vendors, types,
+                    amountTextRows.length == 0
+                            ? ColumnarTransactionStore.AmountTexts.NONE
+                            : new ColumnarTransactionStore.AmountTexts(amountTextRows, amountTextValues,
+                                    amountTextRows.length));
+            if (quarantine.enabled()) {
+                quarantine.addAll(quarantinedCount, quarantined);
+            }
+            return Optional.of(store);
+        }
+    }
+
+    /**
+     * CRC-32C of everything after the header, read a window at a time as a mapping is limited to 2GB.
+     */
+    private static long payloadChecksum(FileChannel channel) throws IOException {
+        CRC32C checksum = new CRC32C();
+        for (long offset = HEADER_BYTES; offset < channel.size(); offset += CHECKSUM_WINDOW_BYTES) {
+            checksum.update(map(channel, offset, Math.min(CHECKSUM_WINDOW_BYTES, channel.size() - offset)));
+        }
+        return checksum.getValue();
+    }
+
+    private static void checkIds(int[] ids, int dictionarySize, Path file) throws IOException {
+        int outOfRange = 0;
+        for (int id : ids) {
+            // compared unsigned, so that negative ids are out of range too
+            outOfRange |= Integer.compareUnsigned(id, dictionarySize) >= 0 ? 1 : 0;
+        }
+        if (outOfRange != 0) {
+            throw new IOException("Corrupt transaction snapshot, it has ids outside its dictionaries: " + file);
+        }
+    }
+
+    private static void checkAmountTextRows(int[] amountTextRows, int rows, Path file) throws IOException {
+        int previous = -1;
+        for (int row : amountTextRows) {
+            if (row <= previous || row >= rows) {
+                throw new IOException("Corrupt transaction snapshot, its amount text rows are out of order: " + file);
+            }
+            previous = row;
+        }
+    }
+
+    private static StringDictionary[] dictionaries(ColumnarTransactionStore store) {
+        return new StringDictionary[]{store.categories(), store.vendors(), store.types()};
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static StringDictionary readDictionary(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        StringDictionary dictionary = new StringDictionary(size);
+        for (int id = 0; id < size; id++) {
+            dictionary.intern(readString(buffer));
+        }
+        return dictionary.snapshot();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Buffered little-endian writes to a channel, counting the bytes written and checksumming them.
+     */
+    private static class Output implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+        private long written;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            reserve(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            reserve(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDictionary(StringDictionary dictionary) throws IOException {
+            putInt(dictionary.size());
+            for (int id = 0; id < dictionary.size(); id++) {
+                putString(dictionary.get(id));
+            }
+        }
+
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(NULL_LENGTH);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (int from = 0; from < bytes.length; ) {
+                reserve(1);
+                int length = Math.min(buffer.remaining(), bytes.length - from);
+                buffer.put(bytes, from, length);
+                from += length;
+            }
+        }
+
+        long position() {
+            return written + buffer.position();
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer);
+            buffer.rewind();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable column-per-field transaction store. Dates are held as epoch days, amounts as minor units of the store's
+ * single currency and the string fields as ids into per-column {@link StringDictionary dictionaries}, so a row costs
+ * a few primitive array slots rather than a {@link Transaction} bean and its date, decimal and string objects. The
+ * amount text is not a column: a row's text is rebuilt from its amount as the currency symbol followed by the amount
+ * with two decimal places, and only texts written differently (e.g. {@code £50} or {@code £1,024.05}) are kept, in a
+ * sparse list ordered by row.
+ * <p>
+ * {@link Builder#build()} copies the columns to their exact size. {@link Builder#snapshot()} instead shares the
+ * builder's columns, which is safe because the builder only writes past the rows a snapshot can see, and lets a store
+ * that is still being appended to publish a new snapshot without copying the rows it already has.
+ */
+public class ColumnarTransactionStore {
+
+    private final Currency currency;
+    private final String currencySymbol;
+    private final int size;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private final int[] categoryIds;
+    private final int[] vendorIds;
+    private final int[] typeIds;
+    private final StringDictionary categories;
+    private final StringDictionary vendors;
+    private final StringDictionary types;
+    private final AmountTexts amountTexts;
+
+    private ColumnarTransactionStore(Builder builder, boolean trim) {
+        this(builder.currency,
+                builder.currencySymbol,
+                builder.size,
+                trim ? Arrays.copyOf(builder.epochDays, builder.size) : builder.epochDays,
+                trim ? Arrays.copyOf(builder.amounts, builder.size) : builder.amounts,
+                trim ? Arrays.copyOf(builder.categoryIds, builder.size) : builder.categoryIds,
+                trim ? Arrays.copyOf(builder.vendorIds, builder.size) : builder.vendorIds,
+                trim ? Arrays.copyOf(builder.typeIds, builder.size) : builder.typeIds,
+                builder.categories.snapshot(),
+                builder.vendors.snapshot(),
+                builder.types.snapshot(),
+                trim ? builder.amountTexts.trimmed() : builder.amountTexts.snapshot());
+    }
+
+    /**
+     * Store over columns decoded elsewhere, e.g. by {@link ColumnarStoreSnapshot}; the arrays are used as they are.
+     */
+    ColumnarTransactionStore(Currency currency, String currencySymbol, int size, int[] epochDays, long[] amounts,
+                             int[] categoryIds, int[] vendorIds, int[] typeIds, StringDictionary categories,
+                             StringDictionary vendors, StringDictionary types, AmountTexts amountTexts) {
+        this.currency = currency;
+        this.currencySymbol = currencySymbol;
+        this.size = size;
+        this.epochDays = epochDays;
+        this.amounts = amounts;
+        this.categoryIds = categoryIds;
+        this.vendorIds = vendorIds;
+        this.typeIds = typeIds;
+        this.categories = categories;
+        this.vendors = vendors;
+        this.types = types;
+        this.amountTexts = amountTexts;
+    }
+
+    /**
+     * A builder whose amount texts are rebuilt with the currency's own symbol, e.g. {@code £} for GBP.
+     */
+    public static Builder builder(Currency currency) {
+        return builder(currency, currency.getSymbol(Locale.ROOT));
+    }
+
+    /**
+     * A builder whose amount texts are rebuilt with {@code currencySymbol}, which should be the symbol the amounts are
+     * written with, as only texts that differ from the rebuilt ones take up space.
+     */
+    public static Builder builder(Currency currency, String currencySymbol) {
+        return new Builder(currency, currencySymbol);
+    }
+
+    /**
+     * A builder that starts out with this store's rows, to append to them. The columns are copied in bulk, with room
+     * to grow, and the dictionaries keep their ids, so no row is added again one by one.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    String currencySymbol() {
+        return currencySymbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int epochDay(int row) {
+        return epochDays[row];
+    }
+
+    public long amount(int row) {
+        return amounts[row];
+    }
+
+    public int categoryId(int row) {
+        return categoryIds[row];
+    }
+
+    public int vendorId(int row) {
+        return vendorIds[row];
+    }
+
+    /**
+     * The amount column; entries past {@link #size()} are unused. Shared, must not be modified.
+     */
+    long[] amounts() {
+        return amounts;
+    }
+
+    /**
+     * The epoch day column; entries past {@link #size()} are unused. Shared, must not be modified.
+     */
+    int[] epochDays() {
+        return epochDays;
+    }
+
+    /**
+     * The category id column; entries past {@link #size()} are unused. Shared, must not be modified.
+     */
+    int[] categoryIds() {
+        return categoryIds;
+    }
+
+    int typeId(int row) {
+        return typeIds[row];
+    }
+
+    /**
+     * The amount text of a row as it was added.
+     */
+    public String amountText(int row) {
+        int exception = amountTexts.indexOf(row);
+        return exception >= 0
+                ? amountTexts.values[exception]
+                : Money.appendDecimal(new StringBuilder(currencySymbol), amounts[row]).toString();
+    }
+
+    public StringDictionary categories() {
+        return categories;
+    }
+
+    public StringDictionary vendors() {
+        return vendors;
+    }
+
+    StringDictionary types() {
+        return types;
+    }
+
+    /**
+     * The amount texts that differ from the ones rebuilt from the amounts.
+     */
+    AmountTexts amountTexts() {
+        return amountTexts;
+    }
+
+    public Transaction transaction(int row) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.ofEpochDay(epochDays[row]));
+        transaction.setVendor(vendors.get(vendorIds[row]));
+        transaction.setType(types.get(typeIds[row]));
+        transaction.setCategory(categories.get(categoryIds[row]));
+        transaction.setAmount(amountText(row));
+        transaction.setMonetaryAmount(Money.of(amounts[row], currency));
+        return transaction;
+    }
+
+    /**
+     * A read-only view that materialises a {@link Transaction} per element on access.
+     */
+    public List<Transaction> asList() {
+        return new TransactionListView();
+    }
+
+    /**
+     * A read-only view over the given rows, walked from the last row to the first when {@code reversed}.
+     */
+    public List<Transaction> asList(int[] rows, boolean reversed) {
+        return asList(rows, 0, rows.length, reversed);
+    }
+
+    /**
+     * A read-only view over {@code rows[from]} to {@code rows[to - 1]}, walked from the last to the first when
+     * {@code reversed}.
+     */
+    public List<Transaction> asList(int[] rows, int from, int to, boolean reversed) {
+        Objects.checkFromToIndex(from, to, rows.length);
+        return new RowListView(rows, from, to - from, reversed);
+    }
+
+    public long heapBytes() {
+        return HeapSizes.array(size, Integer.BYTES) * 4
+                + HeapSizes.array(size, Long.BYTES)
+                + categories.heapBytes() + vendors.heapBytes() + types.heapBytes() + amountTexts.heapBytes();
+    }
+
+    /**
+     * Approximate heap the same rows would retain as a {@code List<Transaction>} of beans, each holding its own
+     * {@link LocalDate}, {@link Money} and string instances as produced by the CSV binding.
+     */
+    public long beanListHeapBytes() {
+        long[] categoryBytes = stringBytes(categories);
+        long[] vendorBytes = stringBytes(vendors);
+        long[] typeBytes = stringBytes(types);
+        long bytes = HeapSizes.array(size, HeapSizes.REFERENCE)
+                + size * (HeapSizes.TRANSACTION_BEAN + HeapSizes.LOCAL_DATE + HeapSizes.MONEY);
+        StringBuilder amountText = new StringBuilder();
+        int exception = 0;
+        for (int row = 0; row < size; row++) {
+            bytes += categoryBytes[categoryIds[row]] + vendorBytes[vendorIds[row]] + typeBytes[typeIds[row]];
+            if (exception < amountTexts.count && amountTexts.rows[exception] == row) {
+                bytes += HeapSizes.string(amountTexts.values[exception++]);
+            } else {
+                amountText.setLength(0);
+                bytes += HeapSizes.string(Money.appendDecimal(amountText.append(currencySymbol), amounts[row]));
+            }
+        }
+        return bytes;
+    }
+
+    private static long[] stringBytes(StringDictionary dictionary) {
+        long[] bytes = new long[dictionary.size()];
+        for (int id = 0; id < bytes.length; id++) {
+            bytes[id] = HeapSizes.string(dictionary.get(id));
+        }
+        return bytes;
+    }
+
+    private class TransactionListView extends AbstractList<Transaction> implements RandomAccess {
+
+        @Override
+        public Transaction get(int index) {
+            return transaction(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class RowListView extends AbstractList<Transaction> implements RandomAccess {
+
+        private final int[] rows;
+        private final int offset;
+        private final int size;
+        private final boolean reversed;
+
+        private RowListView(int[] rows, int offset, int size, boolean reversed) {
+            this.rows = rows;
+            this.offset = offset;
+            this.size = size;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            Objects.checkIndex(index, size);
+            return transaction(rows[offset + (reversed ? size - 1 - index : index)]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The amount texts that differ from the ones rebuilt from the amounts, as the rows they belong to in ascending
+     * order and their texts. Like the columns, the arrays are shared with later snapshots, which only add entries past
+     * {@code count}.
+     */
+    static final class AmountTexts {
+
+        static final AmountTexts NONE = new AmountTexts(new int[0], new String[0], 0);
+
+        final int[] rows;
+        final String[] values;
+        final int count;
+
+        AmountTexts(int[] rows, String[] values, int count) {
+            this.rows = rows;
+            this.values = values;
+            this.count = count;
+        }
+
+        /**
+         * The index of the row's text, or a negative number if its text is the rebuilt one.
+         */
+        int indexOf(int row) {
+            return count == 0 ? -1 : Arrays.binarySearch(rows, 0, count, row);
+        }
+
+        long heapBytes() {
+            long bytes = HeapSizes.array(rows.length, Integer.BYTES)
+                    + HeapSizes.array(values.length, HeapSizes.REFERENCE);
+            for (int i = 0; i < count; i++) {
+                bytes += HeapSizes.string(values[i]);
+            }
+            return bytes;
+        }
+    }
+
+    public static class Builder {
+
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Currency currency;
+        private final String currencySymbol;
+        private int size;
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private int[] categoryIds = new int[INITIAL_CAPACITY];
+        private int[] vendorIds = new int[INITIAL_CAPACITY];
+        private int[] typeIds = new int[INITIAL_CAPACITY];
+        private final StringDictionary categories;
+        private final StringDictionary vendors;
+        private final StringDictionary types;
+        private final AmountTextList amountTexts = new AmountTextList();
+        private final StringBuilder rebuiltAmountText = new StringBuilder();
+
+        private Builder(Currency currency, String currencySymbol) {
+            this.currency = currency;
+            this.currencySymbol = currencySymbol;
+            this.categories = new StringDictionary();
+            this.vendors = new StringDictionary();
+            this.types = new StringDictionary();
+        }
+
+        private Builder(ColumnarTransactionStore store) {
+            this.currency = store.currency;
+            this.currencySymbol = store.currencySymbol;
+            this.size = store.size;
+            int capacity = Math.max(INITIAL_CAPACITY, store.size + (store.size >> 1));
+            this.epochDays = Arrays.copyOf(store.epochDays, capacity);
+            this.amounts = Arrays.copyOf(store.amounts, capacity);
+            this.categoryIds = Arrays.copyOf(store.categoryIds, capacity);
+            this.vendorIds = Arrays.copyOf(store.vendorIds, capacity);
+            this.typeIds = Arrays.copyOf(store.typeIds, capacity);
+            this.categories = store.categories.copy();
+            this.vendors = store.vendors.copy();
+            this.types = store.types.copy();
+            for (int i = 0; i < store.amountTexts.count; i++) {
+                amountTexts.add(store.amountTexts.rows[i], store.amountTexts.values[i]);
+            }
+        }
+
+        public Builder add(Transaction transaction) {
+            Money amount = transaction.getMonetaryAmount();
+            if (!amount.currency().equals(currency)) {
+                throw new IllegalArgumentException("Cannot add a %s amount to a %s store".formatted(amount.currency(),
+                        currency));
+            }
+            return add(Math.toIntExact(transaction.getDate().toEpochDay()),
+                    transaction.getVendor(),
+                    transaction.getType(),
+                    transaction.getAmount(),
+                    amount.minorUnits(),
+                    transaction.getCategory());
+        }
+
+        /**
+         * Adds a row. The fields may be characters read in place, e.g. by a CSV tokenizer: they are only turned into
+         * strings when their dictionary has not seen them yet, or for an amount text that cannot be rebuilt.
+         */
+        public Builder add(int epochDay, CharSequence vendor, CharSequence type, CharSequence amountText, long amount,
+                           CharSequence category) {
+            if (size == epochDays.length) {
+                grow();
+            }
+            epochDays[size] = epochDay;
+            amounts[size] = amount;
+            categoryIds[size] = categories.intern(category);
+            vendorIds[size] = vendors.intern(vendor);
+            typeIds[size] = types.intern(type);
+            if (!isRebuilt(amountText, amount)) {
+                amountTexts.add(size, amountText == null ? null : amountText.toString());
+            }
+            size++;
+            return this;
+        }
+
+        private boolean isRebuilt(CharSequence amountText, long amount) {
+            if (amountText == null) {
+                return false;
+            }
+            rebuiltAmountText.setLength(0);
+            return CharSequence.compare(amountText,
+                    Money.appendDecimal(rebuiltAmountText.append(currencySymbol), amount)) == 0;
+        }
+
+        /**
+         * Adds every row of {@code store}, so a store read whole, e.g. from a snapshot, can be appended to.
+         */
+        public Builder addAll(ColumnarTransactionStore store) {
+            if (!store.currency.equals(currency)) {
+                throw new IllegalArgumentException(
+                        "Cannot add a %s store to a %s store".formatted(store.currency, currency));
+            }
+            int[] categoryMap = intern(store.categories, categories);
+            int[] vendorMap = intern(store.vendors, vendors);
+            int[] typeMap = intern(store.types, types);
+            boolean sameSymbol = Objects.equals(store.currencySymbol, currencySymbol);
+            int exception = 0;
+            for (int row = 0; row < store.size; row++) {
+                if (size == epochDays.length) {
+                    grow();
+                }
+                epochDays[size] = store.epochDays[row];
+                amounts[size] = store.amounts[row];
+                categoryIds[size] = categoryMap[store.categoryIds[row]];
+                vendorIds[size] = vendorMap[store.vendorIds[row]];
+                typeIds[size] = typeMap[store.typeIds[row]];
+                if (exception < store.amountTexts.count && store.amountTexts.rows[exception] == row) {
+                    amountTexts.add(size, store.amountTexts.values[exception++]);
+                } else if (!sameSymbol) {
+                    String amountText = store.amountText(row);
+                    if (!isRebuilt(amountText, store.amounts[row])) {
+                        amountTexts.add(size, amountText);
+                    }
+                }
+                size++;
+            }
+            return this;
+        }
+
+        /**
+         * The id in {@code to} of each value of {@code from}, interning the values {@code to} does not have yet.
+         */
+        private static int[] intern(StringDictionary from, StringDictionary to) {
+            int[] ids = new int[from.size()];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = to.intern(from.get(id));
+            }
+            return ids;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * An empty builder for the same currency and symbol, e.g. to build part of the rows on another thread and then
+         * {@link #addAll add them all} to this one.
+         */
+        public Builder newBuilder() {
+            return new Builder(currency, currencySymbol);
+        }
+
+        public ColumnarTransactionStore build() {
+            return new ColumnarTransactionStore(this, true);
+        }
+
+        /**
+         * A store over the rows added so far that shares, rather than copies, the builder's columns. The builder can
+         * keep adding rows without affecting the snapshot.
+         */
+        public ColumnarTransactionStore snapshot() {
+            return new ColumnarTransactionStore(this, false);
+        }
+
+        private void grow() {
+            int capacity = epochDays.length * 2;
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            vendorIds = Arrays.copyOf(vendorIds, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+        }
+    }
+
+    /**
+     * The builder's side of {@link AmountTexts}: entries are only ever written past those a snapshot can see, or into
+     * larger copies.
+     */
+    private static final class AmountTextList {
+
+        private int[] rows = new int[0];
+        private String[] values = new String[0];
+        private int count;
+
+        void add(int row, String value) {
+            if (count == rows.length) {
+                int capacity = Math.max(16, count * 2);
+                rows = Arrays.copyOf(rows, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            rows[count] = row;
+            values[count++] = value;
+        }
+
+        AmountTexts snapshot() {
+            return count == 0 ? AmountTexts.NONE : new AmountTexts(rows, values, count);
+        }
+
+        AmountTexts trimmed() {
+            return count == 0
+                    ? AmountTexts.NONE
+                    : new AmountTexts(Arrays.copyOf(rows, count), Arrays.copyOf(values, count), count);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.profdev.bank.model.store;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Row numbers of every row, ordered by transaction date and then by position in the source data, with each position's
+ * epoch day alongside. A date range is found by binary search over the days, so it costs {@code O(log n)} to locate
+ * and then only the rows inside it to read.
+ * <p>
+ * Appended rows are merged into a small delta level rather than into every row, so an append costs the size of the
+ * delta; the delta is merged into the main level once it outgrows {@link TransactionDataset#compacts}. A query reads
+ * every one of the {@link #levels()}.
+ */
+public class DateIndex {
+
+    private static final DateIndex EMPTY = new DateIndex(new int[0], new int[0], null, 0);
+
+    private final int[] rows;
+
+    private final int[] epochDays;
+
+    // rows from deltaFrom on, in a level of their own; null on a level
+    private final DateIndex delta;
+
+    private final int deltaFrom;
+
+    private DateIndex(int[] rows, int[] epochDays, DateIndex delta, int deltaFrom) {
+        this.rows = rows;
+        this.epochDays = epochDays;
+        this.delta = delta;
+        this.deltaFrom = deltaFrom;
+    }
+
+    public static DateIndex of(ColumnarTransactionStore store) {
+        return EMPTY.append(store, 0);
+    }
+
+    /**
+     * Index over {@code store}, whose rows before {@code fromRow} are the rows this index already covers. The sorted
+     * new rows are merged into the delta, or the delta and the new rows into the main level when it is time to
+     * compact; this index is left unchanged.
+     */
+    public DateIndex append(ColumnarTransactionStore store, int fromRow) {
+        if (fromRow == store.size()) {
+            return this;
+        }
+        if (TransactionDataset.compacts(deltaFrom, store.size())) {
+            DateIndex main = merge(store, deltaFrom);
+            return new DateIndex(main.rows, main.epochDays, EMPTY, store.size());
+        }
+        return new DateIndex(rows, epochDays, level(delta).merge(store, fromRow), deltaFrom);
+    }
+
+    /**
+     * The main level and, if it has rows, the delta, each with its own {@link #rows()} in ascending date order. Rows
+     * of the delta all come after the main level's in the source.
+     */
+    public List<DateIndex> levels() {
+        DateIndex recent = level(delta);
+        return recent.rows.length == 0 ? List.of(this) : List.of(this, recent);
+    }
+
+    private static DateIndex level(DateIndex delta) {
+        return delta != null ? delta : EMPTY;
+    }
+
+    /**
+     * Level holding this level's rows and the rows of {@code store} from {@code fromRow} on.
+     */
+    private DateIndex merge(ColumnarTransactionStore store, int fromRow) {
+        // sort key packs the epoch day above the row number, so equal dates keep their source order
+        long[] newKeys = new long[store.size() - fromRow];
+        for (int row = fromRow; row < store.size(); row++) {
+            newKeys[row - fromRow] = ((long) store.epochDay(row) << Integer.SIZE) | row;
+        }
+        if (newKeys.length == 0) {
+            return this;
+        }
+        Arrays.sort(newKeys);
+
+        int[] mergedRows = new int[rows.length + newKeys.length];
+        int[] mergedDays = new int[mergedRows.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < mergedRows.length; k++) {
+            // existing rows all precede the new ones in the source, so they go first on equal dates
+            if (j == newKeys.length || (i < rows.length && epochDays[i] <= (int) (newKeys[j] >> Integer.SIZE))) {
+                mergedRows[k] = rows[i];
+                mergedDays[k] = epochDays[i++];
+            } else {
+                mergedRows[k] = (int) newKeys[j];
+                mergedDays[k] = (int) (newKeys[j++] >> Integer.SIZE);
+            }
+        }
+        return new DateIndex(mergedRows, mergedDays, null, 0);
+    }
+
+    /**
+     * Rows of this level in ascending date order. The returned array is shared and must not be modified.
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    /**
+     * Position in this level's {@link #rows()} of the first row dated on or after {@code epochDay}, or the number of
+     * rows if there is none.
+     */
+    public int firstOnOrAfter(int epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Position in {@code rows}, which must be in ascending date order like the rows of a {@link CategoryIndex}, of
+     * the first row dated on or after {@code epochDay}, or {@code rows.length} if there is none.
+     */
+    public static int firstOnOrAfter(ColumnarTransactionStore store, int[] rows, int epochDay) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (store.epochDay(rows[mid]) < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
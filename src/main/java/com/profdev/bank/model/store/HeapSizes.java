@@ -0,0 +1,41 @@
+package com.profdev.bank.model.store;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Shallow heap size estimates for a 64-bit JVM with compressed oops and compact strings, used to report and compare
+ * the footprint of the transaction stores.
+ */
+@UtilityClass
+class HeapSizes {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    static final long TRANSACTION_BEAN = align(OBJECT_HEADER + 6 * REFERENCE);
+    static final long LOCAL_DATE = align(OBJECT_HEADER + Integer.BYTES + 2 * Short.BYTES);
+    static final long NODE = align(OBJECT_HEADER + Integer.BYTES + 3 * REFERENCE);
+    static final long MONEY = align(OBJECT_HEADER + Long.BYTES + REFERENCE);
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    static long string(CharSequence value) {
+        if (value == null) {
+            return 0;
+        }
+        return align(OBJECT_HEADER + REFERENCE + Integer.BYTES + 2) + array(value.length(), Byte.BYTES);
+    }
+
+    static long hashMap(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2) * 2;
+        return align(OBJECT_HEADER + 3 * Integer.BYTES + 2 * REFERENCE)
+                + array(capacity, REFERENCE) + (long) size * NODE;
+    }
+}
@@ -0,0 +1,174 @@
+package com.profdev.bank.model.store;
+
+/**
+ * Mergeable quantile sketch over amounts in minor units, after DDSketch. Each amount is counted in a logarithmic bucket
+ * {@code ceil(log_γ |amount|)} with {@code γ = (1 + α) / (1 - α)}, so any quantile is answered within a relative
+ * error of {@link #RELATIVE_ACCURACY} ({@code α}) of the true amount at that rank. At most {@link #MAX_BUCKETS}
+ * buckets are kept per sign, which covers every amount from 1 to over 10^17 minor units at 1% accuracy, so memory
+ * stays constant however many amounts are added. Two sketches merge by adding their bucket counts, with no loss of
+ * accuracy.
+ */
+public class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    static final int MAX_BUCKETS = 2048;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final Buckets positives;
+    private final Buckets negatives;
+    private long zeroCount;
+    private long count;
+    private long minimum = Long.MAX_VALUE;
+    private long maximum = Long.MIN_VALUE;
+
+    public QuantileSketch() {
+        this(new Buckets(), new Buckets());
+    }
+
+    private QuantileSketch(Buckets positives, Buckets negatives) {
+        this.positives = positives;
+        this.negatives = negatives;
+    }
+
+    public void add(long amount) {
+        if (amount > 0) {
+            positives.add(index(amount), 1);
+        } else if (amount < 0) {
+            negatives.add(index(-(double) amount), 1);
+        } else {
+            zeroCount++;
+        }
+        count++;
+        minimum = Math.min(minimum, amount);
+        maximum = Math.max(maximum, amount);
+    }
+
+    public void merge(QuantileSketch other) {
+        positives.merge(other.positives);
+        negatives.merge(other.negatives);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        minimum = Math.min(minimum, other.minimum);
+        maximum = Math.max(maximum, other.maximum);
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(positives.copy(), negatives.copy());
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        copy.minimum = minimum;
+        copy.maximum = maximum;
+        return copy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Amount at quantile {@code q} (0 to 1), rounded to a minor unit and kept within the smallest and largest amounts
+     * added, which are returned exactly for the first and last rank.
+     *
+     * @throws IllegalStateException if the sketch is empty
+     */
+    public long quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            throw new IllegalStateException("Cannot take a quantile of an empty sketch");
+        }
+        long rank = (long) (q * (count - 1));
+        if (rank == 0 || rank == count - 1) {
+            return rank == 0 ? minimum : maximum;
+        }
+        double value;
+        if (rank < negatives.total) {
+            // the most negative amounts have the highest bucket indexes, so they are counted down from the top
+            value = -bucketValue(negatives.indexAtRank(negatives.total - 1 - rank));
+        } else if (rank < negatives.total + zeroCount) {
+            value = 0;
+        } else {
+            value = bucketValue(positives.indexAtRank(rank - negatives.total - zeroCount));
+        }
+        return Math.clamp(Math.round(value), minimum, maximum);
+    }
+
+    private static int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    /**
+     * Midpoint of bucket {@code index}, which is within the relative accuracy of every amount in the bucket.
+     */
+    private static double bucketValue(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * Counts of a contiguous range of bucket indexes. When the range would grow beyond {@link #MAX_BUCKETS}, the lowest
+     * buckets are folded into the lowest bucket kept, trading accuracy on the smallest magnitudes for bounded memory.
+     */
+    private static final class Buckets {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long total;
+
+        void add(int index, long n) {
+            if (counts.length == 0) {
+                counts = new long[1];
+                offset = index;
+            } else if (index < offset || index >= offset + counts.length) {
+                resize(Math.min(index, offset), Math.max(index, offset + counts.length - 1));
+            }
+            counts[Math.max(index, offset) - offset] += n;
+            total += n;
+        }
+
+        void merge(Buckets other) {
+            for (int i = 0; i < other.counts.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        Buckets copy() {
+            Buckets copy = new Buckets();
+            copy.counts = counts.clone();
+            copy.offset = offset;
+            copy.total = total;
+            return copy;
+        }
+
+        /**
+         * Index of the bucket holding the amount at {@code rank}, counting from the lowest index.
+         */
+        int indexAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        private void resize(int low, int high) {
+            int newLow = Math.max(low, high - MAX_BUCKETS + 1);
+            long[] resized = new long[high - newLow + 1];
+            for (int i = 0; i < counts.length; i++) {
+                int index = Math.max(offset + i, newLow);
+                resized[index - newLow] += counts[i];
+            }
+            counts = resized;
+            offset = newLow;
+        }
+    }
+}
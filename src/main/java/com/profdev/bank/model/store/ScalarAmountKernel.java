@@ -0,0 +1,69 @@
+package com.profdev.bank.model.store;
+
+import java.util.Objects;
+
+/**
+ * Plain loop over the columns; the fallback when the Vector API is unavailable, and the tail of each vector pass.
+ */
+public class ScalarAmountKernel implements AmountKernel {
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int fromDay, int toDay) {
+        return summarize(store.amounts(), store.epochDays(), null, 0, 0, store.size(), fromDay, toDay);
+    }
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int categoryId, int fromDay, int toDay) {
+        return summarize(store.amounts(), store.epochDays(), store.categoryIds(), categoryId, 0, store.size(), fromDay,
+                toDay);
+    }
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int[] rows, int from, int to) {
+        Objects.checkFromToIndex(from, to, rows.length);
+        return summarize(store.amounts(), rows, from, to);
+    }
+
+    /**
+     * Summary over rows {@code from} to {@code to - 1}; {@code categoryIds} is {@code null} to take every category.
+     */
+    static AmountSummary summarize(long[] amounts, int[] epochDays, int[] categoryIds, int categoryId, int from, int to,
+                                   int fromDay, int toDay) {
+        long sum = 0;
+        long count = 0;
+        long minimum = Long.MAX_VALUE;
+        long maximum = Long.MIN_VALUE;
+        for (int row = from; row < to; row++) {
+            int day = epochDays[row];
+            if (day >= fromDay && day <= toDay && (categoryIds == null || categoryIds[row] == categoryId)) {
+                long amount = amounts[row];
+                sum += amount;
+                count++;
+                minimum = Math.min(minimum, amount);
+                maximum = Math.max(maximum, amount);
+            }
+        }
+        return new AmountSummary(sum, count, minimum, maximum);
+    }
+
+    /**
+     * Summary over rows {@code rows[from]} to {@code rows[to - 1]}.
+     */
+    static AmountSummary summarize(long[] amounts, int[] rows, int from, int to) {
+        long sum = 0;
+        long minimum = Long.MAX_VALUE;
+        long maximum = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            long amount = amounts[rows[i]];
+            sum += amount;
+            minimum = Math.min(minimum, amount);
+            maximum = Math.max(maximum, amount);
+        }
+        return new AmountSummary(sum, to - from, minimum, maximum);
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,192 @@
+package com.profdev.bank.model.store;
+
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Maps each distinct string to a dense int id (in first-seen order) so that string columns can be held as int arrays.
+ * <p>
+ * A dictionary has a single writer, which alone uses its id map. {@link #snapshot()} returns a read-only view of the
+ * ids interned so far that stays valid, and can be read from any thread, while the writer keeps interning: the value
+ * array is only ever written past the snapshot size or replaced by a larger copy, and the snapshot builds its own id
+ * map from its values the first time it is looked up in.
+ * <p>
+ * Values can also be interned straight from characters that are not a {@link String}, such as a CSV field read in
+ * place, through a second table keyed by content, so that a {@link String} is only made the first time a value is seen.
+ */
+public class StringDictionary {
+
+    public static final int NOT_FOUND = -1;
+
+    private final ObjectIntHashMap<String> ids;
+
+    private volatile ObjectIntHashMap<String> snapshotIds;
+
+    private String[] values;
+
+    private int size;
+
+    private StringDictionary lastSnapshot;
+
+    // the writer's ids of values interned from other characters, open addressed by String-compatible hash: id + 1 per
+    // slot, 0 when empty
+    private int[] charIds;
+
+    private int charIdCount;
+
+    public StringDictionary() {
+        this(16);
+    }
+
+    /**
+     * Dictionary sized up front for {@code expectedSize} distinct values, e.g. when the values are known in advance.
+     */
+    StringDictionary(int expectedSize) {
+        this(new ObjectIntHashMap<>(Math.max(expectedSize, 16)), new String[Math.max(expectedSize, 16)], 0);
+    }
+
+    private StringDictionary(ObjectIntHashMap<String> ids, String[] values, int size) {
+        this.ids = ids;
+        this.values = values;
+        this.size = size;
+    }
+
+    public int intern(String value) {
+        if (ids == null) {
+            throw new UnsupportedOperationException("Dictionary snapshots are read only");
+        }
+        int id = ids.getIfAbsent(value, NOT_FOUND);
+        if (id == NOT_FOUND) {
+            id = size;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    /**
+     * Interns the characters of {@code value}, only making a {@link String} of them if the value is new.
+     */
+    public int intern(CharSequence value) {
+        if (value == null || value instanceof String) {
+            return intern((String) value);
+        }
+        if (ids == null) {
+            throw new UnsupportedOperationException("Dictionary snapshots are read only");
+        }
+        if (charIds == null) {
+            charIds = new int[16];
+        }
+        int mask = charIds.length - 1;
+        for (int slot = spread(hash(value)) & mask; ; slot = (slot + 1) & mask) {
+            int entry = charIds[slot];
+            if (entry == 0) {
+                int id = intern(value.toString());
+                charIds[slot] = id + 1;
+                if (++charIdCount * 2 > charIds.length) {
+                    rehashCharIds();
+                }
+                return id;
+            }
+            if (values[entry - 1].contentEquals(value)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void rehashCharIds() {
+        int[] rehashed = new int[charIds.length * 2];
+        int mask = rehashed.length - 1;
+        for (int entry : charIds) {
+            if (entry != 0) {
+                int slot = spread(values[entry - 1].hashCode()) & mask;
+                while (rehashed[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                rehashed[slot] = entry;
+            }
+        }
+        charIds = rehashed;
+    }
+
+    private static int hash(CharSequence value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A dictionary of its own holding the same values under the same ids, to intern further values into, e.g. when
+     * appending to a store read whole from a snapshot.
+     */
+    public StringDictionary copy() {
+        StringDictionary copy = new StringDictionary(size);
+        for (int id = 0; id < size; id++) {
+            copy.intern(values[id]);
+        }
+        return copy;
+    }
+
+    public int idOf(String value) {
+        return (ids != null ? ids : snapshotIds()).getIfAbsent(value, NOT_FOUND);
+    }
+
+    public String get(int id) {
+        return values[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A read-only view of the values interned so far. Successive snapshots with no values interned in between are the
+     * same instance, so they share the id map built for lookups.
+     */
+    public StringDictionary snapshot() {
+        if (ids == null) {
+            return this;
+        }
+        if (lastSnapshot == null || lastSnapshot.size != size) {
+            lastSnapshot = new StringDictionary(null, values, size);
+        }
+        return lastSnapshot;
+    }
+
+    private ObjectIntHashMap<String> snapshotIds() {
+        ObjectIntHashMap<String> lookup = snapshotIds;
+        if (lookup == null) {
+            // racing readers build equal maps; any of them may win
+            lookup = new ObjectIntHashMap<>(size);
+            for (int id = 0; id < size; id++) {
+                lookup.put(values[id], id);
+            }
+            snapshotIds = lookup;
+        }
+        return lookup;
+    }
+
+    /**
+     * Approximate retained heap of the dictionary, assuming compressed oops and Latin-1 compact strings.
+     */
+    public long heapBytes() {
+        long bytes = HeapSizes.array(values.length, HeapSizes.REFERENCE) + HeapSizes.hashMap(size);
+        if (charIds != null) {
+            bytes += HeapSizes.array(charIds.length, Integer.BYTES);
+        }
+        for (int id = 0; id < size; id++) {
+            bytes += HeapSizes.string(values[id]);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,42 @@
+package com.profdev.bank.model.store;
+
+/**
+ * A loaded store together with the indexes built over it. Datasets are immutable snapshots: appending rows produces a
+ * new dataset, with a higher {@code version}, and leaves the previous one valid for readers still using it.
+ * <p>
+ * The indexes add appended rows to a delta level of their own, so a group commit costs the size of the delta rather
+ * than of the store, and merge the delta into their main level once it holds more than {@value #MAX_DELTA_ROWS} rows
+ * or, for a small store, more than one {@value #DELTA_FRACTION}th of the rows before it.
+ */
+public record TransactionDataset(
+        long version,
+        ColumnarTransactionStore store,
+        CategoryIndex categoryIndex,
+        DateIndex dateIndex,
+        AggregateCube cube) {
+
+    static final int MAX_DELTA_ROWS = 1 << 14;
+
+    static final int DELTA_FRACTION = 8;
+
+    public static TransactionDataset of(ColumnarTransactionStore store) {
+        return new TransactionDataset(1, store, CategoryIndex.of(store), DateIndex.of(store), AggregateCube.of(store));
+    }
+
+    /**
+     * Dataset over {@code store}, a snapshot holding this dataset's rows followed by rows from {@code fromRow} on, with
+     * the indexes extended by the new rows only.
+     */
+    public TransactionDataset append(ColumnarTransactionStore store, int fromRow) {
+        return new TransactionDataset(version + 1, store, categoryIndex.append(store, fromRow),
+                dateIndex.append(store, fromRow), cube.append(store, fromRow));
+    }
+
+    /**
+     * Whether an index whose delta starts at row {@code deltaFrom} should merge it into its main level once the store
+     * has {@code size} rows. The indexes of a dataset all see the same rows, so they compact together.
+     */
+    static boolean compacts(int deltaFrom, int size) {
+        return size - deltaFrom > Math.min(MAX_DELTA_ROWS, deltaFrom / DELTA_FRACTION);
+    }
+}
@@ -0,0 +1,331 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Currency;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of transactions added to a store after its data file was loaded, replayed over the data
+ * file's rows when it is loaded again. {@link #append} only encodes a record in memory; {@link #commit()} writes every
+ * record appended since the last commit and forces them to the device with a single fsync, so a group of appends
+ * costs one sync however many records it holds. Not thread-safe: one thread appends and commits.
+ * <p>
+ * Layout, little-endian: a header (magic, format version, currency), then one record per append: the payload length,
+ * a CRC32C of the payload, and the payload, a row count followed by each row's epoch day, amount in minor units and
+ * its vendor, type, amount text and category as length-prefixed UTF-8 strings. A record is replayed whole or not at
+ * all. Replay stops at the first record that is incomplete or fails its checksum, which can only be one whose commit
+ * never returned, and cuts the log back to the records before it.
+ */
+public final class TransactionLog implements Closeable {
+
+    private static final int MAGIC = 0x5642574C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int CURRENCY_CODE_BYTES = 3;
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + CURRENCY_CODE_BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int NULL_LENGTH = -1;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Currency currency;
+    private final CRC32C checksum = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    // end of the records known to be on the device; appends are written from here
+    private long committedSize;
+    private boolean replayed;
+    private boolean failed;
+
+    private TransactionLog(Path file, FileChannel channel, Currency currency) {
+        this.file = file;
+        this.channel = channel;
+        this.currency = currency;
+    }
+
+    /**
+     * Opens the log in {@code file}, creating it if there is none. A file too short to hold the header is started
+     * again, since nothing can have been committed to it.
+     *
+     * @throws IOException if the file cannot be opened, is not a transaction log or holds amounts of another currency
+     */
+    public static TransactionLog open(Path file, Currency currency) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                writeHeader(channel, currency);
+                syncDirectory(directory);
+            } else {
+                checkHeader(channel, file, currency);
+            }
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        TransactionLog log = new TransactionLog(file, channel, currency);
+        log.committedSize = HEADER_BYTES;
+        return log;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Bytes of the log up to the end of the last committed record.
+     */
+    public long size() {
+        return committedSize;
+    }
+
+    /**
+     * Adds the rows of every complete record to {@code builder}, in the order they were committed, and cuts off
+     * anything after the last of them. Must be called once before the first append.
+     */
+    public Replay replay(ColumnarTransactionStore.Builder builder) throws IOException {
+        if (replayed) {
+            throw new IllegalStateException("Transaction log %s has already been replayed".formatted(file));
+        }
+        long size = channel.size();
+        long position = HEADER_BYTES;
+        int records = 0;
+        int rows = 0;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            readFully(channel, recordHeader.clear(), position);
+            int length = recordHeader.getInt(0);
+            if (length < Integer.BYTES || position + RECORD_HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, payload, position + RECORD_HEADER_BYTES);
+            checksum.reset();
+            checksum.update(payload.flip());
+            if ((int) checksum.getValue() != recordHeader.getInt(Integer.BYTES)) {
+                break;
+            }
+            rows += decode(payload.rewind(), builder);
+            records++;
+            position += RECORD_HEADER_BYTES + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(false);
+        }
+        committedSize = position;
+        replayed = true;
+        return new Replay(records, rows, size - position);
+    }
+
+    /**
+     * Encodes the transactions as one record, to be written by the next {@link #commit()}. Nothing is added if any of
+     * them cannot be encoded.
+     *
+     * @throws IllegalArgumentException if an amount is not in the log's currency
+     */
+    public void append(List<Transaction> transactions) throws IOException {
+        if (!replayed) {
+            throw new IllegalStateException("Transaction log %s must be replayed before it is appended to"
+                    .formatted(file));
+        }
+        if (failed) {
+            throw new IOException("Transaction log %s failed to commit and no longer takes appends".formatted(file));
+        }
+        int start = buffer.position();
+        try {
+            reserve(RECORD_HEADER_BYTES + Integer.BYTES);
+            buffer.position(start + RECORD_HEADER_BYTES);
+            buffer.putInt(transactions.size());
+            for (Transaction transaction : transactions) {
+                encode(transaction);
+            }
+        } catch (RuntimeException ex) {
+            buffer.position(start);
+            throw ex;
+        }
+        int end = buffer.position();
+        checksum.reset();
+        checksum.update(buffer.duplicate().position(start + RECORD_HEADER_BYTES).limit(end));
+        buffer.putInt(start, end - start - RECORD_HEADER_BYTES);
+        buffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+    }
+
+    /**
+     * Writes the records appended since the last commit and forces them to the device. If that fails, the log is cut
+     * back to the last commit as far as possible and takes no more appends, since after a failed sync it can no longer
+     * be told which of the written bytes are durable.
+     */
+    public void commit() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            long position = committedSize;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            committedSize = position;
+        } catch (IOException ex) {
+            failed = true;
+            try {
+                channel.truncate(committedSize);
+            } catch (IOException truncateFailure) {
+                ex.addSuppressed(truncateFailure);
+            }
+            throw ex;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void encode(Transaction transaction) {
+        Money amount = transaction.getMonetaryAmount();
+        if (!amount.currency().equals(currency)) {
+            throw new IllegalArgumentException("Cannot log a %s amount in a %s log".formatted(amount.currency(),
+                    currency));
+        }
+        reserve(Integer.BYTES + Long.BYTES);
+        buffer.putInt(Math.toIntExact(transaction.getDate().toEpochDay()));
+        buffer.putLong(amount.minorUnits());
+        putString(transaction.getVendor());
+        putString(transaction.getType());
+        putString(transaction.getAmount());
+        putString(transaction.getCategory());
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            reserve(Integer.BYTES);
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        reserve(Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+            buffer = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN).put(buffer.flip());
+        }
+    }
+
+    private int decode(ByteBuffer payload, ColumnarTransactionStore.Builder builder) throws IOException {
+        try {
+            int rows = payload.getInt();
+            for (int row = 0; row < rows; row++) {
+                int epochDay = payload.getInt();
+                long amount = payload.getLong();
+                String vendor = getString(payload);
+                String type = getString(payload);
+                String amountText = getString(payload);
+                builder.add(epochDay, vendor, type, amountText, amount, getString(payload));
+            }
+            return rows;
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Malformed record in transaction log " + file, ex);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(payload.array(), payload.arrayOffset() + payload.position(), length,
+                StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return value;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of transaction log");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, Currency currency) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .put(currency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII))
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    private static void checkHeader(FileChannel channel, Path file, Currency currency) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a transaction log: " + file);
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Transaction log %s has format version %d, expected %d".formatted(file, version,
+                    FORMAT_VERSION));
+        }
+        byte[] currencyCode = new byte[CURRENCY_CODE_BYTES];
+        header.get(currencyCode);
+        String logCurrency = new String(currencyCode, StandardCharsets.US_ASCII);
+        if (!currency.getCurrencyCode().equals(logCurrency)) {
+            throw new IOException("Transaction log %s holds %s amounts, not %s".formatted(file, logCurrency,
+                    currency.getCurrencyCode()));
+        }
+    }
+
+    /**
+     * Makes a newly created log's directory entry durable. Not every platform can sync a directory, and those that
+     * cannot keep their entries some other way, so a failure here is ignored.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // best effort
+        }
+    }
+
+    /**
+     * What a replay found: the records and rows added to the store, and the bytes cut off after the last complete
+     * record.
+     */
+    public record Replay(int records, int rows, long discardedBytes) {
+    }
+}
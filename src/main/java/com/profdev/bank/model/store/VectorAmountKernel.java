@@ -0,0 +1,96 @@
+package com.profdev.bank.model.store;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Objects;
+
+/**
+ * SIMD kernel on the incubating Vector API. Each step loads as many amounts as fit in the widest vector the CPU has,
+ * with the same number of days and category ids in a vector half as wide, and folds the amounts whose date and
+ * category match into lane-wise sums, counts, minimums and maximums under a mask, so the loop has no branches. The
+ * lanes are reduced once at the end and the rows that do not fill a whole vector are left to the scalar loop. Through
+ * an index's row numbers, each step gathers a vector of amounts instead and needs no mask.
+ */
+public class VectorAmountKernel implements AmountKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    // one int per long lane, so an int comparison mask casts lane for lane onto the amounts
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    static boolean isSupported() {
+        return LONGS.length() > 1;
+    }
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int fromDay, int toDay) {
+        return summarize(store.amounts(), store.epochDays(), null, 0, store.size(), fromDay, toDay);
+    }
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int categoryId, int fromDay, int toDay) {
+        return summarize(store.amounts(), store.epochDays(), store.categoryIds(), categoryId, store.size(), fromDay,
+                toDay);
+    }
+
+    @Override
+    public AmountSummary summarize(ColumnarTransactionStore store, int[] rows, int from, int to) {
+        Objects.checkFromToIndex(from, to, rows.length);
+        long[] amounts = store.amounts();
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector minimums = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector maximums = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int upperBound = from + LONGS.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += LONGS.length()) {
+            LongVector amount = LongVector.fromArray(LONGS, amounts, 0, rows, i);
+            sums = sums.add(amount);
+            minimums = minimums.min(amount);
+            maximums = maximums.max(amount);
+        }
+        AmountSummary vectorPart = new AmountSummary(sums.reduceLanes(VectorOperators.ADD), i - from,
+                minimums.reduceLanes(VectorOperators.MIN), maximums.reduceLanes(VectorOperators.MAX));
+        return vectorPart.plus(ScalarAmountKernel.summarize(amounts, rows, i, to));
+    }
+
+    private static AmountSummary summarize(long[] amounts, int[] epochDays, int[] categoryIds, int categoryId,
+                                           int size, int fromDay, int toDay) {
+        LongVector sums = LongVector.zero(LONGS);
+        LongVector counts = LongVector.zero(LONGS);
+        LongVector minimums = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector maximums = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int upperBound = LONGS.loopBound(size);
+        int row = 0;
+        for (; row < upperBound; row += LONGS.length()) {
+            IntVector days = IntVector.fromArray(INTS, epochDays, row);
+            VectorMask<Integer> matches = days.compare(VectorOperators.GE, fromDay)
+                    .and(days.compare(VectorOperators.LE, toDay));
+            if (categoryIds != null) {
+                matches = matches.and(IntVector.fromArray(INTS, categoryIds, row).compare(VectorOperators.EQ,
+                        categoryId));
+            }
+            VectorMask<Long> mask = matches.cast(LONGS);
+            LongVector amount = LongVector.fromArray(LONGS, amounts, row);
+            sums = sums.add(amount, mask);
+            counts = counts.add(1, mask);
+            minimums = minimums.lanewise(VectorOperators.MIN, amount, mask);
+            maximums = maximums.lanewise(VectorOperators.MAX, amount, mask);
+        }
+        AmountSummary vectorPart = new AmountSummary(sums.reduceLanes(VectorOperators.ADD),
+                counts.reduceLanes(VectorOperators.ADD), minimums.reduceLanes(VectorOperators.MIN),
+                maximums.reduceLanes(VectorOperators.MAX));
+        return vectorPart.plus(ScalarAmountKernel.summarize(amounts, epochDays, categoryIds, categoryId, row, size,
+                fromDay, toDay));
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + LONGS.length() + " lanes)";
+    }
+}
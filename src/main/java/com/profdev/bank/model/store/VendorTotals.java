@@ -0,0 +1,171 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.sort.VendorRanking;
+import org.eclipse.collections.api.map.primitive.MutableIntIntMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Total spend and transaction count per vendor, one slot per distinct vendor. Slots are found through a primitive
+ * hash map in a single pass over the rows, so aggregating costs one probe per row and memory per distinct vendor,
+ * never per row; {@link #top} then ranks the slots with a heap bounded by the number of vendors wanted.
+ */
+public class VendorTotals {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] vendors = new String[INITIAL_CAPACITY];
+    private long[] sums = new long[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private VendorTotals() {
+    }
+
+    /**
+     * Totals over {@code rows[from]} to {@code rows[to - 1]} of the store.
+     */
+    public static VendorTotals of(ColumnarTransactionStore store, int[] rows, int from, int to) {
+        VendorTotals totals = new VendorTotals();
+        MutableIntIntMap slots = new IntIntHashMap();
+        for (int i = from; i < to; i++) {
+            int row = rows[i];
+            int vendorId = store.vendorId(row);
+            int slot = slots.getIfAbsentPut(vendorId, totals.size);
+            if (slot == totals.size) {
+                totals.addSlot(store.vendors().get(vendorId));
+            }
+            totals.sums[slot] = Math.addExact(totals.sums[slot], store.amount(row));
+            totals.counts[slot]++;
+        }
+        return totals;
+    }
+
+    /**
+     * Totals of several stores added up by vendor name, since each store has its own vendor ids.
+     */
+    public static VendorTotals merge(List<VendorTotals> parts) {
+        VendorTotals merged = new VendorTotals();
+        MutableObjectIntMap<String> slots = new ObjectIntHashMap<>();
+        for (VendorTotals part : parts) {
+            for (int partSlot = 0; partSlot < part.size; partSlot++) {
+                int slot = slots.getIfAbsentPut(part.vendors[partSlot], merged.size);
+                if (slot == merged.size) {
+                    merged.addSlot(part.vendors[partSlot]);
+                }
+                merged.sums[slot] = Math.addExact(merged.sums[slot], part.sums[partSlot]);
+                merged.counts[slot] += part.counts[partSlot];
+            }
+        }
+        return merged;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String vendor(int slot) {
+        return vendors[slot];
+    }
+
+    public long sum(int slot) {
+        return sums[slot];
+    }
+
+    public long count(int slot) {
+        return counts[slot];
+    }
+
+    /**
+     * Slots of the {@code limit} vendors ranked highest, best first. Ties on the ranked measure are broken by the other
+     * measure and then by vendor name.
+     */
+    public int[] top(VendorRanking ranking, int limit) {
+        // min-heap on rank: the root is the worst of the vendors kept so far
+        int[] heap = new int[Math.min(limit, size)];
+        int heapSize = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++, ranking);
+            } else if (heap.length > 0 && compare(slot, heap[0], ranking) > 0) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, ranking);
+            }
+        }
+        // popping the worst each time fills the result from the back
+        int[] ranked = new int[heapSize];
+        while (heapSize > 0) {
+            ranked[heapSize - 1] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, ranking);
+        }
+        return ranked;
+    }
+
+    private void siftUp(int[] heap, int index, VendorRanking ranking) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(slot, heap[parent], ranking) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int[] heap, int heapSize, VendorRanking ranking) {
+        int slot = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && compare(heap[child + 1], heap[child], ranking) < 0) {
+                child++;
+            }
+            if (compare(slot, heap[child], ranking) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+
+    /**
+     * Positive when slot {@code a} ranks above slot {@code b}.
+     */
+    private int compare(int a, int b, VendorRanking ranking) {
+        long[] primary = ranking == VendorRanking.SPEND ? sums : counts;
+        long[] secondary = ranking == VendorRanking.SPEND ? counts : sums;
+        int compared = Long.compare(primary[a], primary[b]);
+        if (compared == 0) {
+            compared = Long.compare(secondary[a], secondary[b]);
+        }
+        if (compared == 0) {
+            // earlier names rank higher; a missing vendor ranks below any name
+            compared = vendors[a] == null || vendors[b] == null
+                    ? Boolean.compare(vendors[a] != null, vendors[b] != null)
+                    : vendors[b].compareTo(vendors[a]);
+        }
+        return compared;
+    }
+
+    private void addSlot(String vendor) {
+        if (size == vendors.length) {
+            int capacity = size * 2;
+            vendors = Arrays.copyOf(vendors, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        vendors[size++] = vendor;
+    }
+}
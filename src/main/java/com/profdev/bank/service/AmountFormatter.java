@@ -1,9 +1,10 @@
 package com.profdev.bank.service;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.model.Money;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.Optional;
 
 @Service
 public class AmountFormatter {
@@ -14,7 +15,15 @@ public class AmountFormatter {
         this.appProperties = appProperties;
     }
 
-    public String format(BigDecimal amount) {
+    public String format(Money amount) {
         return appProperties.currencySymbol() + amount;
     }
+
+    /**
+     * Formats a highest or lowest spend, rendering no matching spend as zero without decimal places ("£0"), as those
+     * endpoints always have. A spend of zero is formatted like any other amount.
+     */
+    public String formatSpend(Optional<Money> spend) {
+        return spend.map(this::format).orElseGet(() -> appProperties.currencySymbol() + "0");
+    }
 }
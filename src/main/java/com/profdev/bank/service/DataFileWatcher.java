@@ -0,0 +1,62 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.WatchProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the accounts' data files for appended rows every {@code app.watch.interval} once the application is ready.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.watch", name = "enabled", havingValue = "true")
+public class DataFileWatcher {
+
+    private final TransactionPartitions partitions;
+
+    private final WatchProperties watchProperties;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-file-watcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DataFileWatcher(TransactionPartitions partitions, WatchProperties watchProperties) {
+        this.partitions = partitions;
+        this.watchProperties = watchProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (partitions.isTailing()) {
+            long interval = watchProperties.interval().toMillis();
+            executor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+            log.info("Watching the data files for appended rows every {} ms", interval);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    void poll() {
+        try {
+            int appended = partitions.refresh();
+            if (appended > 0) {
+                log.info("Appended {} transactions from the data files", appended);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not read rows appended to the data files, retrying in {}", watchProperties.interval(), ex);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.QuarantinedRow;
+import com.profdev.bank.model.store.TransactionDataset;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the transaction data as {@code OUT_OF_SERVICE} while any account is loading and {@code DOWN} if loading
+ * one failed; part of the readiness group so the application is only marked ready once every account can be queried.
+ * Rows skipped by a lenient load are reported with their line and reason, by account.
+ */
+@Component
+public class DatasetHealthIndicator implements HealthIndicator {
+
+    private final TransactionPartitions partitions;
+
+    public DatasetHealthIndicator(TransactionPartitions partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    public Health health() {
+        long rows = 0;
+        long loadMillis = 0;
+        long quarantinedRows = 0;
+        Map<String, List<QuarantinedRow>> quarantined = new LinkedHashMap<>();
+        boolean loading = false;
+        for (String account : partitions.accounts()) {
+            TransactionDatasetHolder holder = partitions.holder(account);
+            if (holder.loadFailure() != null) {
+                return Health.down(holder.loadFailure()).build();
+            }
+            TransactionDataset dataset = holder.currentDataset();
+            if (dataset == null) {
+                loading = true;
+            } else {
+                rows += dataset.store().size();
+                loadMillis = Math.max(loadMillis, holder.loadDuration().toMillis());
+            }
+            Quarantine quarantine = holder.quarantine();
+            if (quarantine.count() > 0) {
+                quarantinedRows += quarantine.count();
+                quarantined.put(account, quarantine.rows());
+            }
+        }
+        if (loading) {
+            return Health.outOfService().withDetail("reason", "Transaction data is still loading").build();
+        }
+        Health.Builder health = Health.up()
+                .withDetail("accounts", partitions.accounts().size())
+                .withDetail("rows", rows)
+                .withDetail("loadMillis", loadMillis);
+        if (quarantinedRows > 0) {
+            health.withDetail("quarantinedRows", quarantinedRows).withDetail("quarantine", quarantined);
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.profdev.bank.service;
+
+/**
+ * Thrown to a request that arrives while the transaction data is still being loaded in the background, or after
+ * loading it failed, rather than making the request wait for the load.
+ */
+public class DatasetNotReadyException extends RuntimeException {
+
+    public DatasetNotReadyException(Throwable loadFailure) {
+        super(loadFailure == null ? "Transaction data is still loading" : "Transaction data could not be loaded",
+                loadFailure);
+    }
+}
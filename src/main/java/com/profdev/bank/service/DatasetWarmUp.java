@@ -0,0 +1,42 @@
+package com.profdev.bank.service;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts loading every account's transaction data, each on its own virtual thread, as the application starts. It runs
+ * in an early lifecycle phase, before the web server starts accepting requests, so no request can trigger a load of
+ * its own.
+ */
+@Component
+public class DatasetWarmUp implements SmartLifecycle {
+
+    private final TransactionPartitions partitions;
+
+    private volatile boolean running;
+
+    public DatasetWarmUp(TransactionPartitions partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        partitions.warmUp(task -> Thread.ofVirtual().name("dataset-warm-up").start(task));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.TransactionLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Makes appends to a {@link TransactionLog} durable in groups. Callers queue their rows and get a future; one thread
+ * takes everything queued, appends it to the log as one record per caller, syncs the log once for the whole group and
+ * only then publishes the rows and completes the futures. Callers that arrive during a sync queue up behind it and go
+ * out together in the next one, so the group grows with the load and the number of syncs per second is bounded by the
+ * device's sync latency rather than by the request rate.
+ */
+@Slf4j
+class GroupCommitter implements AutoCloseable {
+
+    static final int MAX_GROUP = 1024;
+
+    private static final long POLL_MILLIS = 100;
+
+    private final TransactionLog transactionLog;
+    private final Function<List<Transaction>, TransactionDataset> publisher;
+    private final IngestMetrics metrics;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param publisher adds committed rows to the served data, returning the dataset that includes them
+     */
+    GroupCommitter(TransactionLog transactionLog, Function<List<Transaction>, TransactionDataset> publisher,
+                   IngestMetrics metrics) {
+        this.transactionLog = transactionLog;
+        this.publisher = publisher;
+        this.metrics = metrics;
+        this.thread = Thread.ofPlatform()
+                .name("transaction-log-" + transactionLog.file().getFileName())
+                .daemon()
+                .unstarted(this::run);
+        thread.start();
+    }
+
+    /**
+     * Queues the transactions to be committed; the future completes with the first dataset that includes them once
+     * they are durable, or fails with an {@link IngestUnavailableException} if they could not be made durable.
+     */
+    CompletableFuture<TransactionDataset> submit(List<Transaction> transactions) {
+        Append append = new Append(List.copyOf(transactions), new CompletableFuture<>());
+        if (closed) {
+            append.future.completeExceptionally(closedException());
+            return append.future;
+        }
+        queue.add(append);
+        // close() may have drained the queue between the check and the add
+        if (closed && queue.remove(append)) {
+            append.future.completeExceptionally(closedException());
+        }
+        return append.future;
+    }
+
+    /**
+     * Commits the group in progress, fails anything still queued and closes the log.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<Append> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(append -> append.future.completeExceptionally(closedException()));
+        try {
+            transactionLog.close();
+        } catch (IOException ex) {
+            log.warn("Could not close transaction log {}", transactionLog.file(), ex);
+        }
+    }
+
+    private void run() {
+        List<Append> group = new ArrayList<>();
+        while (!closed) {
+            try {
+                // polled rather than taken, so close() can stop the thread without interrupting a sync
+                Append first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(group, MAX_GROUP - 1);
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void commit(List<Append> group) {
+        long start = System.nanoTime();
+        List<Append> appended = new ArrayList<>(group.size());
+        List<Transaction> rows = new ArrayList<>();
+        try {
+            for (Append append : group) {
+                try {
+                    transactionLog.append(append.transactions);
+                } catch (RuntimeException ex) {
+                    append.future.completeExceptionally(ex);
+                    continue;
+                }
+                appended.add(append);
+                rows.addAll(append.transactions);
+            }
+            transactionLog.commit();
+        } catch (IOException ex) {
+            log.error("Could not commit {} appends to transaction log {}", group.size(), transactionLog.file(), ex);
+            group.forEach(append -> append.future.completeExceptionally(
+                    new IngestUnavailableException("Transactions could not be written to the transaction log", ex)));
+            return;
+        }
+        if (appended.isEmpty()) {
+            return;
+        }
+        metrics.committed(appended.size(), rows.size(), System.nanoTime() - start);
+        TransactionDataset published;
+        try {
+            published = publisher.apply(rows);
+        } catch (RuntimeException ex) {
+            // durable, so they will still be replayed on the next load
+            log.error("Could not publish {} committed transactions", rows.size(), ex);
+            appended.forEach(append -> append.future.completeExceptionally(ex));
+            return;
+        }
+        appended.forEach(append -> append.future.complete(published));
+    }
+
+    private static IngestUnavailableException closedException() {
+        return new IngestUnavailableException("The transaction log is closed");
+    }
+
+    private record Append(List<Transaction> transactions, CompletableFuture<TransactionDataset> future) {
+    }
+}
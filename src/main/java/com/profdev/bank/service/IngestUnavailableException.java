@@ -0,0 +1,16 @@
+package com.profdev.bank.service;
+
+/**
+ * Thrown when transactions cannot be added: no transaction log is configured, or the log could not make them durable.
+ * Transactions are never added to the data being served unless they have been written to the log.
+ */
+public class IngestUnavailableException extends RuntimeException {
+
+    public IngestUnavailableException(String message) {
+        super(message);
+    }
+
+    public IngestUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
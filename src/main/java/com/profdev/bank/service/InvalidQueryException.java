@@ -0,0 +1,11 @@
+package com.profdev.bank.service;
+
+/**
+ * Thrown when a query is missing an argument it needs or has one out of range.
+ */
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
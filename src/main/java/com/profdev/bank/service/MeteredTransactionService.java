@@ -0,0 +1,215 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.service.query.BatchQuery;
+import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.SpendSummary;
+import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every query of {@link TransactionServiceImpl} as {@code banking.query}, tagged with the query. The timers are
+ * registered up front and each call is timed inline rather than through a callback, so timing a query allocates
+ * nothing. Listings are timed until the list is returned; their rows are materialised as they are written out.
+ */
+@Primary
+@Service
+public class MeteredTransactionService implements TransactionService {
+
+    private final TransactionService delegate;
+
+    private final Timer getAllTimer;
+    private final Timer getForCategoryTimer;
+    private final Timer getForDateRangeTimer;
+    private final Timer getTotalPerCategoryTimer;
+    private final Timer getHighestSpendTimer;
+    private final Timer getLowestSpendTimer;
+    private final Timer getAverageSpendTimer;
+    private final Timer getTopVendorsTimer;
+    private final Timer getSpendPercentilesTimer;
+    private final Timer getSpendSummaryTimer;
+    private final Timer getBatchTimer;
+
+    public MeteredTransactionService(TransactionServiceImpl delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.getAllTimer = timer(registry, "getAll");
+        this.getForCategoryTimer = timer(registry, "getForCategory");
+        this.getForDateRangeTimer = timer(registry, "getForDateRange");
+        this.getTotalPerCategoryTimer = timer(registry, "getTotalPerCategory");
+        this.getHighestSpendTimer = timer(registry, "getHighestSpendForCategoryAndYear");
+        this.getLowestSpendTimer = timer(registry, "getLowestSpendForCategoryAndYear");
+        this.getAverageSpendTimer = timer(registry, "getAverageSpendPerMonthForCategory");
+        this.getTopVendorsTimer = timer(registry, "getTopVendorsForCategory");
+        this.getSpendPercentilesTimer = timer(registry, "getSpendPercentilesForCategoryAndYear");
+        this.getSpendSummaryTimer = timer(registry, "getSpendSummaryForDateRange");
+        this.getBatchTimer = timer(registry, "getBatch");
+    }
+
+    @Override
+    public Set<String> getAccounts() {
+        return delegate.getAccounts();
+    }
+
+    @Override
+    public long getDataVersion() {
+        return delegate.getDataVersion();
+    }
+
+    @Override
+    public List<Transaction> getAll(String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAll(account);
+        } finally {
+            record(getAllTimer, start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getForCategory(category, sortOrder, account);
+        } finally {
+            record(getForCategoryTimer, start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getForDateRange(LocalDate from, LocalDate to, String category,
+                                             TransactionBeanSortOrder sortOrder, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getForDateRange(from, to, category, sortOrder, account);
+        } finally {
+            record(getForDateRangeTimer, start);
+        }
+    }
+
+    @Override
+    public List<TotalPerCategory> getTotalPerCategory(String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTotalPerCategory(account);
+        } finally {
+            record(getTotalPerCategoryTimer, start);
+        }
+    }
+
+    @Override
+    public Money getHighestSpendForCategoryAndYear(String category, int year, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getHighestSpendForCategoryAndYear(category, year, account);
+        } finally {
+            record(getHighestSpendTimer, start);
+        }
+    }
+
+    @Override
+    public Money getLowestSpendForCategoryAndYear(String category, int year, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getLowestSpendForCategoryAndYear(category, year, account);
+        } finally {
+            record(getLowestSpendTimer, start);
+        }
+    }
+
+    @Override
+    public Optional<Money> findHighestSpendForCategoryAndYear(String category, int year, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findHighestSpendForCategoryAndYear(category, year, account);
+        } finally {
+            record(getHighestSpendTimer, start);
+        }
+    }
+
+    @Override
+    public Optional<Money> findLowestSpendForCategoryAndYear(String category, int year, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findLowestSpendForCategoryAndYear(category, year, account);
+        } finally {
+            record(getLowestSpendTimer, start);
+        }
+    }
+
+    @Override
+    public List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAverageSpendPerMonthForCategory(category, account);
+        } finally {
+            record(getAverageSpendTimer, start);
+        }
+    }
+
+    @Override
+    public List<VendorTotal> getTopVendorsForCategory(String category, Integer year, VendorRanking ranking, int limit,
+                                                      String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getTopVendorsForCategory(category, year, ranking, limit, account);
+        } finally {
+            record(getTopVendorsTimer, start);
+        }
+    }
+
+    @Override
+    public SpendPercentiles getSpendPercentilesForCategoryAndYear(String category, int year, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSpendPercentilesForCategoryAndYear(category, year, account);
+        } finally {
+            record(getSpendPercentilesTimer, start);
+        }
+    }
+
+    @Override
+    public SpendSummary getSpendSummaryForDateRange(LocalDate from, LocalDate to, String category, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSpendSummaryForDateRange(from, to, category, account);
+        } finally {
+            record(getSpendSummaryTimer, start);
+        }
+    }
+
+    @Override
+    public List<BatchResult> getBatch(List<BatchQuery> queries, String account) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBatch(queries, account);
+        } finally {
+            record(getBatchTimer, start);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String query) {
+        return Timer.builder("banking.query")
+                .description("Time taken to answer a transaction query")
+                .tag("query", query)
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
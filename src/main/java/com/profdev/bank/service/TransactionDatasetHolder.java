@@ -0,0 +1,366 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.WatchProperties;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.data.load.SnapshotDataLoader;
+import com.profdev.bank.data.load.TailingDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.store.ColumnarStoreSnapshot;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.TransactionLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the current {@link TransactionDataset} of one account's data file. Readers take the current snapshot once per
+ * query and keep using it, so a query never sees a half-applied update. In watch mode {@link #refresh()} reads the
+ * rows appended to the data file since the last read, extends the store and its indexes with them and publishes the
+ * result as the new snapshot.
+ * <p>
+ * With a transaction log, transactions can also be {@link #append appended}: they are written to the log, synced
+ * together with other callers' appends, and published as a new snapshot once they are durable. Every load replays the
+ * log over the rows read from the data file.
+ * <p>
+ * The dataset is loaded on first use unless {@link #warmUp} has been called, in which case it is loaded in the
+ * background, retried with backoff if it fails, and callers get a {@link DatasetNotReadyException} until it has been
+ * published.
+ */
+@Slf4j
+public class TransactionDatasetHolder {
+
+    static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+
+    static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final DataLoader dataLoader;
+
+    private final TransactionLoadPipeline loadPipeline;
+
+    private final boolean tailing;
+
+    private final Path logFile;
+
+    private final IngestMetrics metrics;
+
+    private volatile GroupCommitter committer;
+
+    private volatile TransactionDataset dataset;
+
+    private volatile boolean eager;
+
+    private volatile Duration loadDuration;
+
+    private volatile Throwable loadFailure;
+
+    private volatile boolean closed;
+
+    // writer state, guarded by this
+    private ColumnarTransactionStore.Builder builder;
+
+    private long position;
+
+    public TransactionDatasetHolder(DataLoader dataLoader, TransactionMapper mapper, WatchProperties watchProperties) {
+        this(dataLoader, mapper, watchProperties, IngestMetrics.NONE);
+    }
+
+    public TransactionDatasetHolder(DataLoader dataLoader, TransactionMapper mapper, WatchProperties watchProperties,
+                                    IngestMetrics metrics) {
+        this(dataLoader, mapper, watchProperties, metrics, null);
+    }
+
+    /**
+     * @param logFile the account's transaction log, or {@code null} if transactions cannot be appended
+     */
+    public TransactionDatasetHolder(DataLoader dataLoader, TransactionMapper mapper, WatchProperties watchProperties,
+                                    IngestMetrics metrics, Path logFile) {
+        this.dataLoader = dataLoader;
+        this.loadPipeline = new TransactionLoadPipeline(mapper, metrics);
+        this.logFile = logFile;
+        this.metrics = metrics;
+        this.tailing = watchProperties.enabled() && dataLoader instanceof TailingDataLoader;
+        if (watchProperties.enabled() && !tailing) {
+            log.warn("Watch mode needs a data loader that can read appended rows, {} cannot; the data file will be "
+                    + "loaded once", dataLoader.getClass().getSimpleName());
+        }
+    }
+
+    public TransactionDataset dataset() {
+        TransactionDataset current = dataset;
+        if (current != null) {
+            return current;
+        }
+        if (eager) {
+            throw new DatasetNotReadyException(loadFailure);
+        }
+        return load();
+    }
+
+    /**
+     * The published dataset, or {@code null} while it has not been loaded yet. Never triggers a load.
+     */
+    public TransactionDataset currentDataset() {
+        return dataset;
+    }
+
+    /**
+     * Loads the dataset on the executor instead of on first use; from now on callers never load it themselves. The
+     * future completes with the outcome of the first attempt. A failed load is retried on the executor after a delay
+     * that doubles with each failure, up to {@link #MAX_RETRY_DELAY}, until one succeeds or the holder is closed; the
+     * failure is reported until then.
+     */
+    public CompletableFuture<TransactionDataset> warmUp(Executor executor) {
+        return warmUp(executor, FIRST_RETRY_DELAY);
+    }
+
+    CompletableFuture<TransactionDataset> warmUp(Executor executor, Duration firstRetryDelay) {
+        eager = true;
+        return attemptLoad(executor, executor, firstRetryDelay);
+    }
+
+    private CompletableFuture<TransactionDataset> attemptLoad(Executor attemptExecutor, Executor executor,
+                                                              Duration retryDelay) {
+        return CompletableFuture.supplyAsync(this::load, attemptExecutor)
+                .whenComplete((loaded, ex) -> {
+                    if (ex == null) {
+                        return;
+                    }
+                    loadFailure = ex;
+                    if (closed) {
+                        log.error("Could not load the transaction data", ex);
+                        return;
+                    }
+                    log.error("Could not load the transaction data, retrying in {} ms", retryDelay.toMillis(), ex);
+                    Executor delayed =
+                            CompletableFuture.delayedExecutor(retryDelay.toMillis(), TimeUnit.MILLISECONDS, executor);
+                    Duration nextDelay = retryDelay.multipliedBy(2);
+                    if (nextDelay.compareTo(MAX_RETRY_DELAY) > 0) {
+                        nextDelay = MAX_RETRY_DELAY;
+                    }
+                    attemptLoad(delayed, executor, nextDelay);
+                });
+    }
+
+    /**
+     * How long the initial load took, or {@code null} until it has completed.
+     */
+    public Duration loadDuration() {
+        return loadDuration;
+    }
+
+    public Throwable loadFailure() {
+        return loadFailure;
+    }
+
+    /**
+     * Rows of the data file left out because they could not be read, in lenient mode.
+     */
+    public Quarantine quarantine() {
+        return dataLoader.quarantine();
+    }
+
+    public boolean isTailing() {
+        return tailing;
+    }
+
+    public boolean hasTransactionLog() {
+        return logFile != null;
+    }
+
+    /**
+     * Writes the transactions to the transaction log and publishes them once they are durable. The future completes
+     * with the first dataset that includes them; appends made concurrently share one sync of the log and one snapshot.
+     *
+     * @throws IngestUnavailableException if there is no transaction log
+     */
+    public CompletableFuture<TransactionDataset> append(List<Transaction> transactions) {
+        dataset();
+        GroupCommitter current = committer;
+        if (current == null) {
+            throw new IngestUnavailableException("Transactions can only be added with a transaction log, "
+                    + "see app.ingest.log-directory");
+        }
+        return current.submit(transactions);
+    }
+
+    /**
+     * Stops taking appends, once those already being committed are durable, and stops retrying a failed warm-up.
+     */
+    public void close() {
+        closed = true;
+        GroupCommitter current = committer;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Folds any rows appended to the data file since the last read into a new snapshot and returns how many there
+     * were. Does nothing unless watch mode is active.
+     */
+    public synchronized int refresh() {
+        TransactionDataset current = dataset;
+        if (!tailing || current == null) {
+            return 0;
+        }
+        int fromRow = builder.size();
+        position = loadPipeline.ingestFrom((TailingDataLoader) dataLoader, position, builder);
+        int appended = builder.size() - fromRow;
+        if (appended > 0) {
+            dataset = current.append(builder.snapshot(), fromRow);
+        }
+        return appended;
+    }
+
+    private synchronized TransactionDataset load() {
+        if (dataset == null) {
+            discardFailedLoad();
+            long start = System.nanoTime();
+            ColumnarTransactionStore store;
+            if (tailing) {
+                builder = loadPipeline.newBuilder();
+                position = loadPipeline.ingestFrom((TailingDataLoader) dataLoader, 0, builder);
+                store = builder.snapshot();
+            } else if (dataLoader instanceof SnapshotDataLoader snapshotLoader) {
+                store = loadWithSnapshot(snapshotLoader);
+            } else if (logFile != null) {
+                builder = loadPipeline.newBuilder();
+                loadPipeline.ingest(dataLoader, builder);
+                store = builder.snapshot();
+            } else {
+                store = loadPipeline.load(dataLoader);
+            }
+            if (logFile != null) {
+                store = replayLog(store);
+            }
+            TransactionDataset loaded = TransactionDataset.of(store);
+            loadDuration = Duration.ofNanos(System.nanoTime() - start);
+            // cleared before publishing, so no caller sees the dataset together with an earlier attempt's failure
+            loadFailure = null;
+            dataset = loaded;
+            log.info("Loaded {} transactions in {} ms", store.size(), loadDuration.toMillis());
+            Quarantine quarantine = dataLoader.quarantine();
+            if (quarantine.count() > 0) {
+                log.warn("Quarantined {} rows that could not be read, first: {}", quarantine.count(),
+                        quarantine.rows().stream().findFirst().orElse(null));
+            }
+            if (store.size() > 0) {
+                log.info("Transactions take {} bytes/row columnar, ~{} bytes/row as beans",
+                        store.heapBytes() / store.size(), store.beanListHeapBytes() / store.size());
+            }
+        }
+        return dataset;
+    }
+
+    /**
+     * Drops what an earlier load that failed left behind, so a retry starts afresh: the rows it quarantined, the rows
+     * it read, and the transaction log it opened.
+     */
+    private void discardFailedLoad() {
+        dataLoader.quarantine().clear();
+        builder = null;
+        position = 0;
+        GroupCommitter current = committer;
+        if (current != null) {
+            committer = null;
+            current.close();
+        }
+    }
+
+    /**
+     * Opens the transaction log, replays it over the data file's rows and starts committing appends to it. The log
+     * holds transactions clients were told are durable, so one that cannot be read fails the load.
+     * <p>
+     * A store read whole from a snapshot has no builder: the log is replayed into a tail builder of its own, and the
+     * snapshot's columns are only copied into a builder once there are rows to add to them.
+     */
+    private ColumnarTransactionStore replayLog(ColumnarTransactionStore store) {
+        ColumnarTransactionStore.Builder tail = builder != null ? builder : loadPipeline.newBuilder();
+        TransactionLog transactionLog = null;
+        TransactionLog.Replay replay;
+        try {
+            transactionLog = TransactionLog.open(logFile, loadPipeline.currency());
+            replay = transactionLog.replay(tail);
+        } catch (IOException ex) {
+            closeQuietly(transactionLog);
+            throw new UncheckedIOException("Could not replay transaction log " + logFile, ex);
+        }
+        committer = new GroupCommitter(transactionLog, this::publish, metrics);
+        log.info("Replayed {} transactions in {} records from transaction log {}", replay.rows(), replay.records(),
+                logFile);
+        if (replay.discardedBytes() > 0) {
+            log.warn("Discarded {} bytes of uncommitted records at the end of transaction log {}",
+                    replay.discardedBytes(), logFile);
+        }
+        if (tail != builder && tail.size() > 0) {
+            builder = store.toBuilder().addAll(tail.snapshot());
+        }
+        return builder != null ? builder.snapshot() : store;
+    }
+
+    /**
+     * Adds transactions that are durable in the log to the store and publishes them.
+     */
+    private synchronized TransactionDataset publish(List<Transaction> transactions) {
+        if (builder == null) {
+            builder = dataset.store().toBuilder();
+        }
+        int fromRow = builder.size();
+        transactions.forEach(builder::add);
+        dataset = dataset.append(builder.snapshot(), fromRow);
+        return dataset;
+    }
+
+    private static void closeQuietly(TransactionLog transactionLog) {
+        if (transactionLog != null) {
+            try {
+                transactionLog.close();
+            } catch (IOException ex) {
+                log.warn("Could not close transaction log {}", transactionLog.file(), ex);
+            }
+        }
+    }
+
+    /**
+     * Reads the loader's snapshot if it is still valid for the source and ingest mode, otherwise parses the source and
+     * writes a new snapshot. Either way the quarantine ends up holding the rows the parse could not read. An unreadable
+     * or unwritable snapshot only costs a parse, it never fails the load.
+     */
+    private ColumnarTransactionStore loadWithSnapshot(SnapshotDataLoader snapshotLoader) {
+        Path snapshotFile = snapshotLoader.snapshotFile();
+        long checksum = snapshotLoader.sourceChecksum();
+        try {
+            Optional<ColumnarTransactionStore> snapshot =
+                    ColumnarStoreSnapshot.read(snapshotFile, checksum, loadPipeline.currency(),
+                            snapshotLoader.quarantine());
+            if (snapshot.isPresent()) {
+                log.info("Read transactions from snapshot {}", snapshotFile);
+                return snapshot.get();
+            }
+            log.info("No snapshot of the current data file at {}, parsing it", snapshotFile);
+        } catch (IOException ex) {
+            log.warn("Could not read snapshot {}, parsing the data file instead", snapshotFile, ex);
+        }
+
+        ColumnarTransactionStore store = loadPipeline.load(snapshotLoader);
+        try {
+            ColumnarStoreSnapshot.write(store, snapshotFile, checksum, snapshotLoader.quarantine());
+            log.info("Wrote snapshot {}", snapshotFile);
+        } catch (IOException ex) {
+            log.warn("Could not write snapshot {}", snapshotFile, ex);
+        }
+        return store;
+    }
+}
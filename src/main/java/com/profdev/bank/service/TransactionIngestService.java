@@ -0,0 +1,108 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.service.result.IngestResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Adds transactions to an account's data. Each transaction has its amount parsed and is then checked against the
+ * {@link Transaction} constraints; a request is added whole or not at all. Accepted transactions are written to the
+ * account's transaction log, and a call returns once they are durable and visible to queries.
+ */
+@Service
+public class TransactionIngestService {
+
+    private static final String AMOUNT = "amount";
+
+    private static final String MONETARY_AMOUNT = "monetaryAmount";
+
+    private final TransactionPartitions partitions;
+
+    private final TransactionAmountParser amountParser;
+
+    private final Validator validator;
+
+    public TransactionIngestService(TransactionPartitions partitions, TransactionAmountParser amountParser,
+                                    Validator validator) {
+        this.partitions = partitions;
+        this.amountParser = amountParser;
+        this.validator = validator;
+    }
+
+    /**
+     * Adds the transactions to the account, which may only be left out when there is a single account.
+     *
+     * @throws InvalidQueryException      if a transaction is invalid, or no account is given and there are several
+     * @throws UnknownAccountException    if there is no such account
+     * @throws IngestUnavailableException if there is no transaction log or the transactions could not be logged
+     */
+    public IngestResult add(List<Transaction> transactions, String account) {
+        String target = account != null ? account : onlyAccount();
+        TransactionDatasetHolder holder = partitions.holder(target);
+        validate(transactions);
+        TransactionDataset dataset;
+        try {
+            dataset = holder.append(transactions).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return new IngestResult(target, transactions.size(), dataset.version());
+    }
+
+    private String onlyAccount() {
+        Set<String> accounts = partitions.accounts();
+        if (accounts.size() != 1) {
+            throw new InvalidQueryException("An account is needed to add transactions when there is more than one");
+        }
+        return accounts.iterator().next();
+    }
+
+    /**
+     * Sets each transaction's monetary amount from its amount text and validates it. The monetary amount is derived,
+     * so a transaction without one is reported by what is wrong with its amount text.
+     *
+     * @throws InvalidQueryException listing every problem found, by position in the list
+     */
+    private void validate(List<Transaction> transactions) {
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (transaction == null) {
+                problems.add("[%d]: must not be null".formatted(i));
+                continue;
+            }
+            long amount = amountParser.tryParseMinorUnits(transaction.getAmount());
+            boolean invalidAmount = amount == TransactionAmountParser.INVALID;
+            transaction.setMonetaryAmount(invalidAmount ? null : Money.of(amount, amountParser.currency()));
+            List<ConstraintViolation<Transaction>> violations = validator.validate(transaction).stream()
+                    .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                    .toList();
+            for (ConstraintViolation<Transaction> violation : violations) {
+                String property = violation.getPropertyPath().toString();
+                if (property.equals(MONETARY_AMOUNT)) {
+                    problems.add("[%d].%s: %s".formatted(i, AMOUNT,
+                            TransactionAmountParser.invalidReason(transaction.getAmount())));
+                } else if (!(property.equals(AMOUNT) && invalidAmount)) {
+                    problems.add("[%d].%s: %s".formatted(i, property, violation.getMessage()));
+                }
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new InvalidQueryException("Invalid transactions: " + String.join("; ", problems));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.load.ColumnarDataLoader;
+import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.data.load.TailingDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.mapper.MappedBatch;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Builds a store from a data loader in three stages: records are read on the calling thread and cut into batches,
+ * each batch has its dates and amounts parsed as a task on a fork-join pool, and the parsed batches are appended to
+ * the store on the calling thread in the order they were read. At most {@code maxInFlight} batches are queued or
+ * being parsed at any time, so the reader blocks on the oldest batch rather than buffering the whole file.
+ * <p>
+ * A {@link ColumnarDataLoader} skips the pipeline: it parses dates and amounts as it reads and adds the rows straight
+ * to the store.
+ */
+@Slf4j
+class TransactionLoadPipeline {
+
+    static final int BATCH_SIZE = 8192;
+
+    private final TransactionMapper mapper;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final IngestMetrics metrics;
+
+    TransactionLoadPipeline(TransactionMapper mapper, IngestMetrics metrics) {
+        this(mapper, ForkJoinPool.commonPool(), BATCH_SIZE, metrics);
+    }
+
+    TransactionLoadPipeline(TransactionMapper mapper, ForkJoinPool pool, int batchSize, IngestMetrics metrics) {
+        this.mapper = mapper;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxInFlight = pool.getParallelism() * 2;
+        this.metrics = metrics;
+    }
+
+    Currency currency() {
+        return mapper.currency();
+    }
+
+    ColumnarTransactionStore.Builder newBuilder() {
+        return ColumnarTransactionStore.builder(mapper.currency(), mapper.currencySymbol());
+    }
+
+    ColumnarTransactionStore load(DataLoader dataLoader) {
+        ColumnarTransactionStore.Builder builder = newBuilder();
+        ingest(dataLoader, builder);
+        return builder.build();
+    }
+
+    /**
+     * Appends the rows of the data loader to {@code builder}, read straight into it if the loader can, otherwise
+     * through the pipeline.
+     */
+    void ingest(DataLoader dataLoader, ColumnarTransactionStore.Builder builder) {
+        if (dataLoader instanceof ColumnarDataLoader columnarLoader) {
+            readInto(builder, () -> columnarLoader.readInto(builder, mapper.amountParser()));
+        } else {
+            ingest(dataLoader::streamData, builder, dataLoader.quarantine());
+        }
+    }
+
+    /**
+     * Appends the complete records from {@code offset} to {@code builder}, as {@link TailingDataLoader#readFrom} does,
+     * and returns the offset to read on from.
+     */
+    long ingestFrom(TailingDataLoader dataLoader, long offset, ColumnarTransactionStore.Builder builder) {
+        long[] end = {offset};
+        readInto(builder, () -> end[0] = dataLoader.readFrom(offset, builder, mapper.amountParser()));
+        return end[0];
+    }
+
+    private void readInto(ColumnarTransactionStore.Builder builder, Runnable read) {
+        int before = builder.size();
+        long start = System.nanoTime();
+        read.run();
+        int rows = builder.size() - before;
+        metrics.rows(rows);
+        if (rows > 0) {
+            log.info("Read {} rows straight into the store in {} ms", rows, millis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Runs the pipeline over the records a source hands to its consumer, appending them to {@code builder}. Records
+     * that cannot be mapped fail the run, or are left out and added to the quarantine if there is one.
+     */
+    void ingest(Consumer<Consumer<DataRecord>> source, ColumnarTransactionStore.Builder builder,
+                Quarantine quarantine) {
+        Run run = new Run(builder, quarantine);
+        long start = System.nanoTime();
+        source.accept(run::accept);
+        run.finish();
+        long total = System.nanoTime() - start;
+        metrics.record(IngestMetrics.Phase.MAP, run.mapNanos.sum());
+        metrics.record(IngestMetrics.Phase.APPEND, run.appendNanos);
+        metrics.rows(run.rows);
+
+        if (run.rows > 0) {
+            log.info("Ingested {} rows in {} batches in {} ms: read {} ms, map {} ms on {} workers, append {} ms",
+                    run.rows, run.batches, millis(total), millis(total - run.waitNanos - run.appendNanos),
+                    millis(run.mapNanos.sum()), pool.getParallelism(), millis(run.appendNanos));
+        }
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * State of one load. Only ever touched by the thread driving the data loader, apart from {@code mapNanos}.
+     */
+    private class Run {
+
+        private final ColumnarTransactionStore.Builder builder;
+        private final Quarantine quarantine;
+        private final Deque<ForkJoinTask<MappedBatch>> inFlight = new ArrayDeque<>();
+        private final LongAdder mapNanos = new LongAdder();
+        private List<DataRecord> batch = new ArrayList<>(batchSize);
+        private long rows;
+        private long batches;
+        private long waitNanos;
+        private long appendNanos;
+
+        private Run(ColumnarTransactionStore.Builder builder, Quarantine quarantine) {
+            this.builder = builder;
+            this.quarantine = quarantine;
+        }
+
+        void accept(DataRecord dataRecord) {
+            batch.add(dataRecord);
+            if (batch.size() == batchSize) {
+                submit();
+            }
+        }
+
+        void finish() {
+            if (!batch.isEmpty()) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                appendOldest();
+            }
+        }
+
+        private void submit() {
+            List<DataRecord> records = batch;
+            batch = new ArrayList<>(batchSize);
+            inFlight.addLast(pool.submit(() -> {
+                long start = System.nanoTime();
+                MappedBatch mapped = mapper.mapBatch(records, quarantine);
+                mapNanos.add(System.nanoTime() - start);
+                if (mapped.size() < records.size()) {
+                    metrics.rejected(records.size() - mapped.size());
+                }
+                return mapped;
+            }));
+            batches++;
+            if (inFlight.size() >= maxInFlight) {
+                appendOldest();
+            }
+        }
+
+        private void appendOldest() {
+            long start = System.nanoTime();
+            MappedBatch mapped = inFlight.removeFirst().join();
+            long joined = System.nanoTime();
+            mapped.appendTo(builder);
+            rows += mapped.size();
+            waitNanos += joined - start;
+            appendNanos += System.nanoTime() - joined;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.IngestProperties;
+import com.profdev.bank.config.WatchProperties;
+import com.profdev.bank.data.load.AccountDataFiles;
+import com.profdev.bank.data.load.DataLoaderFactory;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.store.TransactionDataset;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * One {@link TransactionDatasetHolder} per account, in the order the accounts' data files were configured. Each
+ * partition loads, refreshes and publishes its data independently. A query over several partitions takes each one's
+ * current dataset once, runs on all of them in parallel on virtual threads and gathers the results in account order
+ * for the caller to merge.
+ */
+@Slf4j
+@Component
+public class TransactionPartitions {
+
+    private final Map<String, TransactionDatasetHolder> partitions;
+
+    private final ExecutorService queryExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("partition-query-", 0).factory());
+
+    @Autowired
+    public TransactionPartitions(AppProperties appProperties, DataLoaderFactory dataLoaderFactory,
+                                 TransactionMapper mapper, WatchProperties watchProperties,
+                                 IngestMetrics ingestMetrics, IngestProperties ingestProperties) {
+        this(createPartitions(appProperties, dataLoaderFactory, mapper, watchProperties, ingestMetrics,
+                ingestProperties));
+    }
+
+    public TransactionPartitions(Map<String, TransactionDatasetHolder> partitions) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        this.partitions = Collections.unmodifiableMap(new LinkedHashMap<>(partitions));
+    }
+
+    public Set<String> accounts() {
+        return partitions.keySet();
+    }
+
+    public Collection<TransactionDatasetHolder> holders() {
+        return partitions.values();
+    }
+
+    /**
+     * @throws UnknownAccountException if there is no partition for {@code account}
+     */
+    public TransactionDatasetHolder holder(String account) {
+        TransactionDatasetHolder holder = partitions.get(account);
+        if (holder == null) {
+            throw new UnknownAccountException(account);
+        }
+        return holder;
+    }
+
+    /**
+     * The current dataset of the given account's partition, or of every partition if {@code account} is {@code null}.
+     *
+     * @throws UnknownAccountException if there is no partition for {@code account}
+     */
+    public List<TransactionDataset> datasets(String account) {
+        if (account == null) {
+            return partitions.values().stream().map(TransactionDatasetHolder::dataset).toList();
+        }
+        return List.of(holder(account).dataset());
+    }
+
+    /**
+     * Runs the query on each dataset, in parallel when there is more than one, and returns the results in the same
+     * order as the datasets.
+     */
+    public <T> List<T> scatter(List<TransactionDataset> datasets, Function<TransactionDataset, T> query) {
+        if (datasets.size() == 1) {
+            return List.of(query.apply(datasets.getFirst()));
+        }
+        List<CompletableFuture<T>> results = datasets.stream()
+                .map(dataset -> CompletableFuture.supplyAsync(() -> query.apply(dataset), queryExecutor))
+                .toList();
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Loads every partition concurrently on the executor; completes once all of them have been published.
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        return CompletableFuture.allOf(partitions.values().stream()
+                .map(holder -> holder.warmUp(executor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Folds rows appended to each partition's data file into a new snapshot of that partition and returns how many
+     * there were in total.
+     */
+    public int refresh() {
+        int appended = 0;
+        for (Map.Entry<String, TransactionDatasetHolder> partition : partitions.entrySet()) {
+            try {
+                appended += partition.getValue().refresh();
+            } catch (RuntimeException ex) {
+                log.error("Could not read rows appended to the data file of account {}", partition.getKey(), ex);
+            }
+        }
+        return appended;
+    }
+
+    public boolean isTailing() {
+        return partitions.values().stream().anyMatch(TransactionDatasetHolder::isTailing);
+    }
+
+    @PreDestroy
+    public void close() {
+        queryExecutor.shutdownNow();
+        partitions.values().forEach(TransactionDatasetHolder::close);
+    }
+
+    private static Map<String, TransactionDatasetHolder> createPartitions(AppProperties appProperties,
+                                                                       DataLoaderFactory dataLoaderFactory,
+                                                                       TransactionMapper mapper,
+                                                                       WatchProperties watchProperties,
+                                                                       IngestMetrics ingestMetrics,
+                                                                       IngestProperties ingestProperties) {
+        Map<String, TransactionDatasetHolder> partitions = new LinkedHashMap<>();
+        AccountDataFiles.resolve(appProperties.dataFile()).forEach((account, dataFile) -> partitions.put(account,
+                new TransactionDatasetHolder(dataLoaderFactory.create(dataFile), mapper, watchProperties,
+                        ingestMetrics, ingestProperties.logFile(account))));
+        log.info("Serving {} account(s): {}", partitions.size(), partitions.keySet());
+        return partitions;
+    }
+}
@@ -1,24 +1,146 @@
 package com.profdev.bank.service;
 
+import com.profdev.bank.model.Money;
 import com.profdev.bank.model.Transaction;
 import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.service.query.BatchQuery;
 import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.SpendSummary;
 import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Queries take the account to answer for; a {@code null} account answers across all accounts. A query for an account
+ * that does not exist throws {@link UnknownAccountException}.
+ */
 public interface TransactionService {
 
-    List<Transaction> getAll();
+    /**
+     * The accounts that can be queried, in the order their data files were configured.
+     */
+    Set<String> getAccounts();
 
-    List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder);
+    /**
+     * Version of the data queries are currently answered from; it increases whenever new rows are published to any
+     * account.
+     */
+    long getDataVersion();
 
-    List<TotalPerCategory> getTotalPerCategory();
+    List<Transaction> getAll(String account);
 
-    BigDecimal getHighestSpendForCategoryAndYear(String category, int year);
+    List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder, String account);
 
-    BigDecimal getLowestSpendForCategoryAndYear(String category, int year);
+    /**
+     * Transactions dated from {@code from} to {@code to} inclusive, of the category if one is given, in date order.
+     * An empty range, with {@code from} after {@code to}, has no transactions.
+     */
+    List<Transaction> getForDateRange(LocalDate from, LocalDate to, String category, TransactionBeanSortOrder sortOrder,
+                                      String account);
 
-    List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category);
+    List<TotalPerCategory> getTotalPerCategory(String account);
+
+    Money getHighestSpendForCategoryAndYear(String category, int year, String account);
+
+    Money getLowestSpendForCategoryAndYear(String category, int year, String account);
+
+    /**
+     * The highest spend of a category in a year, or empty if the category has no transactions that year, where
+     * {@link #getHighestSpendForCategoryAndYear} returns zero.
+     */
+    Optional<Money> findHighestSpendForCategoryAndYear(String category, int year, String account);
+
+    /**
+     * The lowest spend of a category in a year, or empty if the category has no transactions that year, where
+     * {@link #getLowestSpendForCategoryAndYear} returns zero.
+     */
+    Optional<Money> findLowestSpendForCategoryAndYear(String category, int year, String account);
+
+    List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category, String account);
+
+    /**
+     * The {@code limit} vendors of a category ranked highest by total spend or transaction count, in the given year
+     * or across all years if {@code year} is {@code null}.
+     */
+    List<VendorTotal> getTopVendorsForCategory(String category, Integer year, VendorRanking ranking, int limit,
+                                               String account);
+
+    /**
+     * The 50th, 90th and 99th percentile spend of a category in a year, each within
+     * {@link com.profdev.bank.model.store.QuantileSketch#RELATIVE_ACCURACY} of the exact percentile.
+     */
+    SpendPercentiles getSpendPercentilesForCategoryAndYear(String category, int year, String account);
+
+    /**
+     * Total, lowest, highest and average spend of the transactions dated between two dates inclusive, of one category
+     * or of all categories if {@code category} is {@code null}.
+     */
+    SpendSummary getSpendSummaryForDateRange(LocalDate from, LocalDate to, String category, String account);
+
+    /**
+     * Answers each query in order against one snapshot of the accounts' data, visiting each account's dataset once for
+     * the whole batch.
+     */
+    List<BatchResult> getBatch(List<BatchQuery> queries, String account);
+
+    default List<Transaction> getAll() {
+        return getAll(null);
+    }
+
+    default List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder) {
+        return getForCategory(category, sortOrder, null);
+    }
+
+    default List<Transaction> getForDateRange(LocalDate from, LocalDate to, String category,
+                                              TransactionBeanSortOrder sortOrder) {
+        return getForDateRange(from, to, category, sortOrder, null);
+    }
+
+    default List<TotalPerCategory> getTotalPerCategory() {
+        return getTotalPerCategory(null);
+    }
+
+    default Money getHighestSpendForCategoryAndYear(String category, int year) {
+        return getHighestSpendForCategoryAndYear(category, year, null);
+    }
+
+    default Money getLowestSpendForCategoryAndYear(String category, int year) {
+        return getLowestSpendForCategoryAndYear(category, year, null);
+    }
+
+    default Optional<Money> findHighestSpendForCategoryAndYear(String category, int year) {
+        return findHighestSpendForCategoryAndYear(category, year, null);
+    }
+
+    default Optional<Money> findLowestSpendForCategoryAndYear(String category, int year) {
+        return findLowestSpendForCategoryAndYear(category, year, null);
+    }
+
+    default List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category) {
+        return getAverageSpendPerMonthForCategory(category, null);
+    }
+
+    default SpendPercentiles getSpendPercentilesForCategoryAndYear(String category, int year) {
+        return getSpendPercentilesForCategoryAndYear(category, year, null);
+    }
+
+    default List<VendorTotal> getTopVendorsForCategory(String category, Integer year, VendorRanking ranking,
+                                                       int limit) {
+        return getTopVendorsForCategory(category, year, ranking, limit, null);
+    }
+
+    default SpendSummary getSpendSummaryForDateRange(LocalDate from, LocalDate to, String category) {
+        return getSpendSummaryForDateRange(from, to, category, null);
+    }
+
+    default List<BatchResult> getBatch(List<BatchQuery> queries) {
+        return getBatch(queries, null);
+    }
 }
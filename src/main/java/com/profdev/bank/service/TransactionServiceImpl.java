@@ -1,118 +1,599 @@
 package com.profdev.bank.service;
 
-import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.model.Transaction;
-import com.profdev.bank.model.mapper.TransactionMapper;
 import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.model.store.AggregateCube;
+import com.profdev.bank.model.store.AmountKernel;
+import com.profdev.bank.model.store.AmountSummary;
+import com.profdev.bank.model.store.CategoryIndex;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.model.store.DateIndex;
+import com.profdev.bank.model.store.QuantileSketch;
+import com.profdev.bank.model.store.StringDictionary;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.VendorTotals;
+import com.profdev.bank.service.query.BatchQuery;
 import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.SpendSummary;
 import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.eclipse.collections.impl.collector.BigDecimalSummaryStatistics;
-import org.eclipse.collections.impl.collector.Collectors2;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.OptionalLong;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.LongStream;
 
+/**
+ * Answers each query from the datasets of the accounts in scope, taken once per query. Aggregates are computed per
+ * account in parallel and then merged: totals and monthly sums and counts are added up, highest and lowest spends
+ * compared, and quantile sketches merged. A batch of queries takes the datasets once and answers every query's part
+ * in the same visit to each dataset.
+ */
+@Slf4j
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
-    private final DataLoader dataLoader;
+    private final TransactionPartitions partitions;
 
-    private final TransactionMapper mapper;
+    private final AmountFormatter af;
 
-    private List<Transaction> transactions;
+    /**
+     * A range summary reads its rows through an index while they are at most 1/{@value} of the dataset's rows, and
+     * otherwise scans every row in order, which beats reading most of them at random.
+     */
+    private static final int SCAN_FRACTION = 5;
 
-    private final AmountFormatter af;
+    private final AmountKernel amountKernel = AmountKernel.preferred();
 
-    public TransactionServiceImpl(DataLoader dataLoader, TransactionMapper mapper, AmountFormatter af) {
-        this.dataLoader = dataLoader;
-        this.mapper = mapper;
+    public TransactionServiceImpl(TransactionPartitions partitions, AmountFormatter af) {
+        this.partitions = partitions;
         this.af = af;
+        log.info("Summarising amount columns with the {} kernel", amountKernel);
     }
 
     @Override
-    public List<Transaction> getAll() {
-        load();
-        return transactions;
+    public Set<String> getAccounts() {
+        return partitions.accounts();
     }
 
     @Override
-    public List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder) {
+    public long getDataVersion() {
+        return partitions.datasets(null).stream().mapToLong(TransactionDataset::version).sum();
+    }
+
+    @Override
+    public List<Transaction> getAll(String account) {
+        return concatenate(partitions.datasets(account).stream()
+                .map(dataset -> dataset.store().asList())
+                .toList());
+    }
+
+    @Override
+    public List<Transaction> getForCategory(String category, TransactionBeanSortOrder sortOrder, String account) {
 
         if (StringUtils.isEmpty(category)) {
             return Collections.emptyList();
         }
 
-        load();
-        return transactions.stream()
-                .filter(transaction -> transaction.getCategory().equals(category))
-                .sorted(sortOrder.getComparator())
-                .toList();
+        boolean descending = sortOrder == TransactionBeanSortOrder.DESC;
+        List<List<Transaction>> listings = new ArrayList<>();
+        for (TransactionDataset dataset : partitions.datasets(account)) {
+            ColumnarTransactionStore store = dataset.store();
+            int categoryId = store.categories().idOf(category);
+            if (categoryId != StringDictionary.NOT_FOUND) {
+                for (CategoryIndex level : inListingOrder(dataset.categoryIndex().levels(), descending)) {
+                    int[] rows = level.rows(categoryId);
+                    if (rows.length > 0) {
+                        listings.add(store.asList(rows, descending));
+                    }
+                }
+            }
+        }
+        return mergeByDate(listings, descending);
     }
 
     @Override
-    public List<TotalPerCategory> getTotalPerCategory() {
-        load();
-        return transactions.stream()
-                .collect(Collectors.toMap(Transaction::getCategory, Transaction::getMonetaryAmount, BigDecimal::add))
-                .entrySet().stream()
-                .map(entry -> TotalPerCategory.builder()
-                        .category(entry.getKey())
-                        .monetaryAmount(entry.getValue(), af)
-                        .build())
-                .toList();
+    public List<Transaction> getForDateRange(LocalDate from, LocalDate to, String category,
+                                             TransactionBeanSortOrder sortOrder, String account) {
+        if (from.isAfter(to)) {
+            return Collections.emptyList();
+        }
+        int fromDay = epochDay(from);
+        int toDay = epochDay(to);
+        boolean descending = sortOrder == TransactionBeanSortOrder.DESC;
+        List<List<Transaction>> listings = new ArrayList<>();
+        for (TransactionDataset dataset : partitions.datasets(account)) {
+            ColumnarTransactionStore store = dataset.store();
+            List<RowRange> ranges;
+            if (category == null) {
+                ranges = dateRanges(dataset, fromDay, toDay);
+            } else {
+                int categoryId = store.categories().idOf(category);
+                if (categoryId == StringDictionary.NOT_FOUND) {
+                    continue;
+                }
+                ranges = categoryRanges(dataset, categoryId, fromDay, toDay);
+            }
+            for (RowRange range : inListingOrder(ranges, descending)) {
+                if (range.size() > 0) {
+                    listings.add(store.asList(range.rows(), range.start(), range.end(), descending));
+                }
+            }
+        }
+        return mergeByDate(listings, descending);
     }
 
     @Override
-    public List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category) {
-        load();
-
-        Map<String, BigDecimalSummaryStatistics> averages = transactions.stream()
-                .filter(transaction -> transaction.getCategory().equals(category))
-                .collect(Collectors.groupingBy((Transaction::getMonth),
-                        Collectors2.summarizingBigDecimal(Transaction::getMonetaryAmount)));
-
-        return averages.entrySet().stream()
-                .map(entry -> AverageSpendPerMonthForCategory.builder()
-                        .category(category)
-                        .month(entry.getKey())
-                        .monetaryAmount(entry.getValue().getAverage(), af)
-                        .build())
-                .toList();
+    public List<TotalPerCategory> getTotalPerCategory(String account) {
+        return aggregate(partitions.datasets(account), totalPerCategory());
     }
 
     @Override
-    public BigDecimal getHighestSpendForCategoryAndYear(String category, int year) {
-        load();
-        return transactions.stream()
-                .filter(transaction -> transaction.getCategory().equals(category))
-                .filter(transaction -> transaction.getDate().getYear() == year)
-                .map(Transaction::getMonetaryAmount)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
+    public List<AverageSpendPerMonthForCategory> getAverageSpendPerMonthForCategory(String category, String account) {
+        return aggregate(partitions.datasets(account), averageSpendPerMonth(category));
+    }
+
+    @Override
+    public Money getHighestSpendForCategoryAndYear(String category, int year, String account) {
+        List<TransactionDataset> datasets = partitions.datasets(account);
+        return aggregate(datasets, yearSpend(category, year, true)).orElseGet(() -> Money.zero(currency(datasets)));
+    }
+
+    @Override
+    public Money getLowestSpendForCategoryAndYear(String category, int year, String account) {
+        List<TransactionDataset> datasets = partitions.datasets(account);
+        return aggregate(datasets, yearSpend(category, year, false)).orElseGet(() -> Money.zero(currency(datasets)));
+    }
+
+    @Override
+    public Optional<Money> findHighestSpendForCategoryAndYear(String category, int year, String account) {
+        return aggregate(partitions.datasets(account), yearSpend(category, year, true));
+    }
+
+    @Override
+    public Optional<Money> findLowestSpendForCategoryAndYear(String category, int year, String account) {
+        return aggregate(partitions.datasets(account), yearSpend(category, year, false));
+    }
+
+    @Override
+    public List<VendorTotal> getTopVendorsForCategory(String category, Integer year, VendorRanking ranking, int limit,
+                                                      String account) {
+        List<TransactionDataset> datasets = partitions.datasets(account);
+        if (StringUtils.isEmpty(category)) {
+            return Collections.emptyList();
+        }
+        return aggregate(datasets, topVendors(category, year, ranking, limit));
     }
 
     @Override
-    public BigDecimal getLowestSpendForCategoryAndYear(String category, int year) {
-        load();
-        return transactions.stream()
-                .filter(transaction -> transaction.getCategory().equals(category))
-                .filter(transaction -> transaction.getDate().getYear() == year)
-                .map(Transaction::getMonetaryAmount)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-    }
-
-    private void load() {
-        if (transactions == null) {
-            transactions = dataLoader.retrieveData()
-                    .stream()
-                    .map(mapper::mapModelFromData)
+    public SpendPercentiles getSpendPercentilesForCategoryAndYear(String category, int year, String account) {
+        return aggregate(partitions.datasets(account), spendPercentiles(category, year));
+    }
+
+    @Override
+    public SpendSummary getSpendSummaryForDateRange(LocalDate from, LocalDate to, String category, String account) {
+        return aggregate(partitions.datasets(account), spendSummary(from, to, category));
+    }
+
+    @Override
+    public List<BatchResult> getBatch(List<BatchQuery> queries, String account) {
+        List<Aggregation<?, ?>> aggregations = queries.stream().<Aggregation<?, ?>>map(this::aggregation).toList();
+        List<TransactionDataset> datasets = partitions.datasets(account);
+        List<List<Object>> perAccount = partitions.scatter(datasets, dataset -> aggregations.stream()
+                .<Object>map(aggregation -> aggregation.partial().apply(dataset))
+                .toList());
+
+        Currency currency = currency(datasets);
+        List<BatchResult> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            int query = i;
+            Object result = merge(aggregations.get(i), perAccount.stream().map(parts -> parts.get(query)).toList(),
+                    currency);
+            results.add(new BatchResult(queries.get(i),
+                    result instanceof Optional<?> spend ? af.formatSpend(spend.map(Money.class::cast)) : result));
+        }
+        return results;
+    }
+
+    private Aggregation<?, ?> aggregation(BatchQuery query) {
+        return switch (query.type()) {
+            case TOTAL_PER_CATEGORY -> totalPerCategory();
+            case AVERAGE_SPEND_PER_MONTH -> averageSpendPerMonth(query.requireCategory());
+            case HIGHEST_SPEND -> yearSpend(query.requireCategory(), query.requireYear(), true);
+            case LOWEST_SPEND -> yearSpend(query.requireCategory(), query.requireYear(), false);
+            case SPEND_PERCENTILES -> spendPercentiles(query.requireCategory(), query.requireYear());
+            case TOP_VENDORS -> topVendors(query.requireCategory(), query.year(), query.rankingOrDefault(),
+                    query.limitOrDefault());
+        };
+    }
+
+    private <P, R> R aggregate(List<TransactionDataset> datasets, Aggregation<P, R> aggregation) {
+        return aggregation.merge().apply(partitions.scatter(datasets, aggregation.partial()), currency(datasets));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P, R> R merge(Aggregation<P, R> aggregation, List<Object> partials, Currency currency) {
+        return aggregation.merge().apply((List<P>) partials, currency);
+    }
+
+    private Aggregation<Map<String, Long>, List<TotalPerCategory>> totalPerCategory() {
+        return new Aggregation<>(TransactionServiceImpl::totalPerCategory, (perAccount, currency) -> {
+            Map<String, Long> totals = new LinkedHashMap<>();
+            for (Map<String, Long> accountTotals : perAccount) {
+                accountTotals.forEach((category, total) -> totals.merge(category, total, Math::addExact));
+            }
+            return totals.entrySet().stream()
+                    .map(total -> TotalPerCategory.builder()
+                            .category(total.getKey())
+                            .monetaryAmount(Money.of(total.getValue(), currency), af)
+                            .build())
                     .toList();
+        });
+    }
+
+    private Aggregation<MonthlySpend, List<AverageSpendPerMonthForCategory>> averageSpendPerMonth(String category) {
+        return new Aggregation<>(dataset -> monthlySpend(dataset, category), (perAccount, currency) -> {
+            long[] sums = new long[AggregateCube.MONTHS];
+            long[] counts = new long[AggregateCube.MONTHS];
+            for (MonthlySpend spend : perAccount) {
+                for (int month = 0; month < AggregateCube.MONTHS; month++) {
+                    sums[month] = Math.addExact(sums[month], spend.sums()[month]);
+                    counts[month] += spend.counts()[month];
+                }
+            }
+
+            List<AverageSpendPerMonthForCategory> averages = new ArrayList<>();
+            for (Month month : Month.values()) {
+                long count = counts[month.ordinal()];
+                if (count > 0) {
+                    averages.add(AverageSpendPerMonthForCategory.builder()
+                            .category(category)
+                            .month(month.name())
+                            .monetaryAmount(Money.average(sums[month.ordinal()], count, currency), af)
+                            .build());
+                }
+            }
+            return averages;
+        });
+    }
+
+    private static Aggregation<OptionalLong, Optional<Money>> yearSpend(String category, int year, boolean highest) {
+        return new Aggregation<>(dataset -> yearSpend(dataset, category, year, highest), (perAccount, currency) -> {
+            LongStream spends = perAccount.stream()
+                    .filter(OptionalLong::isPresent)
+                    .mapToLong(OptionalLong::getAsLong);
+            OptionalLong spend = highest ? spends.max() : spends.min();
+            return spend.isPresent() ? Optional.of(Money.of(spend.getAsLong(), currency)) : Optional.empty();
+        });
+    }
+
+    private Aggregation<VendorTotals, List<VendorTotal>> topVendors(String category, Integer year,
+                                                                    VendorRanking ranking, int limit) {
+        return new Aggregation<>(dataset -> vendorTotals(dataset, category, year), (perAccount, currency) -> {
+            VendorTotals totals = perAccount.size() == 1 ? perAccount.getFirst() : VendorTotals.merge(perAccount);
+            return Arrays.stream(totals.top(ranking, limit))
+                    .mapToObj(slot -> VendorTotal.builder()
+                            .vendor(totals.vendor(slot))
+                            .count(totals.count(slot))
+                            .monetaryAmount(Money.of(totals.sum(slot), currency), af)
+                            .build())
+                    .toList();
+        });
+    }
+
+    private Aggregation<QuantileSketch, SpendPercentiles> spendPercentiles(String category, int year) {
+        return new Aggregation<>(dataset -> yearSketch(dataset, category, year), (perAccount, currency) -> {
+            QuantileSketch sketch = new QuantileSketch();
+            perAccount.forEach(sketch::merge);
+            return SpendPercentiles.builder()
+                    .category(category)
+                    .year(year)
+                    .count(sketch.count())
+                    .p50(af.format(percentile(sketch, 0.5, currency)))
+                    .p90(af.format(percentile(sketch, 0.9, currency)))
+                    .p99(af.format(percentile(sketch, 0.99, currency)))
+                    .build();
+        });
+    }
+
+    private Aggregation<AmountSummary, SpendSummary> spendSummary(LocalDate from, LocalDate to, String category) {
+        return new Aggregation<>(dataset -> amountSummary(dataset, from, to, category), (perAccount, currency) -> {
+            AmountSummary summary = perAccount.stream().reduce(AmountSummary.EMPTY, AmountSummary::plus);
+            boolean empty = summary.count() == 0;
+            return SpendSummary.builder()
+                    .from(from)
+                    .to(to)
+                    .category(category)
+                    .count(summary.count())
+                    .total(af.format(Money.of(summary.sum(), currency)))
+                    .lowest(af.format(Money.of(empty ? 0 : summary.minimum(), currency)))
+                    .highest(af.format(Money.of(empty ? 0 : summary.maximum(), currency)))
+                    .average(af.format(empty ? Money.zero(currency)
+                            : Money.average(summary.sum(), summary.count(), currency)))
+                    .build();
+        });
+    }
+
+    private AmountSummary amountSummary(TransactionDataset dataset, LocalDate from, LocalDate to, String category) {
+        if (from.isAfter(to)) {
+            return AmountSummary.EMPTY;
+        }
+        ColumnarTransactionStore store = dataset.store();
+        int fromDay = epochDay(from);
+        int toDay = epochDay(to);
+        int categoryId = StringDictionary.NOT_FOUND;
+        List<RowRange> ranges;
+        if (category == null) {
+            ranges = dateRanges(dataset, fromDay, toDay);
+        } else {
+            categoryId = store.categories().idOf(category);
+            if (categoryId == StringDictionary.NOT_FOUND) {
+                return AmountSummary.EMPTY;
+            }
+            ranges = categoryRanges(dataset, categoryId, fromDay, toDay);
+        }
+        long rangeRows = ranges.stream().mapToLong(RowRange::size).sum();
+        if (rangeRows * SCAN_FRACTION <= store.size()) {
+            AmountSummary summary = AmountSummary.EMPTY;
+            for (RowRange range : ranges) {
+                summary = summary.plus(amountKernel.summarize(store, range.rows(), range.start(), range.end()));
+            }
+            return summary;
+        }
+        return category == null
+                ? amountKernel.summarize(store, fromDay, toDay)
+                : amountKernel.summarize(store, categoryId, fromDay, toDay);
+    }
+
+    private static Map<String, Long> totalPerCategory(TransactionDataset dataset) {
+        AggregateCube cube = dataset.cube();
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int categoryId = 0; categoryId < cube.categoryCount(); categoryId++) {
+            totals.put(dataset.store().categories().get(categoryId), cube.total(categoryId));
+        }
+        return totals;
+    }
+
+    private static MonthlySpend monthlySpend(TransactionDataset dataset, String category) {
+        MonthlySpend spend = new MonthlySpend(new long[AggregateCube.MONTHS], new long[AggregateCube.MONTHS]);
+        int categoryId = dataset.store().categories().idOf(category);
+        if (categoryId != StringDictionary.NOT_FOUND) {
+            for (Month month : Month.values()) {
+                spend.sums()[month.ordinal()] = dataset.cube().monthSum(categoryId, month.getValue());
+                spend.counts()[month.ordinal()] = dataset.cube().monthCount(categoryId, month.getValue());
+            }
+        }
+        return spend;
+    }
+
+    private static VendorTotals vendorTotals(TransactionDataset dataset, String category, Integer year) {
+        ColumnarTransactionStore store = dataset.store();
+        int categoryId = store.categories().idOf(category);
+        List<RowRange> ranges = year == null
+                ? categoryRanges(dataset, categoryId, Integer.MIN_VALUE, Integer.MAX_VALUE - 1)
+                : categoryRanges(dataset, categoryId, epochDay(LocalDate.of(year, 1, 1)),
+                        epochDay(LocalDate.of(year, 12, 31)));
+        List<VendorTotals> parts = ranges.stream()
+                .map(range -> VendorTotals.of(store, range.rows(), range.start(), range.end()))
+                .toList();
+        return parts.size() == 1 ? parts.getFirst() : VendorTotals.merge(parts);
+    }
+
+    /**
+     * Rows dated from {@code fromDay} to {@code toDay}, as one date-ordered range per level of the date index.
+     */
+    private static List<RowRange> dateRanges(TransactionDataset dataset, int fromDay, int toDay) {
+        List<RowRange> ranges = new ArrayList<>(2);
+        for (DateIndex level : dataset.dateIndex().levels()) {
+            ranges.add(new RowRange(level.rows(), level.firstOnOrAfter(fromDay), level.firstOnOrAfter(toDay + 1)));
+        }
+        return ranges;
+    }
+
+    /**
+     * Rows of the category dated from {@code fromDay} to {@code toDay}, as one date-ordered range per level of the
+     * category index; no rows for an unknown category.
+     */
+    private static List<RowRange> categoryRanges(TransactionDataset dataset, int categoryId, int fromDay, int toDay) {
+        ColumnarTransactionStore store = dataset.store();
+        List<RowRange> ranges = new ArrayList<>(2);
+        for (CategoryIndex level : dataset.categoryIndex().levels()) {
+            int[] rows = level.rows(categoryId);
+            ranges.add(new RowRange(rows, DateIndex.firstOnOrAfter(store, rows, fromDay),
+                    DateIndex.firstOnOrAfter(store, rows, toDay + 1)));
+        }
+        return ranges;
+    }
+
+    /**
+     * Index levels, or their ranges, in the order a listing walks them: the delta's rows come after the main level's
+     * in the source, so they go last in ascending order and first in descending order, as they would if the levels
+     * were one.
+     */
+    private static <T> List<T> inListingOrder(List<T> levels, boolean descending) {
+        return descending ? levels.reversed() : levels;
+    }
+
+    private static OptionalLong yearSpend(TransactionDataset dataset, String category, int year, boolean highest) {
+        int categoryId = dataset.store().categories().idOf(category);
+        AggregateCube cube = dataset.cube();
+        if (!cube.contains(categoryId, year) || cube.yearCount(categoryId, year) == 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(highest ? cube.yearMaximum(categoryId, year) : cube.yearMinimum(categoryId, year));
+    }
+
+    private static QuantileSketch yearSketch(TransactionDataset dataset, String category, int year) {
+        int categoryId = dataset.store().categories().idOf(category);
+        AggregateCube cube = dataset.cube();
+        QuantileSketch sketch = cube.contains(categoryId, year) ? cube.yearSketch(categoryId, year) : null;
+        return sketch != null ? sketch : new QuantileSketch();
+    }
+
+    private static Money percentile(QuantileSketch sketch, double quantile, Currency currency) {
+        return Money.of(sketch.count() == 0 ? 0 : sketch.quantile(quantile), currency);
+    }
+
+    /**
+     * Merges listings that are each in date order, one per account and index level, into one listing in date order.
+     */
+    private static List<Transaction> mergeByDate(List<List<Transaction>> perAccount, boolean descending) {
+        if (perAccount.size() <= 1) {
+            return perAccount.isEmpty() ? Collections.emptyList() : perAccount.getFirst();
+        }
+
+        // each listing is already in date order, so a heap of one cursor per listing merges them in one pass; equal
+        // dates come out in listing order
+        Comparator<LocalDate> dates = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        PriorityQueue<MergeCursor> heap = new PriorityQueue<>(perAccount.size(),
+                Comparator.comparing(MergeCursor::date, dates).thenComparingInt(MergeCursor::account));
+        int size = 0;
+        for (int account = 0; account < perAccount.size(); account++) {
+            List<Transaction> rows = perAccount.get(account);
+            size = Math.addExact(size, rows.size());
+            if (!rows.isEmpty()) {
+                heap.add(new MergeCursor(account, rows));
+            }
+        }
+        List<Transaction> merged = new ArrayList<>(size);
+        while (!heap.isEmpty()) {
+            MergeCursor cursor = heap.poll();
+            merged.add(cursor.head);
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Epoch day of the date, clamped so that the day after it is still an {@code int}; stored dates are well inside.
+     */
+    private static int epochDay(LocalDate date) {
+        return Math.clamp(date.toEpochDay(), Integer.MIN_VALUE, Integer.MAX_VALUE - 1);
+    }
+
+    private static Currency currency(List<TransactionDataset> datasets) {
+        return datasets.getFirst().store().currency();
+    }
+
+    private static <E> List<E> concatenate(List<List<E>> lists) {
+        List<List<E>> nonEmpty = lists.stream().filter(list -> !list.isEmpty()).toList();
+        return switch (nonEmpty.size()) {
+            case 0 -> Collections.emptyList();
+            case 1 -> nonEmpty.getFirst();
+            default -> new ConcatenatedList<>(nonEmpty);
+        };
+    }
+
+    private record MonthlySpend(long[] sums, long[] counts) {
+    }
+
+    /**
+     * Positions {@code start} to {@code end - 1} of a date-ordered row array.
+     */
+    private record RowRange(int[] rows, int start, int end) {
+
+        private int size() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Position in one account's date-ordered rows during {@link #mergeByDate}, holding the row it is at.
+     */
+    private static final class MergeCursor {
+
+        private final int account;
+        private final List<Transaction> rows;
+        private int next;
+        private Transaction head;
+
+        private MergeCursor(int account, List<Transaction> rows) {
+            this.account = account;
+            this.rows = rows;
+            advance();
+        }
+
+        private boolean advance() {
+            if (next == rows.size()) {
+                return false;
+            }
+            head = rows.get(next++);
+            return true;
+        }
+
+        private int account() {
+            return account;
+        }
+
+        private LocalDate date() {
+            return head.getDate();
+        }
+    }
+
+    /**
+     * An aggregate query split into the part answered on each account's dataset and the merge of those parts, so a
+     * batch of queries can answer all of its parts in a single visit to each dataset.
+     */
+    private record Aggregation<P, R>(Function<TransactionDataset, P> partial, BiFunction<List<P>, Currency, R> merge) {
+    }
+
+    /**
+     * Read-only view of non-empty lists one after another, so a listing across accounts materialises each element
+     * on access just like a single account's listing.
+     */
+    private static final class ConcatenatedList<E> extends AbstractList<E> implements RandomAccess {
+
+        private final List<List<E>> lists;
+
+        // offsets[i] is the index of the first element of lists[i]; the last entry is the size
+        private final int[] offsets;
+
+        private ConcatenatedList(List<List<E>> lists) {
+            this.lists = lists;
+            this.offsets = new int[lists.size() + 1];
+            for (int i = 0; i < lists.size(); i++) {
+                offsets[i + 1] = Math.addExact(offsets[i], lists.get(i).size());
+            }
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size());
+            int list = Arrays.binarySearch(offsets, 0, lists.size(), index);
+            if (list < 0) {
+                list = -list - 2;
+            }
+            return lists.get(list).get(index - offsets[list]);
+        }
+
+        @Override
+        public int size() {
+            return offsets[lists.size()];
         }
     }
 }
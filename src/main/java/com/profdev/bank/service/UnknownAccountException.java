@@ -0,0 +1,11 @@
+package com.profdev.bank.service;
+
+/**
+ * Thrown when a query is scoped to an account that none of the data files belong to.
+ */
+public class UnknownAccountException extends RuntimeException {
+
+    public UnknownAccountException(String account) {
+        super("Unknown account: " + account);
+    }
+}
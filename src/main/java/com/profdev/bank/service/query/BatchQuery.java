@@ -0,0 +1,62 @@
+package com.profdev.bank.service.query;
+
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.service.InvalidQueryException;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * One query of a batch, naming one of the aggregate queries and its arguments. {@code category} and {@code year} are
+ * required by the queries whose endpoints take them; {@code ranking} and {@code limit} only apply to top vendors.
+ */
+@Builder
+public record BatchQuery(
+        @NotNull
+        Type type,
+        String category,
+        Integer year,
+        VendorRanking ranking,
+        Integer limit) {
+
+    public static final int DEFAULT_TOP_VENDORS = 10;
+
+    public static final int MAX_TOP_VENDORS = 1000;
+
+    public enum Type {
+        TOTAL_PER_CATEGORY,
+        AVERAGE_SPEND_PER_MONTH,
+        HIGHEST_SPEND,
+        LOWEST_SPEND,
+        SPEND_PERCENTILES,
+        TOP_VENDORS
+    }
+
+    public String requireCategory() {
+        if (StringUtils.isEmpty(category)) {
+            throw new InvalidQueryException(type + " query needs a category");
+        }
+        return category;
+    }
+
+    public int requireYear() {
+        if (year == null) {
+            throw new InvalidQueryException(type + " query needs a year");
+        }
+        return year;
+    }
+
+    public VendorRanking rankingOrDefault() {
+        return ranking != null ? ranking : VendorRanking.SPEND;
+    }
+
+    public int limitOrDefault() {
+        if (limit == null) {
+            return DEFAULT_TOP_VENDORS;
+        }
+        if (limit < 1 || limit > MAX_TOP_VENDORS) {
+            throw new InvalidQueryException(type + " query limit must be between 1 and " + MAX_TOP_VENDORS);
+        }
+        return limit;
+    }
+}
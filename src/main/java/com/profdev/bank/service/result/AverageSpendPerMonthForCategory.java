@@ -1,24 +1,22 @@
 package com.profdev.bank.service.result;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.service.AmountFormatter;
-import com.profdev.bank.utils.MoneyUtils;
 import lombok.Builder;
 
-import java.math.BigDecimal;
-
 @Builder
 public record AverageSpendPerMonthForCategory(
         String category,
         String month,
         String amount,
         @JsonIgnore
-        BigDecimal monetaryAmount) {
+        Money monetaryAmount) {
 
     public static class AverageSpendPerMonthForCategoryBuilder {
 
-        public AverageSpendPerMonthForCategoryBuilder monetaryAmount(BigDecimal amount, AmountFormatter formatter) {
-            this.monetaryAmount = MoneyUtils.parse(amount);
+        public AverageSpendPerMonthForCategoryBuilder monetaryAmount(Money amount, AmountFormatter formatter) {
+            this.monetaryAmount = amount;
             this.amount = formatter.format(this.monetaryAmount);
             return this;
         }
@@ -0,0 +1,11 @@
+package com.profdev.bank.service.result;
+
+import com.profdev.bank.service.query.BatchQuery;
+
+/**
+ * Result of one query of a batch, shaped like the response of the query's own endpoint.
+ */
+public record BatchResult(
+        BatchQuery query,
+        Object result) {
+}
@@ -0,0 +1,11 @@
+package com.profdev.bank.service.result;
+
+/**
+ * Transactions added to an account, durable and visible to queries from data version {@code dataVersion} of the
+ * account on.
+ */
+public record IngestResult(
+        String account,
+        int added,
+        long dataVersion) {
+}
@@ -0,0 +1,13 @@
+package com.profdev.bank.service.result;
+
+import lombok.Builder;
+
+@Builder
+public record SpendPercentiles(
+        String category,
+        int year,
+        long count,
+        String p50,
+        String p90,
+        String p99) {
+}
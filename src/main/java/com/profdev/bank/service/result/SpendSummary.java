@@ -0,0 +1,17 @@
+package com.profdev.bank.service.result;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+@Builder
+public record SpendSummary(
+        LocalDate from,
+        LocalDate to,
+        String category,
+        long count,
+        String total,
+        String lowest,
+        String highest,
+        String average) {
+}
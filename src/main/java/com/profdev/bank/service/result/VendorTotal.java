@@ -0,0 +1,24 @@
+package com.profdev.bank.service.result;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.service.AmountFormatter;
+import lombok.Builder;
+
+@Builder
+public record VendorTotal(
+        String vendor,
+        String total,
+        long count,
+        @JsonIgnore
+        Money monetaryAmount) {
+
+    public static class VendorTotalBuilder {
+
+        public VendorTotalBuilder monetaryAmount(Money amount, AmountFormatter af) {
+            this.monetaryAmount = amount;
+            this.total = af.format(this.monetaryAmount);
+            return this;
+        }
+    }
+}
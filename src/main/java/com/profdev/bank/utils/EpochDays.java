@@ -0,0 +1,50 @@
+package com.profdev.bank.utils;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Proleptic Gregorian calendar arithmetic on epoch days without going through {@link java.time.LocalDate}, using
+ * Howard Hinnant's civil date algorithms.
+ */
+@UtilityClass
+public class EpochDays {
+
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final int DAYS_PER_ERA = 146097;
+
+    public static int of(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    public static int firstDayOfYear(int year) {
+        return of(year, 1, 1);
+    }
+
+    /**
+     * Months since January of year 0, i.e. {@code year * 12 + month - 1}.
+     */
+    public static int monthIndex(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    public static int year(int epochDay) {
+        return Math.floorDiv(monthIndex(epochDay), 12);
+    }
+
+    public static int month(int epochDay) {
+        return Math.floorMod(monthIndex(epochDay), 12) + 1;
+    }
+}
@@ -2,30 +2,65 @@ package com.profdev.bank.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profdev.bank.controller.response.ResponseCache;
+import com.profdev.bank.controller.response.TransactionStreamWriter;
 import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
 import com.profdev.bank.service.AmountFormatter;
+import com.profdev.bank.service.DatasetNotReadyException;
+import com.profdev.bank.service.IngestUnavailableException;
+import com.profdev.bank.service.InvalidQueryException;
+import com.profdev.bank.service.TransactionIngestService;
 import com.profdev.bank.service.TransactionService;
+import com.profdev.bank.service.UnknownAccountException;
+import com.profdev.bank.service.query.BatchQuery;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.IngestResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.SpendSummary;
+import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest({TransactionController.class, AmountFormatter.class})
+@WebMvcTest({TransactionController.class, AmountFormatter.class, TransactionStreamWriter.class, ResponseCache.class})
 class TransactionControllerTest {
 
     private static ObjectMapper om;
@@ -33,6 +68,9 @@ class TransactionControllerTest {
     @MockitoBean
     private TransactionService transactionService;
 
+    @MockitoBean
+    private TransactionIngestService ingestService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -51,7 +89,7 @@ class TransactionControllerTest {
 
             // Given
             List<Transaction> expected = Instancio.ofList(Transaction.class).size(2).create();
-            when(transactionService.getAll()).thenReturn(expected);
+            when(transactionService.getAll(null)).thenReturn(expected);
 
             // When
             MvcResult result = mockMvc.perform(get("/transaction/all"))
@@ -83,7 +121,7 @@ class TransactionControllerTest {
         void allTransactions_withNoData_shouldReturnEmptyList() throws Exception {
 
             // Given
-            when(transactionService.getAll()).thenReturn(Collections.emptyList());
+            when(transactionService.getAll(null)).thenReturn(Collections.emptyList());
 
             // When
             MvcResult result = mockMvc.perform(get("/transaction/all"))
@@ -97,8 +135,457 @@ class TransactionControllerTest {
             // Then
             assertThat(actual).isEmpty();
         }
+
+        @DisplayName("all transactions accepting NDJSON should stream one transaction per line")
+        @Test
+        void allTransactions_acceptingNdjson_shouldStreamOneTransactionPerLine() throws Exception {
+
+            // Given
+            List<Transaction> expected = Instancio.ofList(Transaction.class).size(3).create();
+            when(transactionService.getAll(null)).thenReturn(expected);
+
+            // When
+            MvcResult result = mockMvc.perform(get("/transaction/all").accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andReturn();
+
+            String[] lines = result.getResponse().getContentAsString().split("\n");
+
+            // Then
+            assertThat(lines).hasSize(3);
+            assertThat(om.readValue(lines[2], Transaction.class))
+                    .extracting("date", "vendor", "type", "amount", "category")
+                    .containsExactly(expected.get(2).getDate(), expected.get(2).getVendor(), expected.get(2).getType(),
+                            expected.get(2).getAmount(), expected.get(2).getCategory());
+        }
+    }
+
+    @Nested
+    class ForCategory {
+
+        @DisplayName("transactions for a category should return them in the requested sort order")
+        @Test
+        void forCategory_withSortOrder_shouldReturnTransactionsInRequestedOrder() throws Exception {
+
+            // Given
+            List<Transaction> expected = Instancio.ofList(Transaction.class).size(2).create();
+            when(transactionService.getForCategory("Groceries", TransactionBeanSortOrder.DESC, null))
+                    .thenReturn(expected);
+
+            // When
+            MvcResult result = mockMvc.perform(get("/transaction/category/Groceries").param("sort", "DESC"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andReturn();
+
+            String json = result.getResponse().getContentAsString();
+            List<Transaction> actual = om.readValue(json, new TypeReference<>() {
+            });
+
+            // Then
+            assertThat(actual)
+                    .extracting("vendor")
+                    .containsExactly(expected.get(0).getVendor(), expected.get(1).getVendor());
+        }
+
+        @DisplayName("transactions for an unknown category should return an empty array")
+        @Test
+        void forCategory_withUnknownCategory_shouldReturnEmptyArray() throws Exception {
+
+            // Given
+            when(transactionService.getForCategory("Unknown", TransactionBeanSortOrder.ASC, null))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            MvcResult result = mockMvc.perform(get("/transaction/category/Unknown"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            // Then
+            assertThat(result.getResponse().getContentAsString()).isEqualTo("[]");
+        }
+    }
+
+    @Nested
+    class DateRange {
+
+        @DisplayName("transactions for a date range and category should return them in the requested sort order")
+        @Test
+        void dateRange_withCategoryAndSortOrder_shouldReturnTransactions() throws Exception {
+
+            // Given
+            List<Transaction> expected = Instancio.ofList(Transaction.class).size(2).create();
+            when(transactionService.getForDateRange(LocalDate.of(2020, 11, 1), LocalDate.of(2020, 11, 30),
+                    "Groceries", TransactionBeanSortOrder.DESC, null))
+                    .thenReturn(expected);
+
+            // When
+            MvcResult result = mockMvc.perform(get("/transaction/range")
+                            .param("from", "2020-11-01")
+                            .param("to", "2020-11-30")
+                            .param("category", "Groceries")
+                            .param("sort", "DESC"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            List<Transaction> actual = om.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+            });
+
+            // Then
+            assertThat(actual)
+                    .extracting("vendor")
+                    .containsExactly(expected.get(0).getVendor(), expected.get(1).getVendor());
+        }
+
+        @DisplayName("spend summary for a date range should return the summary of the range")
+        @Test
+        void dateRangeSummary_shouldReturnSummary() throws Exception {
+
+            // Given
+            LocalDate from = LocalDate.of(2020, 11, 1);
+            LocalDate to = LocalDate.of(2020, 11, 30);
+            when(transactionService.getSpendSummaryForDateRange(from, to, "Groceries", null))
+                    .thenReturn(SpendSummary.builder().from(from).to(to).category("Groceries").count(2)
+                            .total("£35.71").lowest("£10.40").highest("£25.31").average("£17.86").build());
+
+            // When & Then
+            mockMvc.perform(get("/transaction/range/summary")
+                            .param("from", "2020-11-01")
+                            .param("to", "2020-11-30")
+                            .param("category", "Groceries"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(2))
+                    .andExpect(jsonPath("$.total").value("£35.71"))
+                    .andExpect(jsonPath("$.average").value("£17.86"));
+        }
+
+        @DisplayName("transactions for a date range without a to date should return bad request")
+        @Test
+        void dateRange_withoutTo_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get("/transaction/range").param("from", "2020-11-01"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class TotalPerCategoryTests {
+
+        // the response cache outlives a single test, so each test answers from a dataset version of its own
+        private static final AtomicLong VERSIONS = new AtomicLong();
+
+        private long version;
+
+        private final List<TotalPerCategory> totals = List.of(
+                TotalPerCategory.builder().category("Groceries").total("£35.71").build(),
+                TotalPerCategory.builder().category("Vehicle").total("£50.00").build());
+
+        @BeforeEach
+        void setUp() {
+            version = VERSIONS.addAndGet(2);
+        }
+
+        @DisplayName("total per category should return the totals with a strong ETag")
+        @Test
+        void totalPerCategory_withValidData_shouldReturnTotalsWithETag() throws Exception {
+
+            // Given
+            when(transactionService.getDataVersion()).thenReturn(version);
+            when(transactionService.getTotalPerCategory(null)).thenReturn(totals);
+
+            // When & Then
+            mockMvc.perform(get("/transaction/total/category"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[0-9a-f]{32}\"")))
+                    .andExpect(jsonPath("$[0].category").value("Groceries"))
+                    .andExpect(jsonPath("$[1].total").value("£50.00"));
+        }
+
+        @DisplayName("total per category with a matching If-None-Match should return 304 without recomputing")
+        @Test
+        void totalPerCategory_withMatchingIfNoneMatch_shouldReturnNotModified() throws Exception {
+
+            // Given
+            when(transactionService.getDataVersion()).thenReturn(version);
+            when(transactionService.getTotalPerCategory(null)).thenReturn(totals);
+            String eTag = mockMvc.perform(get("/transaction/total/category"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // When & Then
+            mockMvc.perform(get("/transaction/total/category").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                    .andExpect(content().string(""));
+            verify(transactionService, times(1)).getTotalPerCategory(null);
+        }
+
+        @DisplayName("total per category with an account should only query that account")
+        @Test
+        void totalPerCategory_withAccount_shouldQueryThatAccount() throws Exception {
+
+            // Given
+            when(transactionService.getDataVersion()).thenReturn(version);
+            when(transactionService.getTotalPerCategory("12345678")).thenReturn(totals.subList(0, 1));
+
+            // When & Then
+            mockMvc.perform(get("/transaction/total/category").param("account", "12345678"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].category").value("Groceries"));
+            verify(transactionService, never()).getTotalPerCategory(null);
+        }
+
+        @DisplayName("total per category after the dataset version changed should recompute the totals")
+        @Test
+        void totalPerCategory_afterVersionChange_shouldRecompute() throws Exception {
+
+            // Given
+            when(transactionService.getDataVersion()).thenReturn(version - 1, version);
+            when(transactionService.getTotalPerCategory(null))
+                    .thenReturn(totals)
+                    .thenReturn(totals.subList(0, 1));
+            String eTag = mockMvc.perform(get("/transaction/total/category"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // When & Then
+            mockMvc.perform(get("/transaction/total/category").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                    .andExpect(jsonPath("$.length()").value(1));
+        }
+    }
+
+    @Nested
+    class Percentiles {
+
+        @DisplayName("spend percentiles should return the percentiles of the category and year")
+        @Test
+        void spendPercentiles_withValidData_shouldReturnPercentiles() throws Exception {
+
+            // Given
+            when(transactionService.getSpendPercentilesForCategoryAndYear("Groceries", 2020, null))
+                    .thenReturn(SpendPercentiles.builder()
+                            .category("Groceries").year(2020).count(2).p50("£10.40").p90("£25.31").p99("£25.31")
+                            .build());
+
+            // When & Then
+            mockMvc.perform(get("/transaction/percentiles/category/Groceries/year/2020"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(2))
+                    .andExpect(jsonPath("$.p50").value("£10.40"))
+                    .andExpect(jsonPath("$.p99").value("£25.31"));
+        }
+    }
+
+    @Nested
+    class TopVendors {
+
+        @DisplayName("top vendors should return the ranked vendors with their totals and counts")
+        @Test
+        void topVendors_withRankingAndLimit_shouldReturnRankedVendors() throws Exception {
+
+            // Given
+            when(transactionService.getTopVendorsForCategory("Groceries", 2020, VendorRanking.COUNT, 2, null))
+                    .thenReturn(List.of(
+                            VendorTotal.builder().vendor("Tesco").total("£25.31").count(3).build(),
+                            VendorTotal.builder().vendor("Morrisons").total("£10.40").count(1).build()));
+
+            // When & Then
+            mockMvc.perform(get("/transaction/top-vendors/category/Groceries")
+                            .param("year", "2020")
+                            .param("by", "COUNT")
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].vendor").value("Tesco"))
+                    .andExpect(jsonPath("$[0].count").value(3))
+                    .andExpect(jsonPath("$[1].total").value("£10.40"));
+        }
+
+        @DisplayName("top vendors with a limit out of range should return bad request")
+        @Test
+        void topVendors_withLimitOutOfRange_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get("/transaction/top-vendors/category/Groceries").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/transaction/top-vendors/category/Groceries")
+                            .param("limit", String.valueOf(TransactionController.TOP_VENDORS_MAX_LIMIT + 1)))
+                    .andExpect(status().isBadRequest());
+            verify(transactionService, never()).getTopVendorsForCategory(any(), any(), any(), anyInt(), any());
+        }
+    }
+
+    @Nested
+    class Batch {
+
+        @DisplayName("batch should return the result of each query in request order")
+        @Test
+        void batch_withValidQueries_shouldReturnResultsInOrder() throws Exception {
+
+            // Given
+            BatchQuery highest = BatchQuery.builder().type(BatchQuery.Type.HIGHEST_SPEND).category("Vehicle").year(2020)
+                    .build();
+            BatchQuery lowest = BatchQuery.builder().type(BatchQuery.Type.LOWEST_SPEND).category("Vehicle").year(2020)
+                    .build();
+            when(transactionService.getBatch(List.of(highest, lowest), null))
+                    .thenReturn(List.of(new BatchResult(highest, "£50.00"), new BatchResult(lowest, "£5.00")));
+
+            // When & Then
+            mockMvc.perform(post("/transaction/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(List.of(highest, lowest))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].query.type").value("HIGHEST_SPEND"))
+                    .andExpect(jsonPath("$[0].result").value("£50.00"))
+                    .andExpect(jsonPath("$[1].query.type").value("LOWEST_SPEND"))
+                    .andExpect(jsonPath("$[1].result").value("£5.00"));
+        }
+
+        @DisplayName("batch with no queries or a query without a type should return bad request")
+        @Test
+        void batch_withNoQueriesOrMissingType_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(post("/transaction/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/transaction/batch").contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"category\": \"Vehicle\"}]"))
+                    .andExpect(status().isBadRequest());
+            verify(transactionService, never()).getBatch(any(), any());
+        }
+
+        @DisplayName("batch with a query missing an argument should return bad request with the reason")
+        @Test
+        void batch_withQueryMissingArgument_shouldReturnBadRequest() throws Exception {
+
+            // Given
+            when(transactionService.getBatch(any(), any()))
+                    .thenThrow(new InvalidQueryException("HIGHEST_SPEND query needs a year"));
+
+            // When & Then
+            mockMvc.perform(post("/transaction/batch").contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"type\": \"HIGHEST_SPEND\", \"category\": \"Vehicle\"}]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.response").value("HIGHEST_SPEND query needs a year"));
+        }
+    }
+
+    @Nested
+    class AddTransactions {
+
+        private static final String TRANSACTION = """
+                {"date": "01/Dec/2020", "vendor": "Tesco", "type": "card", "amount": "£12.50", "category": "Groceries"}
+                """;
+
+        @DisplayName("add transactions should pass the posted transactions to the ingest service and return 201")
+        @Test
+        void addTransactions_withValidTransactions_shouldReturnCreated() throws Exception {
+
+            // Given
+            when(ingestService.add(any(), any())).thenReturn(new IngestResult("12345678", 1, 4));
+
+            // When & Then
+            mockMvc.perform(post("/transaction").param("account", "12345678")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + TRANSACTION + "]"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.account").value("12345678"))
+                    .andExpect(jsonPath("$.added").value(1))
+                    .andExpect(jsonPath("$.dataVersion").value(4));
+            verify(ingestService).add(argThat(transactions -> transactions.size() == 1
+                    && transactions.getFirst().getDate().equals(LocalDate.of(2020, 12, 1))
+                    && transactions.getFirst().getAmount().equals("£12.50")), eq("12345678"));
+        }
+
+        @DisplayName("add transactions with none or too many should return bad request")
+        @Test
+        void addTransactions_withNoneOrTooMany_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(post("/transaction").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                    .andExpect(status().isBadRequest());
+            String tooMany = String.join(",",
+                    Collections.nCopies(TransactionController.INGEST_MAX_TRANSACTIONS + 1, TRANSACTION));
+            mockMvc.perform(post("/transaction").contentType(MediaType.APPLICATION_JSON).content("[" + tooMany + "]"))
+                    .andExpect(status().isBadRequest());
+            verify(ingestService, never()).add(any(), any());
+        }
+
+        @DisplayName("add transactions with an invalid transaction should return bad request with the problems")
+        @Test
+        void addTransactions_withInvalidTransaction_shouldReturnBadRequest() throws Exception {
+
+            // Given
+            when(ingestService.add(any(), any()))
+                    .thenThrow(new InvalidQueryException("Invalid transactions: [0].vendor: must not be blank"));
+
+            // When & Then
+            mockMvc.perform(post("/transaction")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + TRANSACTION + "]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.response").value("Invalid transactions: [0].vendor: must not be blank"));
+        }
+
+        @DisplayName("add transactions without a transaction log should return 503")
+        @Test
+        void addTransactions_withoutTransactionLog_shouldReturnServiceUnavailable() throws Exception {
+
+            // Given
+            when(ingestService.add(any(), any())).thenThrow(new IngestUnavailableException("No transaction log"));
+
+            // When & Then
+            mockMvc.perform(post("/transaction")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[" + TRANSACTION + "]"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.response").value("No transaction log"));
+        }
+    }
+
+    @Nested
+    class DatasetNotReady {
+
+        @DisplayName("any endpoint while the dataset is still loading should return 503 with a Retry-After header")
+        @Test
+        void anyEndpoint_whileDatasetLoading_shouldReturnServiceUnavailable() throws Exception {
+
+            // Given
+            when(transactionService.getAll(null)).thenThrow(new DatasetNotReadyException(null));
+
+            // When & Then
+            mockMvc.perform(get("/transaction/all"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.response").value("Transaction data is still loading"));
+        }
+    }
+
+    @Nested
+    class Accounts {
+
+        @DisplayName("accounts should return the configured accounts in order")
+        @Test
+        void accounts_shouldReturnConfiguredAccounts() throws Exception {
+
+            // Given
+            when(transactionService.getAccounts()).thenReturn(new LinkedHashSet<>(List.of("12345678", "87654321")));
+
+            // When & Then
+            mockMvc.perform(get("/transaction/accounts"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0]").value("12345678"))
+                    .andExpect(jsonPath("$[1]").value("87654321"));
+        }
+
+        @DisplayName("any endpoint with an unknown account should return 404")
+        @Test
+        void anyEndpoint_withUnknownAccount_shouldReturnNotFound() throws Exception {
+
+            // Given
+            when(transactionService.getAll("00000000")).thenThrow(new UnknownAccountException("00000000"));
+
+            // When & Then
+            mockMvc.perform(get("/transaction/all").param("account", "00000000"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.response").value("Unknown account: 00000000"));
+        }
     }
 
-    // TODO add nested test classes for controller endpoints GetForCategory, AverageSpendPerMonthForCategory,
+    // TODO add nested test classes for controller endpoints AverageSpendPerMonthForCategory,
     //  LowestSpendForCategoryAndYearTests and LowestSpendForCategoryAndYearTests including failure test cases
 }
\ No newline at end of file
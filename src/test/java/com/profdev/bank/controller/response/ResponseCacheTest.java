@@ -0,0 +1,111 @@
+package com.profdev.bank.controller.response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.profdev.bank.config.ResponseCacheProperties;
+import com.profdev.bank.controller.response.ResponseCache.CachedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final int MAX_ENTRIES = 2;
+
+    private ResponseCache underTest;
+
+    private AtomicInteger computations;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ResponseCache(new ObjectMapper(), new ResponseCacheProperties(MAX_ENTRIES));
+        computations = new AtomicInteger();
+    }
+
+    @DisplayName("get for the same key and version should serialize the result once and return the same bytes")
+    @Test
+    void get_withSameKeyAndVersion_shouldSerializeOnce() {
+        // When
+        CachedResponse first = underTest.get(1, counting(List.of("a", "b")), "total");
+        CachedResponse second = underTest.get(1, counting(List.of("a", "b")), "total");
+
+        // Then
+        assertThat(computations).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.body(), StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+        assertThat(first.eTag()).startsWith("\"").endsWith("\"");
+    }
+
+    @DisplayName("get with a newer version should drop the cached entries and compute again")
+    @Test
+    void get_withNewerVersion_shouldRecompute() {
+        // Given
+        CachedResponse before = underTest.get(1, counting("old"), "total");
+        underTest.get(1, counting("other"), "average", "Groceries");
+
+        // When
+        CachedResponse after = underTest.get(2, counting("new"), "total");
+
+        // Then
+        assertThat(computations).hasValue(3);
+        assertThat(after.eTag()).isNotEqualTo(before.eTag());
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @DisplayName("get with an older version than the cache should answer without caching")
+    @Test
+    void get_withOlderVersion_shouldNotCache() {
+        // Given
+        underTest.get(2, counting("new"), "total");
+
+        // When
+        underTest.get(1, counting("old"), "total");
+        CachedResponse current = underTest.get(2, counting("new"), "total");
+
+        // Then
+        assertThat(computations).hasValue(2);
+        assertThat(new String(current.body(), StandardCharsets.UTF_8)).isEqualTo("\"new\"");
+    }
+
+    @DisplayName("get beyond the maximum entries should evict the least recently used key")
+    @Test
+    void get_beyondMaxEntries_shouldEvictLeastRecentlyUsed() {
+        // Given
+        underTest.get(1, counting("a"), "a");
+        underTest.get(1, counting("b"), "b");
+        underTest.get(1, counting("a"), "a");
+
+        // When
+        underTest.get(1, counting("c"), "c");
+        underTest.get(1, counting("a"), "a");
+        underTest.get(1, counting("b"), "b");
+
+        // Then
+        assertThat(computations).hasValue(4);
+        assertThat(underTest.size()).isEqualTo(MAX_ENTRIES);
+    }
+
+    @DisplayName("get with equal results under different versions should produce the same content based ETag")
+    @Test
+    void get_withEqualContent_shouldProduceSameETag() {
+        // When
+        CachedResponse first = underTest.get(1, counting("same"), "total");
+        CachedResponse second = underTest.get(2, counting("same"), "total");
+
+        // Then
+        assertThat(second.eTag()).isEqualTo(first.eTag());
+    }
+
+    private Supplier<Object> counting(Object result) {
+        return () -> {
+            computations.incrementAndGet();
+            return result;
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.profdev.bank.data;
+
+import com.profdev.bank.data.load.AccountDataFiles;
+import com.profdev.bank.data.load.CsvDataLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class AccountDataFilesTest {
+
+    @TempDir
+    private Path dir;
+
+    @DisplayName("resolve of a single data file should name the account after the file")
+    @Test
+    void resolve_ofSingleDataFile_shouldNameAccountAfterFile() {
+        // When
+        Map<String, String> accounts = AccountDataFiles.resolve("transaction-data.csv");
+
+        // Then
+        assertThat(accounts).containsExactly(entry("transaction-data", "transaction-data.csv"));
+    }
+
+    @DisplayName("resolve of a directory should return every CSV file in it in name order")
+    @Test
+    void resolve_ofDirectory_shouldReturnCsvFilesInNameOrder() throws IOException {
+        // Given
+        Path second = Files.createFile(dir.resolve("87654321.csv"));
+        Path first = Files.createFile(dir.resolve("12345678.csv"));
+        Files.createFile(dir.resolve("12345678.csv.snapshot"));
+        Files.createDirectory(dir.resolve("archive.csv"));
+
+        // When
+        Map<String, String> accounts = AccountDataFiles.resolve(dir.toString());
+
+        // Then
+        assertThat(accounts).containsExactly(
+                entry("12345678", CsvDataLoader.FILE_PREFIX + first),
+                entry("87654321", CsvDataLoader.FILE_PREFIX + second));
+    }
+
+    @DisplayName("resolve of a comma separated list should keep the configured order")
+    @Test
+    void resolve_ofList_shouldKeepConfiguredOrder() {
+        // Given
+        String second = CsvDataLoader.FILE_PREFIX + dir.resolve("savings.csv");
+
+        // When
+        Map<String, String> accounts = AccountDataFiles.resolve("transaction-data.csv, " + second);
+
+        // Then
+        assertThat(accounts).containsExactly(
+                entry("transaction-data", "transaction-data.csv"),
+                entry("savings", second));
+    }
+
+    @DisplayName("resolve of two data files with the same name should throw")
+    @Test
+    void resolve_ofSameNameTwice_shouldThrow() throws IOException {
+        // Given
+        Path other = Files.createDirectory(dir.resolve("other"));
+        String dataFiles = dir.resolve("current.csv") + "," + other.resolve("current.csv");
+
+        // When & Then
+        assertThatThrownBy(() -> AccountDataFiles.resolve(dataFiles))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("More than one data file for account current");
+    }
+
+    @DisplayName("resolve of a directory without CSV files should throw")
+    @Test
+    void resolve_ofEmptyDirectory_shouldThrow() {
+        assertThatThrownBy(() -> AccountDataFiles.resolve(dir.toString()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("No data files found");
+    }
+}
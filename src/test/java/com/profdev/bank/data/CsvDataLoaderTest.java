@@ -2,21 +2,37 @@ package com.profdev.bank.data;
 
 import com.profdev.bank.config.AppProperties;
 import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,9 +41,16 @@ class CsvDataLoaderTest {
     @Mock
     private AppProperties appProperties;
 
-    @InjectMocks
+    @Mock
+    private IngestMetrics ingestMetrics;
+
     private CsvDataLoader underTest;
 
+    @BeforeEach
+    void setUp() {
+        underTest = new CsvDataLoader(appProperties, ingestMetrics, Quarantine.NONE);
+    }
+
     @DisplayName("retrieveData with a valid CSV file should return a list of records")
     @Test
     void retrieveData_withValidCsvFile_shouldReturnListOfRecords() {
@@ -46,6 +69,41 @@ class CsvDataLoaderTest {
                         tuple(LocalDate.of(2020, 11, 6), "PureGym", "direct debit", "£38.50", "Health"));
     }
 
+    @DisplayName("retrieveData with an absolute filesystem path should return a list of records")
+    @Test
+    void retrieveData_withAbsoluteFilesystemPath_shouldReturnListOfRecords(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = writeDataFile(dir);
+        when(appProperties.dataFile()).thenReturn(dataFile.toAbsolutePath().toString());
+
+        // When
+        List<DataRecord> transactions = underTest.retrieveData();
+
+        // Then
+        assertThat(transactions)
+                .extracting("transactionDate", "vendor", "type", "amount", "category")
+                .containsExactly(
+                        tuple(LocalDate.of(2021, 11, 19), "Jaskolski, Dickens and Ledner", "direct debit", "£16.06", "Jewelry"),
+                        tuple(LocalDate.of(2022, 6, 19), "Weber, Bruen and Hansen", "card", "£1,024.05", "Industrial"));
+    }
+
+    @DisplayName("streamData with a file prefixed path should stream records in file order")
+    @Test
+    void streamData_withFilePrefixedPath_shouldStreamRecordsInOrder(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = writeDataFile(dir);
+        when(appProperties.dataFile()).thenReturn(CsvDataLoader.FILE_PREFIX + dataFile);
+        List<DataRecord> transactions = new ArrayList<>();
+
+        // When
+        underTest.streamData(transactions::add);
+
+        // Then
+        assertThat(transactions)
+                .extracting("vendor")
+                .containsExactly("Jaskolski, Dickens and Ledner", "Weber, Bruen and Hansen");
+    }
+
     @DisplayName("retrieveData with an empty CSV file should return an empty list")
     @Test
     void retrieveData_withEmptyCsvFile_shouldReturnEmptyList() {
@@ -70,13 +128,123 @@ class CsvDataLoaderTest {
         assertThrows(RuntimeException.class, () -> underTest.retrieveData());
     }
 
-    @DisplayName("retrieveData with a malformed CSV file content should throw a RuntimeException")
+    @DisplayName("retrieveData with a malformed CSV file content should fail on the malformed row")
     @Test
-    void retrieveData_withMalformedCsvFileContent_shouldThrowRuntimeException() {
+    void retrieveData_withMalformedCsvFileContent_shouldFailOnMalformedRow() {
         // Given
         when(appProperties.dataFile()).thenReturn("test-transaction-data-malformed.csv");
 
         // When & Then
-        assertThrows(RuntimeException.class, () -> underTest.retrieveData());
+        assertThatThrownBy(() -> underTest.retrieveData())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Number of data fields does not match number of headers at line 2");
+    }
+
+    @DisplayName("streamData in lenient mode should skip and quarantine malformed rows and stream the rest")
+    @Test
+    void streamData_inLenientMode_shouldQuarantineMalformedRows(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                01/Nov/2020,Morrisons,card,£10.40,Groceries,Malformed Data
+                05/Nov/2020,"Shell
+                Garage",card,£50,Vehicle
+                31/Nov/20,PureGym,direct debit,£38.50,Health
+                06/Nov/2020,PureGym,direct debit,£38.50,Health
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        Quarantine quarantine = new Quarantine(10);
+        CsvDataLoader lenient = new CsvDataLoader(appProperties, ingestMetrics, quarantine);
+        List<DataRecord> transactions = new ArrayList<>();
+
+        // When
+        lenient.streamData(transactions::add);
+
+        // Then
+        assertThat(transactions)
+                .extracting("vendor", "lineNumber")
+                .containsExactly(tuple("Shell\nGarage", 4L), tuple("PureGym", 6L));
+        assertThat(quarantine.rows()).containsExactly(
+                new QuarantinedRow(2, "Number of data fields does not match number of headers"),
+                new QuarantinedRow(5, "Invalid transaction date: 31/Nov/20"));
+        assertThat(lenient.quarantine()).isSameAs(quarantine);
+        verify(ingestMetrics, times(2)).rejected();
+    }
+
+    @DisplayName("readInto in lenient mode should add the rows it can store and quarantine the rest by line")
+    @Test
+    void readInto_inLenientMode_shouldQuarantineRowsThatCannotBeStored(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                01/Nov/2020,Morrisons,card,£10.40,Groceries,Malformed Data
+                31/Nov/20,PureGym,direct debit,£38.50,Health
+                ,Tesco,card,£3,Groceries
+                05/Nov/2020,"Shell
+                Garage",card,£12a,Vehicle
+                06/Nov/2020,"Jaskolski, Dickens and Ledner",direct debit,"£1,016.06",Jewelry
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        when(appProperties.currency()).thenReturn(Currency.getInstance("GBP"));
+        when(appProperties.currencySymbol()).thenReturn("£");
+        Quarantine quarantine = new Quarantine(10);
+        CsvDataLoader lenient = new CsvDataLoader(appProperties, ingestMetrics, quarantine);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(Currency.getInstance("GBP"));
+
+        // When
+        lenient.readInto(builder, new TransactionAmountParser(appProperties));
+
+        // Then
+        assertThat(builder.build().asList())
+                .extracting(Transaction::getDate, Transaction::getVendor, Transaction::getAmount,
+                        Transaction::getMonetaryAmount)
+                .containsExactly(tuple(LocalDate.of(2020, 11, 6), "Jaskolski, Dickens and Ledner", "£1,016.06",
+                        Money.of(101_606, Currency.getInstance("GBP"))));
+        assertThat(quarantine.rows()).containsExactly(
+                new QuarantinedRow(2, "Number of data fields does not match number of headers"),
+                new QuarantinedRow(3, "Invalid transaction date: 31/Nov/20"),
+                new QuarantinedRow(4, "Missing transaction date"),
+                new QuarantinedRow(6, "Invalid amount format: £12a"));
+        verify(ingestMetrics, times(4)).rejected();
+    }
+
+    @DisplayName("streamData should record the time spent reading, tokenizing and binding")
+    @Test
+    void streamData_shouldRecordPhaseTimes() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data.csv");
+
+        // When
+        underTest.streamData(dataRecord -> {
+        });
+
+        // Then
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.READ), anyLong());
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.TOKENIZE), anyLong());
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.BIND), anyLong());
+    }
+
+    @DisplayName("streamData with a malformed CSV file content should count the rejected row")
+    @Test
+    void streamData_withMalformedCsvFileContent_shouldCountRejectedRow() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data-malformed.csv");
+
+        // When
+        assertThatThrownBy(() -> underTest.streamData(dataRecord -> {
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Number of data fields does not match number of headers at line 2");
+
+        // Then
+        verify(ingestMetrics).rejected();
+    }
+
+    private static Path writeDataFile(Path dir) throws IOException {
+        return Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                19/Nov/2021,"Jaskolski, Dickens and Ledner",direct debit,£16.06,Jewelry
+                19/Jun/2022,"Weber, Bruen and Hansen",card,"£1,024.05",Industrial
+                """);
     }
 }
\ No newline at end of file
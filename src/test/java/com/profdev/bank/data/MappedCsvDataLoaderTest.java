@@ -0,0 +1,320 @@
+package com.profdev.bank.data;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.data.load.MappedCsvDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MappedCsvDataLoaderTest {
+
+    private static final int MULTI_CHUNK_ROWS = 60_000;
+
+    @Mock
+    private AppProperties appProperties;
+
+    @Mock
+    private IngestMetrics ingestMetrics;
+
+    private MappedCsvDataLoader underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new MappedCsvDataLoader(appProperties, ingestMetrics, Quarantine.NONE);
+    }
+
+    @DisplayName("retrieveData with a valid CSV file should return a list of records")
+    @Test
+    void retrieveData_withValidCsvFile_shouldReturnListOfRecords() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data.csv");
+
+        // When
+        List<DataRecord> transactions = underTest.retrieveData();
+
+        // Then
+        assertThat(transactions)
+                .extracting("transactionDate", "vendor", "type", "amount", "category")
+                .containsExactly(
+                        tuple(LocalDate.of(2020, 11, 1), "Morrisons", "card", "£10.40", "Groceries"),
+                        tuple(LocalDate.of(2020, 11, 5), "Shell Garage", "card", "£50", "Vehicle"),
+                        tuple(LocalDate.of(2020, 11, 6), "PureGym", "direct debit", "£38.50", "Health"));
+    }
+
+    @DisplayName("streamData with quoted vendors should stream records in file order")
+    @Test
+    void streamData_withQuotedVendors_shouldStreamRecordsInOrder(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                19/Nov/2021,"Jaskolski, Dickens and Ledner",direct debit,£16.06,Jewelry
+                19/Jun/2022,"Weber, Bruen and Hansen",card,"£1,024.05",Industrial
+                """);
+        when(appProperties.dataFile()).thenReturn(CsvDataLoader.FILE_PREFIX + dataFile);
+        List<DataRecord> transactions = new ArrayList<>();
+
+        // When
+        underTest.streamData(transactions::add);
+
+        // Then
+        assertThat(transactions)
+                .extracting("transactionDate", "vendor", "type", "amount", "category")
+                .containsExactly(
+                        tuple(LocalDate.of(2021, 11, 19), "Jaskolski, Dickens and Ledner", "direct debit", "£16.06", "Jewelry"),
+                        tuple(LocalDate.of(2022, 6, 19), "Weber, Bruen and Hansen", "card", "£1,024.05", "Industrial"));
+    }
+
+    @DisplayName("retrieveData with a file spanning several chunks should match the single threaded CSV loader")
+    @Test
+    void retrieveData_withMultiChunkFile_shouldMatchCsvDataLoader(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = writeMultiChunkDataFile(dir);
+        when(appProperties.dataFile()).thenReturn(dataFile.toAbsolutePath().toString());
+        List<DataRecord> expected = new CsvDataLoader(appProperties).retrieveData();
+
+        // When
+        List<DataRecord> transactions = underTest.retrieveData();
+
+        // Then
+        assertThat(transactions).hasSize(MULTI_CHUNK_ROWS);
+        assertThat(transactions).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("readInto with a file spanning several chunks should store the rows streamData maps, in file order")
+    @Test
+    void readInto_withMultiChunkFile_shouldMatchMappedRecords(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = writeMultiChunkDataFile(dir);
+        when(appProperties.dataFile()).thenReturn(dataFile.toAbsolutePath().toString());
+        when(appProperties.currency()).thenReturn(Currency.getInstance("GBP"));
+        when(appProperties.currencySymbol()).thenReturn("£");
+        TransactionMapper mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        ColumnarTransactionStore.Builder expected = ColumnarTransactionStore.builder(mapper.currency());
+        new CsvDataLoader(appProperties).streamData(dataRecord -> mapper.mapIntoStore(dataRecord, expected));
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(mapper.currency());
+
+        // When
+        underTest.readInto(builder, mapper.amountParser());
+
+        // Then
+        ColumnarTransactionStore store = builder.build();
+        assertThat(store.size()).isEqualTo(MULTI_CHUNK_ROWS);
+        assertThat(store.asList()).containsExactlyElementsOf(expected.build().asList());
+        assertThat(store.vendors().size()).isEqualTo(expected.build().vendors().size());
+    }
+
+    @DisplayName("retrieveData with a bare quote inside an unquoted vendor should read it as part of the vendor")
+    @Test
+    void retrieveData_withBareQuoteInVendor_shouldKeepQuoteInVendor() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data-bare-quote.csv");
+
+        // When
+        List<DataRecord> transactions = underTest.retrieveData();
+
+        // Then
+        assertThat(transactions)
+                .extracting("vendor", "amount", "lineNumber")
+                .containsExactly(
+                        tuple("12\" Pizza Co", "£12.50", 2L),
+                        tuple("Shell Garage", "£50", 3L),
+                        tuple("Jaskolski, Dickens and Ledner", "£16.06", 4L));
+    }
+
+    @DisplayName("retrieveData with a malformed row in a later chunk should fail with its line in the data file")
+    @Test
+    void retrieveData_withMalformedRowInLaterChunk_shouldReportFileLine(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = writeMultiChunkDataFile(dir);
+        long lines = Files.readString(dataFile).lines().count();
+        Files.writeString(dataFile, "01/Nov/2020,Morrisons,card,£10.40\n", StandardOpenOption.APPEND);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        MappedCsvDataLoader strict = new MappedCsvDataLoader(appProperties);
+
+        // When & Then
+        assertThatThrownBy(strict::retrieveData)
+                .hasStackTraceContaining("does not match number of headers at line %d, in the chunk starting at line"
+                        .formatted(lines + 1));
+    }
+
+    @DisplayName("streamFrom with the offset of an earlier read should stream only appended complete records")
+    @Test
+    void streamFrom_withEarlierOffset_shouldStreamOnlyAppendedCompleteRecords(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                19/Nov/2021,"Jaskolski, Dickens and Ledner",direct debit,£16.06,Jewelry
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        long offset = underTest.streamFrom(0, dataRecord -> { });
+        String completeRecord = "19/Jun/2022,\"Weber, Bruen and Hansen\",card,\"£1,024.05\",Industrial\n";
+        String partialRecord = "20/Jun/2022,\"Kuhn,";
+        Files.writeString(dataFile, completeRecord + partialRecord, StandardOpenOption.APPEND);
+        List<DataRecord> appended = new ArrayList<>();
+
+        // When
+        long next = underTest.streamFrom(offset, appended::add);
+
+        // Then
+        assertThat(offset).isEqualTo(Files.size(dataFile) - (completeRecord + partialRecord).getBytes(StandardCharsets.UTF_8).length);
+        assertThat(appended).extracting("vendor").containsExactly("Weber, Bruen and Hansen");
+        assertThat(appended).extracting("lineNumber").containsExactly(3L);
+        assertThat(next).isEqualTo(offset + completeRecord.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @DisplayName("retrieveData with an empty CSV file should return an empty list")
+    @Test
+    void retrieveData_withEmptyCsvFile_shouldReturnEmptyList() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data-empty.csv");
+
+        // When
+        List<DataRecord> transactions = underTest.retrieveData();
+
+        // Then
+        assertNotNull(transactions);
+        assertTrue(transactions.isEmpty());
+    }
+
+    @DisplayName("retrieveData with an invalid CSV file path should throw a RuntimeException")
+    @Test
+    void retrieveData_withInvalidCsvFilePath_shouldThrowRuntimeException() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("invalid_path.csv");
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> underTest.retrieveData());
+    }
+
+    @DisplayName("retrieveData with a malformed CSV file content should fail on the malformed row")
+    @Test
+    void retrieveData_withMalformedCsvFileContent_shouldFailOnMalformedRow() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data-malformed.csv");
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.retrieveData())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Number of data fields does not match number of headers at line 2,");
+    }
+
+    @DisplayName("streamData in lenient mode should skip and quarantine malformed rows and stream the rest")
+    @Test
+    void streamData_inLenientMode_shouldQuarantineMalformedRows(@TempDir Path dir) throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                01/Nov/2020,Morrisons,card,£10.40,Groceries,Malformed Data
+                05/Nov/2020,"Shell
+                Garage",card,£50,Vehicle
+                31/Nov/20,PureGym,direct debit,£38.50,Health
+                06/Nov/2020,PureGym,direct debit,£38.50,Health
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        Quarantine quarantine = new Quarantine(10);
+        MappedCsvDataLoader lenient = new MappedCsvDataLoader(appProperties, ingestMetrics, quarantine);
+        List<DataRecord> transactions = new ArrayList<>();
+
+        // When
+        lenient.streamData(transactions::add);
+
+        // Then
+        assertThat(transactions)
+                .extracting("vendor", "lineNumber")
+                .containsExactly(tuple("Shell\nGarage", 4L), tuple("PureGym", 6L));
+        assertThat(quarantine.rows()).containsExactly(
+                new QuarantinedRow(2, "Number of data fields does not match number of headers"),
+                new QuarantinedRow(5, "Invalid transaction date: 31/Nov/20"));
+        assertThat(lenient.quarantine()).isSameAs(quarantine);
+        verify(ingestMetrics, times(2)).rejected();
+    }
+
+    @DisplayName("streamData should record the time spent reading, tokenizing and binding")
+    @Test
+    void streamData_shouldRecordPhaseTimes() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data.csv");
+
+        // When
+        underTest.streamData(dataRecord -> {
+        });
+
+        // Then
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.READ), anyLong());
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.TOKENIZE), anyLong());
+        verify(ingestMetrics).record(eq(IngestMetrics.Phase.BIND), anyLong());
+    }
+
+    @DisplayName("streamData with a malformed CSV file content should count the rejected row")
+    @Test
+    void streamData_withMalformedCsvFileContent_shouldCountRejectedRow() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data-malformed.csv");
+
+        // When
+        assertThatThrownBy(() -> underTest.streamData(dataRecord -> {
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Number of data fields does not match number of headers at line 2,");
+
+        // Then
+        verify(ingestMetrics).rejected();
+    }
+
+    /**
+     * Several megabytes of rows, so the file is split into more than one chunk, with quoted vendors containing commas,
+     * escaped quotes and line breaks so that raw chunk starts regularly land inside a quoted field, and unquoted vendors
+     * containing a bare quote.
+     */
+    private static Path writeMultiChunkDataFile(Path dir) throws IOException {
+        Path dataFile = dir.resolve("transactions-large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8)) {
+            writer.write("Transaction Date,Vendor,Type,Amount,Category\n");
+            for (int row = 0; row < MULTI_CHUNK_ROWS; row++) {
+                String vendor = switch (row % 5) {
+                    case 0 -> "Morrisons";
+                    case 1 -> "\"Jaskolski, Dickens and Ledner %d\"".formatted(row);
+                    case 2 -> "\"Weber \"\"Bruen\"\" and Hansen\"";
+                    case 3 -> "12\" Pizza Co";
+                    default -> "\"Kuhn,\nLind and Sons %d\"".formatted(row);
+                };
+                writer.write("%02d/Nov/2020,%s,card,\"£%,d.%02d\",Groceries\n".formatted(row % 28 + 1, vendor, row, row % 100));
+            }
+        }
+        return dataFile;
+    }
+}
@@ -0,0 +1,44 @@
+package com.profdev.bank.data;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuarantineTest {
+
+    @DisplayName("add beyond the limit should count every row but keep only the first ones, listed by line")
+    @Test
+    void add_beyondLimit_shouldCountEveryRowAndKeepFirstByLine() {
+        // Given
+        Quarantine underTest = new Quarantine(2);
+
+        // When
+        underTest.add(9, "third");
+        underTest.add(4, "first");
+        underTest.add(2, "dropped");
+
+        // Then
+        assertThat(underTest.count()).isEqualTo(3);
+        assertThat(underTest.rows()).containsExactly(new QuarantinedRow(4, "first"), new QuarantinedRow(9, "third"));
+        assertThat(underTest.enabled()).isTrue();
+        assertThat(Quarantine.NONE.enabled()).isFalse();
+    }
+
+    @DisplayName("clear should forget the rows added so far and keep quarantining new ones")
+    @Test
+    void clear_shouldForgetRowsAddedSoFar() {
+        // Given
+        Quarantine underTest = new Quarantine(2);
+        underTest.add(4, "first");
+        underTest.add(9, "second");
+
+        // When
+        underTest.clear();
+        underTest.add(6, "again");
+
+        // Then
+        assertThat(underTest.count()).isOne();
+        assertThat(underTest.rows()).containsExactly(new QuarantinedRow(6, "again"));
+    }
+}
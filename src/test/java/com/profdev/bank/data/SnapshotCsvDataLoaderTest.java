@@ -0,0 +1,84 @@
+package com.profdev.bank.data;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.SnapshotProperties;
+import com.profdev.bank.data.load.CsvDataLoader;
+import com.profdev.bank.data.load.SnapshotCsvDataLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotCsvDataLoaderTest {
+
+    @Mock
+    private AppProperties appProperties;
+
+    @TempDir
+    private Path dir;
+
+    @DisplayName("sourceChecksum should change when the data file changes")
+    @Test
+    void sourceChecksum_shouldChangeWithDataFile() throws IOException {
+        // Given
+        Path dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                01/Nov/2020,Morrisons,card,£10.40,Groceries
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+        SnapshotCsvDataLoader underTest = new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null));
+        long before = underTest.sourceChecksum();
+
+        // When
+        Files.writeString(dataFile, "02/Nov/2020,Tesco,card,£4.60,Groceries\n", StandardOpenOption.APPEND);
+
+        // Then
+        assertThat(underTest.sourceChecksum()).isNotEqualTo(before);
+        assertThat(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)).sourceChecksum())
+                .isEqualTo(underTest.sourceChecksum());
+    }
+
+    @DisplayName("snapshotFile for a filesystem data file should sit next to it")
+    @Test
+    void snapshotFile_forFilesystemDataFile_shouldSitNextToIt() {
+        // Given
+        when(appProperties.dataFile()).thenReturn(CsvDataLoader.FILE_PREFIX + dir.resolve("transactions.csv"));
+        SnapshotCsvDataLoader underTest = new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null));
+
+        // When & Then
+        assertThat(underTest.snapshotFile()).isEqualTo(dir.resolve("transactions.csv.snapshot"));
+    }
+
+    @DisplayName("snapshotFile with a snapshot directory should sit in that directory")
+    @Test
+    void snapshotFile_withSnapshotDirectory_shouldSitInThatDirectory() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data.csv");
+        SnapshotCsvDataLoader underTest = new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(dir.toString()));
+
+        // When & Then
+        assertThat(underTest.snapshotFile()).isEqualTo(dir.resolve("test-transaction-data.csv.snapshot"));
+    }
+
+    @DisplayName("retrieveData should read the CSV data file")
+    @Test
+    void retrieveData_shouldReadCsvDataFile() {
+        // Given
+        when(appProperties.dataFile()).thenReturn("test-transaction-data.csv");
+        SnapshotCsvDataLoader underTest = new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(dir.toString()));
+
+        // When & Then
+        assertThat(underTest.retrieveData()).extracting("vendor").containsExactly("Morrisons", "Shell Garage", "PureGym");
+    }
+}
@@ -0,0 +1,119 @@
+package com.profdev.bank.data;
+
+import com.profdev.bank.data.load.TransactionCsvTokenizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransactionCsvTokenizerTest {
+
+    @DisplayName("next should split records on line breaks and fields on commas")
+    @Test
+    void next_withPlainFields_shouldSplitRecordsAndFields() throws IOException {
+        // Given
+        String text = "01/Nov/2020,Morrisons,card,£10.40,Groceries\r\n05/Nov/2020,,card,£50,Vehicle\n";
+
+        // When
+        List<List<String>> actual = records(new TransactionCsvTokenizer(new StringReader(text)));
+
+        // Then
+        assertThat(actual).containsExactly(
+                List.of("01/Nov/2020", "Morrisons", "card", "£10.40", "Groceries"),
+                List.of("05/Nov/2020", "", "card", "£50", "Vehicle"));
+    }
+
+    @DisplayName("next should read quoted fields with embedded commas, escaped quotes and line breaks")
+    @Test
+    void next_withQuotedFields_shouldUnquoteThem() throws IOException {
+        // Given
+        String text = """
+                19/Nov/2021,"Jaskolski, Dickens and Ledner",card,"£1,024.05",Jewelry
+                19/Jun/2022,"The ""Corner"" Shop","direct
+                debit",£16.06,""
+                """;
+        TransactionCsvTokenizer tokenizer = new TransactionCsvTokenizer(new StringReader(text));
+
+        // When
+        List<List<String>> actual = records(tokenizer);
+
+        // Then
+        assertThat(actual).containsExactly(
+                List.of("19/Nov/2021", "Jaskolski, Dickens and Ledner", "card", "£1,024.05", "Jewelry"),
+                List.of("19/Jun/2022", "The \"Corner\" Shop", "direct\ndebit", "£16.06", ""));
+        assertThat(tokenizer.lineNumber()).isEqualTo(3);
+    }
+
+    @DisplayName("next should skip blank lines and read a last record without a line break")
+    @Test
+    void next_withBlankLinesAndNoTrailingLineBreak_shouldReadEveryRecord() throws IOException {
+        // Given
+        char[] text = "x\n\na,b\r\n\r\nc,d".toCharArray();
+
+        // When
+        List<List<String>> actual = records(new TransactionCsvTokenizer(text, 2, text.length - 2));
+
+        // Then
+        assertThat(actual).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @DisplayName("next should read fields across read buffer refills")
+    @Test
+    void next_withRecordsLongerThanReadBuffer_shouldReadEveryField() throws IOException {
+        // Given
+        String vendor = "\"" + "Vendor, \"\"Ltd\"\" ".repeat(10_000) + "\"";
+        String text = IntStream.range(0, 20).mapToObj(i -> i + "," + vendor + "\n").reduce("", String::concat);
+
+        // When
+        List<List<String>> actual = records(new TransactionCsvTokenizer(new StringReader(text)));
+
+        // Then
+        assertThat(actual).hasSize(20).allSatisfy(fields ->
+                assertThat(fields.get(1)).isEqualTo("Vendor, \"Ltd\" ".repeat(10_000)));
+        assertThat(actual.get(19).get(0)).isEqualTo("19");
+    }
+
+    @DisplayName("fieldChars should read a field in place")
+    @Test
+    void fieldChars_shouldReadFieldInPlace() throws IOException {
+        // Given
+        TransactionCsvTokenizer tokenizer = new TransactionCsvTokenizer(new StringReader("a,\"0\"\"1\",b"));
+        tokenizer.next();
+
+        // When
+        CharSequence actual = tokenizer.fieldChars(1);
+
+        // Then
+        assertThat(actual.length()).isEqualTo(3);
+        assertThat(actual.charAt(1)).isEqualTo('"');
+        assertThat(actual.toString()).isEqualTo("0\"1");
+        assertThat(tokenizer.isEmpty(1)).isFalse();
+    }
+
+    @DisplayName("next with an unterminated quoted field should throw an EOFException")
+    @Test
+    void next_withUnterminatedQuotedField_shouldThrowEofException() throws IOException {
+        // Given
+        TransactionCsvTokenizer tokenizer = new TransactionCsvTokenizer(new StringReader("a,b\nc,\"d\n"));
+        tokenizer.next();
+
+        // When & Then
+        assertThrows(EOFException.class, tokenizer::next);
+    }
+
+    private static List<List<String>> records(TransactionCsvTokenizer tokenizer) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        while (tokenizer.next()) {
+            records.add(IntStream.range(0, tokenizer.fieldCount()).mapToObj(tokenizer::field).toList());
+        }
+        return records;
+    }
+}
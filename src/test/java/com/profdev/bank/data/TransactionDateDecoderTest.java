@@ -0,0 +1,75 @@
+package com.profdev.bank.data;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionDateDecoderTest {
+
+    private final TransactionDateDecoder underTest = TransactionDateDecoder.forLocale(Locale.UK);
+
+    @DisplayName("decode should match the date formatter for every day it formats")
+    @ParameterizedTest
+    @ValueSource(strings = {"en_GB", "en_US", "fr_FR"})
+    void decode_shouldMatchFormatterForEveryDay(String locale) {
+        // Given
+        Locale dataLocale = Locale.forLanguageTag(locale.replace('_', '-'));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DataRecord.DATE_PATTERN, dataLocale);
+        TransactionDateDecoder decoder = TransactionDateDecoder.forLocale(dataLocale);
+
+        // When & Then
+        for (LocalDate date = LocalDate.of(2019, 1, 1); date.getYear() < 2026; date = date.plusDays(1)) {
+            String text = formatter.format(date);
+            assertThat(decoder.decode(text)).as(text).isEqualTo(date);
+            assertThat(decoder.epochDay(text)).as(text).isEqualTo(date.toEpochDay());
+        }
+    }
+
+    @DisplayName("decode should read a month name longer than three characters")
+    @Test
+    void decode_withLongMonthName_shouldReturnDate() {
+        // When
+        LocalDate actual = underTest.decode("07/Sept/2021");
+
+        // Then
+        assertThat(actual).isEqualTo(LocalDate.of(2021, 9, 7));
+    }
+
+    @DisplayName("decode should reject text the date formatter rejects")
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1/Nov/2020", "01/nov/2020", "01/Nov/20", "01-Nov-2020", "01/Nov/2020 ", "0a/Nov/2020",
+            "00/Nov/2020", "32/Jan/2020", "01/Nox/2020", "01/Sep/2021", "2020-11-01", "01/November/2020"})
+    void decode_withMalformedDate_shouldThrow(String text) {
+        // Given
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DataRecord.DATE_PATTERN, Locale.UK);
+
+        // When & Then
+        assertThatThrownBy(() -> LocalDate.parse(text, formatter)).isInstanceOf(DateTimeParseException.class);
+        assertThatThrownBy(() -> underTest.decode(text)).isInstanceOf(DateTimeParseException.class);
+        assertThat(underTest.tryEpochDay(text)).isEqualTo(TransactionDateDecoder.INVALID);
+    }
+
+    @DisplayName("decode should resolve a day past the end of its month as the date formatter does")
+    @ParameterizedTest
+    @ValueSource(strings = {"31/Feb/2021", "29/Feb/2021", "29/Feb/2024", "31/Apr/2022"})
+    void decode_withDayPastEndOfMonth_shouldMatchFormatter(String text) {
+        // Given
+        LocalDate expected = LocalDate.parse(text, DateTimeFormatter.ofPattern(DataRecord.DATE_PATTERN, Locale.UK));
+
+        // When
+        LocalDate actual = underTest.decode(text);
+
+        // Then
+        assertThat(actual).isEqualTo(expected);
+        assertThat(underTest.tryEpochDay(text)).isEqualTo(expected.toEpochDay());
+    }
+}
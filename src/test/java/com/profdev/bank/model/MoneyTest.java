@@ -0,0 +1,124 @@
+package com.profdev.bank.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    void parse_validInput_shouldRoundUp() {
+        // Given
+
+        // When
+        Money result = Money.parse("123.456", GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(12346, GBP));
+    }
+
+    @Test
+    void parse_validInput_shouldRoundUpHalf() {
+        // Given
+
+        // When
+        Money result = Money.parse("123.455", GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(12346, GBP));
+    }
+
+    @Test
+    void parse_validInput_shouldRoundDown() {
+        // Given
+
+        // When
+        Money result = Money.parse("123.453", GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(12345, GBP));
+    }
+
+    @Test
+    void parse_invalidInput_ThrowsNumberFormatException() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("invalid", GBP));
+    }
+
+    @Test
+    void parse_nullInput_ThrowsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> Money.parse(null, GBP));
+    }
+
+    @Test
+    void average_halfMinorUnit_shouldRoundUpHalf() {
+        // Given
+
+        // When
+        Money result = Money.average(1001, 2, GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(501, GBP));
+    }
+
+    @Test
+    void average_lessThanHalfMinorUnit_shouldRoundDown() {
+        // Given
+
+        // When
+        Money result = Money.average(1000, 3, GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(333, GBP));
+    }
+
+    @Test
+    void average_negativeHalfMinorUnit_shouldRoundAwayFromZero() {
+        // Given
+
+        // When
+        Money result = Money.average(-1001, 2, GBP);
+
+        // Then
+        assertThat(result).isEqualTo(Money.of(-501, GBP));
+    }
+
+    @Test
+    void average_noAmounts_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Money.average(0, 0, GBP));
+    }
+
+    @Test
+    void toString_shouldPrintTwoDecimalPlaces() {
+        assertThat(Money.of(123450, GBP)).hasToString("1234.50");
+        assertThat(Money.of(7, GBP)).hasToString("0.07");
+        assertThat(Money.of(-5, GBP)).hasToString("-0.05");
+        assertThat(Money.of(-1205, GBP)).hasToString("-12.05");
+        assertThat(Money.zero(GBP)).hasToString("0.00");
+    }
+
+    @Test
+    void plus_sameCurrency_shouldAddMinorUnits() {
+        assertThat(Money.of(1040, GBP).plus(Money.of(460, GBP))).isEqualTo(Money.of(1500, GBP));
+    }
+
+    @Test
+    void plus_differentCurrency_ThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> Money.of(1040, GBP).plus(Money.of(460, EUR)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compareTo_shouldOrderByMinorUnits() {
+        assertThat(Money.of(-1, GBP)).isLessThan(Money.zero(GBP));
+        assertThatThrownBy(() -> Money.of(1, GBP).compareTo(Money.of(1, EUR)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -2,8 +2,12 @@ package com.profdev.bank.model.mapper;
 
 import com.profdev.bank.config.AppProperties;
 import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.QuarantinedRow;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.model.Transaction;
 import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,9 +16,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.instancio.Select.field;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +29,8 @@ class TransactionMapperTest {
 
     private static final String CURRENCY_SYMBOL = "£";
 
+    private static final Currency GBP = Currency.getInstance("GBP");
+
     @Mock
     private AppProperties appProperties;
 
@@ -30,6 +39,7 @@ class TransactionMapperTest {
     @BeforeEach
     void setUp() {
         when(appProperties.currencySymbol()).thenReturn(CURRENCY_SYMBOL);
+        when(appProperties.currency()).thenReturn(GBP);
         underTest = new TransactionMapper(new TransactionAmountParser(appProperties));
     }
 
@@ -49,8 +59,86 @@ class TransactionMapperTest {
         assertThat(transaction.getDate()).isEqualTo(dataRecord.getTransactionDate());
         assertThat(transaction.getVendor()).isEqualTo(dataRecord.getVendor());
         assertThat(transaction.getType()).isEqualTo(dataRecord.getType());
-        assertThat(transaction.getMonetaryAmount()).isEqualTo(new BigDecimal(amount));
+        assertThat(transaction.getMonetaryAmount()).isEqualTo(Money.of(10000, GBP));
         assertThat(transaction.getAmount()).isEqualTo(CURRENCY_SYMBOL + amount);
         assertThat(transaction.getCategory()).isEqualTo(dataRecord.getCategory());
     }
-}
\ No newline at end of file
+
+    @DisplayName("mapIntoStore should add a row equal to the mapped TransactionBean when given a valid TransactionDataRecord")
+    @Test
+    void mapIntoStore_shouldAddRowEqualToMappedTransactionBean_whenGivenAValidTransactionDataRecord() {
+        // Given
+        DataRecord dataRecord = Instancio.create(DataRecord.class);
+        dataRecord.setAmount(CURRENCY_SYMBOL + "1,234.5");
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+
+        // When
+        underTest.mapIntoStore(dataRecord, builder);
+        ColumnarTransactionStore store = builder.build();
+
+        // Then
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.amount(0)).isEqualTo(123450);
+        assertThat(store.transaction(0)).isEqualTo(underTest.mapModelFromData(dataRecord));
+    }
+
+    @DisplayName("mapBatch should parse every record so appending matches mapIntoStore")
+    @Test
+    void mapBatch_shouldParseEveryRecord_soAppendingMatchesMapIntoStore() {
+        // Given
+        List<DataRecord> batch = Instancio.ofList(DataRecord.class)
+                .size(10)
+                .generate(field(DataRecord::getAmount), gen -> gen.ints().range(1, 10_000).as(i -> CURRENCY_SYMBOL + i))
+                .create();
+        ColumnarTransactionStore.Builder expected = ColumnarTransactionStore.builder(GBP);
+        batch.forEach(dataRecord -> underTest.mapIntoStore(dataRecord, expected));
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+
+        // When
+        MappedBatch mapped = underTest.mapBatch(batch);
+        mapped.appendTo(builder);
+
+        // Then
+        assertThat(mapped.size()).isEqualTo(10);
+        assertThat(builder.build().asList()).containsExactlyElementsOf(expected.build().asList());
+    }
+
+    @DisplayName("mapBatch with a quarantine should leave out and quarantine records with no date or a bad amount")
+    @Test
+    void mapBatch_withQuarantine_shouldQuarantineBadRecords() {
+        // Given
+        List<DataRecord> batch = Instancio.ofList(DataRecord.class)
+                .size(5)
+                .generate(field(DataRecord::getAmount), gen -> gen.ints().range(1, 10_000).as(i -> CURRENCY_SYMBOL + i))
+                .create();
+        batch.get(1).setAmount("£12a");
+        batch.get(1).setLineNumber(3);
+        batch.get(3).setTransactionDate(null);
+        batch.get(3).setLineNumber(5);
+        Quarantine quarantine = new Quarantine(10);
+
+        // When
+        MappedBatch mapped = underTest.mapBatch(batch, quarantine);
+
+        // Then
+        assertThat(mapped.records()).containsExactly(batch.get(0), batch.get(2), batch.get(4));
+        assertThat(mapped.amounts()).hasSize(3);
+        assertThat(mapped.epochDays()[2]).isEqualTo(batch.get(4).getTransactionDate().toEpochDay());
+        assertThat(quarantine.rows()).containsExactly(
+                new QuarantinedRow(3, "Invalid amount format: £12a"),
+                new QuarantinedRow(5, "Missing transaction date"));
+    }
+
+    @DisplayName("mapBatch without a quarantine should throw on a record with a bad amount")
+    @Test
+    void mapBatch_withoutQuarantine_shouldThrowOnBadAmount() {
+        // Given
+        DataRecord dataRecord = Instancio.create(DataRecord.class);
+        dataRecord.setAmount("");
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.mapBatch(List.of(dataRecord)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount cannot be null or empty");
+    }
+}
@@ -1,14 +1,18 @@
 package com.profdev.bank.model.parser;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.model.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.util.Currency;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,6 +23,8 @@ class TransactionAmountParserTest {
 
     private static final String CURRENCY_SYMBOL = "£";
 
+    private static final Currency GBP = Currency.getInstance("GBP");
+
     @Mock
     private AppProperties appProperties;
 
@@ -27,6 +33,7 @@ class TransactionAmountParserTest {
     @BeforeEach
     void setUp() {
         when(appProperties.currencySymbol()).thenReturn(CURRENCY_SYMBOL);
+        when(appProperties.currency()).thenReturn(GBP);
         underTest = new TransactionAmountParser(appProperties);
     }
 
@@ -35,10 +42,10 @@ class TransactionAmountParserTest {
     void parse_withValidAmountIncludingTwoDecimalPlaces_shouldReturnCorrectAmount() {
         // Given
         String amountString = CURRENCY_SYMBOL + "123.45";
-        BigDecimal expected = new BigDecimal("123.45");
+        Money expected = Money.of(12345, GBP);
 
         // When
-        BigDecimal actual = underTest.parse(amountString);
+        Money actual = underTest.parse(amountString);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -49,10 +56,10 @@ class TransactionAmountParserTest {
     void parse_withValidAmountIncludingOneDecimalPlace_shouldReturnCorrectAmount() {
         // Given
         String amountString = CURRENCY_SYMBOL + "123.4";
-        BigDecimal expected = new BigDecimal("123.40");
+        Money expected = Money.of(12340, GBP);
 
         // When
-        BigDecimal actual = underTest.parse(amountString);
+        Money actual = underTest.parse(amountString);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -63,10 +70,10 @@ class TransactionAmountParserTest {
     void parse_withValidAmountExcludingDecimalPlaces_shouldReturnCorrectAmount() {
         // Given
         String amountString = CURRENCY_SYMBOL + "123";
-        BigDecimal expected = new BigDecimal("123.00");
+        Money expected = Money.of(12300, GBP);
 
         // When
-        BigDecimal actual = underTest.parse(amountString);
+        Money actual = underTest.parse(amountString);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -77,10 +84,10 @@ class TransactionAmountParserTest {
     void parse_withValidAmountExcludingDecimalPlacesSingleDigit_shouldReturnCorrectAmount() {
         // Given
         String amountString = CURRENCY_SYMBOL + "7";
-        BigDecimal expected = new BigDecimal("7.00");
+        Money expected = Money.of(700, GBP);
 
         // When
-        BigDecimal actual = underTest.parse(amountString);
+        Money actual = underTest.parse(amountString);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -91,10 +98,10 @@ class TransactionAmountParserTest {
     void parse_withLargeAmount_shouldReturnCorrectAmount() {
         // Given
         String amountString = "£123,456,789.99";
-        BigDecimal expected = new BigDecimal("123456789.99");
+        Money expected = Money.of(12345678999L, GBP);
 
         // When
-        BigDecimal actual = underTest.parse(amountString);
+        Money actual = underTest.parse(amountString);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -153,4 +160,35 @@ class TransactionAmountParserTest {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> underTest.parse(amountString));
         assertThat(exception.getMessage()).isEqualTo("Invalid amount format: -£123.234");
     }
-}
\ No newline at end of file
+
+    @DisplayName("parseMinorUnits with valid amount should return amount in pence")
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {"£123.45|12345", "£123.4|12340", "£7|700", "£0.05|5", "£1,024.05|102405", "£123,456,789.99|12345678999"})
+    void parseMinorUnits_withValidAmount_shouldReturnAmountInPence(String amountString, long expected) {
+        // When
+        long actual = underTest.parseMinorUnits(amountString);
+
+        // Then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @DisplayName("parseMinorUnits with invalid amount should throw exception")
+    @ParameterizedTest
+    @ValueSource(strings = {"£", "£.50", "£12.", "£12.3.4", "£1234567890", "£12a", "$12.00", "£ 12", "£12.34 "})
+    void parseMinorUnits_withInvalidAmount_shouldThrowException(String amountString) {
+        // When & Then
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> underTest.parseMinorUnits(amountString));
+        assertThat(exception.getMessage()).isEqualTo("Invalid amount format: " + amountString);
+    }
+
+    @DisplayName("tryParseMinorUnits with invalid amount should return INVALID without throwing")
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "£", "£.50", "£12.", "£1234567890", "£12a", "$12.00", "£12.34 "})
+    void tryParseMinorUnits_withInvalidAmount_shouldReturnInvalid(String amountString) {
+        // When
+        long actual = underTest.tryParseMinorUnits(amountString);
+
+        // Then
+        assertThat(actual).isEqualTo(TransactionAmountParser.INVALID);
+    }
+}
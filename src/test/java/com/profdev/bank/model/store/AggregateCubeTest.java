@@ -0,0 +1,191 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.utils.EpochDays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateCubeTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private int groceries;
+
+    private int vehicle;
+
+    private AggregateCube underTest;
+
+    @BeforeEach
+    void setUp() {
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2020, 11, 1), "Morrisons", "card", "£10.40", 1040, "Groceries")
+                .add(EpochDays.of(2020, 11, 2), "Tesco", "card", "£25.31", 2531, "Groceries")
+                .add(EpochDays.of(2020, 11, 5), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(EpochDays.of(2022, 11, 9), "Aldi", "card", "£4.99", 499, "Groceries")
+                .add(EpochDays.of(2022, 1, 3), "Tesco", "card", "£12", 1200, "Groceries")
+                .build();
+        groceries = store.categories().idOf("Groceries");
+        vehicle = store.categories().idOf("Vehicle");
+        underTest = AggregateCube.of(store);
+    }
+
+    @DisplayName("cells should hold the sum, count, minimum and maximum of their rows")
+    @Test
+    void cell_shouldHoldAggregatesOfItsRows() {
+        // When
+        int cell = underTest.cell(groceries, 2020, 11);
+
+        // Then
+        assertThat(underTest.sum(cell)).isEqualTo(3571);
+        assertThat(underTest.count(cell)).isEqualTo(2);
+        assertThat(underTest.minimum(cell)).isEqualTo(1040);
+        assertThat(underTest.maximum(cell)).isEqualTo(2531);
+    }
+
+    @DisplayName("category, month and year roll ups should combine the matching cells")
+    @Test
+    void rollUps_shouldCombineMatchingCells() {
+        // When & Then
+        assertThat(underTest.total(groceries)).isEqualTo(5270);
+        assertThat(underTest.total(vehicle)).isEqualTo(5000);
+        assertThat(underTest.monthSum(groceries, 11)).isEqualTo(4070);
+        assertThat(underTest.monthCount(groceries, 11)).isEqualTo(3);
+        assertThat(underTest.yearCount(groceries, 2022)).isEqualTo(2);
+        assertThat(underTest.yearMinimum(groceries, 2022)).isEqualTo(499);
+        assertThat(underTest.yearMaximum(groceries, 2022)).isEqualTo(1200);
+        assertThat(underTest.yearCount(vehicle, 2021)).isZero();
+    }
+
+    @DisplayName("contains should only accept known categories within the loaded years")
+    @Test
+    void contains_shouldOnlyAcceptKnownCategoriesWithinLoadedYears() {
+        // When & Then
+        assertThat(underTest.contains(groceries, 2020)).isTrue();
+        assertThat(underTest.contains(vehicle, 2022)).isTrue();
+        assertThat(underTest.contains(groceries, 2019)).isFalse();
+        assertThat(underTest.contains(groceries, 2023)).isFalse();
+        assertThat(underTest.contains(StringDictionary.NOT_FOUND, 2020)).isFalse();
+    }
+
+    @DisplayName("append should add new rows, categories and years to a copy of the cells")
+    @Test
+    void append_shouldAddNewRowsToCopyOfCells() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2021, 5, 1), "Morrisons", "card", "£10", 1000, "Groceries");
+        AggregateCube cube = AggregateCube.of(builder.snapshot());
+        builder.add(EpochDays.of(2021, 5, 9), "Tesco", "card", "£3", 300, "Groceries")
+                .add(EpochDays.of(2019, 2, 1), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(EpochDays.of(2023, 5, 1), "Aldi", "card", "£7", 700, "Groceries");
+        ColumnarTransactionStore store = builder.snapshot();
+        int groceries = store.categories().idOf("Groceries");
+        int vehicle = store.categories().idOf("Vehicle");
+
+        // When
+        AggregateCube actual = cube.append(store, 1);
+
+        // Then
+        int cell = actual.cell(groceries, 2021, 5);
+        assertThat(actual.sum(cell)).isEqualTo(1300);
+        assertThat(actual.count(cell)).isEqualTo(2);
+        assertThat(actual.minimum(cell)).isEqualTo(300);
+        assertThat(actual.maximum(cell)).isEqualTo(1000);
+        assertThat(actual.total(groceries)).isEqualTo(2000);
+        assertThat(actual.total(vehicle)).isEqualTo(5000);
+        assertThat(actual.contains(vehicle, 2019)).isTrue();
+        assertThat(actual.monthSum(groceries, 5)).isEqualTo(AggregateCube.of(store).monthSum(groceries, 5));
+        assertThat(cube.total(groceries)).isEqualTo(1000);
+        assertThat(cube.contains(groceries, 2019)).isFalse();
+    }
+
+    @DisplayName("year sketches should count a category's amounts per year and be copied rather than changed on append")
+    @Test
+    void yearSketch_shouldCountAmountsPerYearAndBeCopiedOnAppend() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2021, 5, 1), "Morrisons", "card", "£10", 1000, "Groceries")
+                .add(EpochDays.of(2022, 5, 1), "Tesco", "card", "£2", 200, "Groceries");
+        AggregateCube cube = AggregateCube.of(builder.snapshot());
+        builder.add(EpochDays.of(2021, 7, 9), "Tesco", "card", "£3", 300, "Groceries");
+        ColumnarTransactionStore store = builder.snapshot();
+        int groceries = store.categories().idOf("Groceries");
+
+        // When
+        AggregateCube actual = cube.append(store, 2);
+
+        // Then
+        assertThat(actual.yearSketch(groceries, 2021).count()).isEqualTo(2);
+        assertThat(actual.yearSketch(groceries, 2021).quantile(0)).isEqualTo(300);
+        assertThat(actual.yearSketch(groceries, 2022)).isSameAs(cube.yearSketch(groceries, 2022));
+        assertThat(cube.yearSketch(groceries, 2021).count()).isOne();
+    }
+
+    @DisplayName("append to a large cube should answer from the main cells and the delta together until compacted")
+    @Test
+    void append_toLargeCube_shouldAnswerFromMainCellsAndDelta() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        for (int i = 0; i < 64; i++) {
+            builder.add(EpochDays.of(2021, 5, 1), "Morrisons", "card", "£10", 1000 + i, "Groceries");
+        }
+        AggregateCube cube = AggregateCube.of(builder.snapshot());
+        builder.add(EpochDays.of(2021, 5, 9), "Tesco", "card", "£3", 300, "Groceries")
+                .add(EpochDays.of(2022, 1, 3), "PureGym", "direct debit", "£38.50", 3850, "Health");
+        ColumnarTransactionStore store = builder.snapshot();
+        int groceries = store.categories().idOf("Groceries");
+        int health = store.categories().idOf("Health");
+        AggregateCube expected = AggregateCube.of(store);
+
+        // When
+        AggregateCube actual = cube.append(store, 64);
+
+        // Then
+        assertThat(actual.sum(actual.cell(groceries, 2021, 5))).isEqualTo(cube.sum(cube.cell(groceries, 2021, 5)));
+        assertThat(actual.categoryCount()).isEqualTo(2);
+        assertThat(actual.contains(health, 2022)).isTrue();
+        assertThat(actual.contains(groceries, 2022)).isTrue();
+        for (int categoryId : new int[] {groceries, health}) {
+            assertThat(actual.total(categoryId)).isEqualTo(expected.total(categoryId));
+            assertThat(actual.monthSum(categoryId, 5)).isEqualTo(expected.monthSum(categoryId, 5));
+            assertThat(actual.monthCount(categoryId, 1)).isEqualTo(expected.monthCount(categoryId, 1));
+            for (int year : new int[] {2021, 2022}) {
+                assertThat(actual.yearCount(categoryId, year)).isEqualTo(expected.yearCount(categoryId, year));
+                assertThat(actual.yearMinimum(categoryId, year)).isEqualTo(expected.yearMinimum(categoryId, year));
+                assertThat(actual.yearMaximum(categoryId, year)).isEqualTo(expected.yearMaximum(categoryId, year));
+            }
+        }
+        assertThat(actual.yearSketch(groceries, 2021).count()).isEqualTo(65);
+        assertThat(actual.yearSketch(groceries, 2021).quantile(0)).isEqualTo(300);
+        assertThat(actual.yearSketch(health, 2021)).isNull();
+        assertThat(cube.yearSketch(groceries, 2021).count()).isEqualTo(64);
+    }
+
+    @DisplayName("a cube with outlier years should only hold cells for the years that have rows")
+    @Test
+    void of_withOutlierYears_shouldOnlyHoldYearsWithRows() {
+        // Given
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(1, 1, 1), "Morrisons", "card", "£1", 100, "Groceries")
+                .add(EpochDays.of(2020, 11, 1), "Tesco", "card", "£2", 200, "Groceries")
+                .add(EpochDays.of(9999, 12, 31), "Aldi", "card", "£4", 400, "Groceries")
+                .build();
+        int groceries = store.categories().idOf("Groceries");
+
+        // When
+        AggregateCube actual = AggregateCube.of(store);
+
+        // Then
+        assertThat(actual.contains(groceries, 1)).isTrue();
+        assertThat(actual.contains(groceries, 9999)).isTrue();
+        assertThat(actual.contains(groceries, 5000)).isFalse();
+        assertThat(actual.yearCount(groceries, 5000)).isZero();
+        assertThat(actual.total(groceries)).isEqualTo(700);
+        assertThat(actual.monthSum(groceries, 12)).isEqualTo(400);
+        assertThat(actual.yearMaximum(groceries, 1)).isEqualTo(100);
+        assertThat(actual.sum(actual.cell(groceries, 9999, 12))).isEqualTo(400);
+    }
+}
@@ -0,0 +1,115 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.utils.EpochDays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmountKernelTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final List<String> CATEGORIES = List.of("Groceries", "Vehicle", "Health", "Home");
+
+    private static final int FROM_DAY = EpochDays.of(2021, 1, 1);
+
+    private static final int TO_DAY = EpochDays.of(2023, 12, 31);
+
+    private final List<AmountKernel> kernels = List.of(new ScalarAmountKernel(), new VectorAmountKernel());
+
+    @DisplayName("summarize should match a plain filter over the rows for every kernel, including rows past a vector")
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 8, 17, 1000, 1027})
+    void summarize_shouldMatchPlainFilterOverRows(int rows) {
+        // Given
+        ColumnarTransactionStore store = store(rows, new Random(rows));
+        int groceries = store.categories().idOf("Groceries");
+
+        for (AmountKernel kernel : kernels) {
+            // When
+            AmountSummary all = kernel.summarize(store, FROM_DAY, TO_DAY);
+            AmountSummary category = kernel.summarize(store, groceries, FROM_DAY, TO_DAY);
+
+            // Then
+            assertThat(all).as("%s kernel", kernel).isEqualTo(expected(store, -1));
+            assertThat(category).as("%s kernel", kernel).isEqualTo(expected(store, groceries));
+        }
+    }
+
+    @DisplayName("summarize over a range with no rows should return the empty summary")
+    @Test
+    void summarize_withNoRowsInRange_shouldReturnEmptySummary() {
+        // Given
+        ColumnarTransactionStore store = store(100, new Random(1));
+
+        // When & Then
+        for (AmountKernel kernel : kernels) {
+            assertThat(kernel.summarize(store, EpochDays.of(1990, 1, 1), EpochDays.of(1990, 12, 31)))
+                    .isEqualTo(AmountSummary.EMPTY);
+        }
+    }
+
+    @DisplayName("summarize through the date and category indexes should match a plain filter over the rows for "
+            + "every kernel, including rows past a vector")
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 8, 17, 1000, 1027})
+    void summarize_throughIndexes_shouldMatchPlainFilterOverRows(int rows) {
+        // Given
+        ColumnarTransactionStore store = store(rows, new Random(rows));
+        DateIndex dateIndex = DateIndex.of(store);
+        int groceries = store.categories().idOf("Groceries");
+        int[] groceryRows = CategoryIndex.of(store).rows(groceries);
+
+        for (AmountKernel kernel : kernels) {
+            // When
+            AmountSummary all = kernel.summarize(store, dateIndex.rows(), dateIndex.firstOnOrAfter(FROM_DAY),
+                    dateIndex.firstOnOrAfter(TO_DAY + 1));
+            AmountSummary category = kernel.summarize(store, groceryRows,
+                    DateIndex.firstOnOrAfter(store, groceryRows, FROM_DAY),
+                    DateIndex.firstOnOrAfter(store, groceryRows, TO_DAY + 1));
+
+            // Then
+            assertThat(all).as("%s kernel", kernel).isEqualTo(expected(store, -1));
+            assertThat(category).as("%s kernel", kernel).isEqualTo(expected(store, groceries));
+        }
+    }
+
+    @DisplayName("preferred should pick the vector kernel when the Vector API module is present")
+    @Test
+    void preferred_withVectorModule_shouldPickVectorKernel() {
+        // When
+        AmountKernel actual = AmountKernel.preferred();
+
+        // Then
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertThat(actual).isInstanceOf(vectorModule && VectorAmountKernel.isSupported()
+                ? VectorAmountKernel.class
+                : ScalarAmountKernel.class);
+    }
+
+    private static ColumnarTransactionStore store(int rows, Random random) {
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        for (int row = 0; row < rows; row++) {
+            long amount = random.nextLong(-10_000, 1_000_000);
+            builder.add(EpochDays.of(2020 + random.nextInt(5), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    "Vendor", "card", "£" + amount, amount, CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+        }
+        return builder.build();
+    }
+
+    private static AmountSummary expected(ColumnarTransactionStore store, int categoryId) {
+        return IntStream.range(0, store.size())
+                .filter(row -> store.epochDay(row) >= FROM_DAY && store.epochDay(row) <= TO_DAY)
+                .filter(row -> categoryId < 0 || store.categoryId(row) == categoryId)
+                .mapToObj(row -> new AmountSummary(store.amount(row), 1, store.amount(row), store.amount(row)))
+                .reduce(AmountSummary.EMPTY, AmountSummary::plus);
+    }
+}
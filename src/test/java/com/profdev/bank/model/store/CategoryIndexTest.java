@@ -0,0 +1,128 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryIndexTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private ColumnarTransactionStore store;
+
+    private CategoryIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        store = ColumnarTransactionStore.builder(GBP)
+                .add(epochDay(2021, 3, 1), "Tesco", "card", "£1", 100, "Groceries")
+                .add(epochDay(2020, 11, 5), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(epochDay(2020, 1, 2), "Morrisons", "card", "£2", 200, "Groceries")
+                .add(epochDay(2021, 3, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .build();
+        underTest = CategoryIndex.of(store);
+    }
+
+    @DisplayName("rows should return the rows of a category in ascending date order, keeping source order for equal dates")
+    @Test
+    void rows_shouldReturnCategoryRowsInAscendingDateOrder() {
+        // When
+        int[] rows = underTest.rows(store.categories().idOf("Groceries"));
+
+        // Then
+        assertThat(rows).containsExactly(2, 0, 3);
+    }
+
+    @DisplayName("rows with an unknown category should return no rows")
+    @Test
+    void rows_withUnknownCategory_shouldReturnNoRows() {
+        // When
+        int[] rows = underTest.rows(store.categories().idOf("Health"));
+
+        // Then
+        assertThat(rows).isEmpty();
+    }
+
+    @DisplayName("asList over reversed rows should walk the category in descending date order")
+    @Test
+    void asList_withReversedRows_shouldWalkInDescendingDateOrder() {
+        // When
+        List<Transaction> transactions = store.asList(underTest.rows(store.categories().idOf("Groceries")), true);
+
+        // Then
+        assertThat(transactions)
+                .extracting("vendor")
+                .containsExactly("Aldi", "Tesco", "Morrisons");
+    }
+
+    @DisplayName("append to a large index should keep the new rows in a delta level until it outgrows it")
+    @Test
+    void append_toLargeIndex_shouldKeepNewRowsInDeltaUntilCompacted() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        for (int i = 0; i < 64; i++) {
+            builder.add(epochDay(2020, 1, 1) + i, "Tesco", "card", "£1", 100, i % 2 == 0 ? "Groceries" : "Vehicle");
+        }
+        CategoryIndex index = CategoryIndex.of(builder.snapshot());
+        builder.add(epochDay(2020, 3, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .add(epochDay(2020, 1, 1), "PureGym", "direct debit", "£38.50", 3850, "Health");
+        ColumnarTransactionStore appended = builder.snapshot();
+        for (int i = 0; i < 8; i++) {
+            builder.add(epochDay(2020, 2, 1), "Aldi", "card", "£3", 300, "Groceries");
+        }
+        ColumnarTransactionStore outgrown = builder.snapshot();
+        int groceries = outgrown.categories().idOf("Groceries");
+        int health = outgrown.categories().idOf("Health");
+
+        // When
+        CategoryIndex withDelta = index.append(appended, 64);
+        CategoryIndex compacted = withDelta.append(outgrown, 66);
+
+        // Then
+        assertThat(withDelta.levels()).hasSize(2);
+        assertThat(withDelta.levels().get(0).rows(groceries)).isSameAs(index.rows(groceries));
+        assertThat(withDelta.levels().get(0).rows(health)).isEmpty();
+        assertThat(withDelta.levels().get(1).rows(groceries)).containsExactly(64);
+        assertThat(withDelta.levels().get(1).rows(health)).containsExactly(65);
+        assertThat(compacted.levels()).hasSize(1);
+        assertThat(compacted.rows(groceries)).containsExactly(CategoryIndex.of(outgrown).rows(groceries));
+        assertThat(compacted.rows(health)).containsExactly(65);
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        return Math.toIntExact(LocalDate.of(year, month, day).toEpochDay());
+    }
+
+    @DisplayName("append should merge new rows, including new categories, into the date order of the existing rows")
+    @Test
+    void append_shouldMergeNewRowsIntoDateOrder() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(epochDay(2021, 3, 1), "Tesco", "card", "£1", 100, "Groceries")
+                .add(epochDay(2020, 1, 2), "Morrisons", "card", "£2", 200, "Groceries");
+        CategoryIndex index = CategoryIndex.of(builder.snapshot());
+        builder.add(epochDay(2020, 6, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .add(epochDay(2020, 11, 5), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(epochDay(2021, 3, 1), "Lidl", "card", "£4", 400, "Groceries");
+        ColumnarTransactionStore appended = builder.snapshot();
+
+        // When
+        CategoryIndex actual = index.append(appended, 2);
+
+        // Then
+        CategoryIndex rebuilt = CategoryIndex.of(appended);
+        int groceries = appended.categories().idOf("Groceries");
+        int vehicle = appended.categories().idOf("Vehicle");
+        assertThat(actual.rows(groceries)).containsExactly(1, 2, 0, 4).containsExactly(rebuilt.rows(groceries));
+        assertThat(actual.rows(vehicle)).containsExactly(3);
+        assertThat(index.rows(groceries)).containsExactly(1, 0);
+        assertThat(index.rows(vehicle)).isEmpty();
+    }
+}
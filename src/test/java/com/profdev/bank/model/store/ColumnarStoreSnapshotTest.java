@@ -0,0 +1,245 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.QuarantinedRow;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.utils.EpochDays;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.instancio.Select.field;
+
+class ColumnarStoreSnapshotTest {
+
+    private static final long CHECKSUM = 0x1234_5678_9abcL;
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    @TempDir
+    private Path dir;
+
+    @DisplayName("read of a written snapshot should return a store with the same rows and dictionaries")
+    @Test
+    void read_ofWrittenSnapshot_shouldReturnSameStore() throws IOException {
+        // Given
+        List<Transaction> expected = Instancio.ofList(Transaction.class)
+                .size(5_000)
+                .supply(field(Transaction::getMonetaryAmount), () -> Money.of(ThreadLocalRandom.current().nextLong(1, 100_000), GBP))
+                .create();
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        expected.forEach(builder::add);
+        builder.add(EpochDays.of(2020, 11, 1), "Café Nero", "card", "£3.20", 320, null);
+        ColumnarTransactionStore store = builder.build();
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(store, file, CHECKSUM);
+
+        // When
+        Optional<ColumnarTransactionStore> read = ColumnarStoreSnapshot.read(file, CHECKSUM, GBP);
+
+        // Then
+        assertThat(read).isPresent();
+        ColumnarTransactionStore actual = read.get();
+        assertThat(actual.size()).isEqualTo(store.size());
+        assertThat(actual.asList()).containsExactlyElementsOf(store.asList());
+        assertThat(actual.categories().size()).isEqualTo(store.categories().size());
+        assertThat(actual.vendors().idOf("Café Nero")).isEqualTo(store.vendors().idOf("Café Nero"));
+        assertThat(actual.transaction(expected.size()).getCategory()).isNull();
+    }
+
+    @DisplayName("read with a different source checksum should return empty")
+    @Test
+    void read_withDifferentChecksum_shouldReturnEmpty() throws IOException {
+        // Given
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM);
+
+        // When
+        Optional<ColumnarTransactionStore> read = ColumnarStoreSnapshot.read(file, CHECKSUM + 1, GBP);
+
+        // Then
+        assertThat(read).isEmpty();
+    }
+
+    @DisplayName("read in a different currency should return empty")
+    @Test
+    void read_inDifferentCurrency_shouldReturnEmpty() throws IOException {
+        // Given
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM);
+
+        // When
+        Optional<ColumnarTransactionStore> read = ColumnarStoreSnapshot.read(file, CHECKSUM, Currency.getInstance("EUR"));
+
+        // Then
+        assertThat(read).isEmpty();
+    }
+
+    @DisplayName("read in lenient mode should add the rows the parse quarantined back to the quarantine")
+    @Test
+    void read_inLenientMode_shouldRestoreQuarantine() throws IOException {
+        // Given
+        Quarantine parsed = new Quarantine(2);
+        parsed.add(7, "Invalid date: 31/Feb/2020");
+        parsed.add(3, "Expected 5 fields but found 4");
+        parsed.add(9, "Invalid amount: £1,2,3");
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM, parsed);
+        Quarantine quarantine = new Quarantine(2);
+
+        // When
+        Optional<ColumnarTransactionStore> read = ColumnarStoreSnapshot.read(file, CHECKSUM, GBP, quarantine);
+
+        // Then
+        assertThat(read).isPresent();
+        assertThat(read.get().asList()).containsExactlyElementsOf(smallStore().asList());
+        assertThat(quarantine.count()).isEqualTo(3);
+        assertThat(quarantine.rows()).containsExactly(new QuarantinedRow(3, "Expected 5 fields but found 4"),
+                new QuarantinedRow(7, "Invalid date: 31/Feb/2020"));
+    }
+
+    @DisplayName("read in the other ingest mode than the snapshot was written in should return empty")
+    @Test
+    void read_inOtherIngestMode_shouldReturnEmpty() throws IOException {
+        // Given
+        Path strictFile = dir.resolve("strict.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), strictFile, CHECKSUM);
+        Path lenientFile = dir.resolve("lenient.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), lenientFile, CHECKSUM, new Quarantine(10));
+        Quarantine quarantine = new Quarantine(10);
+
+        // When
+        Optional<ColumnarTransactionStore> strictReadLeniently =
+                ColumnarStoreSnapshot.read(strictFile, CHECKSUM, GBP, quarantine);
+        Optional<ColumnarTransactionStore> lenientReadStrictly = ColumnarStoreSnapshot.read(lenientFile, CHECKSUM, GBP);
+
+        // Then
+        assertThat(strictReadLeniently).isEmpty();
+        assertThat(lenientReadStrictly).isEmpty();
+        assertThat(quarantine.count()).isZero();
+    }
+
+    @DisplayName("read of a missing snapshot should return empty")
+    @Test
+    void read_ofMissingSnapshot_shouldReturnEmpty() throws IOException {
+        // When
+        Optional<ColumnarTransactionStore> read = ColumnarStoreSnapshot.read(dir.resolve("missing.snapshot"), CHECKSUM, GBP);
+
+        // Then
+        assertThat(read).isEmpty();
+    }
+
+    @DisplayName("read of a truncated snapshot should throw an IOException")
+    @Test
+    void read_ofTruncatedSnapshot_shouldThrowIOException() throws IOException {
+        // Given
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        // When & Then
+        assertThatThrownBy(() -> ColumnarStoreSnapshot.read(file, CHECKSUM, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Truncated transaction snapshot");
+    }
+
+    @DisplayName("read of a snapshot with a corrupt byte should throw an IOException before using it")
+    @Test
+    void read_ofCorruptSnapshot_shouldThrowIOException() throws IOException {
+        // Given
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - Integer.BYTES] ^= 0x01;
+        Files.write(file, bytes);
+
+        // When & Then
+        assertThatThrownBy(() -> ColumnarStoreSnapshot.read(file, CHECKSUM, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Corrupt transaction snapshot, its checksum does not match");
+    }
+
+    @DisplayName("read of a snapshot with an id outside its dictionary should throw an IOException")
+    @Test
+    void read_withIdOutsideDictionary_shouldThrowIOException() throws IOException {
+        // Given
+        ColumnarTransactionStore store = smallStore();
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(new ColumnarTransactionStore(GBP, "£", 2, new int[]{1, 2}, new long[]{1040, 5000},
+                new int[]{0, 1}, new int[]{0, store.vendors().size()}, new int[]{0, 0}, store.categories(),
+                store.vendors(), store.types(), ColumnarTransactionStore.AmountTexts.NONE), file, CHECKSUM);
+
+        // When & Then
+        assertThatThrownBy(() -> ColumnarStoreSnapshot.read(file, CHECKSUM, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Corrupt transaction snapshot, it has ids outside its dictionaries");
+    }
+
+    @DisplayName("read of a snapshot with amount text rows out of order should throw an IOException")
+    @Test
+    void read_withAmountTextRowsOutOfOrder_shouldThrowIOException() throws IOException {
+        // Given
+        ColumnarTransactionStore store = smallStore();
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(new ColumnarTransactionStore(GBP, "£", 2, new int[]{1, 2}, new long[]{1040, 5000},
+                new int[]{0, 1}, new int[]{0, 1}, new int[]{0, 0}, store.categories(), store.vendors(),
+                store.types(), new ColumnarTransactionStore.AmountTexts(new int[]{1, 0}, new String[]{"£50.00", "10.4"},
+                        2)), file, CHECKSUM);
+
+        // When & Then
+        assertThatThrownBy(() -> ColumnarStoreSnapshot.read(file, CHECKSUM, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Corrupt transaction snapshot, its amount text rows are out of order");
+    }
+
+    @DisplayName("read of a file that is not a snapshot should throw an IOException")
+    @Test
+    void read_ofOtherFile_shouldThrowIOException() throws IOException {
+        // Given
+        Path file = Files.writeString(dir.resolve("transactions.csv.snapshot"), "Transaction Date,Vendor,Type,Amount,Category\n");
+
+        // When & Then
+        assertThatThrownBy(() -> ColumnarStoreSnapshot.read(file, CHECKSUM, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Not a transaction snapshot");
+    }
+
+    @DisplayName("write over an existing snapshot should replace it and leave no temporary files behind")
+    @Test
+    void write_overExistingSnapshot_shouldReplaceIt() throws IOException {
+        // Given
+        Path file = dir.resolve("transactions.csv.snapshot");
+        ColumnarStoreSnapshot.write(smallStore(), file, CHECKSUM);
+
+        // When
+        ColumnarStoreSnapshot.write(ColumnarTransactionStore.builder(GBP).build(), file, CHECKSUM + 1);
+
+        // Then
+        assertThat(ColumnarStoreSnapshot.read(file, CHECKSUM + 1, GBP)).hasValueSatisfying(store -> assertThat(store.size()).isZero());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    private static ColumnarTransactionStore smallStore() {
+        return ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2020, 11, 1), "Morrisons", "card", "£10.40", 1040, "Groceries")
+                .add(EpochDays.of(2020, 11, 5), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .build();
+    }
+}
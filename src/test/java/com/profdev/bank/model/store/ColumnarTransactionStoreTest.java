@@ -0,0 +1,176 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.utils.EpochDays;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.instancio.Select.field;
+
+class ColumnarTransactionStoreTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final List<String> CATEGORIES = List.of("Groceries", "Utilities", "Transport");
+
+    @DisplayName("asList should return the transactions added to the builder in order")
+    @Test
+    void asList_shouldReturnAddedTransactionsInOrder() {
+        // Given
+        List<Transaction> expected = getTransactions(50);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        expected.forEach(builder::add);
+
+        // When
+        ColumnarTransactionStore store = builder.build();
+
+        // Then
+        assertThat(store.size()).isEqualTo(expected.size());
+        assertThat(store.asList()).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("columns should hold epoch days, minor units and dictionary encoded categories")
+    @Test
+    void columns_shouldHoldEncodedValues() {
+        // Given
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder(GBP)
+                .add(Math.toIntExact(LocalDate.of(2020, 11, 1).toEpochDay()), "Morrisons", "card", "£10.40", 1040, "Groceries")
+                .add(Math.toIntExact(LocalDate.of(2020, 11, 5).toEpochDay()), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(Math.toIntExact(LocalDate.of(2020, 11, 2).toEpochDay()), "Tesco", "card", "£25.31", 2531, "Groceries")
+                .build();
+
+        // When & Then
+        assertThat(store.epochDay(1)).isEqualTo(LocalDate.of(2020, 11, 5).toEpochDay());
+        assertThat(store.amount(2)).isEqualTo(2531);
+        assertThat(store.categories().size()).isEqualTo(2);
+        assertThat(store.categoryId(0)).isEqualTo(store.categoryId(2));
+        assertThat(store.categories().idOf("Vehicle")).isEqualTo(store.categoryId(1));
+        assertThat(store.categories().idOf("Health")).isEqualTo(StringDictionary.NOT_FOUND);
+        assertThat(store.transaction(1).getAmount()).isEqualTo("£50");
+        assertThat(store.transaction(1).getMonetaryAmount()).isEqualTo(Money.of(5000, GBP));
+    }
+
+    @DisplayName("amountText should rebuild texts in the plain format and keep only the ones written differently")
+    @Test
+    void amountText_shouldKeepOnlyTextsThatDifferFromRebuiltOnes() {
+        // Given
+        int day = Math.toIntExact(LocalDate.of(2020, 11, 1).toEpochDay());
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP, "£")
+                .add(day, "Morrisons", "card", "£10.40", 1040, "Groceries")
+                .add(day, "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(day, "Tesco", "card", "£0.05", 5, "Groceries");
+        ColumnarTransactionStore snapshot = builder.snapshot();
+
+        // When
+        ColumnarTransactionStore store = builder
+                .add(day, "Weber, Bruen and Hansen", "card", "£1,024.05", 102_405, "Industrial")
+                .add(day, "PureGym", "direct debit", "£38.50", 3850, "Health")
+                .build();
+
+        // Then
+        assertThat(store.asList()).extracting(Transaction::getAmount)
+                .containsExactly("£10.40", "£50", "£0.05", "£1,024.05", "£38.50");
+        assertThat(store.amountTexts().count).isEqualTo(2);
+        assertThat(store.amountTexts().rows).containsExactly(1, 3);
+        assertThat(snapshot.asList()).extracting(Transaction::getAmount).containsExactly("£10.40", "£50", "£0.05");
+        assertThat(ColumnarTransactionStore.builder(GBP, "GBP ").addAll(store).build().asList())
+                .extracting(Transaction::getAmount)
+                .containsExactly("£10.40", "£50", "£0.05", "£1,024.05", "£38.50");
+    }
+
+    @DisplayName("heapBytes should be smaller per row than the equivalent bean list")
+    @Test
+    void heapBytes_shouldBeSmallerThanBeanList() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        getTransactions(10_000).forEach(builder::add);
+
+        // When
+        ColumnarTransactionStore store = builder.build();
+
+        // Then
+        assertThat(store.heapBytes()).isLessThan(store.beanListHeapBytes());
+    }
+
+    private List<Transaction> getTransactions(int numTransactions) {
+        return Instancio.ofList(Transaction.class)
+                .size(numTransactions)
+                .supply(field(Transaction::getCategory), () -> CATEGORIES.get(ThreadLocalRandom.current().nextInt(CATEGORIES.size())))
+                .supply(field(Transaction::getType), () -> ThreadLocalRandom.current().nextBoolean() ? "card" : "internet")
+                .supply(field(Transaction::getMonetaryAmount), () -> Money.of(ThreadLocalRandom.current().nextLong(1, 100_000), GBP))
+                .create();
+    }
+
+    @DisplayName("snapshot should keep its rows and categories while the builder keeps adding")
+    @Test
+    void snapshot_shouldNotSeeRowsAddedAfterIt() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2020, 11, 1), "Morrisons", "card", "£10.40", 1040, "Groceries");
+        ColumnarTransactionStore snapshot = builder.snapshot();
+
+        // When
+        for (int i = 0; i < 2000; i++) {
+            builder.add(EpochDays.of(2020, 11, 2), "Shell Garage", "card", "£50", 5000, "Vehicle");
+        }
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.categories().size()).isEqualTo(1);
+        assertThat(snapshot.categories().idOf("Vehicle")).isEqualTo(StringDictionary.NOT_FOUND);
+        assertThat(snapshot.asList()).extracting("vendor").containsExactly("Morrisons");
+        assertThat(builder.snapshot().size()).isEqualTo(2001);
+        assertThat(builder.snapshot().categories().idOf("Vehicle")).isEqualTo(1);
+    }
+
+    @DisplayName("snapshot should reuse the previous dictionary snapshot when no new values were interned")
+    @Test
+    void snapshot_withoutNewValues_shouldShareDictionaries() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(EpochDays.of(2020, 11, 1), "Morrisons", "card", "£10.40", 1040, "Groceries");
+        ColumnarTransactionStore first = builder.snapshot();
+
+        // When
+        builder.add(EpochDays.of(2020, 11, 2), "Morrisons", "card", "£5", 500, "Groceries");
+        ColumnarTransactionStore second = builder.snapshot();
+
+        // Then
+        assertThat(second.categories()).isSameAs(first.categories());
+        assertThat(second.vendors().idOf("Morrisons")).isZero();
+        assertThat(second.vendors().idOf(null)).isEqualTo(StringDictionary.NOT_FOUND);
+    }
+
+    @DisplayName("toBuilder should start from the store's rows and ids and leave the store unchanged as it adds more")
+    @Test
+    void toBuilder_shouldExtendStoreWithoutChangingIt() {
+        // Given
+        int day = EpochDays.of(2020, 11, 1);
+        ColumnarTransactionStore store = ColumnarTransactionStore.builder(GBP, "£")
+                .add(day, "Morrisons", "card", "£10.40", 1040, "Groceries")
+                .add(day, "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .build();
+
+        // When
+        ColumnarTransactionStore extended = store.toBuilder()
+                .add(day, "Tesco", "card", "£1,024.05", 102_405, "Groceries")
+                .add(day, "PureGym", "direct debit", "£38.50", 3850, "Health")
+                .build();
+
+        // Then
+        assertThat(store.asList()).extracting(Transaction::getVendor).containsExactly("Morrisons", "Shell Garage");
+        assertThat(store.categories().idOf("Health")).isEqualTo(StringDictionary.NOT_FOUND);
+        assertThat(extended.asList()).extracting(Transaction::getAmount)
+                .containsExactly("£10.40", "£50", "£1,024.05", "£38.50");
+        assertThat(extended.categories().idOf("Vehicle")).isEqualTo(store.categories().idOf("Vehicle"));
+        assertThat(extended.categories().idOf("Health")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,118 @@
+package com.profdev.bank.model.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateIndexTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private ColumnarTransactionStore store;
+
+    private DateIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        store = ColumnarTransactionStore.builder(GBP)
+                .add(epochDay(2021, 3, 1), "Tesco", "card", "£1", 100, "Groceries")
+                .add(epochDay(2020, 11, 5), "Shell Garage", "card", "£50", 5000, "Vehicle")
+                .add(epochDay(2020, 1, 2), "Morrisons", "card", "£2", 200, "Groceries")
+                .add(epochDay(2021, 3, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .build();
+        underTest = DateIndex.of(store);
+    }
+
+    @DisplayName("rows should return every row in ascending date order, keeping source order for equal dates")
+    @Test
+    void rows_shouldReturnRowsInAscendingDateOrder() {
+        // When
+        int[] rows = underTest.rows();
+
+        // Then
+        assertThat(rows).containsExactly(2, 1, 0, 3);
+    }
+
+    @DisplayName("firstOnOrAfter should return the position of the first row on or after the day")
+    @Test
+    void firstOnOrAfter_shouldReturnPositionOfFirstRowOnOrAfterDay() {
+        // When & Then
+        assertThat(underTest.firstOnOrAfter(epochDay(2019, 1, 1))).isZero();
+        assertThat(underTest.firstOnOrAfter(epochDay(2020, 1, 2))).isZero();
+        assertThat(underTest.firstOnOrAfter(epochDay(2020, 1, 3))).isEqualTo(1);
+        assertThat(underTest.firstOnOrAfter(epochDay(2021, 3, 1))).isEqualTo(2);
+        assertThat(underTest.firstOnOrAfter(epochDay(2021, 3, 2))).isEqualTo(4);
+    }
+
+    @DisplayName("firstOnOrAfter over category rows should search the rows by their dates in the store")
+    @Test
+    void firstOnOrAfter_overCategoryRows_shouldSearchByStoreDates() {
+        // Given
+        int[] groceries = CategoryIndex.of(store).rows(store.categories().idOf("Groceries"));
+
+        // When & Then
+        assertThat(DateIndex.firstOnOrAfter(store, groceries, epochDay(2020, 1, 2))).isZero();
+        assertThat(DateIndex.firstOnOrAfter(store, groceries, epochDay(2020, 6, 1))).isEqualTo(1);
+        assertThat(DateIndex.firstOnOrAfter(store, groceries, epochDay(2022, 1, 1))).isEqualTo(3);
+    }
+
+    @DisplayName("append should merge new rows into the date order of the existing rows")
+    @Test
+    void append_shouldMergeNewRowsIntoDateOrder() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP)
+                .add(epochDay(2021, 3, 1), "Tesco", "card", "£1", 100, "Groceries")
+                .add(epochDay(2020, 1, 2), "Morrisons", "card", "£2", 200, "Groceries");
+        DateIndex index = DateIndex.of(builder.snapshot());
+        builder.add(epochDay(2020, 6, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .add(epochDay(2021, 3, 1), "Lidl", "card", "£4", 400, "Groceries");
+        ColumnarTransactionStore appended = builder.snapshot();
+
+        // When
+        DateIndex actual = index.append(appended, 2);
+
+        // Then
+        assertThat(actual.rows()).containsExactly(1, 2, 0, 3).containsExactly(DateIndex.of(appended).rows());
+        assertThat(actual.firstOnOrAfter(epochDay(2021, 3, 1))).isEqualTo(2);
+        assertThat(index.rows()).containsExactly(1, 0);
+    }
+
+    @DisplayName("append to a large index should keep the new rows in a delta level until it outgrows it")
+    @Test
+    void append_toLargeIndex_shouldKeepNewRowsInDeltaUntilCompacted() {
+        // Given
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        for (int i = 0; i < 64; i++) {
+            builder.add(epochDay(2020, 1, 1) + i, "Tesco", "card", "£1", 100, "Groceries");
+        }
+        DateIndex index = DateIndex.of(builder.snapshot());
+        builder.add(epochDay(2020, 3, 1), "Aldi", "card", "£3", 300, "Groceries")
+                .add(epochDay(2020, 1, 1), "Lidl", "card", "£4", 400, "Groceries");
+        ColumnarTransactionStore appended = builder.snapshot();
+        for (int i = 0; i < 8; i++) {
+            builder.add(epochDay(2020, 2, 1), "Aldi", "card", "£3", 300, "Groceries");
+        }
+        ColumnarTransactionStore outgrown = builder.snapshot();
+
+        // When
+        DateIndex withDelta = index.append(appended, 64);
+        DateIndex compacted = withDelta.append(outgrown, 66);
+
+        // Then
+        assertThat(withDelta.levels()).hasSize(2);
+        assertThat(withDelta.levels().get(0).rows()).isSameAs(index.rows());
+        assertThat(withDelta.levels().get(1).rows()).containsExactly(65, 64);
+        assertThat(withDelta.levels().get(1).firstOnOrAfter(epochDay(2020, 1, 2))).isOne();
+        assertThat(compacted.levels()).hasSize(1);
+        assertThat(compacted.rows()).containsExactly(DateIndex.of(outgrown).rows());
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        return Math.toIntExact(LocalDate.of(year, month, day).toEpochDay());
+    }
+}
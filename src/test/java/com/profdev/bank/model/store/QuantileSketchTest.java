@@ -0,0 +1,120 @@
+package com.profdev.bank.model.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    @DisplayName("quantile should be within the relative accuracy of the exact quantile")
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 0.5, 0.9, 0.99, 1})
+    void quantile_shouldBeWithinRelativeAccuracyOfExactQuantile(double q) {
+        // Given
+        long[] amounts = new Random(42).longs(10_000, -50_000, 5_000_000).toArray();
+        QuantileSketch underTest = new QuantileSketch();
+        Arrays.stream(amounts).forEach(underTest::add);
+        Arrays.sort(amounts);
+        long expected = amounts[(int) (q * (amounts.length - 1))];
+
+        // When
+        long actual = underTest.quantile(q);
+
+        // Then
+        double error = Math.abs(expected) * QuantileSketch.RELATIVE_ACCURACY + 1;
+        assertThat((double) actual).isCloseTo(expected, within(error));
+    }
+
+    @DisplayName("quantile should return the exact minimum and maximum at the extremes")
+    @Test
+    void quantile_atExtremes_shouldReturnExactMinimumAndMaximum() {
+        // Given
+        QuantileSketch underTest = new QuantileSketch();
+        underTest.add(-1234);
+        underTest.add(0);
+        underTest.add(98765);
+
+        // When & Then
+        assertThat(underTest.quantile(0)).isEqualTo(-1234);
+        assertThat(underTest.quantile(0.5)).isZero();
+        assertThat(underTest.quantile(1)).isEqualTo(98765);
+        assertThat(underTest.count()).isEqualTo(3);
+    }
+
+    @DisplayName("merge should give the same quantiles as one sketch of all the amounts, leaving the other unchanged")
+    @Test
+    void merge_shouldEqualOneSketchOfAllAmounts() {
+        // Given
+        Random random = new Random(7);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < 5_000; i++) {
+            long amount = random.nextLong(1, 1_000_000);
+            all.add(amount);
+            (i % 3 == 0 ? first : second).add(amount);
+        }
+        long secondCount = second.count();
+
+        // When
+        first.merge(second);
+
+        // Then
+        assertThat(first.count()).isEqualTo(all.count());
+        for (double q : new double[]{0, 0.25, 0.5, 0.9, 0.99, 1}) {
+            assertThat(first.quantile(q)).isEqualTo(all.quantile(q));
+        }
+        assertThat(second.count()).isEqualTo(secondCount);
+    }
+
+    @DisplayName("a sketch spanning more magnitudes than its buckets should keep the largest amounts accurate")
+    @Test
+    void add_beyondMaxBuckets_shouldKeepLargestAmountsAccurate() {
+        // Given
+        QuantileSketch underTest = new QuantileSketch();
+        for (long amount = 1; amount < Long.MAX_VALUE / 2; amount *= 2) {
+            underTest.add(amount);
+        }
+        long top = 1L << 61;
+        underTest.add(top);
+
+        // When
+        long actual = underTest.quantile(1);
+
+        // Then
+        assertThat(actual).isEqualTo(top);
+        double expected = 1L << 55;
+        assertThat((double) underTest.quantile(0.9)).isCloseTo(expected, within(expected * 0.01));
+    }
+
+    @DisplayName("copy should be independent of the original")
+    @Test
+    void copy_shouldBeIndependentOfOriginal() {
+        // Given
+        QuantileSketch underTest = new QuantileSketch();
+        underTest.add(100);
+
+        // When
+        QuantileSketch copy = underTest.copy();
+        copy.add(500);
+
+        // Then
+        assertThat(underTest.count()).isOne();
+        assertThat(underTest.quantile(1)).isEqualTo(100);
+        assertThat(copy.quantile(1)).isEqualTo(500);
+    }
+
+    @DisplayName("quantile of an empty sketch should throw")
+    @Test
+    void quantile_ofEmptySketch_shouldThrow() {
+        assertThatThrownBy(() -> new QuantileSketch().quantile(0.5)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,32 @@
+package com.profdev.bank.model.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringDictionaryTest {
+
+    @DisplayName("intern of characters should share ids with equal strings and only keep a string for new values")
+    @Test
+    void intern_ofCharacters_shouldShareIdsWithEqualStrings() {
+        // Given
+        StringDictionary underTest = new StringDictionary();
+        int tesco = underTest.intern("Tesco");
+        StringBuilder chars = new StringBuilder();
+
+        // When
+        int[] ids = IntStream.range(0, 100)
+                .map(i -> underTest.intern(chars.replace(0, chars.length(), "Vendor " + i % 40)))
+                .toArray();
+        int tescoFromChars = underTest.intern(chars.replace(0, chars.length(), "Tesco"));
+
+        // Then
+        assertThat(tescoFromChars).isEqualTo(tesco);
+        assertThat(underTest.size()).isEqualTo(41);
+        assertThat(ids[79]).isEqualTo(ids[39]).isEqualTo(underTest.idOf("Vendor 39"));
+        assertThat(underTest.get(ids[5])).isEqualTo("Vendor 5");
+    }
+}
@@ -0,0 +1,225 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.instancio.Select.field;
+
+class TransactionLogTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    @TempDir
+    private Path dir;
+
+    @DisplayName("replay of committed appends should add their rows in commit order")
+    @Test
+    void replay_ofCommittedAppends_shouldAddRowsInOrder() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        List<Transaction> first = transactions(1_000);
+        List<Transaction> second = List.of(transaction("Café Nero", "£3.20", 320));
+        try (TransactionLog log = replayed(file)) {
+            log.append(first);
+            log.append(second);
+            log.commit();
+        }
+
+        // When
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        TransactionLog.Replay replay;
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            replay = log.replay(builder);
+        }
+
+        // Then
+        List<Transaction> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertThat(replay).isEqualTo(new TransactionLog.Replay(2, 1_001, 0));
+        assertThat(builder.build().asList()).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("replay should leave out appends that were never committed")
+    @Test
+    void replay_withUncommittedAppend_shouldLeaveItOut() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        try (TransactionLog log = replayed(file)) {
+            log.append(List.of(transaction("Tesco", "£1", 100)));
+            log.commit();
+            log.append(List.of(transaction("Aldi", "£2", 200)));
+        }
+
+        // When
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            log.replay(builder);
+        }
+
+        // Then
+        assertThat(builder.build().asList()).extracting(Transaction::getVendor).containsExactly("Tesco");
+    }
+
+    @DisplayName("replay of a log with a torn last record should keep the complete records and cut off the rest")
+    @Test
+    void replay_withTornLastRecord_shouldCutItOff() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        try (TransactionLog log = replayed(file)) {
+            log.append(List.of(transaction("Tesco", "£1", 100)));
+            log.commit();
+            log.append(List.of(transaction("Aldi", "£2", 200)));
+            log.commit();
+        }
+        long complete = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(complete - 3);
+        }
+
+        // When
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            TransactionLog.Replay replay = log.replay(builder);
+            log.append(List.of(transaction("Lidl", "£3", 300)));
+            log.commit();
+
+            // Then
+            assertThat(replay.records()).isOne();
+            assertThat(replay.discardedBytes()).isPositive();
+        }
+        ColumnarTransactionStore.Builder reread = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            log.replay(reread);
+        }
+        assertThat(builder.build().asList()).extracting(Transaction::getVendor).containsExactly("Tesco");
+        assertThat(reread.build().asList()).extracting(Transaction::getVendor).containsExactly("Tesco", "Lidl");
+    }
+
+    @DisplayName("replay should stop at a record whose checksum does not match")
+    @Test
+    void replay_withCorruptRecord_shouldStopThere() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        long firstEnd;
+        try (TransactionLog log = replayed(file)) {
+            log.append(List.of(transaction("Tesco", "£1", 100)));
+            log.commit();
+            firstEnd = log.size();
+            log.append(List.of(transaction("Aldi", "£2", 200)));
+            log.commit();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(file, bytes);
+
+        // When
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            log.replay(builder);
+        }
+
+        // Then
+        assertThat(builder.build().asList()).extracting(Transaction::getVendor).containsExactly("Tesco");
+        assertThat(Files.size(file)).isEqualTo(firstEnd);
+    }
+
+    @DisplayName("open of a log written in another currency should fail rather than misread its amounts")
+    @Test
+    void open_withOtherCurrency_shouldFail() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        replayed(file).close();
+
+        // When & Then
+        assertThatThrownBy(() -> TransactionLog.open(file, Currency.getInstance("EUR")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("holds GBP amounts, not EUR");
+    }
+
+    @DisplayName("open of a file that is not a transaction log should fail")
+    @Test
+    void open_ofOtherFile_shouldFail() throws IOException {
+        // Given
+        Path file = Files.writeString(dir.resolve("12345678.wal"), "Transaction Date,Vendor,Type,Amount,Category\n");
+
+        // When & Then
+        assertThatThrownBy(() -> TransactionLog.open(file, GBP))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Not a transaction log");
+    }
+
+    @DisplayName("append of a transaction in another currency should fail and add nothing to the log")
+    @Test
+    void append_withOtherCurrency_shouldAddNothing() throws IOException {
+        // Given
+        Path file = dir.resolve("12345678.wal");
+        Transaction euros = transaction("Carrefour", "€5", 500);
+        euros.setMonetaryAmount(Money.of(500, Currency.getInstance("EUR")));
+
+        // When
+        try (TransactionLog log = replayed(file)) {
+            assertThatThrownBy(() -> log.append(List.of(transaction("Tesco", "£1", 100), euros)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            log.append(List.of(transaction("Aldi", "£2", 200)));
+            log.commit();
+        }
+
+        // Then
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            assertThat(log.replay(builder).records()).isOne();
+        }
+        assertThat(builder.build().asList()).extracting(Transaction::getVendor).containsExactly("Aldi");
+    }
+
+    @DisplayName("append before the log has been replayed should fail")
+    @Test
+    void append_beforeReplay_shouldFail() throws IOException {
+        try (TransactionLog log = TransactionLog.open(dir.resolve("12345678.wal"), GBP)) {
+            assertThatThrownBy(() -> log.append(List.of(transaction("Tesco", "£1", 100))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static TransactionLog replayed(Path file) throws IOException {
+        TransactionLog log = TransactionLog.open(file, GBP);
+        log.replay(ColumnarTransactionStore.builder(GBP));
+        return log;
+    }
+
+    private static List<Transaction> transactions(int count) {
+        return Instancio.ofList(Transaction.class)
+                .size(count)
+                .supply(field(Transaction::getMonetaryAmount),
+                        () -> Money.of(ThreadLocalRandom.current().nextLong(1, 100_000), GBP))
+                .create();
+    }
+
+    private static Transaction transaction(String vendor, String amount, long minorUnits) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.of(2020, 12, 1));
+        transaction.setVendor(vendor);
+        transaction.setType("card");
+        transaction.setAmount(amount);
+        transaction.setMonetaryAmount(Money.of(minorUnits, GBP));
+        transaction.setCategory("Groceries");
+        return transaction;
+    }
+}
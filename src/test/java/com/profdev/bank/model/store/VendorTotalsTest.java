@@ -0,0 +1,106 @@
+package com.profdev.bank.model.store;
+
+import com.profdev.bank.model.sort.VendorRanking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VendorTotalsTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private ColumnarTransactionStore store;
+
+    private VendorTotals underTest;
+
+    @BeforeEach
+    void setUp() {
+        store = ColumnarTransactionStore.builder(GBP)
+                .add(1, "Tesco", "card", "£1", 100, "Groceries")
+                .add(2, "Morrisons", "card", "£9", 900, "Groceries")
+                .add(3, "Tesco", "card", "£2", 200, "Groceries")
+                .add(4, "Aldi", "card", "£3", 300, "Groceries")
+                .add(5, "Lidl", "card", "£3", 300, "Groceries")
+                .add(6, "Tesco", "card", "£3", 300, "Groceries")
+                .build();
+        underTest = VendorTotals.of(store, IntStream.range(0, store.size()).toArray(), 0, store.size());
+    }
+
+    @DisplayName("of should add up the spend and count of each vendor in the given range of rows")
+    @Test
+    void of_shouldAddUpSpendAndCountPerVendor() {
+        // When
+        VendorTotals actual = VendorTotals.of(store, new int[]{5, 0, 1, 2}, 1, 4);
+
+        // Then
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.vendor(0)).isEqualTo("Tesco");
+        assertThat(actual.sum(0)).isEqualTo(300);
+        assertThat(actual.count(0)).isEqualTo(2);
+        assertThat(actual.vendor(1)).isEqualTo("Morrisons");
+        assertThat(actual.sum(1)).isEqualTo(900);
+        assertThat(actual.count(1)).isOne();
+    }
+
+    @DisplayName("top by spend should rank by total spend, then count, then vendor name")
+    @Test
+    void top_bySpend_shouldRankBySpendThenCountThenName() {
+        // When
+        int[] actual = underTest.top(VendorRanking.SPEND, 4);
+
+        // Then
+        assertThat(vendors(underTest, actual)).containsExactly("Morrisons", "Tesco", "Aldi", "Lidl");
+    }
+
+    @DisplayName("top by count should rank by transaction count, then spend")
+    @Test
+    void top_byCount_shouldRankByCountThenSpend() {
+        // When
+        int[] actual = underTest.top(VendorRanking.COUNT, 2);
+
+        // Then
+        assertThat(vendors(underTest, actual)).containsExactly("Tesco", "Morrisons");
+    }
+
+    @DisplayName("top with a limit above the number of vendors should return every vendor")
+    @Test
+    void top_withLimitAboveSize_shouldReturnEveryVendor() {
+        // When
+        int[] actual = underTest.top(VendorRanking.SPEND, 100);
+
+        // Then
+        assertThat(vendors(underTest, actual)).containsExactly("Morrisons", "Tesco", "Aldi", "Lidl");
+    }
+
+    @DisplayName("merge should add up totals of the same vendor name across stores")
+    @Test
+    void merge_shouldAddUpTotalsByVendorName() {
+        // Given
+        ColumnarTransactionStore other = ColumnarTransactionStore.builder(GBP)
+                .add(1, "Aldi", "card", "£8", 800, "Groceries")
+                .add(2, "Co-op", "card", "£1", 100, "Groceries")
+                .build();
+        VendorTotals otherTotals = VendorTotals.of(other, new int[]{0, 1}, 0, 2);
+
+        // When
+        VendorTotals actual = VendorTotals.merge(List.of(underTest, otherTotals));
+
+        // Then
+        int[] top = actual.top(VendorRanking.SPEND, 2);
+        assertThat(vendors(actual, top)).containsExactly("Aldi", "Morrisons");
+        assertThat(actual.sum(top[0])).isEqualTo(1100);
+        assertThat(actual.count(top[0])).isEqualTo(2);
+        assertThat(actual.size()).isEqualTo(5);
+    }
+
+    private static String[] vendors(VendorTotals totals, int[] slots) {
+        return Arrays.stream(slots).mapToObj(totals::vendor).toArray(String[]::new);
+    }
+}
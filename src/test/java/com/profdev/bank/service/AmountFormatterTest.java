@@ -1,13 +1,16 @@
 package com.profdev.bank.service;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.model.Money;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
@@ -31,8 +34,8 @@ class AmountFormatterTest {
     @Test
     void format_withValidAmount_shouldFormatCorrectly() {
         // Given
-        BigDecimal amount = new BigDecimal("1234.56");
-        String expected = CURRENCY_SYMBOL + amount;
+        Money amount = Money.of(123456, Currency.getInstance("GBP"));
+        String expected = CURRENCY_SYMBOL + "1234.56";
 
         // When
         String actual = formatter.format(amount);
@@ -40,4 +43,22 @@ class AmountFormatterTest {
         // Then
         assertThat(actual).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @DisplayName("formatSpend with no spend should render zero without decimal places")
+    @Test
+    void formatSpend_withNoSpend_shouldRenderBareZero() {
+        // When & Then
+        assertThat(formatter.formatSpend(Optional.empty())).isEqualTo(CURRENCY_SYMBOL + "0");
+    }
+
+    @DisplayName("formatSpend with a spend, even of zero, should render it with decimal places")
+    @Test
+    void formatSpend_withSpend_shouldRenderDecimalPlaces() {
+        // Given
+        Currency gbp = Currency.getInstance("GBP");
+
+        // When & Then
+        assertThat(formatter.formatSpend(Optional.of(Money.zero(gbp)))).isEqualTo(CURRENCY_SYMBOL + "0.00");
+        assertThat(formatter.formatSpend(Optional.of(Money.of(5, gbp)))).isEqualTo(CURRENCY_SYMBOL + "0.05");
+    }
+}
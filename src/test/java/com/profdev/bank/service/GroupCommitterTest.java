@@ -0,0 +1,149 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.TransactionLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitterTest {
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    @TempDir
+    private Path dir;
+
+    private SimpleMeterRegistry registry;
+
+    private Path file;
+
+    private List<List<Transaction>> published;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        file = dir.resolve("12345678.wal");
+        published = new ArrayList<>();
+    }
+
+    @DisplayName("submit while a commit is in progress should queue the appends and commit them together in one sync")
+    @Test
+    void submit_whileCommitInProgress_shouldCommitQueuedAppendsTogether() throws Exception {
+        // Given
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GroupCommitter underTest = new GroupCommitter(replayedLog(), rows -> {
+            publishing.countDown();
+            await(release);
+            return publish(rows);
+        }, new IngestMetrics(registry));
+        CompletableFuture<TransactionDataset> first = underTest.submit(List.of(transaction("Tesco")));
+        assertThat(publishing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        List<CompletableFuture<TransactionDataset>> queued = IntStream.range(0, 50)
+                .mapToObj(i -> underTest.submit(List.of(transaction("Vendor " + i))))
+                .toList();
+        release.countDown();
+        CompletableFuture.allOf(queued.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        underTest.close();
+
+        // Then
+        assertThat(first).isDone();
+        assertThat(published).hasSize(2);
+        assertThat(published.get(1)).hasSize(50);
+        assertThat(registry.get("banking.ingest.log.commit").timer().count()).isEqualTo(2);
+        assertThat(registry.get("banking.ingest.log.commit.appends").summary().totalAmount()).isEqualTo(51);
+        ColumnarTransactionStore.Builder replayed = ColumnarTransactionStore.builder(GBP);
+        try (TransactionLog log = TransactionLog.open(file, GBP)) {
+            assertThat(log.replay(replayed).records()).isEqualTo(51);
+        }
+    }
+
+    @DisplayName("submit of an append the log rejects should fail only that append")
+    @Test
+    void submit_withRejectedAppend_shouldFailOnlyThatAppend() throws Exception {
+        // Given
+        GroupCommitter underTest = new GroupCommitter(replayedLog(), this::publish, IngestMetrics.NONE);
+        Transaction euros = transaction("Carrefour");
+        euros.setMonetaryAmount(Money.of(500, Currency.getInstance("EUR")));
+
+        // When
+        CompletableFuture<TransactionDataset> rejected = underTest.submit(List.of(euros));
+        CompletableFuture<TransactionDataset> accepted = underTest.submit(List.of(transaction("Tesco")));
+
+        // Then
+        assertThat(accepted.get(5, TimeUnit.SECONDS).store().size()).isOne();
+        assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        underTest.close();
+    }
+
+    @DisplayName("submit after close should fail with ingest unavailable")
+    @Test
+    void submit_afterClose_shouldFail() throws IOException {
+        // Given
+        GroupCommitter underTest = new GroupCommitter(replayedLog(), this::publish, IngestMetrics.NONE);
+        underTest.close();
+
+        // When
+        CompletableFuture<TransactionDataset> actual = underTest.submit(List.of(transaction("Tesco")));
+
+        // Then
+        assertThatThrownBy(actual::join).hasCauseInstanceOf(IngestUnavailableException.class);
+    }
+
+    private TransactionLog replayedLog() throws IOException {
+        TransactionLog log = TransactionLog.open(file, GBP);
+        log.replay(ColumnarTransactionStore.builder(GBP));
+        return log;
+    }
+
+    private TransactionDataset publish(List<Transaction> rows) {
+        published.add(rows);
+        ColumnarTransactionStore.Builder builder = ColumnarTransactionStore.builder(GBP);
+        rows.forEach(builder::add);
+        return TransactionDataset.of(builder.build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Transaction transaction(String vendor) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.of(2020, 12, 1));
+        transaction.setVendor(vendor);
+        transaction.setType("card");
+        transaction.setAmount("£5");
+        transaction.setMonetaryAmount(Money.of(500, GBP));
+        transaction.setCategory("Groceries");
+        return transaction;
+    }
+}
@@ -0,0 +1,85 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.model.Money;
+import com.profdev.bank.service.result.TotalPerCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Currency;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredTransactionServiceTest {
+
+    private static final String ACCOUNT = "12345678";
+
+    @Mock
+    private TransactionServiceImpl delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MeteredTransactionService underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new MeteredTransactionService(delegate, meterRegistry);
+    }
+
+    @DisplayName("a query should return the delegate's result and be timed under its name")
+    @Test
+    void query_shouldReturnResultAndBeTimed() {
+        // Given
+        Money highest = Money.of(5000, Currency.getInstance("GBP"));
+        when(delegate.getHighestSpendForCategoryAndYear("Vehicle", 2020, ACCOUNT)).thenReturn(highest);
+
+        // When
+        Money actual = underTest.getHighestSpendForCategoryAndYear("Vehicle", 2020, ACCOUNT);
+
+        // Then
+        assertThat(actual).isEqualTo(highest);
+        assertThat(queryTimerCount("getHighestSpendForCategoryAndYear")).isOne();
+        assertThat(queryTimerCount("getLowestSpendForCategoryAndYear")).isZero();
+    }
+
+    @DisplayName("a query that throws should still be timed")
+    @Test
+    void query_thatThrows_shouldStillBeTimed() {
+        // Given
+        when(delegate.getTotalPerCategory(ACCOUNT)).thenThrow(new UnknownAccountException(ACCOUNT));
+
+        // When
+        assertThatThrownBy(() -> underTest.getTotalPerCategory(ACCOUNT)).isInstanceOf(UnknownAccountException.class);
+
+        // Then
+        assertThat(queryTimerCount("getTotalPerCategory")).isOne();
+    }
+
+    @DisplayName("a query without an account should be timed like one with an account")
+    @Test
+    void query_withoutAccount_shouldBeTimed() {
+        // Given
+        List<TotalPerCategory> totals = List.of();
+        when(delegate.getTotalPerCategory(null)).thenReturn(totals);
+
+        // When
+        List<TotalPerCategory> actual = underTest.getTotalPerCategory();
+
+        // Then
+        assertThat(actual).isSameAs(totals);
+        assertThat(queryTimerCount("getTotalPerCategory")).isOne();
+    }
+
+    private long queryTimerCount(String query) {
+        return meterRegistry.get("banking.query").tag("query", query).timer().count();
+    }
+}
@@ -0,0 +1,510 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.SnapshotProperties;
+import com.profdev.bank.config.WatchProperties;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.data.load.MappedCsvDataLoader;
+import com.profdev.bank.data.load.SnapshotCsvDataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.StringDictionary;
+import com.profdev.bank.model.store.TransactionDataset;
+import com.profdev.bank.model.store.TransactionLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionDatasetHolderTest {
+
+    private static final String CURRENCY_SYMBOL = "£";
+
+    @Mock
+    private AppProperties appProperties;
+
+    @TempDir
+    private Path dir;
+
+    private Path dataFile;
+
+    private TransactionMapper mapper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(appProperties.currencySymbol()).thenReturn(CURRENCY_SYMBOL);
+        when(appProperties.currency()).thenReturn(Currency.getInstance("GBP"));
+        mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        dataFile = Files.writeString(dir.resolve("transactions.csv"), """
+                Transaction Date,Vendor,Type,Amount,Category
+                01/Nov/2020,Morrisons,card,£10.40,Groceries
+                05/Nov/2020,Shell Garage,card,£50,Vehicle
+                """);
+        when(appProperties.dataFile()).thenReturn(dataFile.toString());
+    }
+
+    @DisplayName("refresh in watch mode should publish a new snapshot with the appended rows and leave the old one intact")
+    @Test
+    void refresh_inWatchMode_shouldPublishSnapshotWithAppendedRows() throws IOException {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(true, Duration.ofSeconds(1)));
+        TransactionDataset before = underTest.dataset();
+        Files.writeString(dataFile, """
+                02/Nov/2020,Tesco,card,£4.60,Groceries
+                06/Dec/2021,PureGym,direct debit,£38.50,Health
+                """, StandardOpenOption.APPEND);
+
+        // When
+        int appended = underTest.refresh();
+
+        // Then
+        TransactionDataset after = underTest.dataset();
+        int groceries = after.store().categories().idOf("Groceries");
+        int health = after.store().categories().idOf("Health");
+        assertThat(appended).isEqualTo(2);
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.store().size()).isEqualTo(4);
+        assertThat(after.store().asList(after.categoryIndex().rows(groceries), false))
+                .extracting("vendor")
+                .containsExactly("Morrisons", "Tesco");
+        assertThat(after.cube().total(groceries)).isEqualTo(1500);
+        assertThat(after.cube().yearCount(health, 2021)).isEqualTo(1);
+        assertThat(before.store().size()).isEqualTo(2);
+        assertThat(before.store().categories().idOf("Health")).isEqualTo(StringDictionary.NOT_FOUND);
+        assertThat(before.cube().total(groceries)).isEqualTo(1040);
+    }
+
+    @DisplayName("refresh with nothing appended should keep the current snapshot")
+    @Test
+    void refresh_withNothingAppended_shouldKeepCurrentSnapshot() {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(true, Duration.ofSeconds(1)));
+        TransactionDataset before = underTest.dataset();
+
+        // When
+        int appended = underTest.refresh();
+
+        // Then
+        assertThat(appended).isZero();
+        assertThat(underTest.dataset()).isSameAs(before);
+    }
+
+    @DisplayName("refresh with watch mode disabled should not read the data file again")
+    @Test
+    void refresh_withWatchModeDisabled_shouldNotReadAgain() throws IOException {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+        TransactionDataset before = underTest.dataset();
+        Files.writeString(dataFile, "02/Nov/2020,Tesco,card,£4.60,Groceries\n", StandardOpenOption.APPEND);
+
+        // When
+        int appended = underTest.refresh();
+
+        // Then
+        assertThat(appended).isZero();
+        assertThat(underTest.dataset()).isSameAs(before);
+        assertThat(underTest.isTailing()).isFalse();
+    }
+
+    @DisplayName("dataset while warm-up is pending should report not ready instead of loading on the calling thread")
+    @Test
+    void dataset_whileWarmingUp_shouldThrowNotReady() {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+        List<Runnable> pending = new ArrayList<>();
+
+        // When
+        CompletableFuture<TransactionDataset> warmUp = underTest.warmUp(pending::add);
+
+        // Then
+        assertThatThrownBy(underTest::dataset)
+                .isInstanceOf(DatasetNotReadyException.class)
+                .hasMessage("Transaction data is still loading");
+        assertThat(underTest.currentDataset()).isNull();
+        assertThat(underTest.loadDuration()).isNull();
+        assertThat(warmUp).isNotDone();
+        pending.forEach(Runnable::run);
+        assertThat(underTest.dataset()).isSameAs(warmUp.join());
+    }
+
+    @DisplayName("dataset after warm-up completed should return the published snapshot and expose the load duration")
+    @Test
+    void dataset_afterWarmUp_shouldReturnPublishedSnapshot() {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+
+        // When
+        TransactionDataset loaded = underTest.warmUp(Runnable::run).join();
+
+        // Then
+        assertThat(underTest.dataset()).isSameAs(loaded);
+        assertThat(loaded.store().size()).isEqualTo(2);
+        assertThat(underTest.loadDuration()).isNotNull();
+        assertThat(underTest.loadFailure()).isNull();
+    }
+
+    @DisplayName("dataset after warm-up failed should report the load failure")
+    @Test
+    void dataset_afterWarmUpFailed_shouldReportLoadFailure() {
+        // Given
+        when(appProperties.dataFile()).thenReturn(dir.resolve("missing.csv").toString());
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+
+        try {
+            // When
+            CompletableFuture<TransactionDataset> warmUp = underTest.warmUp(Runnable::run);
+
+            // Then
+            assertThat(warmUp).isCompletedExceptionally();
+            assertThat(underTest.loadFailure()).isNotNull();
+            assertThatThrownBy(underTest::dataset)
+                    .isInstanceOf(DatasetNotReadyException.class)
+                    .hasMessage("Transaction data could not be loaded");
+        } finally {
+            underTest.close();
+        }
+    }
+
+    @DisplayName("warm-up after a load failed once the log was opened should start afresh and report one quarantine")
+    @Test
+    void warmUp_afterLoadFailedWithLogOpen_shouldStartAfresh() throws IOException, InterruptedException {
+        // Given
+        Files.writeString(dataFile, "02/Nov/2020,Tesco,card,4.60 pounds,Groceries\n", StandardOpenOption.APPEND);
+        Path logFile = dir.resolve("transactions.wal");
+        TransactionLog.open(logFile, Currency.getInstance("GBP")).close();
+        long headerBytes = Files.size(logFile);
+        Files.write(logFile, malformedLogRecord(), StandardOpenOption.APPEND);
+        BlockingQueue<Runnable> pending = new LinkedBlockingQueue<>();
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(
+                new MappedCsvDataLoader(appProperties, IngestMetrics.NONE, new Quarantine(10)), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)), IngestMetrics.NONE, logFile);
+        try {
+            CompletableFuture<TransactionDataset> warmUp = underTest.warmUp(pending::add, Duration.ofMillis(1));
+            pending.take().run();
+            assertThat(warmUp).isCompletedExceptionally();
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(headerBytes);
+            }
+
+            // When
+            pending.take().run();
+            TransactionDataset appended = underTest.append(List.of(transaction("Tesco", "£4.60", 460))).join();
+
+            // Then
+            assertThat(underTest.loadFailure()).isNull();
+            assertThat(underTest.quarantine().count()).isOne();
+            assertThat(appended.store().asList()).extracting(Transaction::getVendor)
+                    .containsExactly("Morrisons", "Shell Garage", "Tesco");
+        } finally {
+            underTest.close();
+        }
+        TransactionDataset reloaded = new TransactionDatasetHolder(
+                new MappedCsvDataLoader(appProperties, IngestMetrics.NONE, new Quarantine(10)), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)), IngestMetrics.NONE, logFile).dataset();
+        assertThat(reloaded.store().asList()).extracting(Transaction::getVendor)
+                .containsExactly("Morrisons", "Shell Garage", "Tesco");
+    }
+
+    @DisplayName("warm-up after a failed load should retry with backoff, publish the dataset and clear the failure")
+    @Test
+    void warmUp_afterFailedLoad_shouldRetryAndClearFailure() throws InterruptedException {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        DataLoader dataLoader = new MappedCsvDataLoader(appProperties);
+        DataLoader flakyLoader = () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new UncheckedIOException(new IOException("Data file is not mounted yet"));
+            }
+            return dataLoader.retrieveData();
+        };
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(flakyLoader, mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+
+        // When
+        CompletableFuture<TransactionDataset> warmUp = underTest.warmUp(Runnable::run, Duration.ofMillis(10));
+
+        // Then
+        assertThat(warmUp).isCompletedExceptionally();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (underTest.currentDataset() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(underTest.currentDataset()).isNotNull();
+        assertThat(underTest.currentDataset().store().size()).isEqualTo(2);
+        assertThat(underTest.loadFailure()).isNull();
+        assertThat(attempts).hasValue(3);
+    }
+
+    @DisplayName("warm-up after a failed load should stop retrying once the holder is closed")
+    @Test
+    void warmUp_afterClose_shouldStopRetrying() throws IOException, InterruptedException {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+        Files.delete(dataFile);
+        DataLoader dataLoader = new MappedCsvDataLoader(appProperties);
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(() -> {
+            attempts.incrementAndGet();
+            return dataLoader.retrieveData();
+        }, mapper, new WatchProperties(false, Duration.ofSeconds(1)));
+
+        // When
+        underTest.close();
+        underTest.warmUp(Runnable::run, Duration.ofMillis(10));
+        Thread.sleep(100);
+
+        // Then
+        assertThat(attempts).hasValue(1);
+        assertThat(underTest.loadFailure()).isNotNull();
+    }
+
+    @DisplayName("dataset with a snapshot loader should parse the data file once and read the snapshot on later loads")
+    @Test
+    void dataset_withSnapshotLoader_shouldReadSnapshotOnLaterLoads() throws IOException {
+        // Given
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        SnapshotCsvDataLoader firstLoader = spy(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)));
+        TransactionDataset parsed = new TransactionDatasetHolder(firstLoader, mapper, watchProperties).dataset();
+        SnapshotCsvDataLoader secondLoader = spy(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)));
+
+        // When
+        TransactionDataset read = new TransactionDatasetHolder(secondLoader, mapper, watchProperties).dataset();
+
+        // Then
+        verify(firstLoader).readInto(any(), any());
+        verify(secondLoader, never()).readInto(any(), any());
+        assertThat(Files.exists(dir.resolve("transactions.csv.snapshot"))).isTrue();
+        assertThat(read.store().asList()).containsExactlyElementsOf(parsed.store().asList());
+        assertThat(read.cube().total(read.store().categories().idOf("Groceries"))).isEqualTo(1040);
+    }
+
+    @DisplayName("dataset with a snapshot loader after the data file changed should parse it again")
+    @Test
+    void dataset_withSnapshotLoaderAfterDataFileChanged_shouldParseAgain() throws IOException {
+        // Given
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        new TransactionDatasetHolder(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper,
+                watchProperties).dataset();
+        Files.writeString(dataFile, "02/Nov/2020,Tesco,card,£4.60,Groceries\n", StandardOpenOption.APPEND);
+
+        // When
+        TransactionDataset reloaded = new TransactionDatasetHolder(
+                new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper, watchProperties).dataset();
+
+        // Then
+        assertThat(reloaded.store().size()).isEqualTo(3);
+    }
+
+    @DisplayName("dataset with a corrupt snapshot should parse the data file again and replace the snapshot")
+    @Test
+    void dataset_withCorruptSnapshot_shouldParseAgain() throws IOException {
+        // Given
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        TransactionDataset parsed = new TransactionDatasetHolder(
+                new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper, watchProperties).dataset();
+        Path snapshotFile = dir.resolve("transactions.csv.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(snapshotFile, bytes);
+        SnapshotCsvDataLoader loader = spy(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)));
+
+        // When
+        TransactionDataset reloaded = new TransactionDatasetHolder(loader, mapper, watchProperties).dataset();
+
+        // Then
+        verify(loader).readInto(any(), any());
+        assertThat(reloaded.store().asList()).containsExactlyElementsOf(parsed.store().asList());
+        assertThat(Files.readAllBytes(snapshotFile)).isNotEqualTo(bytes);
+    }
+
+    @DisplayName("append with a transaction log should publish the rows once durable and replay them on the next load")
+    @Test
+    void append_withTransactionLog_shouldPublishAndReplayOnNextLoad() {
+        // Given
+        Path logFile = dir.resolve("log").resolve("transactions.wal");
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                watchProperties, IngestMetrics.NONE, logFile);
+        TransactionDataset before = underTest.dataset();
+
+        // When
+        TransactionDataset appended = underTest.append(List.of(transaction("Tesco", "£4.60", 460))).join();
+        underTest.close();
+        TransactionDataset reloaded = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                watchProperties, IngestMetrics.NONE, logFile).dataset();
+
+        // Then
+        assertThat(appended.version()).isGreaterThan(before.version());
+        assertThat(underTest.dataset()).isSameAs(appended);
+        assertThat(appended.store().asList()).extracting(Transaction::getVendor)
+                .containsExactly("Morrisons", "Shell Garage", "Tesco");
+        assertThat(appended.cube().total(appended.store().categories().idOf("Groceries"))).isEqualTo(1500);
+        assertThat(reloaded.store().asList()).containsExactlyElementsOf(appended.store().asList());
+    }
+
+    @DisplayName("append with a snapshot loader should replay the log over the rows read from the snapshot")
+    @Test
+    void append_withSnapshotLoader_shouldReplayOverSnapshot() {
+        // Given
+        Path logFile = dir.resolve("transactions.wal");
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        TransactionDatasetHolder first = new TransactionDatasetHolder(
+                new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper, watchProperties,
+                IngestMetrics.NONE, logFile);
+        first.append(List.of(transaction("Tesco", "£4.60", 460))).join();
+        first.close();
+
+        // When
+        TransactionDataset reloaded = new TransactionDatasetHolder(
+                new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper, watchProperties,
+                IngestMetrics.NONE, logFile).dataset();
+
+        // Then
+        assertThat(Files.exists(dir.resolve("transactions.csv.snapshot"))).isTrue();
+        assertThat(reloaded.store().asList()).extracting(Transaction::getVendor)
+                .containsExactly("Morrisons", "Shell Garage", "Tesco");
+    }
+
+    @DisplayName("dataset from a lenient snapshot should report the rows the parse quarantined")
+    @Test
+    void dataset_withLenientSnapshot_shouldReportQuarantine() throws IOException {
+        // Given
+        Files.writeString(dataFile, "02/Nov/2020,Tesco,card,4.60 pounds,Groceries\n", StandardOpenOption.APPEND);
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        TransactionDatasetHolder parsed = new TransactionDatasetHolder(new SnapshotCsvDataLoader(appProperties,
+                new SnapshotProperties(null), IngestMetrics.NONE, new Quarantine(10)), mapper, watchProperties);
+        parsed.dataset();
+        SnapshotCsvDataLoader loader = spy(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null),
+                IngestMetrics.NONE, new Quarantine(10)));
+
+        // When
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(loader, mapper, watchProperties);
+        TransactionDataset read = underTest.dataset();
+
+        // Then
+        verify(loader, never()).readInto(any(), any());
+        assertThat(read.store().size()).isEqualTo(2);
+        assertThat(underTest.quarantine().count()).isOne();
+        assertThat(underTest.quarantine().rows()).isEqualTo(parsed.quarantine().rows());
+    }
+
+    @DisplayName("dataset with a snapshot written in the other ingest mode should parse the data file again")
+    @Test
+    void dataset_withSnapshotInOtherIngestMode_shouldParseAgain() throws IOException {
+        // Given
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        new TransactionDatasetHolder(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper,
+                watchProperties).dataset();
+        SnapshotCsvDataLoader loader = spy(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null),
+                IngestMetrics.NONE, new Quarantine(10)));
+
+        // When
+        new TransactionDatasetHolder(loader, mapper, watchProperties).dataset();
+
+        // Then
+        verify(loader).readInto(any(), any());
+    }
+
+    @DisplayName("append after a load from a snapshot should add the rows to the snapshot's rows")
+    @Test
+    void append_afterLoadFromSnapshot_shouldAddToSnapshotRows() {
+        // Given
+        Path logFile = dir.resolve("transactions.wal");
+        WatchProperties watchProperties = new WatchProperties(false, Duration.ofSeconds(1));
+        new TransactionDatasetHolder(new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper,
+                watchProperties).dataset();
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(
+                new SnapshotCsvDataLoader(appProperties, new SnapshotProperties(null)), mapper, watchProperties,
+                IngestMetrics.NONE, logFile);
+        TransactionDataset before = underTest.dataset();
+
+        // When
+        TransactionDataset appended = underTest.append(List.of(transaction("Tesco", "£4.60", 460))).join();
+        underTest.close();
+
+        // Then
+        assertThat(before.store().size()).isEqualTo(2);
+        assertThat(appended.store().asList()).extracting(Transaction::getVendor)
+                .containsExactly("Morrisons", "Shell Garage", "Tesco");
+        assertThat(appended.cube().total(appended.store().categories().idOf("Groceries"))).isEqualTo(1500);
+    }
+
+    @DisplayName("append without a transaction log should report that ingest is unavailable")
+    @Test
+    void append_withoutTransactionLog_shouldThrowIngestUnavailable() {
+        // Given
+        TransactionDatasetHolder underTest = new TransactionDatasetHolder(new MappedCsvDataLoader(appProperties), mapper,
+                new WatchProperties(false, Duration.ofSeconds(1)));
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.append(List.of(transaction("Tesco", "£4.60", 460))))
+                .isInstanceOf(IngestUnavailableException.class);
+        assertThat(underTest.hasTransactionLog()).isFalse();
+    }
+
+    /**
+     * A log record whose checksum matches but whose payload announces a row it does not hold, which fails the replay.
+     */
+    private static byte[] malformedLogRecord() {
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 1);
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload.duplicate());
+        return ByteBuffer.allocate(Integer.BYTES * 3).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(Integer.BYTES)
+                .putInt((int) checksum.getValue())
+                .put(payload)
+                .array();
+    }
+
+    private static Transaction transaction(String vendor, String amount, long minorUnits) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.of(2020, 11, 2));
+        transaction.setVendor(vendor);
+        transaction.setType("card");
+        transaction.setAmount(amount);
+        transaction.setMonetaryAmount(Money.of(minorUnits, Currency.getInstance("GBP")));
+        transaction.setCategory("Groceries");
+        return transaction;
+    }
+}
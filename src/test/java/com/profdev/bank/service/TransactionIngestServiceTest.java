@@ -0,0 +1,154 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.WatchProperties;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Money;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.service.result.IngestResult;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestServiceTest {
+
+    private static final String ACCOUNT = "12345678";
+
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final WatchProperties WATCH_DISABLED = new WatchProperties(false, Duration.ofSeconds(1));
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @TempDir
+    private Path dir;
+
+    private TransactionMapper mapper;
+
+    private TransactionAmountParser amountParser;
+
+    private TransactionPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = mock(AppProperties.class);
+        when(appProperties.currencySymbol()).thenReturn("£");
+        when(appProperties.currency()).thenReturn(GBP);
+        amountParser = new TransactionAmountParser(appProperties);
+        mapper = new TransactionMapper(amountParser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (partitions != null) {
+            partitions.close();
+        }
+    }
+
+    @DisplayName("add should parse each amount, log the transactions and make them visible to queries")
+    @Test
+    void add_withValidTransactions_shouldMakeThemVisible() {
+        // Given
+        TransactionIngestService underTest = service(ACCOUNT);
+
+        // When
+        IngestResult actual = underTest.add(List.of(transaction("Tesco", "£1,204.50"), transaction("Aldi", "£3")),
+                null);
+
+        // Then
+        assertThat(actual).isEqualTo(new IngestResult(ACCOUNT, 2, 2));
+        List<Transaction> stored = partitions.holder(ACCOUNT).dataset().store().asList();
+        assertThat(stored).extracting(Transaction::getVendor).containsExactly("Tesco", "Aldi");
+        assertThat(stored).extracting(Transaction::getMonetaryAmount)
+                .containsExactly(Money.of(120_450, GBP), Money.of(300, GBP));
+    }
+
+    @DisplayName("add with invalid transactions should report every problem by position and add none of them")
+    @Test
+    void add_withInvalidTransactions_shouldAddNone() {
+        // Given
+        TransactionIngestService underTest = service(ACCOUNT);
+        Transaction noVendor = transaction(" ", "£3");
+        Transaction badAmount = transaction("Aldi", "3 pounds");
+        Transaction noAmount = transaction("Lidl", null);
+        noAmount.setDate(null);
+        List<Transaction> transactions = new ArrayList<>(List.of(transaction("Tesco", "£1"), noVendor, badAmount,
+                noAmount));
+        transactions.add(null);
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.add(transactions, ACCOUNT))
+                .isInstanceOf(InvalidQueryException.class)
+                .hasMessage("Invalid transactions: [1].vendor: must not be blank; "
+                        + "[2].amount: Invalid amount format: 3 pounds; "
+                        + "[3].date: must not be null; [3].amount: Amount cannot be null or empty; "
+                        + "[4]: must not be null");
+        assertThat(partitions.holder(ACCOUNT).dataset().store().size()).isZero();
+    }
+
+    @DisplayName("add without an account when there are several should ask for one")
+    @Test
+    void add_withoutAccountWhenSeveral_shouldThrowInvalidQuery() {
+        // Given
+        TransactionIngestService underTest = service(ACCOUNT, "87654321");
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.add(List.of(transaction("Tesco", "£1")), null))
+                .isInstanceOf(InvalidQueryException.class);
+        assertThat(underTest.add(List.of(transaction("Tesco", "£1")), "87654321").account()).isEqualTo("87654321");
+    }
+
+    @DisplayName("add to an unknown account should throw unknown account")
+    @Test
+    void add_toUnknownAccount_shouldThrowUnknownAccount() {
+        // Given
+        TransactionIngestService underTest = service(ACCOUNT);
+
+        // When & Then
+        assertThatThrownBy(() -> underTest.add(List.of(transaction("Tesco", "£1")), "00000000"))
+                .isInstanceOf(UnknownAccountException.class);
+    }
+
+    private TransactionIngestService service(String... accounts) {
+        Map<String, TransactionDatasetHolder> holders = new LinkedHashMap<>();
+        for (String account : accounts) {
+            holders.put(account, new TransactionDatasetHolder(List::of, mapper, WATCH_DISABLED, IngestMetrics.NONE,
+                    dir.resolve(account + ".wal")));
+        }
+        partitions = new TransactionPartitions(holders);
+        return new TransactionIngestService(partitions, amountParser, VALIDATOR);
+    }
+
+    private static Transaction transaction(String vendor, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setDate(LocalDate.of(2020, 12, 1));
+        transaction.setVendor(vendor);
+        transaction.setType("card");
+        transaction.setAmount(amount);
+        transaction.setCategory("Groceries");
+        return transaction;
+    }
+}
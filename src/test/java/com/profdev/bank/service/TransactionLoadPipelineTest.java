@@ -0,0 +1,152 @@
+package com.profdev.bank.service;
+
+import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.data.DataRecord;
+import com.profdev.bank.data.Quarantine;
+import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Transaction;
+import com.profdev.bank.model.mapper.TransactionMapper;
+import com.profdev.bank.model.parser.TransactionAmountParser;
+import com.profdev.bank.model.store.ColumnarTransactionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.instancio.Select.field;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionLoadPipelineTest {
+
+    private static final String CURRENCY_SYMBOL = "£";
+    private static final int BATCH_SIZE = 7;
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private DataLoader dataLoader;
+
+    @Mock
+    private AppProperties appProperties;
+
+    private TransactionMapper mapper;
+
+    private ForkJoinPool pool;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionLoadPipeline underTest;
+
+    @BeforeEach
+    void setUp() {
+        when(appProperties.currencySymbol()).thenReturn(CURRENCY_SYMBOL);
+        when(appProperties.currency()).thenReturn(Currency.getInstance("GBP"));
+        mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
+        pool = new ForkJoinPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new TransactionLoadPipeline(mapper, pool, BATCH_SIZE, new IngestMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @DisplayName("load with many batches should keep the source order of the records")
+    @Test
+    void load_withManyBatches_shouldKeepSourceOrder() {
+        // Given
+        List<DataRecord> dataRecords = getDataRecords(1000);
+        when(dataLoader.retrieveData()).thenReturn(dataRecords);
+
+        // When
+        ColumnarTransactionStore store = underTest.load(dataLoader);
+
+        // Then
+        List<Transaction> expected = dataRecords.stream().map(mapper::mapModelFromData).toList();
+        assertThat(store.asList()).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("load should count the stored rows and time the map and append phases")
+    @Test
+    void load_shouldRecordIngestMetrics() {
+        // Given
+        when(dataLoader.retrieveData()).thenReturn(getDataRecords(100));
+
+        // When
+        underTest.load(dataLoader);
+
+        // Then
+        assertThat(meterRegistry.get("banking.ingest.rows").counter().count()).isEqualTo(100);
+        assertThat(meterRegistry.get("banking.ingest.phase").tag("phase", "map").timer().count()).isOne();
+        assertThat(meterRegistry.get("banking.ingest.phase").tag("phase", "append").timer().count()).isOne();
+    }
+
+    @DisplayName("load with no records should return an empty store")
+    @Test
+    void load_withNoRecords_shouldReturnEmptyStore() {
+        // Given
+        when(dataLoader.retrieveData()).thenReturn(List.of());
+
+        // When
+        ColumnarTransactionStore store = underTest.load(dataLoader);
+
+        // Then
+        assertThat(store.size()).isZero();
+    }
+
+    @DisplayName("load with an invalid amount should rethrow the mapping exception")
+    @Test
+    void load_withInvalidAmount_shouldRethrowMappingException() {
+        // Given
+        List<DataRecord> dataRecords = getDataRecords(100);
+        dataRecords.get(50).setAmount("invalid");
+        when(dataLoader.retrieveData()).thenReturn(dataRecords);
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> underTest.load(dataLoader));
+        assertThat(ex).hasMessageContaining("Invalid amount format: invalid");
+    }
+
+    @DisplayName("load with a quarantine should store the good records and count the quarantined ones as rejected")
+    @Test
+    void load_withQuarantine_shouldStoreGoodRecordsAndCountRejected() {
+        // Given
+        List<DataRecord> dataRecords = getDataRecords(100);
+        dataRecords.get(10).setAmount("invalid");
+        dataRecords.get(10).setLineNumber(12);
+        dataRecords.get(50).setAmount("£");
+        dataRecords.get(50).setLineNumber(52);
+        when(dataLoader.retrieveData()).thenReturn(dataRecords);
+        Quarantine quarantine = new Quarantine(10);
+        when(dataLoader.quarantine()).thenReturn(quarantine);
+
+        // When
+        ColumnarTransactionStore store = underTest.load(dataLoader);
+
+        // Then
+        assertThat(store.size()).isEqualTo(98);
+        assertThat(quarantine.rows()).extracting("line").containsExactly(12L, 52L);
+        assertThat(meterRegistry.get("banking.ingest.rows").counter().count()).isEqualTo(98);
+        assertThat(meterRegistry.get("banking.ingest.rows.rejected").counter().count()).isEqualTo(2);
+    }
+
+    private static List<DataRecord> getDataRecords(int numRecords) {
+        return Instancio.ofList(DataRecord.class)
+                .size(numRecords)
+                .generate(field(DataRecord::getAmount), gen -> gen.ints().range(1, 100_000).as(i -> CURRENCY_SYMBOL + i))
+                .create();
+    }
+}
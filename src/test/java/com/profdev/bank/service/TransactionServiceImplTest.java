@@ -1,36 +1,59 @@
 package com.profdev.bank.service;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.config.WatchProperties;
 import com.profdev.bank.data.DataRecord;
 import com.profdev.bank.data.load.DataLoader;
+import com.profdev.bank.metrics.IngestMetrics;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.model.Transaction;
 import com.profdev.bank.model.mapper.TransactionMapper;
 import com.profdev.bank.model.parser.TransactionAmountParser;
 import com.profdev.bank.model.sort.TransactionBeanSortOrder;
+import com.profdev.bank.model.sort.VendorRanking;
+import com.profdev.bank.model.store.QuantileSketch;
+import com.profdev.bank.service.query.BatchQuery;
 import com.profdev.bank.service.result.AverageSpendPerMonthForCategory;
+import com.profdev.bank.service.result.BatchResult;
+import com.profdev.bank.service.result.SpendPercentiles;
+import com.profdev.bank.service.result.SpendSummary;
 import com.profdev.bank.service.result.TotalPerCategory;
+import com.profdev.bank.service.result.VendorTotal;
 import org.eclipse.collections.impl.collector.BigDecimalSummaryStatistics;
 import org.eclipse.collections.impl.collector.Collectors2;
 import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Currency;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.instancio.Select.field;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
@@ -45,9 +68,15 @@ class TransactionServiceImplTest {
     private static final String OTHER = "Other";
     private static final List<String> CATEGORIES = List.of(GROCERIES, UTILITIES, TRANSPORT, ENTERTAINMENT, OTHER);
 
+    private static final String ACCOUNT = "12345678";
+
     private static final String CURRENCY_SYMBOL = "£";
 
-    @Mock
+    private static final Currency GBP = Currency.getInstance("GBP");
+
+    private static final WatchProperties WATCH_DISABLED = new WatchProperties(false, Duration.ofSeconds(1));
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private DataLoader dataLoader;
 
     @Mock
@@ -64,11 +93,13 @@ class TransactionServiceImplTest {
     @BeforeEach
     void setUp() {
         when(appProperties.currencySymbol()).thenReturn(CURRENCY_SYMBOL);
+        when(appProperties.currency()).thenReturn(GBP);
         af = new AmountFormatter(appProperties);
         dataRecords = getDataRecords(30);
         lenient().when(dataLoader.retrieveData()).thenReturn(dataRecords);
         mapper = new TransactionMapper(new TransactionAmountParser(appProperties));
-        underTest = new TransactionServiceImpl(dataLoader, mapper, af);
+        underTest = new TransactionServiceImpl(new TransactionPartitions(
+                Map.of(ACCOUNT, new TransactionDatasetHolder(dataLoader, mapper, WATCH_DISABLED))), af);
     }
 
     @Nested
@@ -170,6 +201,140 @@ class TransactionServiceImplTest {
         }
     }
 
+    @Nested
+    class DateRangeTests {
+
+        @DisplayName("getForDateRange without a category should return the transactions in the range in date order")
+        @Test
+        void getForDateRange_withoutCategory_shouldReturnTransactionsInRangeInDateOrder() {
+            // Given
+            List<LocalDate> dates = dataRecords.stream().map(DataRecord::getTransactionDate).sorted().toList();
+            LocalDate from = dates.get(5);
+            LocalDate to = dates.get(20);
+            List<Transaction> expected = getTransactionBeans(dataRecords).stream()
+                    .filter(t -> !t.getDate().isBefore(from) && !t.getDate().isAfter(to))
+                    .sorted(Comparator.comparing(Transaction::getDate))
+                    .toList();
+
+            // When
+            List<Transaction> actual = underTest.getForDateRange(from, to, null, TransactionBeanSortOrder.ASC);
+
+            // Then
+            assertThat(actual).containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("getForDateRange with a category and desc sort should return its transactions newest first")
+        @ParameterizedTest
+        @MethodSource("getCategories")
+        void getForDateRange_withCategoryAndDescSort_shouldReturnCategoryTransactionsNewestFirst(String category) {
+            // Given
+            LocalDate from = LocalDate.of(2000, 1, 1);
+            LocalDate to = LocalDate.of(2030, 12, 31);
+            List<Transaction> expected = getTransactionBeans(dataRecords).stream()
+                    .filter(t -> t.getCategory().equals(category))
+                    .filter(t -> !t.getDate().isBefore(from) && !t.getDate().isAfter(to))
+                    .toList();
+
+            // When
+            List<Transaction> actual = underTest.getForDateRange(from, to, category, TransactionBeanSortOrder.DESC);
+
+            // Then
+            assertThat(actual)
+                    .containsExactlyInAnyOrderElementsOf(expected)
+                    .isSortedAccordingTo(Comparator.comparing(Transaction::getDate).reversed());
+        }
+
+        @DisplayName("getForDateRange with from after to should return no transactions")
+        @Test
+        void getForDateRange_withFromAfterTo_shouldReturnNoTransactions() {
+            // When
+            List<Transaction> actual = underTest.getForDateRange(LocalDate.of(2021, 1, 2), LocalDate.of(2021, 1, 1),
+                    null, TransactionBeanSortOrder.ASC);
+
+            // Then
+            assertThat(actual).isEmpty();
+        }
+
+        @DisplayName("getForDateRange with a non existent category should return no transactions")
+        @Test
+        void getForDateRange_withNonExistentCategory_shouldReturnNoTransactions() {
+            // When
+            List<Transaction> actual = underTest.getForDateRange(LocalDate.MIN, LocalDate.MAX,
+                    "non existent category", TransactionBeanSortOrder.ASC);
+
+            // Then
+            assertThat(actual).isEmpty();
+        }
+
+        private static Stream<String> getCategories() {
+            return CATEGORIES.stream();
+        }
+    }
+
+    @Nested
+    class SpendSummaryTests {
+
+        @DisplayName("getSpendSummaryForDateRange should summarise the spend of the category in the range")
+        @ParameterizedTest
+        @MethodSource("getCategories")
+        void getSpendSummaryForDateRange_shouldSummariseSpendInRange(String category) {
+            // Given
+            List<DataRecord> dataRecords = getDataRecords(500);
+            when(dataLoader.retrieveData()).thenReturn(dataRecords);
+            LocalDate from = LocalDate.of(2000, 1, 1);
+            LocalDate to = LocalDate.of(2030, 12, 31);
+            List<Money> amounts = getTransactionBeans(dataRecords).stream()
+                    .filter(t -> t.getCategory().equals(category))
+                    .filter(t -> !t.getDate().isBefore(from) && !t.getDate().isAfter(to))
+                    .map(Transaction::getMonetaryAmount)
+                    .toList();
+            Money total = amounts.stream().reduce(Money.zero(GBP), Money::plus);
+
+            // When
+            SpendSummary actual = underTest.getSpendSummaryForDateRange(from, to, category);
+
+            // Then
+            assertThat(actual.count()).isEqualTo(amounts.size());
+            assertThat(actual.total()).isEqualTo(af.format(total));
+            assertThat(actual.lowest()).isEqualTo(af.format(amounts.stream().min(Money::compareTo).orElseThrow()));
+            assertThat(actual.highest()).isEqualTo(af.format(amounts.stream().max(Money::compareTo).orElseThrow()));
+            assertThat(actual.average())
+                    .isEqualTo(af.format(Money.average(total.minorUnits(), amounts.size(), GBP)));
+        }
+
+        @DisplayName("getSpendSummaryForDateRange without a category should count every transaction in the range")
+        @Test
+        void getSpendSummaryForDateRange_withoutCategory_shouldCountEveryTransactionInRange() {
+            // Given
+            List<LocalDate> dates = dataRecords.stream().map(DataRecord::getTransactionDate).sorted().toList();
+
+            // When
+            SpendSummary actual = underTest.getSpendSummaryForDateRange(dates.get(5), dates.get(20), null);
+
+            // Then
+            assertThat(actual.count()).isEqualTo(dates.stream()
+                    .filter(date -> !date.isBefore(dates.get(5)) && !date.isAfter(dates.get(20)))
+                    .count());
+        }
+
+        @DisplayName("getSpendSummaryForDateRange with no matching transactions should return zero amounts")
+        @Test
+        void getSpendSummaryForDateRange_noMatchingTransactions_shouldReturnZeroAmounts() {
+            // When
+            SpendSummary actual = underTest.getSpendSummaryForDateRange(LocalDate.MIN, LocalDate.MAX,
+                    "non existent category");
+
+            // Then
+            assertThat(actual.count()).isZero();
+            assertThat(actual.total()).isEqualTo(CURRENCY_SYMBOL + "0.00");
+            assertThat(actual.highest()).isEqualTo(CURRENCY_SYMBOL + "0.00");
+        }
+
+        private static Stream<String> getCategories() {
+            return CATEGORIES.stream();
+        }
+    }
+
     @Nested
     class TotalPerCategoryTests {
 
@@ -187,8 +352,8 @@ class TransactionServiceImplTest {
             actual.forEach(totalPerCategory -> {
                 BigDecimal expected = dataRecords.stream()
                         .filter(dataRecord -> dataRecord.getCategory().equals(totalPerCategory.category()))
-                        .map(dataRecord -> mapper.mapModelFromData(dataRecord).getMonetaryAmount())
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                        .map(dataRecord -> toDecimal(mapper.mapModelFromData(dataRecord).getMonetaryAmount()))
+                        .reduce(BigDecimal.ZERO.setScale(Money.SCALE), BigDecimal::add);
                 assertThat(totalPerCategory.total()).isEqualTo(CURRENCY_SYMBOL + expected);
             });
         }
@@ -228,12 +393,12 @@ class TransactionServiceImplTest {
             actual.forEach(averageSpend -> {
                 BigDecimalSummaryStatistics stats = dataRecordsIncludeCategory.stream()
                         .filter(dataRecord -> dataRecord.getMonth().equals(averageSpend.month()))
-                        .map(dataRecord -> mapper.mapModelFromData(dataRecord).getMonetaryAmount())
+                        .map(dataRecord -> toDecimal(mapper.mapModelFromData(dataRecord).getMonetaryAmount()))
                         .collect(Collectors2.summarizingBigDecimal(data -> data));
                 AverageSpendPerMonthForCategory expected = AverageSpendPerMonthForCategory.builder()
                         .month(averageSpend.month())
                         .category(category)
-                        .monetaryAmount(stats.getAverage(), af)
+                        .monetaryAmount(Money.parse(stats.getAverage().toPlainString(), GBP), af)
                         .build();
                 assertThat(averageSpend).isEqualTo(expected);
             });
@@ -272,14 +437,14 @@ class TransactionServiceImplTest {
             List<DataRecord> allDataRecords = mergeRecords(nonYearDataRecords, yearDataRecords);
             when(dataLoader.retrieveData()).thenReturn(allDataRecords);
 
-            BigDecimal expected = yearDataRecords.stream()
+            Money expected = yearDataRecords.stream()
                     .map(mapper::mapModelFromData)
                     .map(Transaction::getMonetaryAmount)
-                    .max(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
+                    .max(Money::compareTo)
+                    .orElse(Money.zero(GBP));
 
             // When
-            BigDecimal actual = underTest.getHighestSpendForCategoryAndYear(category, year);
+            Money actual = underTest.getHighestSpendForCategoryAndYear(category, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
@@ -294,10 +459,10 @@ class TransactionServiceImplTest {
             List<DataRecord> nonYearDataRecords = getDataRecordsExcludeYearAndCategory(150, GROCERIES, year);
             when(dataLoader.retrieveData()).thenReturn(nonYearDataRecords);
 
-            BigDecimal expected = new BigDecimal("0");
+            Money expected = Money.zero(GBP);
 
             // When
-            BigDecimal actual = underTest.getHighestSpendForCategoryAndYear(GROCERIES, year);
+            Money actual = underTest.getHighestSpendForCategoryAndYear(GROCERIES, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
@@ -311,14 +476,32 @@ class TransactionServiceImplTest {
             List<DataRecord> dataRecords = getDataRecordsForCategoryAndYear(30, GROCERIES, year);
             when(dataLoader.retrieveData()).thenReturn(dataRecords);
 
-            BigDecimal expected = new BigDecimal("0");
+            Money expected = Money.zero(GBP);
 
             // When
-            BigDecimal actual = underTest.getHighestSpendForCategoryAndYear(UTILITIES, year);
+            Money actual = underTest.getHighestSpendForCategoryAndYear(UTILITIES, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
         }
+
+        @DisplayName("findHighestSpendForCategoryAndYear should return a spend of zero and nothing without spend")
+        @Test
+        void findHighestSpendForCategoryAndYear_shouldTellZeroSpendFromNoSpend() {
+            // Given
+            int year = 2020;
+            List<DataRecord> dataRecords = getDataRecordsForCategoryAndYear(3, GROCERIES, year);
+            dataRecords.forEach(r -> r.setAmount(CURRENCY_SYMBOL + "0.00"));
+            when(dataLoader.retrieveData()).thenReturn(dataRecords);
+
+            // When
+            Optional<Money> zero = underTest.findHighestSpendForCategoryAndYear(GROCERIES, year);
+            Optional<Money> none = underTest.findHighestSpendForCategoryAndYear(UTILITIES, year);
+
+            // Then
+            assertThat(zero).contains(Money.zero(GBP));
+            assertThat(none).isEmpty();
+        }
     }
 
     @Nested
@@ -334,14 +517,14 @@ class TransactionServiceImplTest {
             List<DataRecord> allDataRecords = mergeRecords(nonYearDataRecords, yearDataRecords);
             when(dataLoader.retrieveData()).thenReturn(allDataRecords);
 
-            BigDecimal expected = yearDataRecords.stream()
+            Money expected = yearDataRecords.stream()
                     .map(mapper::mapModelFromData)
                     .map(Transaction::getMonetaryAmount)
-                    .min(BigDecimal::compareTo)
-                    .orElse(BigDecimal.ZERO);
+                    .min(Money::compareTo)
+                    .orElse(Money.zero(GBP));
 
             // When
-            BigDecimal actual = underTest.getLowestSpendForCategoryAndYear(category, year);
+            Money actual = underTest.getLowestSpendForCategoryAndYear(category, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
@@ -356,10 +539,10 @@ class TransactionServiceImplTest {
             List<DataRecord> nonYearDataRecords = getDataRecordsExcludeYearAndCategory(350, GROCERIES, year);
             when(dataLoader.retrieveData()).thenReturn(nonYearDataRecords);
 
-            BigDecimal expected = new BigDecimal("0");
+            Money expected = Money.zero(GBP);
 
             // When
-            BigDecimal actual = underTest.getLowestSpendForCategoryAndYear(GROCERIES, year);
+            Money actual = underTest.getLowestSpendForCategoryAndYear(GROCERIES, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
@@ -373,16 +556,390 @@ class TransactionServiceImplTest {
             List<DataRecord> dataRecords = getDataRecordsForCategoryAndYear(30, GROCERIES, year);
             when(dataLoader.retrieveData()).thenReturn(dataRecords);
 
-            BigDecimal expected = new BigDecimal("0");
+            Money expected = Money.zero(GBP);
 
             // When
-            BigDecimal actual = underTest.getLowestSpendForCategoryAndYear(UTILITIES, year);
+            Money actual = underTest.getLowestSpendForCategoryAndYear(UTILITIES, year);
 
             // Then
             assertThat(actual).isEqualTo(expected);
         }
     }
 
+    @Nested
+    class SpendPercentilesTests {
+
+        @DisplayName("getSpendPercentilesForCategoryAndYear should be within the sketch accuracy of the exact percentiles")
+        @ParameterizedTest
+        @CsvSource({"Groceries, 2019", "Utilities, 2020", "Other, 2015"})
+        void getSpendPercentilesForCategoryAndYear_shouldBeWithinAccuracyOfExactPercentiles(String category, int year) {
+            // Given
+            List<DataRecord> nonYearDataRecords = getDataRecordsExcludeYearAndCategory(200, category, year);
+            List<DataRecord> yearDataRecords = getDataRecordsForCategoryAndYear(400, category, year);
+            when(dataLoader.retrieveData()).thenReturn(mergeRecords(nonYearDataRecords, yearDataRecords));
+            long[] amounts = yearDataRecords.stream()
+                    .map(mapper::mapModelFromData)
+                    .mapToLong(t -> t.getMonetaryAmount().minorUnits())
+                    .sorted()
+                    .toArray();
+
+            // When
+            SpendPercentiles actual = underTest.getSpendPercentilesForCategoryAndYear(category, year);
+
+            // Then
+            assertThat(actual.category()).isEqualTo(category);
+            assertThat(actual.count()).isEqualTo(amounts.length);
+            assertWithinAccuracy(actual.p50(), amounts[(int) (0.5 * (amounts.length - 1))]);
+            assertWithinAccuracy(actual.p90(), amounts[(int) (0.9 * (amounts.length - 1))]);
+            assertWithinAccuracy(actual.p99(), amounts[(int) (0.99 * (amounts.length - 1))]);
+        }
+
+        @DisplayName("getSpendPercentilesForCategoryAndYear with no matching transactions should return zero amounts")
+        @Test
+        void getSpendPercentilesForCategoryAndYear_noMatchingTransactions_shouldReturnZeroAmounts() {
+            // When
+            SpendPercentiles actual = underTest.getSpendPercentilesForCategoryAndYear("non existent category", 2020);
+
+            // Then
+            assertThat(actual.count()).isZero();
+            assertThat(actual.p50()).isEqualTo(CURRENCY_SYMBOL + "0.00");
+            assertThat(actual.p99()).isEqualTo(CURRENCY_SYMBOL + "0.00");
+        }
+
+        private static void assertWithinAccuracy(String actual, long expectedMinorUnits) {
+            BigDecimal expected = BigDecimal.valueOf(expectedMinorUnits, Money.SCALE);
+            BigDecimal amount = new BigDecimal(actual.substring(CURRENCY_SYMBOL.length()).replace(",", ""));
+            assertThat(amount).isCloseTo(expected, within(expected.multiply(
+                    BigDecimal.valueOf(QuantileSketch.RELATIVE_ACCURACY)).add(BigDecimal.valueOf(1, Money.SCALE))));
+        }
+    }
+
+    @Nested
+    class TopVendorsTests {
+
+        private static final List<String> VENDORS = List.of("Tesco", "Morrisons", "Aldi", "Lidl", "Co-op", "Asda");
+
+        @DisplayName("getTopVendorsForCategory should rank the category's vendors by spend and then by count")
+        @ParameterizedTest
+        @MethodSource("getCategories")
+        void getTopVendorsForCategory_bySpend_shouldRankVendorsBySpend(String category) {
+            // Given
+            List<DataRecord> dataRecords = getDataRecordsWithVendors(300);
+            when(dataLoader.retrieveData()).thenReturn(dataRecords);
+            List<VendorTotal> expected = expectedTopVendors(dataRecords, category, null,
+                    Comparator.comparing(VendorTotal::monetaryAmount).thenComparingLong(VendorTotal::count).reversed(),
+                    4);
+
+            // When
+            List<VendorTotal> actual = underTest.getTopVendorsForCategory(category, null, VendorRanking.SPEND, 4);
+
+            // Then
+            assertThat(actual).containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("getTopVendorsForCategory by count for a year should only count that year's transactions")
+        @ParameterizedTest
+        @CsvSource({"Groceries, 2019", "Utilities, 2020", "Other, 2015"})
+        void getTopVendorsForCategory_byCountForYear_shouldOnlyCountThatYear(String category, int year) {
+            // Given
+            List<DataRecord> dataRecords = getDataRecordsWithVendors(300);
+            dataRecords.stream().limit(150).forEach(r -> r.setTransactionDate(r.getTransactionDate().withYear(year)));
+            when(dataLoader.retrieveData()).thenReturn(dataRecords);
+            List<VendorTotal> expected = expectedTopVendors(dataRecords, category, year,
+                    Comparator.comparingLong(VendorTotal::count).thenComparing(VendorTotal::monetaryAmount).reversed(),
+                    VENDORS.size());
+
+            // When
+            List<VendorTotal> actual = underTest.getTopVendorsForCategory(category, year, VendorRanking.COUNT,
+                    VENDORS.size());
+
+            // Then
+            assertThat(actual).isNotEmpty().containsExactlyElementsOf(expected);
+        }
+
+        @DisplayName("getTopVendorsForCategory with a non existent category should return empty list")
+        @Test
+        void getTopVendorsForCategory_withNonExistentCategory_shouldReturnEmptyList() {
+            // When
+            List<VendorTotal> actual = underTest.getTopVendorsForCategory("non existent category", null,
+                    VendorRanking.SPEND, 10);
+
+            // Then
+            assertThat(actual).isEmpty();
+        }
+
+        private List<DataRecord> getDataRecordsWithVendors(int numRecords) {
+            List<DataRecord> dataRecords = getDataRecords(numRecords);
+            dataRecords.forEach(r -> r.setVendor(VENDORS.get(ThreadLocalRandom.current().nextInt(VENDORS.size()))));
+            return dataRecords;
+        }
+
+        private List<VendorTotal> expectedTopVendors(List<DataRecord> dataRecords, String category, Integer year,
+                                                     Comparator<VendorTotal> ranking, int limit) {
+            Map<String, List<Transaction>> byVendor = getTransactionBeans(dataRecords).stream()
+                    .filter(t -> t.getCategory().equals(category))
+                    .filter(t -> year == null || t.getDate().getYear() == year)
+                    .collect(Collectors.groupingBy(Transaction::getVendor));
+            return byVendor.entrySet().stream()
+                    .map(e -> VendorTotal.builder()
+                            .vendor(e.getKey())
+                            .count(e.getValue().size())
+                            .monetaryAmount(e.getValue().stream()
+                                    .map(Transaction::getMonetaryAmount)
+                                    .reduce(Money.zero(GBP), Money::plus), af)
+                            .build())
+                    .sorted(ranking.thenComparing(VendorTotal::vendor))
+                    .limit(limit)
+                    .toList();
+        }
+
+        private static Stream<String> getCategories() {
+            return CATEGORIES.stream();
+        }
+    }
+
+    @Nested
+    class BatchTests {
+
+        @DisplayName("getBatch should answer each query like its own method, in request order")
+        @Test
+        void getBatch_shouldAnswerEachQueryLikeItsOwnMethodInOrder() {
+            // Given
+            List<DataRecord> dataRecords = mergeRecords(getDataRecords(300), getDataRecordsForCategoryAndYear(40,
+                    GROCERIES, 2020));
+            when(dataLoader.retrieveData()).thenReturn(dataRecords);
+            List<BatchQuery> queries = List.of(
+                    BatchQuery.builder().type(BatchQuery.Type.HIGHEST_SPEND).category(GROCERIES).year(2020).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.TOTAL_PER_CATEGORY).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.LOWEST_SPEND).category(GROCERIES).year(2020).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.AVERAGE_SPEND_PER_MONTH).category(OTHER).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.SPEND_PERCENTILES).category(GROCERIES).year(2020).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.TOP_VENDORS).category(GROCERIES).limit(3).build());
+
+            // When
+            List<BatchResult> actual = underTest.getBatch(queries);
+
+            // Then
+            assertThat(actual).extracting(BatchResult::query).containsExactlyElementsOf(queries);
+            assertThat(actual).extracting(BatchResult::result).containsExactly(
+                    af.formatSpend(underTest.findHighestSpendForCategoryAndYear(GROCERIES, 2020)),
+                    underTest.getTotalPerCategory(),
+                    af.formatSpend(underTest.findLowestSpendForCategoryAndYear(GROCERIES, 2020)),
+                    underTest.getAverageSpendPerMonthForCategory(OTHER),
+                    underTest.getSpendPercentilesForCategoryAndYear(GROCERIES, 2020),
+                    underTest.getTopVendorsForCategory(GROCERIES, null, VendorRanking.SPEND, 3));
+        }
+
+        @DisplayName("getBatch with a query missing an argument it needs should throw")
+        @Test
+        void getBatch_withQueryMissingArgument_shouldThrow() {
+            // Given
+            List<BatchQuery> queries = List.of(
+                    BatchQuery.builder().type(BatchQuery.Type.TOTAL_PER_CATEGORY).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.HIGHEST_SPEND).category(GROCERIES).build());
+
+            // When & Then
+            assertThatThrownBy(() -> underTest.getBatch(queries))
+                    .isInstanceOf(InvalidQueryException.class)
+                    .hasMessage("HIGHEST_SPEND query needs a year");
+        }
+    }
+
+    @Nested
+    class AppendedTransactionsTests {
+
+        private static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+
+        private static final LocalDate LAST_DAY = LocalDate.of(2100, 12, 31);
+
+        @TempDir
+        private Path dir;
+
+        private List<DataRecord> loadedRecords;
+
+        private List<DataRecord> appendedRecords;
+
+        private TransactionDatasetHolder appendedHolder;
+
+        private TransactionServiceImpl appended;
+
+        private TransactionServiceImpl loaded;
+
+        @BeforeEach
+        void setUp() {
+            loadedRecords = getDataRecords(200);
+            appendedRecords = getDataRecords(20);
+            for (int i = 0; i < appendedRecords.size(); i += 2) {
+                appendedRecords.get(i).setTransactionDate(loadedRecords.get(i).getTransactionDate());
+            }
+            appendedHolder = new TransactionDatasetHolder(() -> loadedRecords, mapper, WATCH_DISABLED,
+                    IngestMetrics.NONE, dir.resolve(ACCOUNT + ".wal"));
+            appendedHolder.append(getTransactionBeans(appendedRecords)).join();
+            appended = new TransactionServiceImpl(new TransactionPartitions(Map.of(ACCOUNT, appendedHolder)), af);
+            loaded = new TransactionServiceImpl(new TransactionPartitions(Map.of(ACCOUNT, new TransactionDatasetHolder(
+                    () -> mergeRecords(loadedRecords, appendedRecords), mapper, WATCH_DISABLED))), af);
+        }
+
+        @AfterEach
+        void tearDown() {
+            appendedHolder.close();
+        }
+
+        @DisplayName("listings with rows in the index deltas should equal the listings over all rows loaded at once")
+        @ParameterizedTest
+        @MethodSource("getCategories")
+        void listings_withIndexDeltas_shouldEqualListingsOverAllRows(String category) {
+            // When & Then
+            assertThat(appendedHolder.dataset().dateIndex().levels()).hasSize(2);
+            assertThat(appendedHolder.dataset().categoryIndex().levels()).hasSize(2);
+            for (TransactionBeanSortOrder sortOrder : TransactionBeanSortOrder.values()) {
+                assertThat(appended.getForCategory(category, sortOrder))
+                        .containsExactlyElementsOf(loaded.getForCategory(category, sortOrder));
+                assertThat(appended.getForDateRange(FIRST_DAY, LAST_DAY, null, sortOrder))
+                        .containsExactlyElementsOf(loaded.getForDateRange(FIRST_DAY, LAST_DAY, null, sortOrder));
+                assertThat(appended.getForDateRange(FIRST_DAY, LAST_DAY, category, sortOrder))
+                        .containsExactlyElementsOf(loaded.getForDateRange(FIRST_DAY, LAST_DAY, category, sortOrder));
+            }
+        }
+
+        @DisplayName("aggregates with rows in the index deltas should equal the aggregates of all rows loaded at once")
+        @ParameterizedTest
+        @MethodSource("getCategories")
+        void aggregates_withIndexDeltas_shouldEqualAggregatesOverAllRows(String category) {
+            // Given
+            int year = appendedRecords.getFirst().getTransactionDate().getYear();
+
+            // When & Then
+            assertThat(appended.getTotalPerCategory())
+                    .containsExactlyInAnyOrderElementsOf(loaded.getTotalPerCategory());
+            assertThat(appended.getAverageSpendPerMonthForCategory(category))
+                    .containsExactlyElementsOf(loaded.getAverageSpendPerMonthForCategory(category));
+            assertThat(appended.getHighestSpendForCategoryAndYear(category, year))
+                    .isEqualTo(loaded.getHighestSpendForCategoryAndYear(category, year));
+            assertThat(appended.getLowestSpendForCategoryAndYear(category, year))
+                    .isEqualTo(loaded.getLowestSpendForCategoryAndYear(category, year));
+            assertThat(appended.getSpendPercentilesForCategoryAndYear(category, year))
+                    .isEqualTo(loaded.getSpendPercentilesForCategoryAndYear(category, year));
+            assertThat(appended.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, category))
+                    .isEqualTo(loaded.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, category));
+            assertThat(appended.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, null))
+                    .isEqualTo(loaded.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, null));
+            assertThat(appended.getTopVendorsForCategory(category, null, VendorRanking.SPEND, 10))
+                    .containsExactlyElementsOf(
+                            loaded.getTopVendorsForCategory(category, null, VendorRanking.SPEND, 10));
+        }
+
+        private static Stream<String> getCategories() {
+            return CATEGORIES.stream();
+        }
+    }
+
+    @Nested
+    class MultipleAccountsTests {
+
+        private static final String SAVINGS = "87654321";
+
+        private static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+
+        private static final LocalDate LAST_DAY = LocalDate.of(2100, 12, 31);
+
+        private List<DataRecord> currentRecords;
+
+        private List<DataRecord> savingsRecords;
+
+        private TransactionServiceImpl singleAccount;
+
+        private TransactionServiceImpl multipleAccounts;
+
+        @BeforeEach
+        void setUp() {
+            currentRecords = getDataRecords(200);
+            savingsRecords = getDataRecords(150);
+            singleAccount = service(Map.of(ACCOUNT, mergeRecords(currentRecords, savingsRecords)));
+            Map<String, List<DataRecord>> accounts = new LinkedHashMap<>();
+            accounts.put(ACCOUNT, currentRecords);
+            accounts.put(SAVINGS, savingsRecords);
+            multipleAccounts = service(accounts);
+        }
+
+        @DisplayName("aggregates across accounts should equal the aggregates over all their transactions together")
+        @ParameterizedTest
+        @CsvSource({"Groceries, 2019", "Utilities, 2020", "Transport, 2024"})
+        void aggregates_acrossAccounts_shouldEqualAggregatesOverAllTransactions(String category, int year) {
+            // When & Then
+            assertThat(multipleAccounts.getAccounts()).containsExactly(ACCOUNT, SAVINGS);
+            assertThat(multipleAccounts.getTotalPerCategory())
+                    .containsExactlyElementsOf(singleAccount.getTotalPerCategory());
+            assertThat(multipleAccounts.getAverageSpendPerMonthForCategory(category))
+                    .containsExactlyElementsOf(singleAccount.getAverageSpendPerMonthForCategory(category));
+            assertThat(multipleAccounts.getHighestSpendForCategoryAndYear(category, year))
+                    .isEqualTo(singleAccount.getHighestSpendForCategoryAndYear(category, year));
+            assertThat(multipleAccounts.getLowestSpendForCategoryAndYear(category, year))
+                    .isEqualTo(singleAccount.getLowestSpendForCategoryAndYear(category, year));
+            assertThat(multipleAccounts.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, category))
+                    .isEqualTo(singleAccount.getSpendSummaryForDateRange(FIRST_DAY, LAST_DAY, category));
+            List<BatchQuery> batch = List.of(
+                    BatchQuery.builder().type(BatchQuery.Type.HIGHEST_SPEND).category(category).year(year).build(),
+                    BatchQuery.builder().type(BatchQuery.Type.TOP_VENDORS).category(category).build());
+            assertThat(multipleAccounts.getBatch(batch)).containsExactlyElementsOf(singleAccount.getBatch(batch));
+            assertThat(multipleAccounts.getSpendPercentilesForCategoryAndYear(category, year))
+                    .isEqualTo(singleAccount.getSpendPercentilesForCategoryAndYear(category, year));
+            assertThat(multipleAccounts.getTopVendorsForCategory(category, year, VendorRanking.SPEND, 5))
+                    .containsExactlyElementsOf(singleAccount.getTopVendorsForCategory(category, year,
+                            VendorRanking.SPEND, 5));
+        }
+
+        @DisplayName("listings across accounts should hold every account's transactions, merged by date for a category")
+        @Test
+        void listings_acrossAccounts_shouldHoldEveryAccountsTransactions() {
+            // When
+            List<Transaction> all = multipleAccounts.getAll();
+            List<Transaction> ascending = multipleAccounts.getForCategory(GROCERIES, TransactionBeanSortOrder.ASC);
+            List<Transaction> descending = multipleAccounts.getForCategory(GROCERIES, TransactionBeanSortOrder.DESC);
+
+            // Then
+            assertThat(all)
+                    .containsExactlyElementsOf(getTransactionBeans(mergeRecords(currentRecords, savingsRecords)));
+            assertThat(ascending).containsExactlyElementsOf(
+                    singleAccount.getForCategory(GROCERIES, TransactionBeanSortOrder.ASC));
+            assertThat(descending)
+                    .containsExactlyInAnyOrderElementsOf(ascending)
+                    .isSortedAccordingTo(Comparator.comparing(Transaction::getDate).reversed());
+            assertThat(multipleAccounts.getForDateRange(FIRST_DAY, LAST_DAY, null, TransactionBeanSortOrder.ASC))
+                    .containsExactlyElementsOf(
+                            singleAccount.getForDateRange(FIRST_DAY, LAST_DAY, null, TransactionBeanSortOrder.ASC));
+        }
+
+        @DisplayName("queries scoped to an account should only see that account's transactions")
+        @Test
+        void queries_scopedToAccount_shouldOnlySeeThatAccount() {
+            // Given
+            TransactionServiceImpl savingsOnly = service(Map.of(SAVINGS, savingsRecords));
+
+            // When & Then
+            assertThat(multipleAccounts.getAll(SAVINGS)).containsExactlyElementsOf(getTransactionBeans(savingsRecords));
+            assertThat(multipleAccounts.getTotalPerCategory(SAVINGS))
+                    .containsExactlyElementsOf(savingsOnly.getTotalPerCategory());
+            assertThat(multipleAccounts.getForCategory(OTHER, TransactionBeanSortOrder.DESC, SAVINGS))
+                    .containsExactlyElementsOf(savingsOnly.getForCategory(OTHER, TransactionBeanSortOrder.DESC));
+        }
+
+        @DisplayName("queries scoped to an unknown account should throw")
+        @Test
+        void queries_scopedToUnknownAccount_shouldThrow() {
+            assertThatThrownBy(() -> multipleAccounts.getTotalPerCategory("00000000"))
+                    .isInstanceOf(UnknownAccountException.class)
+                    .hasMessage("Unknown account: 00000000");
+        }
+
+        private TransactionServiceImpl service(Map<String, List<DataRecord>> accounts) {
+            Map<String, TransactionDatasetHolder> partitions = new LinkedHashMap<>();
+            accounts.forEach((account, records) -> partitions.put(account,
+                    new TransactionDatasetHolder(() -> records, mapper, WATCH_DISABLED)));
+            return new TransactionServiceImpl(new TransactionPartitions(partitions), af);
+        }
+    }
+
     private List<DataRecord> getDataRecords(int numRecords) {
         return Instancio.ofList(DataRecord.class)
                 .size(numRecords)
@@ -436,6 +993,10 @@ class TransactionServiceImplTest {
                 .toList();
     }
 
+    private static BigDecimal toDecimal(Money money) {
+        return BigDecimal.valueOf(money.minorUnits(), Money.SCALE);
+    }
+
     private List<DataRecord> mergeRecords(List<DataRecord> dr1, List<DataRecord> dr2) {
         return Stream.concat(dr1.stream(), dr2.stream()).toList();
     }
@@ -1,16 +1,15 @@
 package com.profdev.bank.service.result;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.service.AmountFormatter;
-import com.profdev.bank.utils.MoneyUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.Currency;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
@@ -19,6 +18,7 @@ import static org.mockito.Mockito.when;
 class AverageSpendPerMonthForCategoryTest {
 
     private static final String CURRENCY_SYMBOL = "£";
+    private static final Currency GBP = Currency.getInstance("GBP");
     private static final String GROCERIES = "Groceries";
     private static final String JANUARY = "January";
     private static final String VEHICLE = "Vehicle";
@@ -41,7 +41,7 @@ class AverageSpendPerMonthForCategoryTest {
     void builderBuild_withValidMonetaryAmount_shouldValueValuesCorrectly() {
         // Given
         String amount = "123.45";
-        BigDecimal monetaryAmount = MoneyUtils.fromString(amount);
+        Money monetaryAmount = Money.parse(amount, GBP);
 
         // When
         AverageSpendPerMonthForCategory result = AverageSpendPerMonthForCategory.builder()
@@ -61,7 +61,7 @@ class AverageSpendPerMonthForCategoryTest {
     void builderBuild_withValidMonetaryAmountMoreThanTwDecimalPlaces_shouldValueValuesCorrectly() {
         // Given
         String amount = "123.45678";
-        BigDecimal monetaryAmount = new BigDecimal(amount).setScale(2, RoundingMode.HALF_UP);
+        Money monetaryAmount = Money.parse(amount, GBP);
 
         // When
         AverageSpendPerMonthForCategory result = AverageSpendPerMonthForCategory.builder()
@@ -81,7 +81,7 @@ class AverageSpendPerMonthForCategoryTest {
     void givenNegativeAmount_whenBuild_thenCorrectlyFormatted() {
         // Given
         String amount = "-123.45";
-        BigDecimal monetaryAmount = new BigDecimal(amount).setScale(2, RoundingMode.HALF_UP);
+        Money monetaryAmount = Money.parse(amount, GBP);
 
         // When
         AverageSpendPerMonthForCategory result = AverageSpendPerMonthForCategory.builder()
@@ -100,7 +100,7 @@ class AverageSpendPerMonthForCategoryTest {
     @Test
     void givenZeroAmount_whenBuild_thenCorrectlyFormatted() {
         // Given
-        BigDecimal monetaryAmount = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        Money monetaryAmount = Money.zero(GBP);
 
         // When
         AverageSpendPerMonthForCategory result = AverageSpendPerMonthForCategory.builder()
@@ -1,15 +1,15 @@
 package com.profdev.bank.service.result;
 
 import com.profdev.bank.config.AppProperties;
+import com.profdev.bank.model.Money;
 import com.profdev.bank.service.AmountFormatter;
-import com.profdev.bank.utils.MoneyUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
+import java.util.Currency;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.when;
 class TotalPerCategoryTest {
 
     private static final String CURRENCY_SYMBOL = "£";
+    private static final Currency GBP = Currency.getInstance("GBP");
     private static final String FOOD = "Food";
     private static final String UTILITIES = "Utilities";
     private static final String REFUND = "Refund";
@@ -36,7 +37,7 @@ class TotalPerCategoryTest {
     @Test
     void builderBuild_withValidMonetaryAmount_shouldValueValuesCorrectly() {
         // Given
-        BigDecimal amount = MoneyUtils.fromString("123.45");
+        Money amount = Money.parse("123.45", GBP);
 
         // When
         TotalPerCategory totalPerCategory = TotalPerCategory.builder()
@@ -52,7 +53,7 @@ class TotalPerCategoryTest {
 
     @Test
     void builderBuild_withZeroMonetaryAmount_shouldHaveValuesCorrectly() {
-        BigDecimal amount = MoneyUtils.parse(BigDecimal.ZERO);
+        Money amount = Money.zero(GBP);
 
         // When
         TotalPerCategory totalPerCategory = TotalPerCategory.builder()
@@ -69,7 +70,7 @@ class TotalPerCategoryTest {
     @Test
     void builderBuild_withNegativeMonetaryAmount_shouldHaveCorrectValues() {
         // Given
-        BigDecimal amount = MoneyUtils.fromString("-45.678");
+        Money amount = Money.parse("-45.678", GBP);
 
         // When
         TotalPerCategory totalPerCategory = TotalPerCategory.builder()
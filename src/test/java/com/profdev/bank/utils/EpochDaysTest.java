@@ -0,0 +1,36 @@
+package com.profdev.bank.utils;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EpochDaysTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1970-01-01", "1969-12-31", "2000-02-29", "2020-11-01", "2024-03-01", "2100-12-31", "1600-01-01", "0001-01-01"})
+    void of_shouldMatchLocalDateEpochDay(String date) {
+        // Given
+        LocalDate localDate = LocalDate.parse(date);
+
+        // When
+        int actual = EpochDays.of(localDate.getYear(), localDate.getMonthValue(), localDate.getDayOfMonth());
+
+        // Then
+        assertThat(actual).isEqualTo(localDate.toEpochDay());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-800_000, -146_097, -1, 0, 59, 60, 11_016, 18_567, 19_783, 2_932_896})
+    void yearAndMonth_shouldMatchLocalDate(int epochDay) {
+        // Given
+        LocalDate localDate = LocalDate.ofEpochDay(epochDay);
+
+        // When & Then
+        assertThat(EpochDays.year(epochDay)).isEqualTo(localDate.getYear());
+        assertThat(EpochDays.month(epochDay)).isEqualTo(localDate.getMonthValue());
+        assertThat(EpochDays.monthIndex(epochDay)).isEqualTo(localDate.getYear() * 12 + localDate.getMonthValue() - 1);
+    }
+}